@@ -6,6 +6,7 @@ package com.huawei.dialtest.center;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * DialTestCenter主应用类，Spring Boot应用程序的入口点
@@ -15,6 +16,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @since 2025-09-06
  */
 @SpringBootApplication
+@EnableScheduling
 public class DialTestCenterApplication {
     /**
      * 应用程序主入口方法
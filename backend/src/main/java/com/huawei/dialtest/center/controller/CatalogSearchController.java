@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.controller;
+
+import com.huawei.dialtest.center.dto.CatalogSearchHit;
+import com.huawei.dialtest.center.service.CatalogSearchService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 目录搜索控制器，提供软件包和用例集名称的联合搜索接口
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RestController
+@RequestMapping("/api/catalog/search")
+public class CatalogSearchController {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchController.class);
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    /**
+     * 按名称搜索软件包和用例集
+     *
+     * @param q 搜索关键字
+     * @param limit 返回条数
+     * @return 搜索结果
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> search(@RequestParam String q,
+                                                      @RequestParam(required = false) Integer limit) {
+        logger.debug("Searching catalog names: {}", q);
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<CatalogSearchHit> hits = catalogSearchService.search(q, limit);
+            response.put("success", true);
+            response.put("data", hits);
+            response.put("count", hits.size());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid catalog search: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while searching catalog: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to search catalog");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.controller;
+
+import com.huawei.dialtest.center.service.CatalogStatisticsService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 目录统计控制器，提供软件包和用例集统计信息的查询和重建接口
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RestController
+@RequestMapping("/api/catalog/statistics")
+public class CatalogStatisticsController {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogStatisticsController.class);
+
+    @Autowired
+    private CatalogStatisticsService catalogStatisticsService;
+
+    /**
+     * 获取软件包和用例集的统计信息
+     *
+     * @return 统计信息
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        logger.debug("Getting catalog statistics");
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("data", catalogStatisticsService.getStatistics());
+            return ResponseEntity.ok(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while getting catalog statistics: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to get statistics");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * 根据业务表重新计算统计信息
+     *
+     * @return 重建后的统计信息
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildStatistics() {
+        logger.info("Rebuilding catalog statistics");
+        Map<String, Object> response = new HashMap<>();
+        try {
+            catalogStatisticsService.rebuild();
+            response.put("success", true);
+            response.put("message", "Statistics rebuilt successfully");
+            response.put("data", catalogStatisticsService.getStatistics());
+            return ResponseEntity.ok(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while rebuilding catalog statistics: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to rebuild statistics");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.controller;
+
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.service.ChunkedUploadService;
+import com.huawei.dialtest.center.service.ChunkedUploadService.UploadSession;
+import com.huawei.dialtest.center.service.UploadAdmissionService;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadRejectedException;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadTicket;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 软件包分片上传控制器，提供断点续传的REST API接口
+ * 支持创建上传会话、乱序并行上传分片、查询已接收分片和完成上传
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RestController
+@RequestMapping("/api/software-packages/uploads")
+public class ChunkedUploadController {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadController.class);
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
+    /**
+     * 创建分片上传会话
+     *
+     * @param request 请求数据，包含fileName、totalSize、chunkSize、description字段
+     * @return 上传会话信息
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createSession(@RequestBody Map<String, Object> request) {
+        logger.info("Creating chunked upload session for: {}", request.get("fileName"));
+        try {
+            // 模拟当前用户（实际应该从认证信息中获取）
+            String creator = "admin";
+
+            String fileName = (String) request.get("fileName");
+            long totalSize = parseLong(request.get("totalSize"), "totalSize");
+            int chunkSize = parseInt(request.get("chunkSize"), "chunkSize");
+            String description = (String) request.get("description");
+
+            UploadSession session = chunkedUploadService.createSession(
+                    fileName, totalSize, chunkSize, description, creator);
+            return ResponseEntity.status(HttpStatus.CREATED).body(buildResponse(true, "Upload session created", session));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            logger.warn("Failed to create chunked upload session: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(buildResponse(false, e.getMessage(), null));
+        } catch (UploadRejectedException e) {
+            logger.warn("Chunked upload session rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(buildResponse(false, e.getMessage(), null));
+        } catch (IOException e) {
+            logger.error("File I/O error while creating upload session: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(buildResponse(false, "Failed to create upload session", null));
+        }
+    }
+
+    /**
+     * 查询上传会话状态及已接收的分片
+     *
+     * @param sessionId 会话ID
+     * @return 上传会话信息
+     */
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<Map<String, Object>> getSession(@PathVariable String sessionId) {
+        logger.debug("Getting chunked upload session: {}", sessionId);
+        Optional<UploadSession> session = chunkedUploadService.getSession(sessionId);
+        if (session.isPresent()) {
+            return ResponseEntity.ok(buildResponse(true, null, session.get()));
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(buildResponse(false, "Upload session not found", null));
+        }
+    }
+
+    /**
+     * 上传一个分片，请求体直接流式写入分片文件
+     *
+     * @param sessionId 会话ID
+     * @param chunkIndex 分片编号，从0开始
+     * @param data 分片内容输入流
+     * @return 更新后的上传会话信息
+     */
+    @PutMapping(value = "/{sessionId}/chunks/{chunkIndex}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> putChunk(
+            @PathVariable String sessionId,
+            @PathVariable int chunkIndex,
+            InputStream data) {
+        logger.debug("Receiving chunk {} for session {}", chunkIndex, sessionId);
+        if (!chunkedUploadService.getSession(sessionId).isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(buildResponse(false, "Upload session not found", null));
+        }
+        try {
+            UploadSession session = chunkedUploadService.putChunk(sessionId, chunkIndex, data);
+            return ResponseEntity.ok(buildResponse(true, "Chunk received", session));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid chunk {} for session {}: {}", chunkIndex, sessionId, e.getMessage());
+            return ResponseEntity.badRequest().body(buildResponse(false, e.getMessage(), null));
+        } catch (IOException e) {
+            logger.error("File I/O error while writing chunk: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(buildResponse(false, "Failed to store chunk", null));
+        }
+    }
+
+    /**
+     * 完成分片上传并创建软件包
+     *
+     * @param sessionId 会话ID
+     * @return 上传结果
+     */
+    @PostMapping("/{sessionId}/complete")
+    public ResponseEntity<Map<String, Object>> complete(@PathVariable String sessionId) {
+        logger.info("Completing chunked upload session: {}", sessionId);
+        Optional<UploadSession> session = chunkedUploadService.getSession(sessionId);
+        if (!session.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(buildResponse(false, "Upload session not found", null));
+        }
+        try (UploadTicket ticket = uploadAdmissionService.admit(
+                UploadType.SOFTWARE_PACKAGE, session.get().getFileName(), session.get().getTotalSize())) {
+            SoftwarePackage softwarePackage = chunkedUploadService.complete(sessionId);
+            return ResponseEntity.ok(buildResponse(true, "Upload successful", softwarePackage));
+        } catch (UploadRejectedException e) {
+            logger.warn("Chunked upload completion rejected by admission control: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(buildResponse(false, e.getMessage(), null));
+        } catch (CancellationException e) {
+            logger.info("Chunked upload completion cancelled: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(buildResponse(false, e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Chunked upload completion failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(buildResponse(false, e.getMessage(), null));
+        } catch (IOException e) {
+            logger.error("File I/O error while completing upload: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(buildResponse(false, "File processing failed", null));
+        } catch (DataAccessException e) {
+            logger.error("Database error while completing upload: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(buildResponse(false, "Upload failed", null));
+        }
+    }
+
+    /**
+     * 放弃上传会话
+     *
+     * @param sessionId 会话ID
+     * @return 删除结果
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> abort(@PathVariable String sessionId) {
+        logger.info("Aborting chunked upload session: {}", sessionId);
+        if (chunkedUploadService.abort(sessionId)) {
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private Map<String, Object> buildResponse(boolean success, String message, Object data) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", success);
+        if (message != null) {
+            response.put("message", message);
+        }
+        if (data != null) {
+            response.put("data", data);
+        }
+        return response;
+    }
+
+    private int parseInt(Object value, String field) {
+        long parsed = parseLong(value, field);
+        if (parsed < Integer.MIN_VALUE || parsed > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+        return (int) parsed;
+    }
+
+    private long parseLong(Object value, String field) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value instanceof String) {
+            try {
+                return Long.parseLong((String) value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + field + ": " + value);
+            }
+        } else {
+            throw new IllegalArgumentException(field + " is required");
+        }
+    }
+}
@@ -6,13 +6,16 @@ package com.huawei.dialtest.center.controller;
 
 import com.huawei.dialtest.center.dto.PagedResponse;
 import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.service.BlobCacheService.BlobContent;
 import com.huawei.dialtest.center.service.SoftwarePackageService;
+import com.huawei.dialtest.center.service.UploadAdmissionService;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadRejectedException;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadTicket;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
@@ -29,12 +32,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 
 /**
  * 软件包控制器，提供软件包管理的REST API接口
@@ -52,6 +59,9 @@ public class SoftwarePackageController {
     @Autowired
     private SoftwarePackageService softwarePackageService;
 
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
     /**
      * 获取软件包列表
      *
@@ -131,7 +141,8 @@ public class SoftwarePackageController {
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "description", required = false) String description) {
         logger.info("Uploading software package: {}", file.getOriginalFilename());
-        try {
+        try (UploadTicket ticket = uploadAdmissionService.admit(
+                UploadType.SOFTWARE_PACKAGE, file.getOriginalFilename(), file.getSize())) {
             // 模拟当前用户（实际应该从认证信息中获取）
             String creator = "admin";
 
@@ -143,6 +154,15 @@ public class SoftwarePackageController {
             response.put("data", softwarePackage);
 
             return ResponseEntity.ok(response);
+        } catch (UploadRejectedException e) {
+            logger.warn("Software package upload rejected by admission control: {}", e.getMessage());
+            return buildBusyResponse(e);
+        } catch (CancellationException e) {
+            logger.info("Software package upload cancelled: {}", e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (IllegalArgumentException e) {
             logger.warn("Software package upload failed: {}", e.getMessage());
             Map<String, Object> response = new HashMap<>();
@@ -176,7 +196,8 @@ public class SoftwarePackageController {
     public ResponseEntity<Map<String, Object>> uploadZipPackage(
             @RequestParam("file") MultipartFile file) {
         logger.info("Uploading ZIP package: {}", file.getOriginalFilename());
-        try {
+        try (UploadTicket ticket = uploadAdmissionService.admit(
+                UploadType.ZIP_PACKAGE, file.getOriginalFilename(), file.getSize())) {
             // 模拟当前用户（实际应该从认证信息中获取）
             String creator = "admin";
 
@@ -189,6 +210,15 @@ public class SoftwarePackageController {
             response.put("count", softwarePackages.size());
 
             return ResponseEntity.ok(response);
+        } catch (UploadRejectedException e) {
+            logger.warn("ZIP package upload rejected by admission control: {}", e.getMessage());
+            return buildBusyResponse(e);
+        } catch (CancellationException e) {
+            logger.info("ZIP package upload cancelled: {}", e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (IllegalArgumentException e) {
             logger.warn("ZIP package upload failed: {}", e.getMessage());
             Map<String, Object> response = new HashMap<>();
@@ -217,22 +247,15 @@ public class SoftwarePackageController {
      * @return 软件包文件资源
      */
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> downloadSoftwarePackage(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> downloadSoftwarePackage(@PathVariable Long id) {
         logger.info("Downloading software package with ID: {}", id);
         try {
-            Optional<SoftwarePackage> softwarePackageOpt = softwarePackageService.getSoftwarePackageById(id);
+            Optional<SoftwarePackage> softwarePackageOpt = softwarePackageService.getSoftwarePackageMetadataById(id);
             if (!softwarePackageOpt.isPresent()) {
                 return ResponseEntity.notFound().build();
             }
 
             SoftwarePackage softwarePackage = softwarePackageOpt.get();
-            byte[] fileContent = softwarePackage.getFileContent();
-
-            if (fileContent == null || fileContent.length == 0) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Resource resource = new ByteArrayResource(fileContent);
 
             // 根据文件格式确定Content-Type
             String fileFormat = softwarePackage.getFileFormat();
@@ -247,17 +270,34 @@ public class SoftwarePackageController {
                 throw new IllegalArgumentException("Unsupported file format: " + fileFormat);
             }
 
+            BlobContent fileContent = softwarePackageService.getFileContent(softwarePackage);
+            if (fileContent == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (fileContent.getLength() == 0) {
+                fileContent.close();
+                return ResponseEntity.notFound().build();
+            }
+
             return ResponseEntity.ok()
                     .contentType(contentType)
+                    .contentLength(fileContent.getLength())
                     .header(HttpHeaders.CONTENT_DISPOSITION, 
                             "attachment; filename=\"" + softwarePackage.getSoftwareName() + "\"")
-                    .body(resource);
+                    .body(outputStream -> {
+                        try (BlobContent content = fileContent) {
+                            content.writeTo(outputStream);
+                        }
+                    });
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid request parameters: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (DataAccessException e) {
             logger.error("Database error while downloading software package: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (IOException e) {
+            logger.error("Failed to read software package file: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
@@ -284,6 +324,41 @@ public class SoftwarePackageController {
         }
     }
 
+    /**
+     * 批量删除软件包，一次请求中标记删除多个软件包，不存在或已删除的ID列入notFoundIds
+     *
+     * @param request 删除请求数据，包含ids字段
+     * @return 实际删除的软件包ID列表
+     */
+    @PostMapping("/delete-batch")
+    public ResponseEntity<Map<String, Object>> deleteSoftwarePackages(@RequestBody Map<String, List<Long>> request) {
+        List<Long> ids = request.get("ids");
+        logger.info("Deleting {} software packages in batch", ids == null ? 0 : ids.size());
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<Long> deletedIds = softwarePackageService.deleteSoftwarePackages(ids);
+            List<Long> notFoundIds = new ArrayList<>(new LinkedHashSet<>(ids));
+            notFoundIds.removeAll(deletedIds);
+
+            response.put("success", true);
+            response.put("message", deletedIds.size() + " software packages deleted");
+            response.put("data", deletedIds);
+            response.put("count", deletedIds.size());
+            response.put("notFoundIds", notFoundIds);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Software package batch delete failed: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while deleting software packages: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Database error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * 更新软件包信息
      *
@@ -337,4 +412,19 @@ public class SoftwarePackageController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    /**
+     * 构造上传繁忙响应，返回503并携带Retry-After头
+     *
+     * @param e 准入拒绝异常
+     * @return 繁忙响应
+     */
+    private ResponseEntity<Map<String, Object>> buildBusyResponse(UploadRejectedException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
 }
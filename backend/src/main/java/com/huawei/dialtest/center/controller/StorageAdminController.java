@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.controller;
+
+import com.huawei.dialtest.center.service.ChunkStoreService;
+import com.huawei.dialtest.center.service.TestCaseCacheService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 存储管理控制器，提供分块去重存储和测试用例内存缓存的统计查询接口
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RestController
+@RequestMapping("/api/admin/storage")
+public class StorageAdminController {
+    private static final Logger logger = LoggerFactory.getLogger(StorageAdminController.class);
+
+    @Autowired
+    private ChunkStoreService chunkStoreService;
+
+    @Autowired
+    private TestCaseCacheService testCaseCacheService;
+
+    /**
+     * 获取分块存储统计信息，包括实际存储字节数、逻辑字节数和去重比
+     *
+     * @return 分块存储统计信息
+     */
+    @GetMapping("/chunks")
+    public ResponseEntity<Map<String, Object>> getChunkStatistics() {
+        logger.debug("Getting chunk store statistics");
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("data", chunkStoreService.getStatistics());
+            return ResponseEntity.ok(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while getting chunk store statistics: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to get chunk store statistics");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * 获取测试用例内存缓存统计信息
+     *
+     * @return 缓存的用例集数和估算字节数
+     */
+    @GetMapping("/test-case-cache")
+    public ResponseEntity<Map<String, Object>> getTestCaseCacheStatistics() {
+        logger.debug("Getting test case cache statistics");
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", testCaseCacheService.getStatistics());
+        return ResponseEntity.ok(response);
+    }
+}
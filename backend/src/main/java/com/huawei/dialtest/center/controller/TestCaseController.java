@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.controller;
+
+import com.huawei.dialtest.center.dto.CursorPage;
+import com.huawei.dialtest.center.dto.FacetCount;
+import com.huawei.dialtest.center.dto.TestCaseSearchCriteria;
+import com.huawei.dialtest.center.dto.TestCaseSearchHit;
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.service.CaseNumberIndexService;
+import com.huawei.dialtest.center.service.TestCaseService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * 测试用例控制器，提供测试用例搜索以及单个测试用例及其脚本的查询接口
+ * 脚本按内容哈希单独存储，读取脚本不需要解析用例集压缩包
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RestController
+@RequestMapping("/api/test-cases")
+public class TestCaseController {
+    private static final Logger logger = LoggerFactory.getLogger(TestCaseController.class);
+
+    private static final Pattern SHA256_PATTERN = Pattern.compile("^[0-9a-fA-F]{64}$");
+
+    @Autowired
+    private TestCaseService testCaseService;
+
+    /**
+     * 搜索测试用例
+     *
+     * @param q 搜索关键字，多个词之间为与关系，每个词按前缀匹配
+     * @param businessCategory 业务大类
+     * @param appName 用例App
+     * @param networkTopology 逻辑组网
+     * @param testCaseSetId 用例集ID
+     * @param cursor 上一页返回的游标
+     * @param limit 每页条数
+     * @return 搜索结果和下一页游标
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchTestCases(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String businessCategory,
+            @RequestParam(required = false) String appName,
+            @RequestParam(required = false) String networkTopology,
+            @RequestParam(required = false) Long testCaseSetId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.debug("Searching test cases - q: {}, business: {}, app: {}, topology: {}, set: {}",
+                q, businessCategory, appName, networkTopology, testCaseSetId);
+        try {
+            TestCaseSearchCriteria criteria = new TestCaseSearchCriteria();
+            criteria.setKeyword(q);
+            criteria.setBusinessCategory(businessCategory);
+            criteria.setAppName(appName);
+            criteria.setNetworkTopology(networkTopology);
+            criteria.setTestCaseSetId(testCaseSetId);
+            CursorPage<TestCaseSearchHit> page = testCaseService.searchTestCases(criteria, cursor, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", page.getData());
+            response.put("count", page.getData().size());
+            response.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid request parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (DataAccessException e) {
+            logger.error("Database error while searching test cases: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 查询逻辑组网、业务大类和用例App的测试用例计数
+     *
+     * @param testCaseSetId 用例集ID，为空时汇总全部用例集
+     * @return 按分类分组的计数列表
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> getFacets(@RequestParam(required = false) Long testCaseSetId) {
+        logger.debug("Getting facet counts for test case set: {}", testCaseSetId);
+        try {
+            Map<String, List<FacetCount>> facets = testCaseService.getFacets(testCaseSetId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", facets);
+            response.put("testCaseSetId", testCaseSetId);
+            return ResponseEntity.ok(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while getting facet counts: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 查询包含指定用例编号的全部用例集版本
+     *
+     * @param caseNumber 用例编号
+     * @return 用例集版本及各版本是否有脚本
+     */
+    @GetMapping("/case-numbers/{caseNumber}/versions")
+    public ResponseEntity<Map<String, Object>> getCaseVersions(@PathVariable String caseNumber) {
+        logger.debug("Getting versions of case number: {}", caseNumber);
+        try {
+            List<CaseNumberIndexService.CaseVersion> versions = testCaseService.getCaseVersions(caseNumber);
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", versions);
+            response.put("count", versions.size());
+            return ResponseEntity.ok(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while getting case number versions: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 获取测试用例详情
+     *
+     * @param id 测试用例ID
+     * @return 测试用例
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<TestCase> getTestCase(@PathVariable Long id) {
+        logger.debug("Getting test case: {}", id);
+        try {
+            Optional<TestCase> testCase = testCaseService.getTestCaseById(id);
+            return testCase.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (DataAccessException e) {
+            logger.error("Database error while getting test case: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 获取测试用例的脚本内容
+     *
+     * @param id 测试用例ID
+     * @return 脚本内容
+     */
+    @GetMapping("/{id}/script")
+    public ResponseEntity<byte[]> getScript(@PathVariable Long id) {
+        logger.debug("Getting script of test case: {}", id);
+        try {
+            Optional<byte[]> content = testCaseService.getScriptContent(id);
+            if (!content.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/x-python;charset=UTF-8"))
+                    .contentLength(content.get().length)
+                    .header(HttpHeaders.CACHE_CONTROL, "max-age=31536000, immutable")
+                    .body(content.get());
+        } catch (DataAccessException e) {
+            logger.error("Database error while getting test case script: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 查询引用指定脚本版本的用例集
+     *
+     * @param sha256 脚本内容的SHA256
+     * @return 用例集列表
+     */
+    @GetMapping("/scripts/{sha256}/test-case-sets")
+    public ResponseEntity<Map<String, Object>> getTestCaseSetsUsingScript(@PathVariable String sha256) {
+        logger.debug("Getting test case sets using script: {}", sha256);
+        if (!SHA256_PATTERN.matcher(sha256).matches()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            List<TestCaseSet> testCaseSets = testCaseService.getTestCaseSetsUsingScript(sha256);
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", testCaseSets);
+            response.put("count", testCaseSets.size());
+            return ResponseEntity.ok(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while getting test case sets using script: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -4,22 +4,33 @@
 
 package com.huawei.dialtest.center.controller;
 
+import com.huawei.dialtest.center.dto.BatchUploadResult;
 import com.huawei.dialtest.center.dto.PagedResponse;
+import com.huawei.dialtest.center.dto.TestCaseSetDiff;
+import com.huawei.dialtest.center.entity.ArchiveManifestEntry;
 import com.huawei.dialtest.center.entity.TestCase;
 import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.service.BlobCacheService.BlobContent;
+import com.huawei.dialtest.center.service.JsonStreamService;
+import com.huawei.dialtest.center.service.TestCaseExportService;
+import com.huawei.dialtest.center.service.TestCaseSetBatchUploadService;
+import com.huawei.dialtest.center.service.TestCaseSetDiffService;
 import com.huawei.dialtest.center.service.TestCaseSetService;
+import com.huawei.dialtest.center.service.UploadAdmissionService;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadRejectedException;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadTicket;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -30,12 +41,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+
+import javax.servlet.http.HttpServletRequest;
 
 /**
  * 用例集控制器，提供用例集管理的REST API接口
@@ -53,6 +71,18 @@ public class TestCaseSetController {
     @Autowired
     private TestCaseSetService testCaseSetService;
 
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Autowired
+    private TestCaseSetDiffService testCaseSetDiffService;
+
+    @Autowired
+    private TestCaseExportService testCaseExportService;
+
+    @Autowired
+    private TestCaseSetBatchUploadService testCaseSetBatchUploadService;
+
     /**
      * 获取用例集列表
      *
@@ -126,7 +156,8 @@ public class TestCaseSetController {
             @RequestParam(value = "description", required = false) String description,
             @RequestParam(value = "business", required = false, defaultValue = "VPN阻断业务") String business) {
         logger.info("Uploading test case set: {}", file.getOriginalFilename());
-        try {
+        try (UploadTicket ticket = uploadAdmissionService.admit(
+                UploadType.TEST_CASE_SET, file.getOriginalFilename(), file.getSize())) {
             // 模拟当前用户（实际应该从认证信息中获取）
             String creator = "admin";
 
@@ -138,6 +169,15 @@ public class TestCaseSetController {
             response.put("data", testCaseSet);
 
             return ResponseEntity.ok(response);
+        } catch (UploadRejectedException e) {
+            logger.warn("Test case set upload rejected by admission control: {}", e.getMessage());
+            return buildBusyResponse(e);
+        } catch (CancellationException e) {
+            logger.info("Test case set upload cancelled: {}", e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (IllegalArgumentException e) {
             logger.warn("Test case set upload failed: {}", e.getMessage());
             Map<String, Object> response = new HashMap<>();
@@ -159,6 +199,46 @@ public class TestCaseSetController {
         }
     }
 
+    /**
+     * 批量上传用例集，多个压缩包并行解析入库，每个压缩包独立成功或失败
+     *
+     * @param files 用例集文件列表，支持.zip和.tar.gz格式
+     * @param description 用例集描述信息（可选）
+     * @param business 业务类型（可选，默认为"VPN阻断业务"）
+     * @return 逐个文件的上传结果
+     */
+    @PostMapping("/upload-batch")
+    public ResponseEntity<Map<String, Object>> uploadTestCaseSets(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "business", required = false, defaultValue = "VPN阻断业务") String business) {
+        logger.info("Uploading {} test case sets in batch", files.size());
+        try {
+            // 模拟当前用户（实际应该从认证信息中获取）
+            String creator = "admin";
+
+            List<BatchUploadResult> results = testCaseSetBatchUploadService.upload(files, description, creator,
+                    business);
+            long successCount = results.stream().filter(BatchUploadResult::isSuccess).count();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", successCount == results.size());
+            response.put("message", successCount + " of " + results.size() + " test case sets uploaded");
+            response.put("data", results);
+            response.put("count", results.size());
+            response.put("successCount", successCount);
+            response.put("failureCount", results.size() - successCount);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Test case set batch upload failed: {}", e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * 下载用例集
      *
@@ -166,22 +246,15 @@ public class TestCaseSetController {
      * @return 用例集文件资源
      */
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> downloadTestCaseSet(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> downloadTestCaseSet(@PathVariable Long id) {
         logger.info("Downloading test case set with ID: {}", id);
         try {
-            Optional<TestCaseSet> testCaseSetOpt = testCaseSetService.getTestCaseSetById(id);
+            Optional<TestCaseSet> testCaseSetOpt = testCaseSetService.getTestCaseSetMetadataById(id);
             if (!testCaseSetOpt.isPresent()) {
                 return ResponseEntity.notFound().build();
             }
 
             TestCaseSet testCaseSet = testCaseSetOpt.get();
-            byte[] fileContent = testCaseSet.getFileContent();
-
-            if (fileContent == null || fileContent.length == 0) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Resource resource = new ByteArrayResource(fileContent);
 
             // 根据文件格式确定下载文件名和Content-Type
             String fileFormat = testCaseSet.getFileFormat();
@@ -199,17 +272,276 @@ public class TestCaseSetController {
                 throw new IllegalArgumentException("Unsupported file format: " + fileFormat);
             }
 
+            BlobContent fileContent = testCaseSetService.getFileContent(testCaseSet);
+            if (fileContent == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (fileContent.getLength() == 0) {
+                fileContent.close();
+                return ResponseEntity.notFound().build();
+            }
+
             return ResponseEntity.ok()
                     .contentType(contentType)
+                    .contentLength(fileContent.getLength())
                     .header(HttpHeaders.CONTENT_DISPOSITION, 
                             "attachment; filename=\"" + testCaseSet.getName() + "_" + testCaseSet.getVersion() + fileExtension + "\"")
-                    .body(resource);
+                    .body(outputStream -> {
+                        try (BlobContent content = fileContent) {
+                            content.writeTo(outputStream);
+                        }
+                    });
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid request parameters: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (DataAccessException e) {
             logger.error("Database error while downloading test case set: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (IOException e) {
+            logger.error("Failed to read test case set file: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 获取用例集压缩包的文件清单，执行机据此比较SHA256并只拉取变化的文件
+     *
+     * @param id 用例集ID
+     * @return 文件清单，包含路径、大小、压缩大小、数据偏移和SHA256
+     */
+    @GetMapping("/{id}/manifest")
+    public ResponseEntity<Map<String, Object>> getManifest(@PathVariable Long id) {
+        logger.info("Getting manifest of test case set: {}", id);
+        try {
+            Optional<List<ArchiveManifestEntry>> entries = testCaseSetService.getManifest(id);
+            if (!entries.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", entries.get());
+            response.put("count", entries.get().size());
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            logger.error("Failed to read archive of test case set {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (DataAccessException e) {
+            logger.error("Database error while getting manifest: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 下载用例集压缩包中的单个文件
+     *
+     * @param id 用例集ID
+     * @param request HTTP请求，/files/之后的部分为文件在压缩包内的路径
+     * @return 文件内容
+     */
+    @GetMapping("/{id}/files/**")
+    public ResponseEntity<byte[]> getArchiveFile(@PathVariable Long id, HttpServletRequest request) {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String pathWithinMapping = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String path = new AntPathMatcher().extractPathWithinPattern(pattern, pathWithinMapping);
+        logger.debug("Getting file {} of test case set: {}", path, id);
+        try {
+            Optional<byte[]> content = testCaseSetService.getArchiveFile(id, path);
+            if (!content.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            String fileName = path.substring(path.lastIndexOf('/') + 1);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(content.get().length)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                    .body(content.get());
+        } catch (IOException e) {
+            logger.error("Failed to read file {} of test case set {}: {}", path, id, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (DataAccessException e) {
+            logger.error("Database error while getting archive file: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 比较两个用例集压缩包的文件清单
+     *
+     * @param id 目标用例集ID
+     * @param baseId 基准用例集ID，通常为执行机当前持有的版本
+     * @return 相对基准新增、修改、删除的文件和未变化文件数
+     */
+    @GetMapping("/{id}/manifest/diff")
+    public ResponseEntity<Map<String, Object>> diffManifests(
+            @PathVariable Long id,
+            @RequestParam("base") Long baseId) {
+        logger.info("Diffing manifest of test case set {} against {}", id, baseId);
+        try {
+            Optional<Map<String, Object>> diff = testCaseSetService.diffManifests(baseId, id);
+            if (!diff.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", diff.get());
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            logger.error("Failed to read archives for manifest diff: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (DataAccessException e) {
+            logger.error("Database error while diffing manifests: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 比较两个用例集版本的测试用例和脚本
+     *
+     * @param id 基准用例集ID
+     * @param targetId 目标用例集ID
+     * @return 目标版本相对基准版本新增、删除、修改的用例（字段级）和脚本
+     */
+    @GetMapping("/{id}/diff/{targetId}")
+    public ResponseEntity<Map<String, Object>> diffTestCaseSets(
+            @PathVariable Long id,
+            @PathVariable Long targetId) {
+        logger.info("Diffing test cases of test case set {} against {}", targetId, id);
+        try {
+            Optional<TestCaseSetDiff> diff = testCaseSetDiffService.diff(id, targetId);
+            if (!diff.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("baseTestCaseSetId", id);
+            response.put("targetTestCaseSetId", targetId);
+            response.put("data", diff.get());
+            return ResponseEntity.ok(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while diffing test case sets: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 以已有用例集为源创建新版本，压缩包、脚本和测试用例在数据库内复制，不重新上传和解析
+     *
+     * @param id 源用例集ID
+     * @param request 克隆请求数据，包含version字段，可选name、description字段
+     * @return 新版本用例集
+     */
+    @PostMapping("/{id}/clone")
+    public ResponseEntity<Map<String, Object>> cloneTestCaseSet(
+            @PathVariable Long id,
+            @RequestBody Map<String, String> request) {
+        logger.info("Cloning test case set {} as version {}", id, request.get("version"));
+        Map<String, Object> response = new HashMap<>();
+        try {
+            if (!testCaseSetService.getTestCaseSetMetadataById(id).isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+            // 模拟当前用户（实际应该从认证信息中获取）
+            String creator = "admin";
+
+            TestCaseSet clone = testCaseSetService.cloneTestCaseSet(id, request.get("name"), request.get("version"),
+                    request.get("description"), creator);
+            response.put("success", true);
+            response.put("message", "Clone successful");
+            response.put("data", clone);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Test case set clone failed: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while cloning test case set: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Clone failed");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * 向已有用例集补充脚本并重新匹配全部用例，无需重新上传整个用例集
+     *
+     * @param id 用例集ID
+     * @param files 脚本文件（.py）或包含scripts目录的补丁压缩包（.zip、.tar.gz）
+     * @return 补充的脚本数和脚本状态发生变化的用例编号
+     */
+    @PostMapping("/{id}/scripts")
+    public ResponseEntity<Map<String, Object>> addScripts(
+            @PathVariable Long id,
+            @RequestParam("files") List<MultipartFile> files) {
+        logger.info("Adding {} script files to test case set {}", files.size(), id);
+        long totalSize = files.stream().mapToLong(MultipartFile::getSize).sum();
+        Map<String, Object> response = new HashMap<>();
+        try (UploadTicket ticket = uploadAdmissionService.admit(
+                UploadType.TEST_CASE_SET, "test-case-set-" + id + "-scripts", totalSize)) {
+            if (!testCaseSetService.getTestCaseSetMetadataById(id).isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<String, Object> result = testCaseSetService.addScripts(id, files);
+            response.put("success", true);
+            response.put("message", "Scripts added");
+            response.put("data", result);
+            return ResponseEntity.ok(response);
+        } catch (UploadRejectedException e) {
+            logger.warn("Script upload rejected by admission control: {}", e.getMessage());
+            return buildBusyResponse(e);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Adding scripts failed: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            logger.error("File I/O error while adding scripts: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "File processing failed");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while adding scripts: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Adding scripts failed");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * 新增或替换用例集中的单个脚本，请求体为脚本内容，通常在克隆出新版本后使用
+     *
+     * @param id 用例集ID
+     * @param fileName 脚本文件名，格式为用例编号.py
+     * @param content 脚本内容
+     * @return 新脚本的SHA256和关联的测试用例
+     */
+    @PutMapping("/{id}/scripts/{fileName:.+}")
+    public ResponseEntity<Map<String, Object>> putScript(
+            @PathVariable Long id,
+            @PathVariable String fileName,
+            @RequestBody byte[] content) {
+        logger.info("Putting script {} of test case set {}", fileName, id);
+        Map<String, Object> response = new HashMap<>();
+        try {
+            if (!testCaseSetService.getTestCaseSetMetadataById(id).isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<String, Object> result = testCaseSetService.putScript(id, fileName, content);
+            response.put("success", true);
+            response.put("message", "Script saved");
+            response.put("data", result);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Script put failed: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while putting script: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Script save failed");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
 
@@ -236,6 +568,41 @@ public class TestCaseSetController {
         }
     }
 
+    /**
+     * 批量删除用例集，一次请求中标记删除多个用例集，不存在或已删除的ID列入notFoundIds
+     *
+     * @param request 删除请求数据，包含ids字段
+     * @return 实际删除的用例集ID列表
+     */
+    @PostMapping("/delete-batch")
+    public ResponseEntity<Map<String, Object>> deleteTestCaseSets(@RequestBody Map<String, List<Long>> request) {
+        List<Long> ids = request.get("ids");
+        logger.info("Deleting {} test case sets in batch", ids == null ? 0 : ids.size());
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<Long> deletedIds = testCaseSetService.deleteTestCaseSets(ids);
+            List<Long> notFoundIds = new ArrayList<>(new LinkedHashSet<>(ids));
+            notFoundIds.removeAll(deletedIds);
+
+            response.put("success", true);
+            response.put("message", deletedIds.size() + " test case sets deleted");
+            response.put("data", deletedIds);
+            response.put("count", deletedIds.size());
+            response.put("notFoundIds", notFoundIds);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Test case set batch delete failed: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (DataAccessException e) {
+            logger.error("Database error while deleting test case sets: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Database error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * 更新用例集信息
      *
@@ -301,30 +668,74 @@ public class TestCaseSetController {
     }
 
     /**
-     * 获取用例集中没有脚本的测试用例列表
+     * 导出用例集的全部测试用例，边读取边写出响应
      *
      * @param id 用例集ID
-     * @return 没有脚本的测试用例列表
+     * @param format 导出格式：xlsx、csv或ndjson，默认xlsx
+     * @return 导出文件
      */
-    @GetMapping("/{id}/missing-scripts")
-    public ResponseEntity<Map<String, Object>> getMissingScripts(@PathVariable Long id) {
-        logger.info("Getting missing scripts for test case set: {}", id);
+    @GetMapping("/{id}/test-cases/export")
+    public ResponseEntity<StreamingResponseBody> exportTestCases(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = TestCaseExportService.FORMAT_XLSX) String format) {
+        logger.info("Exporting test cases of test case set: {}, format: {}", id, format);
         try {
-            List<TestCase> missingScripts = testCaseSetService.getMissingScripts(id);
-            long missingCount = testCaseSetService.countMissingScripts(id);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("data", missingScripts);
-            response.put("count", missingCount);
+            String exportFormat = TestCaseExportService.normalizeFormat(format);
+            Optional<TestCaseSet> testCaseSet = testCaseSetService.getTestCaseSetMetadataById(id);
+            if (!testCaseSet.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
 
-            return ResponseEntity.ok(response);
+            String fileName = testCaseSet.get().getName() + "_" + testCaseSet.get().getVersion() + "_cases."
+                    + exportFormat;
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(TestCaseExportService.contentType(exportFormat)))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                    .body(out -> testCaseExportService.export(id, exportFormat, out));
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid request parameters: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (DataAccessException e) {
-            logger.error("Database error while getting missing scripts: {}", e.getMessage(), e);
+            logger.error("Database error while exporting test cases: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * 获取用例集中没有脚本的测试用例列表，边读取边写出响应
+     *
+     * @param id 用例集ID
+     * @param format 输出格式：json返回data和count，ndjson每行一个用例，默认json
+     * @return 没有脚本的测试用例列表
+     */
+    @GetMapping("/{id}/missing-scripts")
+    public ResponseEntity<StreamingResponseBody> getMissingScripts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = JsonStreamService.FORMAT_JSON) String format) {
+        logger.info("Getting missing scripts for test case set: {}, format: {}", id, format);
+        try {
+            String outputFormat = JsonStreamService.normalizeFormat(format);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(JsonStreamService.contentType(outputFormat)))
+                    .body(out -> testCaseSetService.writeMissingScripts(id, outputFormat, out));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid request parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 构造上传繁忙响应，返回503并携带Retry-After头
+     *
+     * @param e 准入拒绝异常
+     * @return 繁忙响应
+     */
+    private ResponseEntity<Map<String, Object>> buildBusyResponse(UploadRejectedException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.controller;
+
+import com.huawei.dialtest.center.service.UploadAdmissionService;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadTicket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 上传管理控制器，提供处理中上传任务的查看和取消接口
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RestController
+@RequestMapping("/api/admin/uploads")
+public class UploadAdminController {
+    private static final Logger logger = LoggerFactory.getLogger(UploadAdminController.class);
+
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
+    /**
+     * 获取处理中的上传任务列表
+     *
+     * @return 上传任务列表及字节配额使用情况
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getInFlightUploads() {
+        logger.info("Getting in-flight uploads");
+        List<UploadTicket> uploads = uploadAdmissionService.getInFlightUploads();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", uploads);
+        response.put("count", uploads.size());
+        response.put("inFlightBytes", uploadAdmissionService.getInFlightBytes());
+        response.put("maxInFlightBytes", uploadAdmissionService.getMaxInFlightBytes());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 取消处理中的上传任务
+     *
+     * @param uploadId 上传任务ID
+     * @return 取消结果
+     */
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> cancelUpload(@PathVariable String uploadId) {
+        logger.info("Cancelling upload: {}", uploadId);
+        Map<String, Object> response = new HashMap<>();
+        if (uploadAdmissionService.cancel(uploadId)) {
+            response.put("success", true);
+            response.put("message", "Upload cancellation requested");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } else {
+            response.put("success", false);
+            response.put("message", "Upload not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+}
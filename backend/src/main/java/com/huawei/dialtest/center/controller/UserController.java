@@ -6,12 +6,15 @@ package com.huawei.dialtest.center.controller;
 
 import com.huawei.dialtest.center.dto.PagedResponse;
 import com.huawei.dialtest.center.entity.DialDialUser;
+import com.huawei.dialtest.center.service.JsonStreamService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -211,22 +214,26 @@ public class DialUserController {
     }
 
     /**
-     * 根据用户名搜索用户
+     * 根据用户名搜索用户，边读取边写出响应
      *
      * @param username 用户名关键字
+     * @param format 输出格式：json返回数组，ndjson每行一个用户，默认json
      * @return 用户列表
      */
     @GetMapping("/search")
-    public ResponseEntity<?> searchDialUsers(@RequestParam String username) {
+    public ResponseEntity<?> searchDialUsers(@RequestParam String username,
+                                             @RequestParam(defaultValue = JsonStreamService.FORMAT_JSON) String format) {
         try {
             logger.info("Received request to search users by username: {}", username);
-            List<DialUser> users = userService.searchDialUsersByDialUsername(username);
-            logger.info("Found {} users matching username: {}", users.size(), username);
-            return ResponseEntity.ok(users);
-        } catch (RuntimeException e) {
-            logger.error("Failed to search users by username: {}", username, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(createErrorResponse("INTERNAL_ERROR", "Failed to search users"));
+            String outputFormat = JsonStreamService.normalizeFormat(format);
+            StreamingResponseBody body = out -> userService.writeDialUsersByDialUsername(username, outputFormat, out);
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(JsonStreamService.contentType(outputFormat)))
+                .body(body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid search format: {}", format);
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse("INVALID_FORMAT", e.getMessage()));
         }
     }
 
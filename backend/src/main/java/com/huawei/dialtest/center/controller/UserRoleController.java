@@ -7,6 +7,7 @@ package com.huawei.dialtest.center.controller;
 import com.huawei.dialtest.center.dto.PagedResponse;
 import com.huawei.dialtest.center.entity.Role;
 import com.huawei.dialtest.center.entity.UserRole;
+import com.huawei.dialtest.center.service.JsonStreamService;
 import com.huawei.dialtest.center.service.UserRoleService;
 
 import org.slf4j.Logger;
@@ -15,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -79,6 +82,26 @@ public class UserRoleController {
         }
     }
 
+    /**
+     * 获取全部用户角色列表，边读取边写出响应
+     *
+     * @param format 输出格式：json返回data和count，ndjson每行一个用户角色，默认json
+     * @return 全部用户角色列表
+     */
+    @GetMapping("/all")
+    public ResponseEntity<StreamingResponseBody> getAllUserRoles(
+            @RequestParam(defaultValue = JsonStreamService.FORMAT_JSON) String format) {
+        try {
+            String outputFormat = JsonStreamService.normalizeFormat(format);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(JsonStreamService.contentType(outputFormat)))
+                    .body(out -> userRoleService.writeAllUserRoles(outputFormat, out));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid request parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * 创建用户角色
      *
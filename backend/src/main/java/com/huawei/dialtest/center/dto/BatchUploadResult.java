@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.dto;
+
+/**
+ * 批量上传中单个文件的处理结果
+ * 成功时包含入库后的记录ID、名称和版本，失败时包含失败原因
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class BatchUploadResult {
+    private String fileName;
+    private boolean success;
+    private String message;
+    private Long id;
+    private String name;
+    private String version;
+    private TestCaseSetChangeSummary changeSummary;
+    private long elapsedMillis;
+
+    /**
+     * 默认构造函数
+     */
+    public BatchUploadResult() {
+    }
+
+    /**
+     * 带文件名的构造函数
+     *
+     * @param fileName 上传文件名
+     */
+    public BatchUploadResult(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public TestCaseSetChangeSummary getChangeSummary() {
+        return changeSummary;
+    }
+
+    public void setChangeSummary(TestCaseSetChangeSummary changeSummary) {
+        this.changeSummary = changeSummary;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
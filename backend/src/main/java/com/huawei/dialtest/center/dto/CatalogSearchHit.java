@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.dto;
+
+/**
+ * 目录名称搜索结果，软件包和用例集共用
+ * 匹配等级0为前缀匹配，1为子串匹配，2为近似匹配；得分为关键字与名称的三元组相似度
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class CatalogSearchHit {
+    private String type;
+    private Long id;
+    private String name;
+    private String version;
+    private String category;
+    private Integer matchRank;
+    private Float score;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Integer getMatchRank() {
+        return matchRank;
+    }
+
+    public void setMatchRank(Integer matchRank) {
+        this.matchRank = matchRank;
+    }
+
+    public Float getScore() {
+        return score;
+    }
+
+    public void setScore(Float score) {
+        this.score = score;
+    }
+}
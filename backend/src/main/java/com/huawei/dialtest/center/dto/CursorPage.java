@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.dto;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 按上一页最后一条记录的排序键继续查询，翻页代价与页码无关
+ *
+ * @param <T> 数据类型
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class CursorPage<T> {
+    private List<T> data;
+    private String nextCursor;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> data, String nextCursor) {
+        this.data = data;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getData() {
+        return data;
+    }
+
+    public void setData(List<T> data) {
+        this.data = data;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
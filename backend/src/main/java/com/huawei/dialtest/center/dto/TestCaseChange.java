@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 两个用例集版本中同一用例编号的字段级变化
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class TestCaseChange {
+    private String caseNumber;
+    private List<FieldChange> fields = new ArrayList<>();
+
+    /**
+     * 默认构造函数
+     */
+    public TestCaseChange() {
+    }
+
+    /**
+     * 带参数的构造函数
+     *
+     * @param caseNumber 用例编号
+     */
+    public TestCaseChange(String caseNumber) {
+        this.caseNumber = caseNumber;
+    }
+
+    public String getCaseNumber() {
+        return caseNumber;
+    }
+
+    public void setCaseNumber(String caseNumber) {
+        this.caseNumber = caseNumber;
+    }
+
+    public List<FieldChange> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<FieldChange> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * 单个字段的变化
+     */
+    public static class FieldChange {
+        private final String field;
+        private final Object oldValue;
+        private final Object newValue;
+
+        /**
+         * 构造函数
+         *
+         * @param field 字段名
+         * @param oldValue 基准版本中的值
+         * @param newValue 目标版本中的值
+         */
+        public FieldChange(String field, Object oldValue, Object newValue) {
+            this.field = field;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public Object getOldValue() {
+            return oldValue;
+        }
+
+        public Object getNewValue() {
+            return newValue;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.dto;
+
+/**
+ * 测试用例搜索条件
+ * 关键字在用例编号、名称、App、组网、业务大类、测试步骤和预期结果中全文检索，其余字段为精确过滤
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class TestCaseSearchCriteria {
+    private String keyword;
+    private String businessCategory;
+    private String appName;
+    private String networkTopology;
+    private Long testCaseSetId;
+    private Float afterRank;
+    private Long afterId;
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String getBusinessCategory() {
+        return businessCategory;
+    }
+
+    public void setBusinessCategory(String businessCategory) {
+        this.businessCategory = businessCategory;
+    }
+
+    public String getAppName() {
+        return appName;
+    }
+
+    public void setAppName(String appName) {
+        this.appName = appName;
+    }
+
+    public String getNetworkTopology() {
+        return networkTopology;
+    }
+
+    public void setNetworkTopology(String networkTopology) {
+        this.networkTopology = networkTopology;
+    }
+
+    public Long getTestCaseSetId() {
+        return testCaseSetId;
+    }
+
+    public void setTestCaseSetId(Long testCaseSetId) {
+        this.testCaseSetId = testCaseSetId;
+    }
+
+    public Float getAfterRank() {
+        return afterRank;
+    }
+
+    public void setAfterRank(Float afterRank) {
+        this.afterRank = afterRank;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public void setAfterId(Long afterId) {
+        this.afterId = afterId;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.dto;
+
+import com.huawei.dialtest.center.entity.TestCase;
+
+/**
+ * 测试用例搜索结果
+ * 按关键字搜索时包含相关度，仅按条件过滤时相关度为空
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class TestCaseSearchHit {
+    private TestCase testCase;
+    private Float rank;
+
+    public TestCase getTestCase() {
+        return testCase;
+    }
+
+    public void setTestCase(TestCase testCase) {
+        this.testCase = testCase;
+    }
+
+    public Float getRank() {
+        return rank;
+    }
+
+    public void setRank(Float rank) {
+        this.rank = rank;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用例集相对上一版本的变化摘要
+ * 包含新增、删除、修改的用例编号和脚本文件名，以及未变化直接复制的用例数
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class TestCaseSetChangeSummary {
+    private Long baseTestCaseSetId;
+    private String baseVersion;
+    private List<String> addedCases = new ArrayList<>();
+    private List<String> removedCases = new ArrayList<>();
+    private List<String> modifiedCases = new ArrayList<>();
+    private int unchangedCaseCount;
+    private List<String> addedScripts = new ArrayList<>();
+    private List<String> removedScripts = new ArrayList<>();
+    private List<String> modifiedScripts = new ArrayList<>();
+
+    public Long getBaseTestCaseSetId() {
+        return baseTestCaseSetId;
+    }
+
+    public void setBaseTestCaseSetId(Long baseTestCaseSetId) {
+        this.baseTestCaseSetId = baseTestCaseSetId;
+    }
+
+    public String getBaseVersion() {
+        return baseVersion;
+    }
+
+    public void setBaseVersion(String baseVersion) {
+        this.baseVersion = baseVersion;
+    }
+
+    public List<String> getAddedCases() {
+        return addedCases;
+    }
+
+    public void setAddedCases(List<String> addedCases) {
+        this.addedCases = addedCases;
+    }
+
+    public List<String> getRemovedCases() {
+        return removedCases;
+    }
+
+    public void setRemovedCases(List<String> removedCases) {
+        this.removedCases = removedCases;
+    }
+
+    public List<String> getModifiedCases() {
+        return modifiedCases;
+    }
+
+    public void setModifiedCases(List<String> modifiedCases) {
+        this.modifiedCases = modifiedCases;
+    }
+
+    public int getUnchangedCaseCount() {
+        return unchangedCaseCount;
+    }
+
+    public void setUnchangedCaseCount(int unchangedCaseCount) {
+        this.unchangedCaseCount = unchangedCaseCount;
+    }
+
+    public List<String> getAddedScripts() {
+        return addedScripts;
+    }
+
+    public void setAddedScripts(List<String> addedScripts) {
+        this.addedScripts = addedScripts;
+    }
+
+    public List<String> getRemovedScripts() {
+        return removedScripts;
+    }
+
+    public void setRemovedScripts(List<String> removedScripts) {
+        this.removedScripts = removedScripts;
+    }
+
+    public List<String> getModifiedScripts() {
+        return modifiedScripts;
+    }
+
+    public void setModifiedScripts(List<String> modifiedScripts) {
+        this.modifiedScripts = modifiedScripts;
+    }
+}
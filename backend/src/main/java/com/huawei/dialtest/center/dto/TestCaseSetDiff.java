@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.dto;
+
+import com.huawei.dialtest.center.entity.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 两个用例集版本之间的用例和脚本差异
+ * 只取决于两个版本的内容，新增和删除的用例不含数据库ID
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class TestCaseSetDiff {
+    private List<TestCase> addedCases = new ArrayList<>();
+    private List<TestCase> removedCases = new ArrayList<>();
+    private List<TestCaseChange> modifiedCases = new ArrayList<>();
+    private int unchangedCaseCount;
+    private List<String> addedScripts = new ArrayList<>();
+    private List<String> removedScripts = new ArrayList<>();
+    private List<String> modifiedScripts = new ArrayList<>();
+
+    public List<TestCase> getAddedCases() {
+        return addedCases;
+    }
+
+    public void setAddedCases(List<TestCase> addedCases) {
+        this.addedCases = addedCases;
+    }
+
+    public List<TestCase> getRemovedCases() {
+        return removedCases;
+    }
+
+    public void setRemovedCases(List<TestCase> removedCases) {
+        this.removedCases = removedCases;
+    }
+
+    public List<TestCaseChange> getModifiedCases() {
+        return modifiedCases;
+    }
+
+    public void setModifiedCases(List<TestCaseChange> modifiedCases) {
+        this.modifiedCases = modifiedCases;
+    }
+
+    public int getUnchangedCaseCount() {
+        return unchangedCaseCount;
+    }
+
+    public void setUnchangedCaseCount(int unchangedCaseCount) {
+        this.unchangedCaseCount = unchangedCaseCount;
+    }
+
+    public List<String> getAddedScripts() {
+        return addedScripts;
+    }
+
+    public void setAddedScripts(List<String> addedScripts) {
+        this.addedScripts = addedScripts;
+    }
+
+    public List<String> getRemovedScripts() {
+        return removedScripts;
+    }
+
+    public void setRemovedScripts(List<String> removedScripts) {
+        this.removedScripts = removedScripts;
+    }
+
+    public List<String> getModifiedScripts() {
+        return modifiedScripts;
+    }
+
+    public void setModifiedScripts(List<String> modifiedScripts) {
+        this.modifiedScripts = modifiedScripts;
+    }
+}
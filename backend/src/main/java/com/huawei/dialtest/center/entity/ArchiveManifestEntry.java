@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.entity;
+
+/**
+ * 用例集压缩包清单条目实体类，对应archive_manifest_entry表
+ * 记录压缩包内每个文件的路径、大小、SHA256和数据偏移，供执行机按文件增量同步
+ * 补丁脚本的条目由脚本库提供内容，没有压缩大小和数据偏移
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class ArchiveManifestEntry {
+    private Long testCaseSetId;
+    private String path;
+    private Long entrySize;
+    private Long compressedSize;
+    private Long dataOffset;
+    private String sha256;
+    private boolean patched;
+
+    /**
+     * 默认构造函数
+     */
+    public ArchiveManifestEntry() {
+    }
+
+    /**
+     * 带参数的构造函数
+     *
+     * @param path 条目在压缩包内的路径
+     * @param entrySize 解压后大小
+     * @param compressedSize 压缩后大小，tar.gz中为null
+     * @param dataOffset 数据偏移，ZIP为压缩数据在文件中的偏移，tar.gz为数据在tar流中的偏移
+     * @param sha256 解压后内容的SHA256
+     */
+    public ArchiveManifestEntry(String path, Long entrySize, Long compressedSize, Long dataOffset, String sha256) {
+        this.path = path;
+        this.entrySize = entrySize;
+        this.compressedSize = compressedSize;
+        this.dataOffset = dataOffset;
+        this.sha256 = sha256;
+    }
+
+    public Long getTestCaseSetId() {
+        return testCaseSetId;
+    }
+
+    public void setTestCaseSetId(Long testCaseSetId) {
+        this.testCaseSetId = testCaseSetId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Long getEntrySize() {
+        return entrySize;
+    }
+
+    public void setEntrySize(Long entrySize) {
+        this.entrySize = entrySize;
+    }
+
+    public Long getCompressedSize() {
+        return compressedSize;
+    }
+
+    public void setCompressedSize(Long compressedSize) {
+        this.compressedSize = compressedSize;
+    }
+
+    public Long getDataOffset() {
+        return dataOffset;
+    }
+
+    public void setDataOffset(Long dataOffset) {
+        this.dataOffset = dataOffset;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public boolean isPatched() {
+        return patched;
+    }
+
+    public void setPatched(boolean patched) {
+        this.patched = patched;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveManifestEntry{" +
+               "testCaseSetId=" + testCaseSetId +
+               ", path='" + path + '\'' +
+               ", entrySize=" + entrySize +
+               ", compressedSize=" + compressedSize +
+               ", dataOffset=" + dataOffset +
+               ", sha256='" + sha256 + '\'' +
+               ", patched=" + patched +
+               '}';
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.entity;
+
+/**
+ * 文件分块实体类，对应blob_chunk表
+ * 按内容SHA256寻址，引用计数为所有文件清单中引用该分块的次数
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class BlobChunk {
+    private String chunkHash;
+    private byte[] content;
+    private Integer chunkSize;
+    private Integer refCount;
+
+    /**
+     * 默认构造函数
+     */
+    public BlobChunk() {
+    }
+
+    /**
+     * 带参数的构造函数
+     *
+     * @param chunkHash 分块内容的SHA256
+     * @param content 分块内容
+     * @param refCount 引用计数或引用增量
+     */
+    public BlobChunk(String chunkHash, byte[] content, Integer refCount) {
+        this.chunkHash = chunkHash;
+        this.content = content;
+        this.chunkSize = content == null ? null : content.length;
+        this.refCount = refCount;
+    }
+
+    public String getChunkHash() {
+        return chunkHash;
+    }
+
+    public void setChunkHash(String chunkHash) {
+        this.chunkHash = chunkHash;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Integer getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+
+    @Override
+    public String toString() {
+        return "BlobChunk{" +
+               "chunkHash='" + chunkHash + '\'' +
+               ", chunkSize=" + chunkSize +
+               ", refCount=" + refCount +
+               '}';
+    }
+}
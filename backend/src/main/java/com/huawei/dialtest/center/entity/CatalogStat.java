@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.entity;
+
+/**
+ * 目录统计项实体类，对应catalog_stats表的一行
+ * 由统计对象、统计维度和维度取值唯一确定，统计值为数量或字节数
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class CatalogStat {
+    private String scope;
+    private String dimension;
+    private String dimValue;
+    private Long statValue;
+
+    /**
+     * 默认构造函数
+     */
+    public CatalogStat() {
+    }
+
+    /**
+     * 带参数的构造函数
+     *
+     * @param scope 统计对象
+     * @param dimension 统计维度
+     * @param dimValue 维度取值
+     * @param statValue 统计值或增量
+     */
+    public CatalogStat(String scope, String dimension, String dimValue, Long statValue) {
+        this.scope = scope;
+        this.dimension = dimension;
+        this.dimValue = dimValue;
+        this.statValue = statValue;
+    }
+
+    /**
+     * 获取统计对象
+     *
+     * @return 统计对象
+     */
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * 设置统计对象
+     *
+     * @param scope 统计对象
+     */
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    /**
+     * 获取统计维度
+     *
+     * @return 统计维度
+     */
+    public String getDimension() {
+        return dimension;
+    }
+
+    /**
+     * 设置统计维度
+     *
+     * @param dimension 统计维度
+     */
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+
+    /**
+     * 获取维度取值
+     *
+     * @return 维度取值
+     */
+    public String getDimValue() {
+        return dimValue;
+    }
+
+    /**
+     * 设置维度取值
+     *
+     * @param dimValue 维度取值
+     */
+    public void setDimValue(String dimValue) {
+        this.dimValue = dimValue;
+    }
+
+    /**
+     * 获取统计值
+     *
+     * @return 统计值
+     */
+    public Long getStatValue() {
+        return statValue;
+    }
+
+    /**
+     * 设置统计值
+     *
+     * @param statValue 统计值
+     */
+    public void setStatValue(Long statValue) {
+        this.statValue = statValue;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogStat{" +
+                "scope='" + scope + '\'' +
+                ", dimension='" + dimension + '\'' +
+                ", dimValue='" + dimValue + '\'' +
+                ", statValue=" + statValue +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.entity;
+
+/**
+ * 脚本文件实体类，对应script_file表
+ * 按内容SHA256寻址，同一脚本内容在所有用例集和版本之间只存储一份
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class ScriptFile {
+    private String sha256;
+    private byte[] content;
+    private Integer fileSize;
+
+    /**
+     * 默认构造函数
+     */
+    public ScriptFile() {
+    }
+
+    /**
+     * 带参数的构造函数
+     *
+     * @param sha256 脚本内容的SHA256
+     * @param content 脚本内容
+     */
+    public ScriptFile(String sha256, byte[] content) {
+        this.sha256 = sha256;
+        this.content = content;
+        this.fileSize = content == null ? null : content.length;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public Integer getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Integer fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptFile{" +
+               "sha256='" + sha256 + '\'' +
+               ", fileSize=" + fileSize +
+               '}';
+    }
+}
@@ -25,6 +25,11 @@ public class SoftwarePackage {
     private String creator; // 创建者
     private Long fileSize; // 文件大小
     private String description; // 描述信息
+    private String storageMode; // 存储方式：FULL 完整内容，DELTA 相对基准包的差量，CHUNKED 分块去重存储
+    private Long basePackageId; // 差量存储时的基准软件包ID
+    private Integer chainLength; // 还原所需的差量链长度，完整存储为0
+    private String lineageKey; // 应用版本谱系键，同一应用的不同构建相同
+    private Long storedSize; // 实际存储的字节数
     private LocalDateTime createdTime;
     private LocalDateTime updatedTime;
 
@@ -134,6 +139,45 @@ public class SoftwarePackage {
         this.description = description;
     }
 
+    public String getStorageMode() {
+        return storageMode;
+    }
+
+    public void setStorageMode(String storageMode) {
+        this.storageMode = storageMode;
+    }
+
+    public Long getBasePackageId() {
+        return basePackageId;
+    }
+
+    public void setBasePackageId(Long basePackageId) {
+        this.basePackageId = basePackageId;
+    }
+
+    public Integer getChainLength() {
+        return chainLength;
+    }
+
+    public void setChainLength(Integer chainLength) {
+        this.chainLength = chainLength;
+    }
+
+    public String getLineageKey() {
+        return lineageKey;
+    }
+
+    public void setLineageKey(String lineageKey) {
+        this.lineageKey = lineageKey;
+    }
+
+    public Long getStoredSize() {
+        return storedSize;
+    }
+
+    public void setStoredSize(Long storedSize) {
+        this.storedSize = storedSize;
+    }
 
     public LocalDateTime getCreatedTime() {
         return createdTime;
@@ -181,6 +225,9 @@ public class SoftwarePackage {
                ", fileSize=" + fileSize +
                ", sha512='" + sha512 + '\'' +
                ", description='" + description + '\'' +
+               ", storageMode='" + storageMode + '\'' +
+               ", basePackageId=" + basePackageId +
+               ", chainLength=" + chainLength +
                ", createdTime=" + createdTime +
                ", updatedTime=" + updatedTime +
                '}';
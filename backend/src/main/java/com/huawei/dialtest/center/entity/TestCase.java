@@ -16,6 +16,7 @@ import java.util.Objects;
  */
 public class TestCase {
     private Long id;
+    private Long testCaseSetId;
     private TestCaseSet testCaseSet;
     private String caseName;
     private String caseNumber;
@@ -25,6 +26,8 @@ public class TestCase {
     private String testSteps;
     private String expectedResult;
     private Boolean scriptExists = false;
+    private String scriptSha256;
+    private String rowHash;
 
     /**
      * 默认构造函数
@@ -70,6 +73,17 @@ public class TestCase {
         this.id = id;
     }
 
+    public Long getTestCaseSetId() {
+        if (testCaseSetId == null && testCaseSet != null) {
+            return testCaseSet.getId();
+        }
+        return testCaseSetId;
+    }
+
+    public void setTestCaseSetId(Long testCaseSetId) {
+        this.testCaseSetId = testCaseSetId;
+    }
+
     public TestCaseSet getTestCaseSet() {
         return testCaseSet;
     }
@@ -142,6 +156,22 @@ public class TestCase {
         this.scriptExists = scriptExists;
     }
 
+    public String getScriptSha256() {
+        return scriptSha256;
+    }
+
+    public void setScriptSha256(String scriptSha256) {
+        this.scriptSha256 = scriptSha256;
+    }
+
+    public String getRowHash() {
+        return rowHash;
+    }
+
+    public void setRowHash(String rowHash) {
+        this.rowHash = rowHash;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -172,6 +202,7 @@ public class TestCase {
                ", testSteps='" + testSteps + '\'' +
                ", expectedResult='" + expectedResult + '\'' +
                ", scriptExists=" + scriptExists +
+               ", scriptSha256='" + scriptSha256 + '\'' +
                '}';
     }
 }
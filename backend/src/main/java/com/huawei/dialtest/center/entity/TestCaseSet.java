@@ -4,6 +4,8 @@
 
 package com.huawei.dialtest.center.entity;
 
+import com.huawei.dialtest.center.dto.TestCaseSetChangeSummary;
+
 import java.util.Objects;
 
 /**
@@ -25,6 +27,13 @@ public class TestCaseSet {
     private String creator;
     private Long fileSize;
     private String description;
+    private String storageMode; // 存储方式：FULL 完整内容，CHUNKED 分块去重存储
+    private Long contentSourceId; // 文件内容所在的用例集ID，克隆的完整存储用例集引用源用例集的文件内容
+    private Integer caseCount; // 用例数
+    private Integer missingScriptCount; // 没有脚本的用例数
+    private Integer extraScriptCount; // 没有对应用例的脚本数
+    private Integer scriptCount; // 脚本数
+    private TestCaseSetChangeSummary changeSummary; // 相对上一版本的变化，仅增量入库时返回，不持久化
 
     /**
      * 默认构造函数
@@ -140,6 +149,62 @@ public class TestCaseSet {
         this.description = description;
     }
 
+    public String getStorageMode() {
+        return storageMode;
+    }
+
+    public void setStorageMode(String storageMode) {
+        this.storageMode = storageMode;
+    }
+
+    public Long getContentSourceId() {
+        return contentSourceId;
+    }
+
+    public void setContentSourceId(Long contentSourceId) {
+        this.contentSourceId = contentSourceId;
+    }
+
+    public Integer getCaseCount() {
+        return caseCount;
+    }
+
+    public void setCaseCount(Integer caseCount) {
+        this.caseCount = caseCount;
+    }
+
+    public Integer getMissingScriptCount() {
+        return missingScriptCount;
+    }
+
+    public void setMissingScriptCount(Integer missingScriptCount) {
+        this.missingScriptCount = missingScriptCount;
+    }
+
+    public Integer getExtraScriptCount() {
+        return extraScriptCount;
+    }
+
+    public void setExtraScriptCount(Integer extraScriptCount) {
+        this.extraScriptCount = extraScriptCount;
+    }
+
+    public Integer getScriptCount() {
+        return scriptCount;
+    }
+
+    public void setScriptCount(Integer scriptCount) {
+        this.scriptCount = scriptCount;
+    }
+
+    public TestCaseSetChangeSummary getChangeSummary() {
+        return changeSummary;
+    }
+
+    public void setChangeSummary(TestCaseSetChangeSummary changeSummary) {
+        this.changeSummary = changeSummary;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -172,6 +237,12 @@ public class TestCaseSet {
                ", sha512='" + sha512 + '\'' +
                ", business='" + business + '\'' +
                ", description='" + description + '\'' +
+               ", storageMode='" + storageMode + '\'' +
+               ", contentSourceId=" + contentSourceId +
+               ", caseCount=" + caseCount +
+               ", missingScriptCount=" + missingScriptCount +
+               ", extraScriptCount=" + extraScriptCount +
+               ", scriptCount=" + scriptCount +
                '}';
     }
 }
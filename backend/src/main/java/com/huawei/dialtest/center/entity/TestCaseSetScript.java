@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.entity;
+
+/**
+ * 用例集脚本关联实体类，对应test_case_set_script表
+ * 记录用例集中每个脚本文件名引用的脚本内容版本
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class TestCaseSetScript {
+    private Long testCaseSetId;
+    private String fileName;
+    private String sha256;
+
+    /**
+     * 默认构造函数
+     */
+    public TestCaseSetScript() {
+    }
+
+    /**
+     * 带参数的构造函数
+     *
+     * @param testCaseSetId 用例集ID
+     * @param fileName 脚本文件名（不包含scripts/前缀）
+     * @param sha256 脚本内容的SHA256
+     */
+    public TestCaseSetScript(Long testCaseSetId, String fileName, String sha256) {
+        this.testCaseSetId = testCaseSetId;
+        this.fileName = fileName;
+        this.sha256 = sha256;
+    }
+
+    public Long getTestCaseSetId() {
+        return testCaseSetId;
+    }
+
+    public void setTestCaseSetId(Long testCaseSetId) {
+        this.testCaseSetId = testCaseSetId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    @Override
+    public String toString() {
+        return "TestCaseSetScript{" +
+               "testCaseSetId=" + testCaseSetId +
+               ", fileName='" + fileName + '\'' +
+               ", sha256='" + sha256 + '\'' +
+               '}';
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.mapper;
+
+import com.huawei.dialtest.center.entity.ArchiveManifestEntry;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 用例集压缩包清单Mapper接口
+ * 提供清单条目的批量写入和按用例集、路径查询方法
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Mapper
+public interface ArchiveManifestMapper {
+
+    /**
+     * 批量插入清单条目，已存在的条目忽略
+     *
+     * @param entries 清单条目列表
+     * @return 影响行数
+     */
+    int insertBatch(@Param("entries") List<ArchiveManifestEntry> entries);
+
+    /**
+     * 查询用例集的全部清单条目，按路径排序
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 清单条目列表
+     */
+    List<ArchiveManifestEntry> findByTestCaseSetId(@Param("testCaseSetId") Long testCaseSetId);
+
+    /**
+     * 查询用例集中指定路径的清单条目
+     *
+     * @param testCaseSetId 用例集ID
+     * @param path 条目路径
+     * @return 清单条目，不存在时返回null
+     */
+    ArchiveManifestEntry findByTestCaseSetIdAndPath(@Param("testCaseSetId") Long testCaseSetId,
+                                                    @Param("path") String path);
+
+    /**
+     * 将源用例集的清单条目复制到目标用例集
+     *
+     * @param sourceTestCaseSetId 源用例集ID
+     * @param targetTestCaseSetId 目标用例集ID
+     * @return 复制的条目数
+     */
+    int copyEntries(@Param("sourceTestCaseSetId") Long sourceTestCaseSetId,
+                    @Param("targetTestCaseSetId") Long targetTestCaseSetId);
+
+    /**
+     * 批量写入补丁脚本的清单条目，同路径的条目被替换
+     *
+     * @param entries 清单条目列表
+     * @return 影响行数
+     */
+    int upsertPatchedEntries(@Param("entries") List<ArchiveManifestEntry> entries);
+}
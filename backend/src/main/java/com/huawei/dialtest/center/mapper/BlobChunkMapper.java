@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.mapper;
+
+import com.huawei.dialtest.center.entity.BlobChunk;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文件分块Mapper接口
+ * 提供分块的引用计数维护、文件清单读写和存储统计方法
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Mapper
+public interface BlobChunkMapper {
+
+    /**
+     * 为已存在的分块批量增加引用计数
+     *
+     * @param chunks 分块列表，refCount为引用增量
+     * @return 实际更新的分块哈希列表，不在其中的分块需要插入
+     */
+    List<String> incrementRefCounts(@Param("chunks") List<BlobChunk> chunks);
+
+    /**
+     * 插入新分块，并发插入相同分块时累加引用计数
+     *
+     * @param chunk 分块对象
+     * @return 影响行数
+     */
+    int insertChunk(BlobChunk chunk);
+
+    /**
+     * 批量插入文件清单条目
+     *
+     * @param ownerType 文件所属对象类型
+     * @param ownerId 文件所属对象ID
+     * @param startSeq 本批次首个条目的序号
+     * @param chunkHashes 按文件顺序排列的分块哈希
+     * @return 影响行数
+     */
+    int insertManifestEntries(@Param("ownerType") String ownerType,
+                              @Param("ownerId") Long ownerId,
+                              @Param("startSeq") int startSeq,
+                              @Param("chunkHashes") List<String> chunkHashes);
+
+    /**
+     * 按清单顺序读取文件的全部分块内容
+     *
+     * @param ownerType 文件所属对象类型
+     * @param ownerId 文件所属对象ID
+     * @return 分块内容列表
+     */
+    List<byte[]> findManifestContents(@Param("ownerType") String ownerType, @Param("ownerId") Long ownerId);
+
+    /**
+     * 按源文件清单增加分块引用计数，用于新文件复用源文件的全部分块
+     *
+     * @param ownerType 文件所属对象类型
+     * @param sourceOwnerId 源文件所属对象ID
+     * @return 影响行数
+     */
+    int incrementRefCountsByManifest(@Param("ownerType") String ownerType,
+                                     @Param("sourceOwnerId") Long sourceOwnerId);
+
+    /**
+     * 复制文件清单
+     *
+     * @param ownerType 文件所属对象类型
+     * @param sourceOwnerId 源文件所属对象ID
+     * @param targetOwnerId 目标文件所属对象ID
+     * @return 复制的条目数
+     */
+    int copyManifest(@Param("ownerType") String ownerType,
+                     @Param("sourceOwnerId") Long sourceOwnerId,
+                     @Param("targetOwnerId") Long targetOwnerId);
+
+    /**
+     * 按文件清单减少分块引用计数
+     *
+     * @param ownerType 文件所属对象类型
+     * @param ownerId 文件所属对象ID
+     * @return 影响行数
+     */
+    int decrementRefCounts(@Param("ownerType") String ownerType, @Param("ownerId") Long ownerId);
+
+    /**
+     * 删除文件清单
+     *
+     * @param ownerType 文件所属对象类型
+     * @param ownerId 文件所属对象ID
+     * @return 删除的条目数
+     */
+    int deleteManifest(@Param("ownerType") String ownerType, @Param("ownerId") Long ownerId);
+
+    /**
+     * 删除引用计数已降为0的分块
+     *
+     * @return 删除的分块数
+     */
+    int deleteUnreferencedChunks();
+
+    /**
+     * 统计分块存储情况
+     *
+     * @return 包含chunk_count、stored_bytes、logical_bytes的统计结果
+     */
+    Map<String, Object> getStatistics();
+}
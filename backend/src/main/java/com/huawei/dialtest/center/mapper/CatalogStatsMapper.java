@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.mapper;
+
+import com.huawei.dialtest.center.entity.CatalogStat;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 目录统计Mapper接口
+ * 提供统计项的增量更新、查询和重建方法
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Mapper
+public interface CatalogStatsMapper {
+
+    /**
+     * 查询全部统计项，统计值包含尚未合并的增量
+     *
+     * @return 统计项列表
+     */
+    List<CatalogStat> findAll();
+
+    /**
+     * 批量追加统计增量行，不更新统计表，由foldDeltas合并
+     *
+     * @param deltas 统计增量列表，statValue为增量值
+     * @return 影响行数
+     */
+    int addDeltas(@Param("deltas") List<CatalogStat> deltas);
+
+    /**
+     * 将已提交的统计增量累加到统计表并删除增量行，统计项不存在时插入
+     *
+     * @return 更新或插入的统计项数
+     */
+    int foldDeltas();
+
+    /**
+     * 删除全部统计项
+     *
+     * @return 影响行数
+     */
+    int deleteAll();
+
+    /**
+     * 删除全部未合并的统计增量
+     *
+     * @return 影响行数
+     */
+    int deleteAllDeltas();
+
+    /**
+     * 根据软件包表和用例集表重新计算全部统计项
+     *
+     * @return 影响行数
+     */
+    int rebuildAll();
+}
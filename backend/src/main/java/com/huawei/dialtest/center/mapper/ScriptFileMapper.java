@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.mapper;
+
+import com.huawei.dialtest.center.entity.ScriptFile;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.entity.TestCaseSetScript;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 脚本文件Mapper接口
+ * 提供按内容寻址的脚本存储、用例集脚本关联和按脚本版本反查用例集的方法
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Mapper
+public interface ScriptFileMapper {
+
+    /**
+     * 查询已存储的脚本哈希
+     *
+     * @param sha256List 待查询的脚本哈希列表
+     * @return 其中已存储的脚本哈希
+     */
+    List<String> findExistingHashes(@Param("sha256List") List<String> sha256List);
+
+    /**
+     * 批量插入脚本，已存在的脚本忽略
+     *
+     * @param scripts 脚本列表
+     * @return 影响行数
+     */
+    int insertBatch(@Param("scripts") List<ScriptFile> scripts);
+
+    /**
+     * 根据哈希查找脚本
+     *
+     * @param sha256 脚本内容的SHA256
+     * @return 脚本，不存在时返回null
+     */
+    ScriptFile findBySha256(@Param("sha256") String sha256);
+
+    /**
+     * 批量插入用例集脚本关联
+     *
+     * @param links 关联列表
+     * @return 影响行数
+     */
+    int insertSetScripts(@Param("links") List<TestCaseSetScript> links);
+
+    /**
+     * 将源用例集的脚本关联复制到目标用例集
+     *
+     * @param sourceTestCaseSetId 源用例集ID
+     * @param targetTestCaseSetId 目标用例集ID
+     * @return 复制的关联数
+     */
+    int copySetScripts(@Param("sourceTestCaseSetId") Long sourceTestCaseSetId,
+                       @Param("targetTestCaseSetId") Long targetTestCaseSetId);
+
+    /**
+     * 新增或替换用例集的脚本关联
+     *
+     * @param testCaseSetId 用例集ID
+     * @param links 脚本文件名和内容哈希
+     * @return 被替换为其他内容的原脚本哈希
+     */
+    List<String> upsertSetScripts(@Param("testCaseSetId") Long testCaseSetId,
+                                  @Param("links") List<TestCaseSetScript> links);
+
+    /**
+     * 删除不再被任何用例集引用的脚本
+     *
+     * @param sha256List 脚本内容的SHA256列表
+     * @return 删除行数
+     */
+    int deleteUnreferenced(@Param("sha256List") List<String> sha256List);
+
+    /**
+     * 查询用例集的脚本关联，按文件名排序
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 关联列表
+     */
+    List<TestCaseSetScript> findSetScripts(@Param("testCaseSetId") Long testCaseSetId);
+
+    /**
+     * 查询引用指定脚本版本的用例集元数据
+     *
+     * @param sha256 脚本内容的SHA256
+     * @return 用例集列表（不含文件内容）
+     */
+    List<TestCaseSet> findTestCaseSetsBySha256(@Param("sha256") String sha256);
+
+    /**
+     * 删除用例集的脚本关联，并删除不再被其他用例集引用的脚本
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 删除的脚本数
+     */
+    int releaseSetScripts(@Param("testCaseSetId") Long testCaseSetId);
+}
@@ -4,6 +4,7 @@
 
 package com.huawei.dialtest.center.mapper;
 
+import com.huawei.dialtest.center.dto.CatalogSearchHit;
 import com.huawei.dialtest.center.entity.SoftwarePackage;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -29,6 +30,30 @@ public interface SoftwarePackageMapper {
      */
     SoftwarePackage findById(@Param("id") Long id);
 
+    /**
+     * 根据ID查找软件包元数据，不读取文件内容
+     *
+     * @param id 软件包ID
+     * @return 软件包对象，fileContent为空
+     */
+    SoftwarePackage findMetadataById(@Param("id") Long id);
+
+    /**
+     * 根据ID查找软件包，包含已标记删除、尚未清理的软件包，用于沿差量链还原内容
+     *
+     * @param id 软件包ID
+     * @return 软件包对象
+     */
+    SoftwarePackage findByIdIncludingDeleted(@Param("id") Long id);
+
+    /**
+     * 根据ID查找软件包元数据，包含已标记删除、尚未清理的软件包
+     *
+     * @param id 软件包ID
+     * @return 软件包对象，fileContent为空
+     */
+    SoftwarePackage findMetadataByIdIncludingDeleted(@Param("id") Long id);
+
     /**
      * 根据软件名称查找软件包
      *
@@ -195,6 +220,18 @@ public interface SoftwarePackageMapper {
      */
     List<SoftwarePackage> findBySoftwareNameContainingIgnoreCaseOrderByCreatedTimeDescNoPage(@Param("softwareName") String softwareName);
 
+    /**
+     * 按名称搜索软件包，前缀匹配优先，其次子串匹配，最后为容错的近似匹配
+     *
+     * @param keyword 小写的搜索关键字
+     * @param pattern 转义LIKE通配符后的小写关键字
+     * @param limit 返回条数
+     * @return 搜索结果
+     */
+    List<CatalogSearchHit> searchByName(@Param("keyword") String keyword,
+                                        @Param("pattern") String pattern,
+                                        @Param("limit") int limit);
+
     /**
      * 插入软件包
      *
@@ -212,10 +249,68 @@ public interface SoftwarePackageMapper {
     int update(SoftwarePackage softwarePackage);
 
     /**
-     * 根据ID删除软件包
+     * 将软件包标记为已删除，已删除的软件包不再出现在任何查询中
+     *
+     * @param ids 软件包ID列表
+     * @return 本次实际标记的软件包元数据，不存在或已删除的ID不在其中
+     */
+    List<SoftwarePackage> markDeleted(@Param("ids") List<Long> ids);
+
+    /**
+     * 查找已标记删除、等待后台清理的软件包元数据，按ID倒序
+     *
+     * @param limit 返回条数
+     * @return 软件包元数据列表
+     */
+    List<SoftwarePackage> findDeleted(@Param("limit") int limit);
+
+    /**
+     * 根据ID清除已标记删除的软件包，未标记删除的软件包不会被删除
      *
      * @param id 软件包ID
      * @return 影响行数
      */
     int deleteById(@Param("id") Long id);
+
+    /**
+     * 查找同一谱系中最新的软件包元数据
+     *
+     * @param lineageKey 谱系键
+     * @return 软件包元数据，不存在时返回null
+     */
+    SoftwarePackage findLatestByLineageKey(@Param("lineageKey") String lineageKey);
+
+    /**
+     * 查找以指定软件包为基准的差量软件包元数据
+     *
+     * @param basePackageId 基准软件包ID
+     * @return 软件包元数据列表
+     */
+    List<SoftwarePackage> findByBasePackageId(@Param("basePackageId") Long basePackageId);
+
+    /**
+     * 查找差量链长度超过上限的软件包元数据，按链长度升序
+     *
+     * @param maxChainLength 差量链长度上限
+     * @param limit 最大返回数量
+     * @return 软件包元数据列表
+     */
+    List<SoftwarePackage> findOverlongDeltaChains(@Param("maxChainLength") int maxChainLength,
+                                                 @Param("limit") int limit);
+
+    /**
+     * 更新软件包的存储内容和存储方式
+     *
+     * @param softwarePackage 软件包对象
+     * @return 影响行数
+     */
+    int updateStorage(SoftwarePackage softwarePackage);
+
+    /**
+     * 按实际差量链重新计算指定软件包所有后继差量包的链长度
+     *
+     * @param rootId 起始软件包ID
+     * @return 影响行数
+     */
+    int recalculateChainLengths(@Param("rootId") Long rootId);
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.mapper;
+
+import com.huawei.dialtest.center.dto.FacetCount;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 测试用例分类字典Mapper接口
+ * 提供分类取值的字典登记和分类计数的维护与查询方法
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Mapper
+public interface TestCaseDictionaryMapper {
+
+    /**
+     * 登记分类取值，已存在的取值忽略
+     *
+     * @param kind 分类
+     * @param values 取值列表
+     * @return 新增的取值数
+     */
+    int insertValues(@Param("kind") String kind, @Param("values") List<String> values);
+
+    /**
+     * 删除用例集的分类计数
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 删除的行数
+     */
+    int deleteFacets(@Param("testCaseSetId") Long testCaseSetId);
+
+    /**
+     * 根据用例集当前的测试用例重新计算分类计数
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 写入的行数
+     */
+    int insertFacets(@Param("testCaseSetId") Long testCaseSetId);
+
+    /**
+     * 查询分类计数
+     *
+     * @param testCaseSetId 用例集ID，为空时汇总全部用例集
+     * @return 按分类和用例数降序排列的计数
+     */
+    List<FacetCount> findFacets(@Param("testCaseSetId") Long testCaseSetId);
+}
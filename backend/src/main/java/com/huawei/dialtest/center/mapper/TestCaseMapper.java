@@ -4,11 +4,17 @@
 
 package com.huawei.dialtest.center.mapper;
 
+import com.huawei.dialtest.center.dto.TestCaseSearchCriteria;
+import com.huawei.dialtest.center.dto.TestCaseSearchHit;
 import com.huawei.dialtest.center.entity.TestCase;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 测试用例Mapper接口
@@ -50,13 +56,48 @@ public interface TestCaseMapper {
                                               @Param("pageSize") int pageSize);
 
     /**
-     * 根据用例编号查找测试用例
+     * 根据用例编号查找测试用例，同一编号出现在多个版本中时返回最新的一条
      *
      * @param caseNumber 用例编号
      * @return 测试用例对象
      */
     TestCase findByCaseNumber(@Param("caseNumber") String caseNumber);
 
+    /**
+     * 流式扫描全部测试用例的用例集ID、用例编号和脚本存在标记，用于建立用例编号索引
+     *
+     * @param handler 逐行处理结果
+     */
+    void scanCaseNumbers(ResultHandler<TestCase> handler);
+
+    /**
+     * 按入库顺序流式读取用例集的测试用例，须在事务中读取并关闭
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 测试用例游标
+     */
+    Cursor<TestCase> streamByTestCaseSetId(@Param("testCaseSetId") Long testCaseSetId);
+
+    /**
+     * 按用例编号的码点顺序流式读取用例集的测试用例，须在事务中读取并关闭
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 测试用例游标
+     */
+    Cursor<TestCase> streamByTestCaseSetIdOrderByCaseNumber(@Param("testCaseSetId") Long testCaseSetId);
+
+    /**
+     * 全文搜索测试用例，按相关度和ID降序返回游标之后的一页
+     *
+     * @param criteria 搜索条件，包含上一页最后一条的相关度和ID
+     * @param tsQuery 全文检索表达式，为空时仅按条件过滤并按ID降序
+     * @param limit 返回条数
+     * @return 搜索结果
+     */
+    List<TestCaseSearchHit> search(@Param("criteria") TestCaseSearchCriteria criteria,
+                                   @Param("tsQuery") String tsQuery,
+                                   @Param("limit") int limit);
+
     /**
      * 根据用例集ID和用例编号查找测试用例
      *
@@ -75,6 +116,14 @@ public interface TestCaseMapper {
      */
     List<TestCase> findMissingScripts(@Param("testCaseSetId") Long testCaseSetId);
 
+    /**
+     * 按ID顺序流式读取没有对应脚本的测试用例，须在事务中读取并关闭
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 测试用例游标
+     */
+    Cursor<TestCase> streamMissingScripts(@Param("testCaseSetId") Long testCaseSetId);
+
     /**
      * 统计用例集中没有脚本的用例数量
      *
@@ -99,6 +148,15 @@ public interface TestCaseMapper {
      */
     int deleteByTestCaseSetId(@Param("testCaseSetId") Long testCaseSetId);
 
+    /**
+     * 分批删除用例集的测试用例
+     *
+     * @param testCaseSetId 用例集ID
+     * @param limit 本批最多删除的条数
+     * @return 本批实际删除的条数，小于limit表示已删除完毕
+     */
+    int deleteBatchByTestCaseSetId(@Param("testCaseSetId") Long testCaseSetId, @Param("limit") int limit);
+
     /**
      * 插入测试用例
      *
@@ -115,6 +173,36 @@ public interface TestCaseMapper {
      */
     int update(TestCase testCase);
 
+    /**
+     * 查询用例集中各用例的编号和行哈希
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 只包含用例编号和行哈希的测试用例列表
+     */
+    List<TestCase> findRowHashes(@Param("testCaseSetId") Long testCaseSetId);
+
+    /**
+     * 按用例编号到脚本哈希的匹配结果在一条语句中更新用例集的脚本状态和行哈希，状态未变化的用例不更新
+     *
+     * @param testCaseSetId 用例集ID
+     * @param caseScripts 用例编号到脚本SHA256的映射
+     * @return 脚本状态发生变化的用例编号
+     */
+    List<String> rematchScripts(@Param("testCaseSetId") Long testCaseSetId,
+                                @Param("caseScripts") Map<String, String> caseScripts);
+
+    /**
+     * 从源用例集复制测试用例到目标用例集，在数据库内完成不经过应用
+     *
+     * @param sourceTestCaseSetId 源用例集ID
+     * @param targetTestCaseSetId 目标用例集ID
+     * @param excludedCaseNumbers 不复制的用例编号
+     * @return 复制的行数
+     */
+    int copyFromTestCaseSet(@Param("sourceTestCaseSetId") Long sourceTestCaseSetId,
+                            @Param("targetTestCaseSetId") Long targetTestCaseSetId,
+                            @Param("excludedCaseNumbers") Collection<String> excludedCaseNumbers);
+
     /**
      * 根据ID删除测试用例
      *
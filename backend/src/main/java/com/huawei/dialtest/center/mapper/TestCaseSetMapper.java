@@ -4,6 +4,7 @@
 
 package com.huawei.dialtest.center.mapper;
 
+import com.huawei.dialtest.center.dto.CatalogSearchHit;
 import com.huawei.dialtest.center.entity.TestCaseSet;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -28,6 +29,14 @@ public interface TestCaseSetMapper {
      */
     TestCaseSet findById(@Param("id") Long id);
 
+    /**
+     * 根据ID查找用例集元数据，不读取文件内容
+     *
+     * @param id 用例集ID
+     * @return 用例集对象，fileContent为空
+     */
+    TestCaseSet findMetadataById(@Param("id") Long id);
+
     /**
      * 根据名称和版本查找用例集
      *
@@ -45,6 +54,15 @@ public interface TestCaseSetMapper {
      */
     List<TestCaseSet> findByNameOrderByCreatedTimeDesc(@Param("name") String name);
 
+    /**
+     * 查找同名用例集中最新上传的一个版本（不含文件内容）
+     *
+     * @param name 用例集名称
+     * @param excludeId 排除的用例集ID
+     * @return 用例集元数据，不存在时返回null
+     */
+    TestCaseSet findLatestMetadataByName(@Param("name") String name, @Param("excludeId") Long excludeId);
+
     /**
      * 根据创建人查找用例集列表
      *
@@ -78,6 +96,18 @@ public interface TestCaseSetMapper {
      */
     long count();
 
+    /**
+     * 按名称搜索用例集，前缀匹配优先，其次子串匹配，最后为容错的近似匹配
+     *
+     * @param keyword 小写的搜索关键字
+     * @param pattern 转义LIKE通配符后的小写关键字
+     * @param limit 返回条数
+     * @return 搜索结果
+     */
+    List<CatalogSearchHit> searchByName(@Param("keyword") String keyword,
+                                        @Param("pattern") String pattern,
+                                        @Param("limit") int limit);
+
     /**
      * 插入用例集
      *
@@ -86,6 +116,41 @@ public interface TestCaseSetMapper {
      */
     int insert(TestCaseSet testCaseSet);
 
+    /**
+     * 以已有用例集为源插入新版本，格式、哈希和存储方式取自源用例集
+     * 完整存储的文件内容不复制，新版本引用源用例集（或源用例集引用的用例集）的文件内容
+     *
+     * @param testCaseSet 新版本的名称、版本、描述和创建者，插入后回填ID
+     * @param sourceId 源用例集ID
+     * @return 影响行数，源用例集不存在或已删除时为0
+     */
+    int insertClone(@Param("testCaseSet") TestCaseSet testCaseSet, @Param("sourceId") Long sourceId);
+
+    /**
+     * 根据ID读取用例集的文件内容，包括已标记删除的用例集，用于读取被引用的文件内容
+     *
+     * @param id 用例集ID
+     * @return 只含ID、文件内容和存储方式的用例集对象，不存在时返回null
+     */
+    TestCaseSet findFileContentById(@Param("id") Long id);
+
+    /**
+     * 查找引用指定用例集文件内容的用例集中ID最小的一个
+     *
+     * @param contentSourceId 被引用文件内容的用例集ID
+     * @return 用例集ID，没有引用时返回null
+     */
+    Long findFirstContentReferrer(@Param("contentSourceId") Long contentSourceId);
+
+    /**
+     * 将文件内容从被引用的用例集移到引用它的用例集，其余引用改为指向新的内容所在用例集
+     *
+     * @param fromId 当前文件内容所在的用例集ID
+     * @param toId 接收文件内容的用例集ID
+     * @return 改为指向新内容所在用例集的引用数
+     */
+    int transferFileContent(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
     /**
      * 更新用例集
      *
@@ -95,7 +160,48 @@ public interface TestCaseSetMapper {
     int update(TestCaseSet testCaseSet);
 
     /**
-     * 根据ID删除用例集
+     * 写入用例集的用例数、缺失脚本用例数、多余脚本数和脚本数
+     *
+     * @param testCaseSet 带有ID和统计数量的用例集对象
+     * @return 影响行数
+     */
+    int updateSummary(TestCaseSet testCaseSet);
+
+    /**
+     * 按当前测试用例和脚本关联在数据库内重新统计用例集的数量字段
+     *
+     * @param id 用例集ID
+     * @return 更新后的用例集元数据，不存在或已删除时返回null
+     */
+    TestCaseSet refreshSummary(@Param("id") Long id);
+
+    /**
+     * 将用例集标记为已删除，已删除的用例集不再出现在任何查询中
+     *
+     * @param ids 用例集ID列表
+     * @return 本次实际标记的用例集元数据，不存在或已删除的ID不在其中
+     */
+    List<TestCaseSet> markDeleted(@Param("ids") List<Long> ids);
+
+    /**
+     * 查找已标记删除、等待后台清理的用例集元数据
+     *
+     * @param limit 返回条数
+     * @return 用例集元数据列表
+     */
+    List<TestCaseSet> findDeleted(@Param("limit") int limit);
+
+    /**
+     * 按ID顺序查找脚本单独存储上线前上传、尚未回填脚本的用例集元数据
+     *
+     * @param afterId 只查找ID大于该值的用例集
+     * @param limit 返回条数
+     * @return 用例集元数据列表
+     */
+    List<TestCaseSet> findScriptBackfillCandidates(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * 根据ID清除已标记删除的用例集，未标记删除的用例集不会被删除
      *
      * @param id 用例集ID
      * @return 影响行数
@@ -7,6 +7,7 @@ package com.huawei.dialtest.center.mapper;
 import com.huawei.dialtest.center.entity.DialDialUser;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 
@@ -52,6 +53,14 @@ public interface DialUserMapper {
      */
     List<DialUser> findByDialUsernameContaining(@Param("username") String username);
 
+    /**
+     * 根据用户名模糊查询并流式读取用户，须在事务中读取并关闭
+     *
+     * @param username 用户名关键字
+     * @return 用户游标
+     */
+    Cursor<DialUser> streamByDialUsernameContaining(@Param("username") String username);
+
     /**
      * 分页查询用户列表，按创建时间倒序排列
      *
@@ -8,6 +8,7 @@ import com.huawei.dialtest.center.entity.Role;
 import com.huawei.dialtest.center.entity.UserRole;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 
@@ -119,6 +120,13 @@ public interface UserRoleMapper {
      */
     List<UserRole> findAllOrderByCreatedTimeDesc();
 
+    /**
+     * 按创建时间倒序流式读取所有用户角色，须在事务中读取并关闭
+     *
+     * @return 用户角色游标
+     */
+    Cursor<UserRole> streamAllOrderByCreatedTimeDesc();
+
     /**
      * 统计用户角色关系总数
      *
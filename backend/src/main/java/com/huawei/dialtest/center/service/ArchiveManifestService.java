@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.ArchiveManifestEntry;
+import com.huawei.dialtest.center.mapper.ArchiveManifestMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用例集压缩包清单服务，上传时为压缩包内每个文件建立清单
+ * 执行机可按清单比较SHA256，只拉取新版本中变化的文件
+ * 补丁脚本写入脚本库后同时更新清单，执行机按清单同步时能拉取到补丁
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class ArchiveManifestService {
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveManifestService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private ArchiveManifestMapper archiveManifestMapper;
+
+    @Autowired
+    private ArchiveParseService archiveParseService;
+
+    /**
+     * 解析压缩包并保存用例集的文件清单
+     *
+     * @param testCaseSetId 用例集ID
+     * @param archiveData 压缩包字节数据
+     * @param fileFormat 文件格式（zip或tar.gz）
+     * @return 文件清单
+     * @throws IOException 解析压缩包失败时抛出
+     */
+    public List<ArchiveManifestEntry> index(Long testCaseSetId, byte[] archiveData, String fileFormat)
+            throws IOException {
+        return save(testCaseSetId, archiveParseService.buildManifest(archiveData, fileFormat));
+    }
+
+    /**
+     * 从可随机访问的通道解析压缩包并保存用例集的文件清单，调用方负责关闭通道
+     *
+     * @param testCaseSetId 用例集ID
+     * @param archive 压缩包通道
+     * @param fileFormat 文件格式（zip或tar.gz）
+     * @return 文件清单
+     * @throws IOException 解析压缩包失败时抛出
+     */
+    public List<ArchiveManifestEntry> index(Long testCaseSetId, SeekableByteChannel archive, String fileFormat)
+            throws IOException {
+        return save(testCaseSetId, archiveParseService.buildManifest(archive, fileFormat));
+    }
+
+    private List<ArchiveManifestEntry> save(Long testCaseSetId, List<ArchiveManifestEntry> entries) {
+        for (ArchiveManifestEntry entry : entries) {
+            entry.setTestCaseSetId(testCaseSetId);
+        }
+        for (int i = 0; i < entries.size(); i += BATCH_SIZE) {
+            archiveManifestMapper.insertBatch(entries.subList(i, Math.min(entries.size(), i + BATCH_SIZE)));
+        }
+        logger.info("Indexed {} archive entries for test case set {}", entries.size(), testCaseSetId);
+        return entries;
+    }
+
+    /**
+     * 获取用例集的文件清单
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 按路径排序的文件清单，尚未建立清单时为空列表
+     */
+    public List<ArchiveManifestEntry> getEntries(Long testCaseSetId) {
+        return archiveManifestMapper.findByTestCaseSetId(testCaseSetId);
+    }
+
+    /**
+     * 获取用例集中指定路径的清单条目
+     *
+     * @param testCaseSetId 用例集ID
+     * @param path 条目路径
+     * @return 清单条目，不存在时返回null
+     */
+    public ArchiveManifestEntry getEntry(Long testCaseSetId, String path) {
+        return archiveManifestMapper.findByTestCaseSetIdAndPath(testCaseSetId, path);
+    }
+
+    /**
+     * 将源用例集的文件清单复制到内容相同的目标用例集，源用例集尚未建立清单时不复制，由首次访问时建立
+     *
+     * @param sourceTestCaseSetId 源用例集ID
+     * @param targetTestCaseSetId 目标用例集ID
+     * @return 复制的条目数
+     */
+    public int copy(Long sourceTestCaseSetId, Long targetTestCaseSetId) {
+        return archiveManifestMapper.copyEntries(sourceTestCaseSetId, targetTestCaseSetId);
+    }
+
+    /**
+     * 将补丁脚本写入用例集的文件清单，替换压缩包中的同名脚本条目，须在写入脚本的事务中调用
+     *
+     * @param testCaseSetId 用例集ID
+     * @param scripts 脚本文件名（不含scripts/前缀）到内容的映射
+     * @param fileHashes 脚本文件名到SHA256的映射
+     * @return 写入的条目数
+     */
+    public int recordPatchedScripts(Long testCaseSetId, Map<String, byte[]> scripts, Map<String, String> fileHashes) {
+        List<ArchiveManifestEntry> entries = new ArrayList<>();
+        for (Map.Entry<String, String> fileHash : fileHashes.entrySet()) {
+            ArchiveManifestEntry entry = new ArchiveManifestEntry(ArchiveParseService.SCRIPTS_DIR + fileHash.getKey(),
+                    (long) scripts.get(fileHash.getKey()).length, null, null, fileHash.getValue());
+            entry.setTestCaseSetId(testCaseSetId);
+            entry.setPatched(true);
+            entries.add(entry);
+        }
+        for (int i = 0; i < entries.size(); i += BATCH_SIZE) {
+            archiveManifestMapper.upsertPatchedEntries(entries.subList(i, Math.min(entries.size(), i + BATCH_SIZE)));
+        }
+        logger.debug("Recorded {} patched scripts in the manifest of test case set {}", entries.size(), testCaseSetId);
+        return entries.size();
+    }
+
+    /**
+     * 比较两份文件清单
+     *
+     * @param baseEntries 基准清单
+     * @param targetEntries 目标清单
+     * @return 包含added、modified、removed条目列表和unchangedCount的比较结果
+     */
+    public Map<String, Object> diff(List<ArchiveManifestEntry> baseEntries, List<ArchiveManifestEntry> targetEntries) {
+        Map<String, ArchiveManifestEntry> remaining = new LinkedHashMap<>();
+        for (ArchiveManifestEntry entry : baseEntries) {
+            remaining.put(entry.getPath(), entry);
+        }
+
+        List<ArchiveManifestEntry> added = new ArrayList<>();
+        List<ArchiveManifestEntry> modified = new ArrayList<>();
+        int unchanged = 0;
+        for (ArchiveManifestEntry entry : targetEntries) {
+            ArchiveManifestEntry base = remaining.remove(entry.getPath());
+            if (base == null) {
+                added.add(entry);
+            } else if (!base.getSha256().equals(entry.getSha256())) {
+                modified.add(entry);
+            } else {
+                unchanged++;
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("added", added);
+        result.put("modified", modified);
+        result.put("removed", new ArrayList<>(remaining.values()));
+        result.put("unchangedCount", unchanged);
+        return result;
+    }
+}
@@ -4,26 +4,38 @@
 
 package com.huawei.dialtest.center.service;
 
+import com.huawei.dialtest.center.entity.ArchiveManifestEntry;
+import com.huawei.dialtest.center.util.HashUtils;
+
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 压缩包解析服务类，用于解析ZIP和TAR.GZ格式的压缩包
  * 提取cases.xlsx文件和scripts目录下的Python脚本文件
- * 支持文件内容提取和文件名列表获取
+ * 支持文件内容提取和文件名列表获取，ZIP通过中央目录随机访问单个条目
  *
  * @author g00940940
  * @since 2025-09-08
@@ -33,7 +45,7 @@ public class ArchiveParseService {
     private static final Logger logger = LoggerFactory.getLogger(ArchiveParseService.class);
 
     private static final String CASES_EXCEL_FILE = "cases.xlsx";
-    private static final String SCRIPTS_DIR = "scripts/";
+    static final String SCRIPTS_DIR = "scripts/";
     private static final String PYTHON_EXTENSION = ".py";
 
     /**
@@ -46,9 +58,19 @@ public class ArchiveParseService {
      */
     public byte[] extractCasesExcel(byte[] archiveData, String fileFormat) throws IOException {
         logger.debug("Extracting cases.xlsx from {} archive", fileFormat);
-        
+
+        if ("zip".equalsIgnoreCase(fileFormat)) {
+            byte[] content = extractEntry(archiveData, fileFormat, CASES_EXCEL_FILE);
+            if (content == null) {
+                logger.warn("cases.xlsx file not found in archive");
+            } else {
+                logger.info("Found cases.xlsx file in archive");
+            }
+            return content;
+        }
+
         try (InputStream inputStream = new ByteArrayInputStream(archiveData);
-             ArchiveInputStream archiveInputStream = createArchiveInputStream(inputStream, fileFormat)) {
+             ArchiveInputStream<?> archiveInputStream = createArchiveInputStream(inputStream, fileFormat)) {
             
             ArchiveEntry entry;
             while ((entry = archiveInputStream.getNextEntry()) != null) {
@@ -75,20 +97,15 @@ public class ArchiveParseService {
         logger.debug("Extracting script file names from {} archive", fileFormat);
         
         List<String> scriptFiles = new ArrayList<>();
-        
-        try (InputStream inputStream = new ByteArrayInputStream(archiveData);
-             ArchiveInputStream archiveInputStream = createArchiveInputStream(inputStream, fileFormat)) {
-            
-            ArchiveEntry entry;
-            while ((entry = archiveInputStream.getNextEntry()) != null) {
-                if (!entry.isDirectory() && 
-                    entry.getName().startsWith(SCRIPTS_DIR) && 
-                    entry.getName().toLowerCase().endsWith(PYTHON_EXTENSION)) {
-                    
-                    String fileName = entry.getName().substring(SCRIPTS_DIR.length());
-                    scriptFiles.add(fileName);
-                    logger.debug("Found script file: {}", fileName);
-                }
+
+        for (ArchiveEntry entry : listEntries(archiveData, fileFormat)) {
+            if (!entry.isDirectory() &&
+                entry.getName().startsWith(SCRIPTS_DIR) &&
+                entry.getName().toLowerCase().endsWith(PYTHON_EXTENSION)) {
+
+                String fileName = entry.getName().substring(SCRIPTS_DIR.length());
+                scriptFiles.add(fileName);
+                logger.debug("Found script file: {}", fileName);
             }
         }
         
@@ -96,6 +113,48 @@ public class ArchiveParseService {
         return scriptFiles;
     }
 
+    /**
+     * 解析压缩包并读取scripts目录下全部Python脚本的内容
+     *
+     * @param archiveData 压缩包字节数据
+     * @param fileFormat 文件格式（zip或tar.gz）
+     * @return 脚本文件名（不包含scripts/前缀）到内容的映射，按压缩包内顺序排列
+     * @throws IOException 解析过程中发生IO异常时抛出
+     */
+    public Map<String, byte[]> extractScripts(byte[] archiveData, String fileFormat) throws IOException {
+        logger.debug("Extracting scripts from {} archive", fileFormat);
+
+        Map<String, byte[]> scripts = new LinkedHashMap<>();
+        if ("zip".equalsIgnoreCase(fileFormat)) {
+            try (ZipFile zipFile = openZipFile(archiveData)) {
+                Enumeration<ZipArchiveEntry> entries = zipFile.getEntriesInPhysicalOrder();
+                while (entries.hasMoreElements()) {
+                    ZipArchiveEntry entry = entries.nextElement();
+                    if (isScriptEntry(entry)) {
+                        try (InputStream entryStream = zipFile.getInputStream(entry)) {
+                            scripts.put(entry.getName().substring(SCRIPTS_DIR.length()),
+                                    readEntryContent(entryStream, -1));
+                        }
+                    }
+                }
+            }
+        } else {
+            try (InputStream inputStream = new ByteArrayInputStream(archiveData);
+                 ArchiveInputStream<?> archiveInputStream = createArchiveInputStream(inputStream, fileFormat)) {
+                ArchiveEntry entry;
+                while ((entry = archiveInputStream.getNextEntry()) != null) {
+                    if (isScriptEntry(entry)) {
+                        scripts.put(entry.getName().substring(SCRIPTS_DIR.length()),
+                                readEntryContent(archiveInputStream, entry.getSize()));
+                    }
+                }
+            }
+        }
+
+        logger.info("Extracted {} scripts from archive", scripts.size());
+        return scripts;
+    }
+
     /**
      * 验证压缩包是否包含必要的文件结构
      *
@@ -111,21 +170,16 @@ public class ArchiveParseService {
         boolean hasScriptsDir = false;
         int scriptCount = 0;
         
-        try (InputStream inputStream = new ByteArrayInputStream(archiveData);
-             ArchiveInputStream archiveInputStream = createArchiveInputStream(inputStream, fileFormat)) {
-            
-            ArchiveEntry entry;
-            while ((entry = archiveInputStream.getNextEntry()) != null) {
-                String entryName = entry.getName();
-                
-                if (CASES_EXCEL_FILE.equals(entryName)) {
-                    hasCasesExcel = true;
-                    logger.debug("Found cases.xlsx file");
-                } else if (entryName.startsWith(SCRIPTS_DIR)) {
-                    hasScriptsDir = true;
-                    if (!entry.isDirectory() && entryName.toLowerCase().endsWith(PYTHON_EXTENSION)) {
-                        scriptCount++;
-                    }
+        for (ArchiveEntry entry : listEntries(archiveData, fileFormat)) {
+            String entryName = entry.getName();
+
+            if (CASES_EXCEL_FILE.equals(entryName)) {
+                hasCasesExcel = true;
+                logger.debug("Found cases.xlsx file");
+            } else if (entryName.startsWith(SCRIPTS_DIR)) {
+                hasScriptsDir = true;
+                if (!entry.isDirectory() && entryName.toLowerCase().endsWith(PYTHON_EXTENSION)) {
+                    scriptCount++;
                 }
             }
         }
@@ -135,6 +189,228 @@ public class ArchiveParseService {
         return result;
     }
 
+    /**
+     * 解析压缩包并生成文件清单，记录每个文件的路径、大小、SHA256和数据偏移
+     * ZIP通过中央目录随机访问各条目，数据偏移为压缩数据在文件中的位置；tar.gz顺序读取，偏移为数据在tar流中的位置
+     *
+     * @param archiveData 压缩包字节数据
+     * @param fileFormat 文件格式（zip或tar.gz）
+     * @return 文件清单，不包含目录条目
+     * @throws IOException 解析过程中发生IO异常时抛出
+     */
+    public List<ArchiveManifestEntry> buildManifest(byte[] archiveData, String fileFormat) throws IOException {
+        return buildManifest(new SeekableInMemoryByteChannel(archiveData), fileFormat);
+    }
+
+    /**
+     * 从可随机访问的通道解析压缩包并生成文件清单，ZIP只按中央目录定位条目，不将整个压缩包读入内存
+     * 通道可能在解析后被关闭，调用方仍负责关闭通道
+     *
+     * @param archive 压缩包通道
+     * @param fileFormat 文件格式（zip或tar.gz）
+     * @return 文件清单，不包含目录条目
+     * @throws IOException 解析过程中发生IO异常时抛出
+     */
+    public List<ArchiveManifestEntry> buildManifest(SeekableByteChannel archive, String fileFormat)
+            throws IOException {
+        logger.debug("Building manifest of {} archive", fileFormat);
+
+        List<ArchiveManifestEntry> manifest = new ArrayList<>();
+        if ("zip".equalsIgnoreCase(fileFormat)) {
+            try (ZipFile zipFile = openZipFile(archive)) {
+                Enumeration<ZipArchiveEntry> entries = zipFile.getEntriesInPhysicalOrder();
+                while (entries.hasMoreElements()) {
+                    ZipArchiveEntry entry = entries.nextElement();
+                    if (entry.isDirectory()) {
+                        continue;
+                    }
+                    try (InputStream entryStream = zipFile.getInputStream(entry)) {
+                        byte[] content = readEntryContent(entryStream, -1);
+                        manifest.add(new ArchiveManifestEntry(entry.getName(), (long) content.length,
+                                entry.getCompressedSize(), entry.getDataOffset(), HashUtils.sha256Hex(content)));
+                    }
+                }
+            }
+        } else {
+            try (InputStream inputStream = newInputStream(archive);
+                 ArchiveInputStream<?> archiveInputStream = createArchiveInputStream(inputStream, fileFormat)) {
+                ArchiveEntry entry;
+                while ((entry = archiveInputStream.getNextEntry()) != null) {
+                    if (entry.isDirectory()) {
+                        continue;
+                    }
+                    long dataOffset = archiveInputStream.getBytesRead();
+                    byte[] content = readEntryContent(archiveInputStream, entry.getSize());
+                    manifest.add(new ArchiveManifestEntry(entry.getName(), (long) content.length, null,
+                            dataOffset, HashUtils.sha256Hex(content)));
+                }
+            }
+        }
+
+        logger.info("Built manifest with {} entries", manifest.size());
+        return manifest;
+    }
+
+    /**
+     * 读取压缩包中指定路径的文件内容，ZIP格式直接定位到条目而不解压其他文件
+     *
+     * @param archiveData 压缩包字节数据
+     * @param fileFormat 文件格式（zip或tar.gz）
+     * @param path 条目路径
+     * @return 文件内容，未找到时返回null
+     * @throws IOException 解析过程中发生IO异常时抛出
+     */
+    public byte[] extractEntry(byte[] archiveData, String fileFormat, String path) throws IOException {
+        return extractEntry(new SeekableInMemoryByteChannel(archiveData), fileFormat, path);
+    }
+
+    /**
+     * 从可随机访问的通道读取压缩包中指定路径的文件内容，ZIP直接定位到条目而不读取其他数据
+     * 通道可能在读取后被关闭，调用方仍负责关闭通道
+     *
+     * @param archive 压缩包通道
+     * @param fileFormat 文件格式（zip或tar.gz）
+     * @param path 条目路径
+     * @return 文件内容，未找到时返回null
+     * @throws IOException 解析过程中发生IO异常时抛出
+     */
+    public byte[] extractEntry(SeekableByteChannel archive, String fileFormat, String path) throws IOException {
+        if ("zip".equalsIgnoreCase(fileFormat)) {
+            try (ZipFile zipFile = openZipFile(archive)) {
+                ZipArchiveEntry entry = zipFile.getEntry(path);
+                if (entry == null || entry.isDirectory()) {
+                    return null;
+                }
+                try (InputStream entryStream = zipFile.getInputStream(entry)) {
+                    return readEntryContent(entryStream, -1);
+                }
+            }
+        }
+
+        try (InputStream inputStream = newInputStream(archive);
+             ArchiveInputStream<?> archiveInputStream = createArchiveInputStream(inputStream, fileFormat)) {
+            ArchiveEntry entry;
+            while ((entry = archiveInputStream.getNextEntry()) != null) {
+                if (!entry.isDirectory() && path.equals(entry.getName())) {
+                    return readEntryContent(archiveInputStream, entry.getSize());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按清单条目读取压缩包中的单个文件
+     * ZIP通过中央目录定位条目，耗时与条目大小成正比；tar.gz按清单记录的偏移跳过前面的数据，不再逐个解析tar头，
+     * 读完条目即停止，但gzip无法随机访问，偏移之前的数据仍须全部解压，耗时与条目在tar流中的偏移成正比
+     *
+     * @param archiveData 压缩包字节数据
+     * @param fileFormat 文件格式（zip或tar.gz）
+     * @param entry 清单条目
+     * @return 文件内容，未找到时返回null
+     * @throws IOException 解析过程中发生IO异常时抛出
+     */
+    public byte[] extractEntry(byte[] archiveData, String fileFormat, ArchiveManifestEntry entry) throws IOException {
+        return extractEntry(new SeekableInMemoryByteChannel(archiveData), fileFormat, entry);
+    }
+
+    /**
+     * 从可随机访问的通道按清单条目读取压缩包中的单个文件
+     * 通道可能在读取后被关闭，调用方仍负责关闭通道
+     *
+     * @param archive 压缩包通道
+     * @param fileFormat 文件格式（zip或tar.gz）
+     * @param entry 清单条目
+     * @return 文件内容，未找到时返回null
+     * @throws IOException 解析过程中发生IO异常时抛出
+     */
+    public byte[] extractEntry(SeekableByteChannel archive, String fileFormat, ArchiveManifestEntry entry)
+            throws IOException {
+        if (!"tar.gz".equalsIgnoreCase(fileFormat) || entry.getDataOffset() == null || entry.getEntrySize() == null) {
+            return extractEntry(archive, fileFormat, entry.getPath());
+        }
+
+        byte[] content = readAtOffset(archive, entry.getDataOffset(), entry.getEntrySize());
+        if (content != null && HashUtils.sha256Hex(content).equalsIgnoreCase(entry.getSha256())) {
+            return content;
+        }
+        logger.warn("Manifest offset of {} does not match archive content, scanning archive", entry.getPath());
+        return extractEntry(archive, fileFormat, entry.getPath());
+    }
+
+    /**
+     * 列出压缩包中的全部条目，ZIP只读取中央目录而不解压任何条目
+     * 中央目录损坏的ZIP按本地文件头顺序读取
+     *
+     * @param archiveData 压缩包字节数据
+     * @param fileFormat 文件格式
+     * @return 条目列表
+     * @throws IOException 解析过程中发生IO异常时抛出
+     */
+    private List<ArchiveEntry> listEntries(byte[] archiveData, String fileFormat) throws IOException {
+        List<ArchiveEntry> entries = new ArrayList<>();
+        if ("zip".equalsIgnoreCase(fileFormat)) {
+            try (ZipFile zipFile = openZipFile(archiveData)) {
+                Enumeration<ZipArchiveEntry> zipEntries = zipFile.getEntriesInPhysicalOrder();
+                while (zipEntries.hasMoreElements()) {
+                    entries.add(zipEntries.nextElement());
+                }
+                return entries;
+            } catch (IOException e) {
+                logger.debug("Cannot read zip central directory, falling back to stream: {}", e.getMessage());
+            }
+        }
+
+        try (InputStream inputStream = new ByteArrayInputStream(archiveData);
+             ArchiveInputStream<?> archiveInputStream = createArchiveInputStream(inputStream, fileFormat)) {
+            ArchiveEntry entry;
+            while ((entry = archiveInputStream.getNextEntry()) != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 从tar.gz解压后的指定偏移读取数据，跳过偏移时仍会解压之前的全部数据
+     *
+     * @param archive 压缩包通道
+     * @param offset 数据在tar流中的偏移
+     * @param size 数据大小
+     * @return 数据内容，偏移超出压缩包时返回null
+     * @throws IOException 解压过程中发生异常
+     */
+    private byte[] readAtOffset(SeekableByteChannel archive, long offset, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Entry size too large: " + size);
+        }
+        try (InputStream inputStream = new GzipCompressorInputStream(newInputStream(archive))) {
+            long remaining = offset;
+            while (remaining > 0) {
+                long skipped = inputStream.skip(remaining);
+                if (skipped <= 0) {
+                    return null;
+                }
+                remaining -= skipped;
+            }
+            byte[] content = new byte[(int) size];
+            int totalRead = 0;
+            while (totalRead < content.length) {
+                int bytesRead = inputStream.read(content, totalRead, content.length - totalRead);
+                if (bytesRead == -1) {
+                    return null;
+                }
+                totalRead += bytesRead;
+            }
+            return content;
+        }
+    }
+
+    private boolean isScriptEntry(ArchiveEntry entry) {
+        return !entry.isDirectory() && entry.getName().startsWith(SCRIPTS_DIR)
+                && entry.getName().toLowerCase().endsWith(PYTHON_EXTENSION);
+    }
+
     /**
      * 创建压缩包输入流
      *
@@ -143,7 +419,8 @@ public class ArchiveParseService {
      * @return 压缩包输入流
      * @throws IOException 创建流时发生异常
      */
-    private ArchiveInputStream createArchiveInputStream(InputStream inputStream, String fileFormat) throws IOException {
+    private ArchiveInputStream<?> createArchiveInputStream(InputStream inputStream,
+            String fileFormat) throws IOException {
         if ("zip".equalsIgnoreCase(fileFormat)) {
             return new ZipArchiveInputStream(inputStream);
         } else if ("tar.gz".equalsIgnoreCase(fileFormat)) {
@@ -154,6 +431,44 @@ public class ArchiveParseService {
         }
     }
 
+    /**
+     * 基于内存数据打开ZIP文件，通过中央目录随机访问条目
+     *
+     * @param archiveData 压缩包字节数据
+     * @return ZIP文件
+     * @throws IOException 打开过程中发生异常
+     */
+    private ZipFile openZipFile(byte[] archiveData) throws IOException {
+        return openZipFile(new SeekableInMemoryByteChannel(archiveData));
+    }
+
+    /**
+     * 基于可随机访问的通道打开ZIP文件，关闭ZIP文件时通道随之关闭
+     *
+     * @param archive 压缩包通道
+     * @return ZIP文件
+     * @throws IOException 打开过程中发生异常
+     */
+    private ZipFile openZipFile(SeekableByteChannel archive) throws IOException {
+        return ZipFile.builder().setSeekableByteChannel(archive).get();
+    }
+
+    /**
+     * 从通道起始位置打开顺序读取的输入流，关闭输入流不关闭通道，以便同一通道再次读取
+     *
+     * @param archive 压缩包通道
+     * @return 输入流
+     * @throws IOException 定位通道失败时抛出
+     */
+    private InputStream newInputStream(SeekableByteChannel archive) throws IOException {
+        return new FilterInputStream(Channels.newInputStream(archive.position(0))) {
+            @Override
+            public void close() {
+                // 通道由调用方关闭
+            }
+        };
+    }
+
     /**
      * 读取压缩包条目内容
      *
@@ -162,7 +477,7 @@ public class ArchiveParseService {
      * @return 条目内容字节数组
      * @throws IOException 读取过程中发生异常
      */
-    private byte[] readEntryContent(ArchiveInputStream archiveInputStream, long size) throws IOException {
+    private byte[] readEntryContent(InputStream archiveInputStream, long size) throws IOException {
         // 如果大小为-1（未知大小），使用ByteArrayOutputStream动态读取
         if (size == -1) {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
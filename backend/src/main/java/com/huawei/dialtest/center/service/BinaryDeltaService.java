@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * 二进制差量编解码服务，将目标文件编码为相对基准文件的COPY/ADD指令序列
+ * 基准文件按固定块建立滚动哈希索引，目标文件逐字节滚动查找匹配块并向两侧扩展
+ * 适用于同一应用相邻构建之间大部分内容相同的安装包
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class BinaryDeltaService {
+    private static final byte[] MAGIC = {'D', 'T', 'D', '1'};
+
+    private static final int OP_COPY = 1;
+
+    private static final int OP_ADD = 2;
+
+    private static final int HASH_MULTIPLIER = 0x01000193;
+
+    @Value("${app.delta-storage.block-size:32}")
+    private int blockSize = 32;
+
+    /**
+     * 计算目标内容相对基准内容的差量
+     *
+     * @param base 基准内容
+     * @param target 目标内容
+     * @return 差量数据
+     */
+    public byte[] encode(byte[] base, byte[] target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, target.length / 16));
+        out.write(MAGIC, 0, MAGIC.length);
+        writeVarLong(out, base.length);
+        writeVarLong(out, target.length);
+
+        int[] index = buildIndex(base);
+        int mask = index.length - 1;
+        int power = power();
+        int pendingStart = 0;
+        int position = 0;
+        int hash = position + blockSize <= target.length ? hash(target, position) : 0;
+        while (position + blockSize <= target.length) {
+            int candidate = index[slot(hash, mask)] - 1;
+            if (candidate >= 0 && regionEquals(base, candidate, target, position, blockSize)) {
+                int matchStart = position;
+                int baseStart = candidate;
+                while (matchStart > pendingStart && baseStart > 0 && target[matchStart - 1] == base[baseStart - 1]) {
+                    matchStart--;
+                    baseStart--;
+                }
+                int matchEnd = position + blockSize;
+                int baseEnd = candidate + blockSize;
+                while (matchEnd < target.length && baseEnd < base.length && target[matchEnd] == base[baseEnd]) {
+                    matchEnd++;
+                    baseEnd++;
+                }
+                writeAdd(out, target, pendingStart, matchStart - pendingStart);
+                writeCopy(out, baseStart, matchEnd - matchStart);
+                position = matchEnd;
+                pendingStart = position;
+                if (position + blockSize <= target.length) {
+                    hash = hash(target, position);
+                }
+            } else {
+                if (position + blockSize < target.length) {
+                    hash = roll(hash, target[position], target[position + blockSize], power);
+                }
+                position++;
+            }
+        }
+        writeAdd(out, target, pendingStart, target.length - pendingStart);
+        return out.toByteArray();
+    }
+
+    /**
+     * 根据基准内容和差量还原目标内容
+     *
+     * @param base 基准内容
+     * @param delta 差量数据
+     * @return 目标内容
+     * @throws IllegalArgumentException 差量格式错误或与基准内容不匹配时抛出
+     */
+    public byte[] decode(byte[] base, byte[] delta) {
+        DeltaReader reader = new DeltaReader(delta);
+        for (byte b : MAGIC) {
+            if (reader.readByte() != b) {
+                throw new IllegalArgumentException("Not a delta: bad magic");
+            }
+        }
+        long baseLength = reader.readVarLong();
+        if (baseLength != base.length) {
+            throw new IllegalArgumentException("Delta base length mismatch: expected " + baseLength
+                    + ", got " + base.length);
+        }
+        long targetLength = reader.readVarLong();
+        if (targetLength < 0 || targetLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Corrupt delta: invalid target length " + targetLength);
+        }
+
+        byte[] target = new byte[(int) targetLength];
+        int written = 0;
+        while (reader.hasRemaining()) {
+            int op = reader.readByte();
+            if (op == OP_COPY) {
+                long offset = reader.readVarLong();
+                int length = checkLength(reader.readVarLong(), target.length - written);
+                if (offset < 0 || offset + length > base.length) {
+                    throw new IllegalArgumentException("Corrupt delta: copy outside base at offset " + offset);
+                }
+                System.arraycopy(base, (int) offset, target, written, length);
+                written += length;
+            } else if (op == OP_ADD) {
+                int length = checkLength(reader.readVarLong(), target.length - written);
+                reader.readBytes(target, written, length);
+                written += length;
+            } else {
+                throw new IllegalArgumentException("Corrupt delta: unknown op " + op);
+            }
+        }
+        if (written != target.length) {
+            throw new IllegalArgumentException("Corrupt delta: produced " + written + " of " + target.length + " bytes");
+        }
+        return target;
+    }
+
+    private int[] buildIndex(byte[] base) {
+        int blocks = base.length / blockSize;
+        int size = 1;
+        while (size < blocks * 2) {
+            size <<= 1;
+        }
+        int[] index = new int[size];
+        int mask = size - 1;
+        for (int offset = 0; offset + blockSize <= base.length; offset += blockSize) {
+            int slot = slot(hash(base, offset), mask);
+            if (index[slot] == 0) {
+                index[slot] = offset + 1;
+            }
+        }
+        return index;
+    }
+
+    private int hash(byte[] data, int offset) {
+        int hash = 0;
+        for (int i = offset; i < offset + blockSize; i++) {
+            hash = hash * HASH_MULTIPLIER + (data[i] & 0xff);
+        }
+        return hash;
+    }
+
+    private int roll(int hash, byte out, byte in, int power) {
+        return (hash - (out & 0xff) * power) * HASH_MULTIPLIER + (in & 0xff);
+    }
+
+    private int power() {
+        int power = 1;
+        for (int i = 1; i < blockSize; i++) {
+            power *= HASH_MULTIPLIER;
+        }
+        return power;
+    }
+
+    private static int slot(int hash, int mask) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean regionEquals(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        if (aOffset + length > a.length || bOffset + length > b.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] != b[bOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int checkLength(long length, int remaining) {
+        if (length < 0 || length > remaining) {
+            throw new IllegalArgumentException("Corrupt delta: invalid length " + length);
+        }
+        return (int) length;
+    }
+
+    private static void writeAdd(ByteArrayOutputStream out, byte[] data, int offset, int length) {
+        if (length > 0) {
+            out.write(OP_ADD);
+            writeVarLong(out, length);
+            out.write(data, offset, length);
+        }
+    }
+
+    private static void writeCopy(ByteArrayOutputStream out, int offset, int length) {
+        out.write(OP_COPY);
+        writeVarLong(out, offset);
+        writeVarLong(out, length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+
+    /**
+     * 差量数据读取器
+     */
+    private static class DeltaReader {
+        private final byte[] data;
+        private int position;
+
+        DeltaReader(byte[] data) {
+            this.data = data;
+        }
+
+        boolean hasRemaining() {
+            return position < data.length;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Corrupt delta: unexpected end of data");
+            }
+            return data[position++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            int b;
+            do {
+                if (shift > 63) {
+                    throw new IllegalArgumentException("Corrupt delta: varint too long");
+                }
+                b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        void readBytes(byte[] target, int offset, int length) {
+            if (length > data.length - position) {
+                throw new IllegalArgumentException("Corrupt delta: unexpected end of data");
+            }
+            System.arraycopy(data, position, target, offset, length);
+            position += length;
+        }
+    }
+}
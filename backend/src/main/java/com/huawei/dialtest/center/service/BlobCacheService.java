@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.util.HashUtils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 文件内容本地磁盘缓存服务，按SHA512内容寻址缓存数据库中的软件包和用例集文件
+ * 缓存总大小受限，按最近最少使用淘汰；写入时校验摘要并通过原子重命名发布
+ * 命中时在查找中打开缓存文件，之后的淘汰只删除目录项，已打开的内容仍可完整读取
+ * 命中时通过transferTo零拷贝输出，并导出命中率和节省字节数指标
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class BlobCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(BlobCacheService.class);
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private static final int SHA512_HEX_LENGTH = 128;
+
+    private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    private long currentBytes;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.blob-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.blob-cache.dir:${java.io.tmpdir}/dialtest-blob-cache}")
+    private String cacheDir;
+
+    @Value("${app.blob-cache.max-bytes:10737418240}")
+    private long maxBytes = 10737418240L;
+
+    /**
+     * 初始化缓存目录，按文件修改时间重建LRU索引并注册指标
+     *
+     * @throws IOException 创建或扫描缓存目录失败时抛出
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            logger.info("Blob disk cache is disabled");
+            return;
+        }
+        Path dir = Paths.get(cacheDir);
+        Files.createDirectories(dir);
+
+        File[] files = dir.toFile().listFiles();
+        List<File> cached = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(TEMP_FILE_SUFFIX)) {
+                    Files.deleteIfExists(file.toPath());
+                } else if (file.isFile() && file.getName().length() == SHA512_HEX_LENGTH) {
+                    cached.add(file);
+                } else {
+                    logger.debug("Ignoring unexpected file in blob cache: {}", file.getName());
+                }
+            }
+        }
+        cached.sort(Comparator.comparingLong(File::lastModified));
+        synchronized (entries) {
+            for (File file : cached) {
+                entries.put(file.getName(), file.length());
+                currentBytes += file.length();
+            }
+            evictIfNeeded(null);
+        }
+        logger.info("Blob disk cache initialized at {} with {} entries, {} bytes", dir, entries.size(), currentBytes);
+
+        if (meterRegistry != null) {
+            FunctionCounter.builder("dialtest.blob.cache.hits", hits, AtomicLong::doubleValue)
+                    .description("Blob cache hits").register(meterRegistry);
+            FunctionCounter.builder("dialtest.blob.cache.misses", misses, AtomicLong::doubleValue)
+                    .description("Blob cache misses").register(meterRegistry);
+            FunctionCounter.builder("dialtest.blob.cache.bytes.saved", bytesSaved, AtomicLong::doubleValue)
+                    .description("Bytes served from the blob cache instead of the database")
+                    .baseUnit("bytes").register(meterRegistry);
+            Gauge.builder("dialtest.blob.cache.hit.ratio", this, BlobCacheService::getHitRatio)
+                    .description("Blob cache hit ratio").register(meterRegistry);
+            Gauge.builder("dialtest.blob.cache.size", this, BlobCacheService::getCurrentBytes)
+                    .description("Bytes currently held in the blob cache").baseUnit("bytes").register(meterRegistry);
+        }
+    }
+
+    /**
+     * 读取文件内容，命中缓存时返回已打开的缓存文件，未命中时从数据源加载并写入缓存
+     * 返回的内容各调用者独占，使用后须关闭；并发未命中的合并应放在loader中
+     *
+     * @param sha512 文件内容的SHA512，为空时不使用缓存
+     * @param loader 未命中时从数据库加载文件内容的方法
+     * @return 文件内容，未命中时为加载到的内存内容，加载结果为空时返回null
+     */
+    public BlobContent getOrLoad(String sha512, Supplier<byte[]> loader) {
+        if (!enabled || sha512 == null || sha512.length() != SHA512_HEX_LENGTH) {
+            byte[] content = loader.get();
+            return content == null ? null : new BlobContent(null, content, content.length);
+        }
+
+        String key = sha512.toLowerCase();
+        BlobContent cached = lookup(key, loader);
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] content = loader.get();
+        if (content == null) {
+            return null;
+        }
+        store(key, content);
+        return new BlobContent(null, content, content.length);
+    }
+
+    /**
+     * 读取已缓存的文件内容，不触发加载
+     *
+     * @param sha512 文件内容的SHA512
+     * @return 已打开的缓存文件内容，使用后须关闭，未命中时返回null
+     */
+    public BlobContent getIfPresent(String sha512) {
+        if (!enabled || sha512 == null || sha512.length() != SHA512_HEX_LENGTH) {
+            return null;
+        }
+        return lookup(sha512.toLowerCase(), null);
+    }
+
+    /**
+     * 将已知内容写入缓存，已缓存时不重复写入
+     *
+     * @param sha512 文件内容的SHA512，为空时不使用缓存
+     * @param content 文件内容
+     */
+    public void put(String sha512, byte[] content) {
+        if (enabled && sha512 != null && sha512.length() == SHA512_HEX_LENGTH && content != null) {
+            store(sha512.toLowerCase(), content);
+        }
+    }
+
+    /**
+     * 移除缓存条目，在文件删除后调用
+     *
+     * @param sha512 文件内容的SHA512
+     */
+    public void evict(String sha512) {
+        if (!enabled || sha512 == null) {
+            return;
+        }
+        String key = sha512.toLowerCase();
+        synchronized (entries) {
+            Long size = entries.remove(key);
+            if (size != null) {
+                currentBytes -= size;
+                deleteQuietly(resolve(key));
+            }
+        }
+    }
+
+    /**
+     * 获取缓存命中率
+     *
+     * @return 命中率，尚无访问时返回0
+     */
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    /**
+     * 获取通过缓存节省的数据库读取字节数
+     *
+     * @return 字节数
+     */
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    /**
+     * 获取当前缓存占用字节数
+     *
+     * @return 字节数
+     */
+    public long getCurrentBytes() {
+        synchronized (entries) {
+            return currentBytes;
+        }
+    }
+
+    private BlobContent lookup(String key, Supplier<byte[]> loader) {
+        Long size;
+        synchronized (entries) {
+            size = entries.get(key);
+        }
+        if (size != null) {
+            try {
+                FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+                hits.incrementAndGet();
+                bytesSaved.addAndGet(size);
+                Supplier<byte[]> fallback = loader == null ? null : () -> reloadTruncated(key, loader);
+                return new BlobContent(channel, null, channel.size(), fallback);
+            } catch (NoSuchFileException e) {
+                synchronized (entries) {
+                    if (entries.remove(key, size)) {
+                        currentBytes -= size;
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to open blob cache entry {}: {}", key, e.getMessage());
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private byte[] reloadTruncated(String key, Supplier<byte[]> loader) {
+        logger.warn("Blob cache entry {} was truncated while being read, falling back to the database", key);
+        evict(key);
+        return loader.get();
+    }
+
+    private void store(String key, byte[] content) {
+        if (content.length > maxBytes) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.containsKey(key)) {
+                return;
+            }
+        }
+        Path target = resolve(key);
+        if (!key.equals(HashUtils.sha512Hex(content))) {
+            logger.error("Checksum mismatch while filling blob cache for {}, content not cached", key);
+            return;
+        }
+        Path temp = Paths.get(cacheDir, key + "." + Thread.currentThread().getId() + TEMP_FILE_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Failed to write blob cache entry {}: {}", key, e.getMessage());
+            deleteQuietly(temp);
+            return;
+        }
+
+        synchronized (entries) {
+            Long previous = entries.put(key, (long) content.length);
+            if (previous != null) {
+                currentBytes -= previous;
+            }
+            currentBytes += content.length;
+            evictIfNeeded(key);
+        }
+        logger.debug("Blob cache filled: {}, {} bytes", key, content.length);
+    }
+
+    private void evictIfNeeded(String keep) {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            iterator.remove();
+            currentBytes -= eldest.getValue();
+            deleteQuietly(resolve(eldest.getKey()));
+            logger.debug("Blob cache evicted: {}, {} bytes", eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private Path resolve(String key) {
+        return Paths.get(cacheDir, key);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete blob cache file {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 文件内容，来自已打开的缓存文件或内存字节数组，缓存文件在关闭前始终可读
+     */
+    public static class BlobContent implements Closeable {
+        private final FileChannel channel;
+        private final byte[] bytes;
+        private final long length;
+
+        private final Supplier<byte[]> fallback;
+
+        BlobContent(FileChannel channel, byte[] bytes, long length) {
+            this(channel, bytes, length, null);
+        }
+
+        BlobContent(FileChannel channel, byte[] bytes, long length, Supplier<byte[]> fallback) {
+            this.channel = channel;
+            this.bytes = bytes;
+            this.length = length;
+            this.fallback = fallback;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public boolean isCached() {
+            return channel != null;
+        }
+
+        /**
+         * 获取完整内容，缓存文件会被读入内存
+         *
+         * @return 文件内容字节数组
+         * @throws IOException 读取缓存文件失败时抛出
+         */
+        public byte[] toByteArray() throws IOException {
+            if (bytes != null) {
+                return bytes;
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Cached content is too large to read into memory: " + length + " bytes");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) {
+                    throw new IOException("Cached content is shorter than expected");
+                }
+            }
+            return buffer.array();
+        }
+
+        /**
+         * 获取可随机访问内容的通道，缓存文件直接返回已打开的文件通道，内存内容包装为内存通道
+         * 通道随本对象关闭，用于按中央目录读取压缩包而不将缓存文件整体读入内存
+         *
+         * @return 定位到起始位置的通道
+         * @throws IOException 定位缓存文件失败时抛出
+         */
+        public SeekableByteChannel getChannel() throws IOException {
+            if (bytes != null) {
+                return new SeekableInMemoryByteChannel(bytes);
+            }
+            return channel.position(0);
+        }
+
+        /**
+         * 将内容写入输出流，缓存文件通过transferTo输出
+         * 缓存文件在读取过程中被截断时，剩余部分改为从数据库加载后输出
+         *
+         * @param outputStream 输出流
+         * @throws IOException 写入失败，或缓存文件被截断且无法从数据库加载时抛出
+         */
+        public void writeTo(OutputStream outputStream) throws IOException {
+            if (bytes != null) {
+                outputStream.write(bytes);
+                return;
+            }
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = 0;
+            while (position < length) {
+                long transferred = channel.transferTo(position, length - position, target);
+                if (transferred == 0 && position >= channel.size()) {
+                    writeRemainingFromFallback(outputStream, position);
+                    return;
+                }
+                position += transferred;
+            }
+        }
+
+        private void writeRemainingFromFallback(OutputStream outputStream, long position) throws IOException {
+            byte[] content = fallback == null ? null : fallback.get();
+            if (content == null || content.length != length) {
+                throw new IOException("Cached content was truncated at " + position + " of " + length + " bytes");
+            }
+            outputStream.write(content, (int) position, (int) (length - position));
+        }
+
+        /**
+         * 关闭缓存文件，内存内容无需关闭
+         *
+         * @throws IOException 关闭失败时抛出
+         */
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
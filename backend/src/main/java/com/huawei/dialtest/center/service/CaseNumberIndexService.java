@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.mapper.TestCaseMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用例编号全局索引服务，记录每个用例编号出现在哪些用例集版本中以及各版本是否有脚本
+ * 每个用例编号对应一个有序的用例集ID数组和脚本存在位图，查询为一次哈希查找
+ * 索引在首次查询时从数据库加载，之后在本实例用例集上传和删除的事务提交后增量维护
+ * 索引保存在各实例内存中，其他实例的写入不会增量同步，由定时重建纠正，多实例部署时最多滞后一个重建周期
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class CaseNumberIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(CaseNumberIndexService.class);
+
+    private static final String[] NO_CASE_NUMBERS = new String[0];
+
+    private volatile Map<String, CaseLocations> index = new ConcurrentHashMap<>();
+
+    private volatile Map<Long, String[]> setCaseNumbers = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+
+    private volatile boolean loaded;
+
+    @Autowired
+    private TestCaseMapper testCaseMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 查询包含指定用例编号的全部用例集版本
+     *
+     * @param caseNumber 用例编号
+     * @return 按用例集ID升序排列的版本列表，不存在时返回空列表
+     */
+    public List<CaseVersion> findVersions(String caseNumber) {
+        ensureLoaded();
+        CaseLocations locations = index.get(caseNumber);
+        return locations == null ? Collections.emptyList() : locations.toVersions();
+    }
+
+    /**
+     * 判断指定用例集版本中的用例是否有脚本
+     *
+     * @param caseNumber 用例编号
+     * @param testCaseSetId 用例集ID
+     * @return 用例存在且有脚本时返回true
+     */
+    public boolean hasScript(String caseNumber, Long testCaseSetId) {
+        ensureLoaded();
+        CaseLocations locations = index.get(caseNumber);
+        if (locations == null) {
+            return false;
+        }
+        int position = Arrays.binarySearch(locations.setIds, testCaseSetId);
+        return position >= 0 && locations.scripts.get(position);
+    }
+
+    /**
+     * 在当前事务提交后将用例集的用例加入索引，没有事务时立即加入
+     *
+     * @param testCaseSetId 用例集ID
+     * @param testCases 用例集中的测试用例
+     */
+    public void recordTestCaseSet(Long testCaseSetId, List<TestCase> testCases) {
+        Map<String, Boolean> cases = new HashMap<>();
+        for (TestCase testCase : testCases) {
+            cases.merge(testCase.getCaseNumber(), Boolean.TRUE.equals(testCase.getScriptExists()), Boolean::logicalOr);
+        }
+        afterCommit(() -> {
+            synchronized (lock) {
+                if (loaded) {
+                    add(index, setCaseNumbers, testCaseSetId, cases);
+                }
+            }
+        });
+    }
+
+    /**
+     * 在当前事务提交后按源用例集的索引项加入目标用例集，没有事务时立即加入
+     *
+     * @param sourceTestCaseSetId 源用例集ID
+     * @param targetTestCaseSetId 目标用例集ID
+     */
+    public void copyTestCaseSet(Long sourceTestCaseSetId, Long targetTestCaseSetId) {
+        afterCommit(() -> {
+            synchronized (lock) {
+                String[] caseNumbers = loaded ? setCaseNumbers.get(sourceTestCaseSetId) : null;
+                if (caseNumbers == null) {
+                    return;
+                }
+                Map<String, Boolean> cases = new HashMap<>();
+                for (String caseNumber : caseNumbers) {
+                    CaseLocations locations = index.get(caseNumber);
+                    int position = Arrays.binarySearch(locations.setIds, sourceTestCaseSetId);
+                    cases.put(caseNumber, locations.scripts.get(position));
+                }
+                add(index, setCaseNumbers, targetTestCaseSetId, cases);
+            }
+        });
+    }
+
+    /**
+     * 在当前事务提交后将用例集中指定用例标记为有脚本，没有事务时立即标记
+     *
+     * @param testCaseSetId 用例集ID
+     * @param caseNumbers 用例编号
+     */
+    public void recordScripts(Long testCaseSetId, Collection<String> caseNumbers) {
+        afterCommit(() -> {
+            synchronized (lock) {
+                if (!loaded) {
+                    return;
+                }
+                for (String caseNumber : caseNumbers) {
+                    index.computeIfPresent(caseNumber, (key, locations) ->
+                            Arrays.binarySearch(locations.setIds, testCaseSetId) >= 0
+                                    ? locations.with(testCaseSetId, true)
+                                    : locations);
+                }
+            }
+        });
+    }
+
+    /**
+     * 在当前事务提交后将用例集从索引中移除，没有事务时立即移除
+     *
+     * @param testCaseSetId 用例集ID
+     */
+    public void removeTestCaseSet(Long testCaseSetId) {
+        afterCommit(() -> {
+            synchronized (lock) {
+                if (loaded) {
+                    remove(index, setCaseNumbers, testCaseSetId);
+                }
+            }
+        });
+    }
+
+    /**
+     * 获取索引规模
+     *
+     * @return 用例编号数和用例集数
+     */
+    public Map<String, Object> getStatistics() {
+        ensureLoaded();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("caseNumbers", index.size());
+        statistics.put("testCaseSets", setCaseNumbers.size());
+        return statistics;
+    }
+
+    /**
+     * 定时从数据库重建已加载的索引，纠正其他实例写入造成的偏差，尚未加载时不重建
+     */
+    @Scheduled(fixedDelayString = "${app.case-index.reload-interval-ms:3600000}",
+            initialDelayString = "${app.case-index.reload-interval-ms:3600000}")
+    public void reload() {
+        synchronized (lock) {
+            if (loaded) {
+                load();
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (lock) {
+            if (loaded) {
+                return;
+            }
+            load();
+            loaded = true;
+        }
+    }
+
+    /**
+     * 在只读事务中流式扫描全部用例，建好新索引后整体替换，查询不会看到建了一半的索引
+     * PostgreSQL驱动只在非自动提交的连接上按fetchSize分批读取，否则会一次读入全部结果
+     * 调用方须持有lock，期间提交的增量维护在替换后再执行
+     */
+    private void load() {
+        long start = System.currentTimeMillis();
+        Map<Long, Map<String, Boolean>> sets = new HashMap<>();
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.executeWithoutResult(status -> testCaseMapper.scanCaseNumbers(context -> {
+            TestCase testCase = context.getResultObject();
+            sets.computeIfAbsent(testCase.getTestCaseSetId(), id -> new HashMap<>())
+                    .merge(testCase.getCaseNumber(), Boolean.TRUE.equals(testCase.getScriptExists()),
+                            Boolean::logicalOr);
+        }));
+        Map<String, CaseLocations> loadedIndex = new ConcurrentHashMap<>();
+        Map<Long, String[]> loadedSets = new ConcurrentHashMap<>();
+        for (Map.Entry<Long, Map<String, Boolean>> set : sets.entrySet()) {
+            add(loadedIndex, loadedSets, set.getKey(), set.getValue());
+        }
+        index = loadedIndex;
+        setCaseNumbers = loadedSets;
+        logger.info("Loaded case number index: {} case numbers in {} test case sets, took {} ms",
+                loadedIndex.size(), loadedSets.size(), System.currentTimeMillis() - start);
+    }
+
+    private static void add(Map<String, CaseLocations> targetIndex, Map<Long, String[]> targetSets,
+            Long testCaseSetId, Map<String, Boolean> cases) {
+        remove(targetIndex, targetSets, testCaseSetId);
+        for (Map.Entry<String, Boolean> entry : cases.entrySet()) {
+            targetIndex.compute(entry.getKey(), (caseNumber, locations) -> locations == null
+                    ? CaseLocations.of(testCaseSetId, entry.getValue())
+                    : locations.with(testCaseSetId, entry.getValue()));
+        }
+        targetSets.put(testCaseSetId, cases.keySet().toArray(NO_CASE_NUMBERS));
+    }
+
+    private static void remove(Map<String, CaseLocations> targetIndex, Map<Long, String[]> targetSets,
+            Long testCaseSetId) {
+        String[] caseNumbers = targetSets.remove(testCaseSetId);
+        if (caseNumbers == null) {
+            return;
+        }
+        for (String caseNumber : caseNumbers) {
+            targetIndex.computeIfPresent(caseNumber, (key, locations) -> locations.without(testCaseSetId));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 单个用例编号的位置，不可变，更新时整体替换
+     */
+    private static final class CaseLocations {
+        private final long[] setIds;
+        private final BitSet scripts;
+
+        private CaseLocations(long[] setIds, BitSet scripts) {
+            this.setIds = setIds;
+            this.scripts = scripts;
+        }
+
+        static CaseLocations of(long setId, boolean script) {
+            BitSet scripts = new BitSet(1);
+            scripts.set(0, script);
+            return new CaseLocations(new long[] {setId}, scripts);
+        }
+
+        CaseLocations with(long setId, boolean script) {
+            int position = Arrays.binarySearch(setIds, setId);
+            if (position >= 0) {
+                BitSet updated = (BitSet) scripts.clone();
+                updated.set(position, script);
+                return new CaseLocations(setIds, updated);
+            }
+            int insertAt = -position - 1;
+            long[] ids = new long[setIds.length + 1];
+            System.arraycopy(setIds, 0, ids, 0, insertAt);
+            ids[insertAt] = setId;
+            System.arraycopy(setIds, insertAt, ids, insertAt + 1, setIds.length - insertAt);
+            BitSet updated = new BitSet(ids.length);
+            for (int i = 0; i < setIds.length; i++) {
+                updated.set(i < insertAt ? i : i + 1, scripts.get(i));
+            }
+            updated.set(insertAt, script);
+            return new CaseLocations(ids, updated);
+        }
+
+        CaseLocations without(long setId) {
+            int position = Arrays.binarySearch(setIds, setId);
+            if (position < 0) {
+                return this;
+            }
+            if (setIds.length == 1) {
+                return null;
+            }
+            long[] ids = new long[setIds.length - 1];
+            System.arraycopy(setIds, 0, ids, 0, position);
+            System.arraycopy(setIds, position + 1, ids, position, ids.length - position);
+            BitSet updated = new BitSet(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                updated.set(i, scripts.get(i < position ? i : i + 1));
+            }
+            return new CaseLocations(ids, updated);
+        }
+
+        List<CaseVersion> toVersions() {
+            List<CaseVersion> versions = new ArrayList<>(setIds.length);
+            for (int i = 0; i < setIds.length; i++) {
+                versions.add(new CaseVersion(setIds[i], scripts.get(i)));
+            }
+            return versions;
+        }
+    }
+
+    /**
+     * 用例编号在某个用例集版本中的出现情况
+     */
+    public static class CaseVersion {
+        private final Long testCaseSetId;
+        private final boolean scriptExists;
+
+        public CaseVersion(Long testCaseSetId, boolean scriptExists) {
+            this.testCaseSetId = testCaseSetId;
+            this.scriptExists = scriptExists;
+        }
+
+        public Long getTestCaseSetId() {
+            return testCaseSetId;
+        }
+
+        public boolean isScriptExists() {
+            return scriptExists;
+        }
+    }
+}
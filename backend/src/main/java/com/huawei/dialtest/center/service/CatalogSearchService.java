@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.dto.CatalogSearchHit;
+import com.huawei.dialtest.center.mapper.SoftwarePackageMapper;
+import com.huawei.dialtest.center.mapper.TestCaseSetMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 目录名称搜索服务，在软件包名称和用例集名称中做不区分大小写的子串搜索
+ * 查询由pg_trgm三元组索引支持，前缀匹配排在最前，拼写有误时按相似度返回近似结果
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class CatalogSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchService.class);
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final int MAX_KEYWORD_LENGTH = 100;
+
+    private static final Comparator<CatalogSearchHit> RANKING = Comparator
+            .comparing(CatalogSearchHit::getMatchRank)
+            .thenComparing(CatalogSearchHit::getScore, Comparator.reverseOrder())
+            .thenComparing(hit -> hit.getName().length());
+
+    @Autowired
+    private SoftwarePackageMapper softwarePackageMapper;
+
+    @Autowired
+    private TestCaseSetMapper testCaseSetMapper;
+
+    /**
+     * 按名称搜索软件包和用例集
+     *
+     * @param keyword 搜索关键字
+     * @param limit 返回条数，为空或非正数时使用默认值
+     * @return 按匹配等级和相似度排序的搜索结果
+     * @throws IllegalArgumentException 当关键字为空或过长时抛出
+     */
+    public List<CatalogSearchHit> search(String keyword, Integer limit) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search keyword is required");
+        }
+        String normalized = keyword.trim().toLowerCase(Locale.ROOT);
+        if (normalized.length() > MAX_KEYWORD_LENGTH) {
+            throw new IllegalArgumentException("Search keyword is too long");
+        }
+        int size = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        String pattern = escapeLike(normalized);
+
+        List<CatalogSearchHit> hits = new ArrayList<>(softwarePackageMapper.searchByName(normalized, pattern, size));
+        hits.addAll(testCaseSetMapper.searchByName(normalized, pattern, size));
+        hits.sort(RANKING);
+        logger.debug("Catalog search for [{}] matched {} names", normalized, hits.size());
+        return hits.size() > size ? new ArrayList<>(hits.subList(0, size)) : hits;
+    }
+
+    /**
+     * 转义LIKE通配符，使关键字中的%和_按字面匹配
+     *
+     * @param keyword 关键字
+     * @return 转义后的关键字
+     */
+    static String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
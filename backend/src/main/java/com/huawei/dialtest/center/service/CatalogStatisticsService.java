@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.CatalogStat;
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.mapper.CatalogStatsMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 目录统计服务，在软件包和用例集新增、删除时增量维护catalog_stats表
+ * 业务事务只向catalog_stats_delta追加增量行，不锁定共享的统计项，并发上传不会在统计行上串行
+ * 增量行由定时任务汇总合并到catalog_stats，查询时统计表与未合并的增量一起汇总，结果不滞后
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class CatalogStatisticsService {
+    /**
+     * 软件包统计对象
+     */
+    public static final String SCOPE_SOFTWARE_PACKAGE = "software_package";
+
+    /**
+     * 用例集统计对象
+     */
+    public static final String SCOPE_TEST_CASE_SET = "test_case_set";
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogStatisticsService.class);
+
+    private static final String DIMENSION_TOTAL = "total";
+
+    private static final String DIMENSION_BYTES = "bytes";
+
+    @Autowired
+    private CatalogStatsMapper catalogStatsMapper;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
+    /**
+     * 记录新增的软件包，须在插入软件包的事务中调用
+     *
+     * @param softwarePackage 已插入的软件包
+     */
+    public void recordSoftwarePackageAdded(SoftwarePackage softwarePackage) {
+        applySoftwarePackage(softwarePackage, 1);
+    }
+
+    /**
+     * 记录删除的软件包，须在删除软件包的事务中调用
+     *
+     * @param softwarePackage 已删除的软件包
+     */
+    public void recordSoftwarePackageRemoved(SoftwarePackage softwarePackage) {
+        applySoftwarePackage(softwarePackage, -1);
+    }
+
+    /**
+     * 记录新增的用例集，须在插入用例集的事务中调用
+     *
+     * @param testCaseSet 已插入的用例集
+     */
+    public void recordTestCaseSetAdded(TestCaseSet testCaseSet) {
+        applyTestCaseSet(testCaseSet, 1);
+    }
+
+    /**
+     * 记录删除的用例集，须在删除用例集的事务中调用
+     *
+     * @param testCaseSet 已删除的用例集
+     */
+    public void recordTestCaseSetRemoved(TestCaseSet testCaseSet) {
+        applyTestCaseSet(testCaseSet, -1);
+    }
+
+    /**
+     * 获取软件包和用例集的全部统计信息
+     *
+     * @return 按统计对象和维度组织的统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        return singleFlightService.execute("catalog:statistics", () -> {
+            Map<String, Map<String, Object>> byScope = new HashMap<>();
+            byScope.put(SCOPE_SOFTWARE_PACKAGE, newScope("platform", "format", "creator"));
+            byScope.put(SCOPE_TEST_CASE_SET, newScope("format", "creator", "business"));
+
+            for (CatalogStat stat : catalogStatsMapper.findAll()) {
+                Map<String, Object> scope = byScope.get(stat.getScope());
+                if (scope == null) {
+                    logger.debug("Ignoring catalog statistic with unknown scope: {}", stat);
+                    continue;
+                }
+                long value = stat.getStatValue() == null ? 0L : stat.getStatValue();
+                if (DIMENSION_TOTAL.equals(stat.getDimension()) || DIMENSION_BYTES.equals(stat.getDimension())) {
+                    scope.put(stat.getDimension(), value);
+                } else if (scope.get(stat.getDimension()) instanceof Map && value != 0L) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Long> values = (Map<String, Long>) scope.get(stat.getDimension());
+                    values.put(stat.getDimValue(), value);
+                } else {
+                    logger.debug("Ignoring catalog statistic: {}", stat);
+                }
+            }
+
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("softwarePackages", byScope.get(SCOPE_SOFTWARE_PACKAGE));
+            statistics.put("testCaseSets", byScope.get(SCOPE_TEST_CASE_SET));
+            return statistics;
+        });
+    }
+
+    /**
+     * 获取软件包各平台数量
+     *
+     * @return 包含android、ios和total数量的Map
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> getPlatformStatistics() {
+        Map<String, Object> packages = (Map<String, Object>) getStatistics().get("softwarePackages");
+        Map<String, Long> platforms = (Map<String, Long>) packages.get("platform");
+
+        Map<String, Long> statistics = new HashMap<>();
+        statistics.put("android", platforms.getOrDefault("android", 0L));
+        statistics.put("ios", platforms.getOrDefault("ios", 0L));
+        statistics.put(DIMENSION_TOTAL, (Long) packages.get(DIMENSION_TOTAL));
+        return statistics;
+    }
+
+    /**
+     * 定时将已提交的统计增量合并到统计表
+     */
+    @Scheduled(fixedDelayString = "${app.catalog-stats.fold-interval-ms:10000}")
+    public void foldDeltas() {
+        int folded = catalogStatsMapper.foldDeltas();
+        if (folded > 0) {
+            logger.debug("Folded catalog statistic deltas into {} rows", folded);
+        }
+    }
+
+    /**
+     * 根据业务表重新计算全部统计项，用于修复统计偏差
+     */
+    @Transactional
+    public void rebuild() {
+        logger.info("Rebuilding catalog statistics");
+        catalogStatsMapper.deleteAll();
+        catalogStatsMapper.deleteAllDeltas();
+        int rows = catalogStatsMapper.rebuildAll();
+        logger.info("Catalog statistics rebuilt, {} rows", rows);
+    }
+
+    private void applySoftwarePackage(SoftwarePackage softwarePackage, int sign) {
+        List<CatalogStat> deltas = new ArrayList<>();
+        addCommonDeltas(deltas, SCOPE_SOFTWARE_PACKAGE, softwarePackage.getFileSize(), sign);
+        deltas.add(delta(SCOPE_SOFTWARE_PACKAGE, "platform", softwarePackage.getPlatform(), sign));
+        deltas.add(delta(SCOPE_SOFTWARE_PACKAGE, "format", softwarePackage.getFileFormat(), sign));
+        deltas.add(delta(SCOPE_SOFTWARE_PACKAGE, "creator", softwarePackage.getCreator(), sign));
+        catalogStatsMapper.addDeltas(deltas);
+    }
+
+    private void applyTestCaseSet(TestCaseSet testCaseSet, int sign) {
+        List<CatalogStat> deltas = new ArrayList<>();
+        addCommonDeltas(deltas, SCOPE_TEST_CASE_SET, testCaseSet.getFileSize(), sign);
+        deltas.add(delta(SCOPE_TEST_CASE_SET, "format", testCaseSet.getFileFormat(), sign));
+        deltas.add(delta(SCOPE_TEST_CASE_SET, "creator", testCaseSet.getCreator(), sign));
+        deltas.add(delta(SCOPE_TEST_CASE_SET, "business", testCaseSet.getBusiness(), sign));
+        catalogStatsMapper.addDeltas(deltas);
+    }
+
+    private void addCommonDeltas(List<CatalogStat> deltas, String scope, Long fileSize, int sign) {
+        deltas.add(new CatalogStat(scope, DIMENSION_TOTAL, "", (long) sign));
+        long size = fileSize == null ? 0L : fileSize;
+        deltas.add(new CatalogStat(scope, DIMENSION_BYTES, "", sign * size));
+    }
+
+    private CatalogStat delta(String scope, String dimension, String value, int sign) {
+        return new CatalogStat(scope, dimension, value == null ? "" : value, (long) sign);
+    }
+
+    private Map<String, Object> newScope(String... dimensions) {
+        Map<String, Object> scope = new LinkedHashMap<>();
+        scope.put(DIMENSION_TOTAL, 0L);
+        scope.put(DIMENSION_BYTES, 0L);
+        for (String dimension : dimensions) {
+            scope.put(dimension, new LinkedHashMap<String, Long>());
+        }
+        return scope;
+    }
+}
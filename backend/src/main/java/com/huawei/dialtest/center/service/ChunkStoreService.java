@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.BlobChunk;
+import com.huawei.dialtest.center.mapper.BlobChunkMapper;
+import com.huawei.dialtest.center.util.HashUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 分块去重存储服务，按内容定义分块（Gear滚动哈希）切分文件并以SHA256寻址存储分块
+ * 相同分块在所有软件包和用例集之间只存储一次，通过引用计数在文件删除后回收
+ * 每个文件保存一份按顺序排列的分块清单，下载时按清单重组
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class ChunkStoreService {
+    /**
+     * 分块存储方式
+     */
+    public static final String STORAGE_CHUNKED = "CHUNKED";
+
+    /**
+     * 软件包文件
+     */
+    public static final String OWNER_SOFTWARE_PACKAGE = "SOFTWARE_PACKAGE";
+
+    /**
+     * 用例集文件
+     */
+    public static final String OWNER_TEST_CASE_SET = "TEST_CASE_SET";
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkStoreService.class);
+
+    private static final long[] GEAR = new long[256];
+
+    private static final int BATCH_SIZE = 500;
+
+    static {
+        Random random = new Random(0x5EEDC0DEL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    @Autowired
+    private BlobChunkMapper blobChunkMapper;
+
+    @Value("${app.chunk-store.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${app.chunk-store.min-chunk-size:16384}")
+    private int minChunkSize = 16384;
+
+    @Value("${app.chunk-store.avg-chunk-size:65536}")
+    private int avgChunkSize = 65536;
+
+    @Value("${app.chunk-store.max-chunk-size:262144}")
+    private int maxChunkSize = 262144;
+
+    /**
+     * 新文件是否使用分块存储
+     *
+     * @return 是否启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 按内容定义分块切分文件，分块边界只取决于附近内容，插入或删除只影响相邻分块
+     *
+     * @param content 文件内容
+     * @return 各分块的结束位置（不含）
+     */
+    public List<Integer> split(byte[] content) {
+        long mask = maskFor(avgChunkSize);
+        List<Integer> boundaries = new ArrayList<>();
+        int start = 0;
+        while (start < content.length) {
+            int end = Math.min(content.length, start + maxChunkSize);
+            int position = Math.min(end, start + minChunkSize);
+            long hash = 0;
+            while (position < end) {
+                hash = (hash << 1) + GEAR[content[position] & 0xff];
+                position++;
+                if ((hash & mask) == 0) {
+                    break;
+                }
+            }
+            boundaries.add(position);
+            start = position;
+        }
+        return boundaries;
+    }
+
+    /**
+     * 分块存储文件内容并保存分块清单，须在写入文件所属记录的事务中调用
+     *
+     * @param ownerType 文件所属对象类型
+     * @param ownerId 文件所属对象ID
+     * @param content 文件内容
+     * @return 本次新增存储的字节数
+     */
+    public long store(String ownerType, Long ownerId, byte[] content) {
+        List<String> manifest = new ArrayList<>();
+        Map<String, BlobChunk> chunks = new LinkedHashMap<>();
+        int start = 0;
+        for (int end : split(content)) {
+            byte[] data = Arrays.copyOfRange(content, start, end);
+            String hash = HashUtils.sha256Hex(data);
+            manifest.add(hash);
+            BlobChunk chunk = chunks.get(hash);
+            if (chunk == null) {
+                chunks.put(hash, new BlobChunk(hash, data, 1));
+            } else {
+                chunk.setRefCount(chunk.getRefCount() + 1);
+            }
+            start = end;
+        }
+
+        List<BlobChunk> unique = new ArrayList<>(chunks.values());
+        Set<String> existing = new HashSet<>();
+        for (int i = 0; i < unique.size(); i += BATCH_SIZE) {
+            List<BlobChunk> batch = unique.subList(i, Math.min(unique.size(), i + BATCH_SIZE));
+            existing.addAll(blobChunkMapper.incrementRefCounts(toReferences(batch)));
+        }
+        long newBytes = 0;
+        for (BlobChunk chunk : unique) {
+            if (!existing.contains(chunk.getChunkHash())) {
+                blobChunkMapper.insertChunk(chunk);
+                newBytes += chunk.getChunkSize();
+            }
+        }
+        for (int i = 0; i < manifest.size(); i += BATCH_SIZE) {
+            blobChunkMapper.insertManifestEntries(ownerType, ownerId, i,
+                    manifest.subList(i, Math.min(manifest.size(), i + BATCH_SIZE)));
+        }
+        logger.info("Stored {} {} in {} chunks ({} unique), {} of {} bytes new",
+                ownerType, ownerId, manifest.size(), unique.size(), newBytes, content.length);
+        return newBytes;
+    }
+
+    /**
+     * 按分块清单重组文件内容
+     *
+     * @param ownerType 文件所属对象类型
+     * @param ownerId 文件所属对象ID
+     * @return 文件内容，没有分块清单时返回null
+     */
+    public byte[] read(String ownerType, Long ownerId) {
+        List<byte[]> parts = blobChunkMapper.findManifestContents(ownerType, ownerId);
+        if (parts.isEmpty()) {
+            return null;
+        }
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length);
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 释放文件的分块引用并回收不再被引用的分块，须在删除文件所属记录的事务中调用
+     *
+     * @param ownerType 文件所属对象类型
+     * @param ownerId 文件所属对象ID
+     */
+    public void release(String ownerType, Long ownerId) {
+        if (blobChunkMapper.decrementRefCounts(ownerType, ownerId) == 0) {
+            return;
+        }
+        int entries = blobChunkMapper.deleteManifest(ownerType, ownerId);
+        int collected = blobChunkMapper.deleteUnreferencedChunks();
+        logger.info("Released {} {}: {} manifest entries, {} chunks collected", ownerType, ownerId, entries,
+                collected);
+    }
+
+    /**
+     * 让目标对象引用源文件的全部分块，只复制分块清单并增加引用计数，不读取分块内容
+     *
+     * @param ownerType 文件所属对象类型
+     * @param sourceOwnerId 源文件所属对象ID
+     * @param targetOwnerId 目标文件所属对象ID
+     * @return 复制的清单条目数
+     */
+    public int copy(String ownerType, Long sourceOwnerId, Long targetOwnerId) {
+        blobChunkMapper.incrementRefCountsByManifest(ownerType, sourceOwnerId);
+        int entries = blobChunkMapper.copyManifest(ownerType, sourceOwnerId, targetOwnerId);
+        logger.debug("Copied {} manifest entries of {} {} to {}", entries, ownerType, sourceOwnerId, targetOwnerId);
+        return entries;
+    }
+
+    /**
+     * 获取分块存储统计信息
+     *
+     * @return 分块数、实际存储字节数、逻辑字节数和去重比
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> row = blobChunkMapper.getStatistics();
+        long chunkCount = toLong(row.get("chunk_count"));
+        long storedBytes = toLong(row.get("stored_bytes"));
+        long logicalBytes = toLong(row.get("logical_bytes"));
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("chunkCount", chunkCount);
+        statistics.put("storedBytes", storedBytes);
+        statistics.put("logicalBytes", logicalBytes);
+        statistics.put("savedBytes", logicalBytes - storedBytes);
+        statistics.put("dedupRatio", storedBytes == 0 ? 1.0 : (double) logicalBytes / storedBytes);
+        return statistics;
+    }
+
+    private List<BlobChunk> toReferences(List<BlobChunk> chunks) {
+        List<BlobChunk> references = new ArrayList<>(chunks.size());
+        for (BlobChunk chunk : chunks) {
+            references.add(new BlobChunk(chunk.getChunkHash(), null, chunk.getRefCount()));
+        }
+        return references;
+    }
+
+    private static long maskFor(int averageSize) {
+        int bits = 31 - Integer.numberOfLeadingZeros(Math.max(2, averageSize));
+        return ((1L << bits) - 1) << (64 - bits);
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadRejectedException;
+import com.huawei.dialtest.center.util.HashUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 分片上传服务，支持大软件包的断点续传
+ * 客户端创建上传会话后可乱序、并行上传编号分片，分片内容直接流式写入分片文件，按顺序到齐时增量计算SHA512
+ * 完成时复用软件包的重复性检查和创建逻辑，过期未完成的会话定时清理
+ * 会话只保存在内存中，启动时删除遗留的分片文件，服务重启后未完成的上传须重新创建会话
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class ChunkedUploadService {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final String PART_FILE_SUFFIX = ".part";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private SoftwarePackageService softwarePackageService;
+
+    @Value("${app.upload.chunk.dir:${java.io.tmpdir}/dialtest-chunks}")
+    private String chunkDir;
+
+    @Value("${app.upload.chunk.min-chunk-size:65536}")
+    private int minChunkSize = 65536;
+
+    @Value("${app.upload.chunk.max-chunk-size:67108864}")
+    private int maxChunkSize = 67108864;
+
+    @Value("${app.upload.chunk.session-ttl-ms:86400000}")
+    private long sessionTtlMs = 86400000L;
+
+    @Value("${app.upload.chunk.max-sessions:100}")
+    private int maxSessions = 100;
+
+    @Value("${app.upload.retry-after-seconds:30}")
+    private int retryAfterSeconds = 30;
+
+    /**
+     * 初始化分片存储目录并清理重启前遗留的分片文件
+     *
+     * @throws IOException 创建目录失败时抛出
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        Path dir = Paths.get(chunkDir);
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + PART_FILE_SUFFIX)) {
+            for (Path orphan : stream) {
+                Files.deleteIfExists(orphan);
+                logger.info("Removed orphaned chunk file: {}", orphan);
+            }
+        }
+    }
+
+    /**
+     * 创建分片上传会话，预分配目标文件
+     *
+     * @param fileName 文件名，支持.apk和.ipa格式
+     * @param totalSize 文件总大小（字节）
+     * @param chunkSize 分片大小（字节），最后一个分片可以更小
+     * @param description 软件包描述信息
+     * @param creator 创建者用户名
+     * @return 上传会话
+     * @throws IOException 创建分片文件失败时抛出
+     * @throws IllegalArgumentException 当参数无效时抛出
+     * @throws UploadRejectedException 未完成的上传会话数已达上限时抛出
+     */
+    public UploadSession createSession(String fileName, long totalSize, int chunkSize, String description,
+            String creator) throws IOException {
+        if (fileName == null || fileName.trim().isEmpty()) {
+            throw new IllegalArgumentException("File name cannot be null");
+        }
+        String lowerFileName = fileName.toLowerCase();
+        if (!lowerFileName.endsWith(".apk") && !lowerFileName.endsWith(".ipa")) {
+            throw new IllegalArgumentException("Only APK and IPA format files are supported");
+        }
+        if (totalSize <= 0) {
+            throw new IllegalArgumentException("File cannot be empty");
+        }
+        if (totalSize > SoftwarePackageService.MAX_FILE_SIZE) {
+            throw new IllegalArgumentException("File size cannot exceed 500MB");
+        }
+        if (chunkSize < minChunkSize || chunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("Chunk size must be between " + minChunkSize + " and "
+                    + maxChunkSize + " bytes");
+        }
+
+        String sessionId = UUID.randomUUID().toString();
+        Path partFile = Paths.get(chunkDir, sessionId + PART_FILE_SUFFIX);
+        UploadSession session = new UploadSession(sessionId, fileName, totalSize, chunkSize, description, creator,
+                partFile, HashUtils.newDigest("SHA-512"));
+        synchronized (sessions) {
+            if (sessions.size() >= maxSessions) {
+                logger.warn("Chunked upload session rejected for {}: {} sessions open", fileName, sessions.size());
+                throw new UploadRejectedException("Too many open upload sessions", retryAfterSeconds);
+            }
+            sessions.put(sessionId, session);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(partFile.toFile(), "rw")) {
+            file.setLength(totalSize);
+        } catch (IOException e) {
+            removeSession(session);
+            throw e;
+        }
+        logger.info("Chunked upload session created: {}, file: {}, size: {} bytes, chunks: {}",
+                sessionId, fileName, totalSize, session.getChunkCount());
+        return session;
+    }
+
+    /**
+     * 根据ID获取上传会话
+     *
+     * @param sessionId 会话ID
+     * @return 上传会话，如果不存在则返回空
+     */
+    public Optional<UploadSession> getSession(String sessionId) {
+        return Optional.ofNullable(sessions.get(sessionId));
+    }
+
+    /**
+     * 写入一个分片，分片内容从输入流分段写入分片文件，不在内存中缓存整个分片，重复上传已接收的分片会被忽略
+     *
+     * @param sessionId 会话ID
+     * @param chunkIndex 分片编号，从0开始
+     * @param data 分片内容输入流
+     * @return 更新后的上传会话
+     * @throws IOException 读取分片内容或写入分片文件失败时抛出
+     * @throws IllegalArgumentException 当会话不存在或分片编号、大小不正确时抛出
+     */
+    public UploadSession putChunk(String sessionId, int chunkIndex, InputStream data) throws IOException {
+        UploadSession session = requireSession(sessionId);
+        if (chunkIndex < 0 || chunkIndex >= session.getChunkCount()) {
+            throw new IllegalArgumentException("Chunk index out of range: " + chunkIndex);
+        }
+        if (session.isReceived(chunkIndex)) {
+            logger.debug("Chunk {} of session {} already received, ignoring", chunkIndex, sessionId);
+            session.touch();
+            return session;
+        }
+
+        long expectedSize = session.getExpectedChunkSize(chunkIndex);
+        long position = (long) chunkIndex * session.getChunkSize();
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int read;
+            while ((read = data.read(buffer)) != -1) {
+                if (written + read > expectedSize) {
+                    throw new IllegalArgumentException("Chunk " + chunkIndex + " must be " + expectedSize + " bytes");
+                }
+                ByteBuffer slice = ByteBuffer.wrap(buffer, 0, read);
+                while (slice.hasRemaining()) {
+                    channel.write(slice, position + written + slice.position());
+                }
+                written += read;
+            }
+        }
+        if (written != expectedSize) {
+            throw new IllegalArgumentException("Chunk " + chunkIndex + " must be " + expectedSize + " bytes");
+        }
+        session.markReceived(chunkIndex);
+        return session;
+    }
+
+    /**
+     * 完成分片上传，校验分片完整性后创建软件包记录
+     * 软件包按字节数组入库，完成时整个分片文件读入堆内存，单次最多占用MAX_FILE_SIZE（500MB）
+     *
+     * @param sessionId 会话ID
+     * @return 保存后的软件包实体对象
+     * @throws IOException 读取分片文件失败时抛出
+     * @throws IllegalArgumentException 当会话不存在、分片不完整或软件包已存在时抛出
+     */
+    public SoftwarePackage complete(String sessionId) throws IOException {
+        UploadSession session = requireSession(sessionId);
+        String sha512 = session.getMissingCount() == 0 ? session.awaitSha512() : null;
+        if (sha512 == null) {
+            throw new IllegalArgumentException("Upload is incomplete, " + session.getMissingCount()
+                    + " chunks missing");
+        }
+        byte[] fileContent = Files.readAllBytes(session.partFile);
+        SoftwarePackage softwarePackage = softwarePackageService.createSoftwarePackage(
+                session.getFileName(), fileContent, sha512, session.description, session.creator);
+        removeSession(session);
+        logger.info("Chunked upload completed: {}, software package ID: {}", sessionId, softwarePackage.getId());
+        return softwarePackage;
+    }
+
+    /**
+     * 放弃上传会话并删除已接收的分片
+     *
+     * @param sessionId 会话ID
+     * @return 会话存在并已删除时返回true
+     */
+    public boolean abort(String sessionId) {
+        UploadSession session = sessions.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        removeSession(session);
+        logger.info("Chunked upload session aborted: {}", sessionId);
+        return true;
+    }
+
+    /**
+     * 定时清理长时间无活动的上传会话
+     */
+    @Scheduled(fixedDelayString = "${app.upload.chunk.gc-interval-ms:600000}")
+    public void removeExpiredSessions() {
+        long expireBefore = System.currentTimeMillis() - sessionTtlMs;
+        for (UploadSession session : new ArrayList<>(sessions.values())) {
+            if (session.getLastActivityTime() < expireBefore) {
+                removeSession(session);
+                logger.info("Expired chunked upload session removed: {}, file: {}",
+                        session.getId(), session.getFileName());
+            }
+        }
+    }
+
+    private UploadSession requireSession(String sessionId) {
+        UploadSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw new IllegalArgumentException("Upload session does not exist");
+        }
+        return session;
+    }
+
+    private void removeSession(UploadSession session) {
+        sessions.remove(session.getId());
+        try {
+            Files.deleteIfExists(session.partFile);
+        } catch (IOException e) {
+            logger.warn("Failed to delete chunk file {}: {}", session.partFile, e.getMessage());
+        }
+    }
+
+    /**
+     * 分片上传会话，记录已接收分片并按顺序增量计算SHA512
+     */
+    public static class UploadSession {
+        private final String id;
+        private final String fileName;
+        private final long totalSize;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final String description;
+        private final String creator;
+        private final Path partFile;
+        private final MessageDigest digest;
+        private final BitSet received;
+        private final ByteBuffer hashBuffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+        private final long createdTime;
+        private volatile long lastActivityTime;
+        private int hashedChunks;
+        private boolean hashing;
+        private String sha512;
+
+        UploadSession(String id, String fileName, long totalSize, int chunkSize, String description, String creator,
+                Path partFile, MessageDigest digest) {
+            this.id = id;
+            this.fileName = fileName;
+            this.totalSize = totalSize;
+            this.chunkSize = chunkSize;
+            this.chunkCount = (int) ((totalSize + chunkSize - 1) / chunkSize);
+            this.description = description;
+            this.creator = creator;
+            this.partFile = partFile;
+            this.digest = digest;
+            this.received = new BitSet(chunkCount);
+            this.createdTime = System.currentTimeMillis();
+            this.lastActivityTime = createdTime;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public long getTotalSize() {
+            return totalSize;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public int getChunkCount() {
+            return chunkCount;
+        }
+
+        public long getCreatedTime() {
+            return createdTime;
+        }
+
+        public long getLastActivityTime() {
+            return lastActivityTime;
+        }
+
+        /**
+         * 获取已接收的分片编号列表
+         *
+         * @return 分片编号列表
+         */
+        public synchronized List<Integer> getReceivedChunks() {
+            List<Integer> chunks = new ArrayList<>(received.cardinality());
+            for (int i = received.nextSetBit(0); i >= 0; i = received.nextSetBit(i + 1)) {
+                chunks.add(i);
+            }
+            return chunks;
+        }
+
+        public synchronized int getMissingCount() {
+            return chunkCount - received.cardinality();
+        }
+
+        public synchronized boolean isComplete() {
+            return sha512 != null;
+        }
+
+        /**
+         * 获取完整文件的SHA512，仅在全部分片到齐后可用
+         *
+         * @return SHA512哈希值的十六进制字符串，未完成时返回null
+         */
+        public synchronized String getSha512() {
+            return sha512;
+        }
+
+        long getExpectedChunkSize(int chunkIndex) {
+            long offset = (long) chunkIndex * chunkSize;
+            return Math.min(chunkSize, totalSize - offset);
+        }
+
+        synchronized boolean isReceived(int chunkIndex) {
+            return received.get(chunkIndex);
+        }
+
+        void touch() {
+            lastActivityTime = System.currentTimeMillis();
+        }
+
+        /**
+         * 标记分片已接收，并从分片文件回读连续到齐的分片依次计入摘要
+         *
+         * @param chunkIndex 分片编号
+         * @throws IOException 回读已落盘分片失败时抛出
+         */
+        void markReceived(int chunkIndex) throws IOException {
+            synchronized (this) {
+                received.set(chunkIndex);
+                touch();
+            }
+            hashReceivedChunks();
+        }
+
+        /**
+         * 等待摘要计算结束并返回完整文件的SHA512，此前摘要计算失败时从第一个分片重新计算
+         *
+         * @return SHA512哈希值的十六进制字符串，分片未到齐时返回null
+         * @throws IOException 回读已落盘分片失败或等待被中断时抛出
+         */
+        String awaitSha512() throws IOException {
+            hashReceivedChunks();
+            synchronized (this) {
+                try {
+                    while (hashing) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for chunk hashing");
+                }
+                return sha512;
+            }
+        }
+
+        /**
+         * 在锁内认领连续到齐、尚未计入摘要的分片范围，回读和计算摘要时不持有锁，同一时刻只有一个线程计算摘要
+         * 计算失败时摘要重置，下次从第一个分片重新计算
+         */
+        private void hashReceivedChunks() throws IOException {
+            synchronized (this) {
+                if (hashing || sha512 != null) {
+                    return;
+                }
+                hashing = true;
+            }
+            try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.READ)) {
+                while (true) {
+                    int from;
+                    int to;
+                    synchronized (this) {
+                        from = hashedChunks;
+                        to = Math.min(received.nextClearBit(from), chunkCount);
+                        if (to == from) {
+                            if (hashedChunks == chunkCount) {
+                                sha512 = HashUtils.toHex(digest.digest());
+                            }
+                            hashing = false;
+                            notifyAll();
+                            return;
+                        }
+                    }
+                    hashRange(channel, (long) from * chunkSize, Math.min(totalSize, (long) to * chunkSize));
+                    synchronized (this) {
+                        hashedChunks = to;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    digest.reset();
+                    hashedChunks = 0;
+                    hashing = false;
+                    notifyAll();
+                }
+                throw e;
+            }
+        }
+
+        private void hashRange(FileChannel channel, long start, long end) throws IOException {
+            long position = start;
+            while (position < end) {
+                hashBuffer.clear();
+                hashBuffer.limit((int) Math.min(hashBuffer.capacity(), end - position));
+                while (hashBuffer.hasRemaining()) {
+                    if (channel.read(hashBuffer, position + hashBuffer.position()) < 0) {
+                        throw new IOException("Unexpected end of chunk file");
+                    }
+                }
+                hashBuffer.flip();
+                position += hashBuffer.remaining();
+                digest.update(hashBuffer);
+            }
+        }
+    }
+}
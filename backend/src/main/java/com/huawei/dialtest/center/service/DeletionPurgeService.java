@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.mapper.SoftwarePackageMapper;
+import com.huawei.dialtest.center.mapper.TestCaseMapper;
+import com.huawei.dialtest.center.mapper.TestCaseSetMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 删除清理服务，定时清除已标记删除的用例集和软件包
+ * 用例集的测试用例按批删除，每批独立提交并在批间暂停，避免长时间持有锁和集中产生大量死元组
+ * 每轮清理的记录数有上限，未清理完的记录留到下一轮
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class DeletionPurgeService {
+    private static final Logger logger = LoggerFactory.getLogger(DeletionPurgeService.class);
+
+    @Autowired
+    private TestCaseSetMapper testCaseSetMapper;
+
+    @Autowired
+    private TestCaseMapper testCaseMapper;
+
+    @Autowired
+    private SoftwarePackageMapper softwarePackageMapper;
+
+    @Autowired
+    private TestCaseSetService testCaseSetService;
+
+    @Autowired
+    private SoftwarePackageService softwarePackageService;
+
+    @Value("${app.purge.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${app.purge.batch-pause-ms:200}")
+    private long batchPauseMs = 200L;
+
+    @Value("${app.purge.max-items-per-run:20}")
+    private int maxItemsPerRun = 20;
+
+    /**
+     * 定时清理已标记删除的用例集和软件包
+     */
+    @Scheduled(fixedDelayString = "${app.purge.interval-ms:60000}")
+    public void purge() {
+        int purgedSets = 0;
+        for (TestCaseSet testCaseSet : testCaseSetMapper.findDeleted(maxItemsPerRun)) {
+            try {
+                purgeTestCaseSet(testCaseSet);
+                purgedSets++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Failed to purge test case set {}: {}", testCaseSet.getId(), e.getMessage(), e);
+            }
+        }
+
+        int purgedPackages = 0;
+        for (SoftwarePackage softwarePackage : softwarePackageMapper.findDeleted(maxItemsPerRun)) {
+            try {
+                softwarePackageService.purgeSoftwarePackage(softwarePackage);
+                purgedPackages++;
+                pause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Failed to purge software package {}: {}", softwarePackage.getId(), e.getMessage(), e);
+            }
+        }
+        if (purgedSets > 0 || purgedPackages > 0) {
+            logger.info("Purged {} deleted test case sets and {} deleted software packages", purgedSets,
+                    purgedPackages);
+        }
+    }
+
+    /**
+     * 分批删除用例集的测试用例后清除用例集记录
+     *
+     * @param testCaseSet 已标记删除的用例集元数据
+     * @throws InterruptedException 批间暂停被中断时抛出
+     */
+    void purgeTestCaseSet(TestCaseSet testCaseSet) throws InterruptedException {
+        long deletedCases = 0;
+        int deleted;
+        do {
+            deleted = testCaseMapper.deleteBatchByTestCaseSetId(testCaseSet.getId(), batchSize);
+            deletedCases += deleted;
+            pause();
+        } while (deleted >= batchSize);
+        testCaseSetService.purgeTestCaseSet(testCaseSet);
+        logger.debug("Purged test case set {} with {} test cases", testCaseSet.getId(), deletedCases);
+    }
+
+    private void pause() throws InterruptedException {
+        if (batchPauseMs > 0) {
+            Thread.sleep(batchPauseMs);
+        }
+    }
+}
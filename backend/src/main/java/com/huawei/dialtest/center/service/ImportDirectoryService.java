@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadRejectedException;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadTicket;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * 导入目录服务，监听服务器本地目录并自动导入放入其中的软件包和用例集
+ * 文件大小和修改时间在稳定期内不再变化后才开始导入，避免读取仍在写入的文件
+ * 导入成功后删除源文件，失败的文件移入failed子目录并写入同名.reason.txt说明原因
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class ImportDirectoryService {
+    /**
+     * 导入失败文件的隔离子目录
+     */
+    public static final String FAILED_DIR = "failed";
+
+    /**
+     * 失败原因文件后缀
+     */
+    public static final String REASON_SUFFIX = ".reason.txt";
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportDirectoryService.class);
+
+    private final Map<Path, FileState> pendingFiles = new ConcurrentHashMap<>();
+
+    private final Set<Path> importingFiles = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private SoftwarePackageService softwarePackageService;
+
+    @Autowired
+    private TestCaseSetService testCaseSetService;
+
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Value("${app.import-dir.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${app.import-dir.path:${java.io.tmpdir}/dialtest-import}")
+    private String importDir = System.getProperty("java.io.tmpdir") + "/dialtest-import";
+
+    @Value("${app.import-dir.threads:2}")
+    private int threads = 2;
+
+    @Value("${app.import-dir.stable-ms:5000}")
+    private long stableMs = 5000L;
+
+    @Value("${app.import-dir.poll-interval-ms:1000}")
+    private long pollIntervalMs = 1000L;
+
+    @Value("${app.import-dir.creator:import}")
+    private String creator = "import";
+
+    @Value("${app.import-dir.business:VPN阻断业务}")
+    private String business = "VPN阻断业务";
+
+    private Path directory;
+
+    private WatchService watchService;
+
+    private ExecutorService executor;
+
+    private Thread watcher;
+
+    /**
+     * 启用时创建导入目录，导入启动前已存在的文件并开始监听
+     *
+     * @throws IOException 创建目录或注册监听失败时抛出
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(importDir);
+        Files.createDirectories(directory.resolve(FAILED_DIR));
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "import-dir-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        scan();
+
+        watcher = new Thread(this::watch, "import-dir-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching import directory {} with {} import threads", directory, threads);
+    }
+
+    /**
+     * 停止监听并中断进行中的导入
+     */
+    @PreDestroy
+    public void stop() {
+        if (watcher == null) {
+            return;
+        }
+        watcher.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close import directory watch service: {}", e.getMessage());
+        }
+        executor.shutdownNow();
+    }
+
+    private void watch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                WatchKey key = watchService.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            scan();
+                        } else {
+                            observe(directory.resolve((Path) event.context()));
+                        }
+                    }
+                    key.reset();
+                }
+                for (Path file : takeStableFiles(System.currentTimeMillis())) {
+                    executor.execute(() -> importFile(file));
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                logger.warn("Failed to scan import directory {}: {}", directory, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 将导入目录中的全部文件加入待导入列表，用于启动时和监听事件溢出时
+     *
+     * @throws IOException 读取目录失败时抛出
+     */
+    void scan() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                observe(file);
+            }
+        }
+    }
+
+    /**
+     * 记录新出现或发生变化的文件，隐藏文件和临时文件不导入
+     *
+     * @param file 文件路径
+     */
+    void observe(Path file) {
+        String name = file.getFileName().toString();
+        if (name.startsWith(".") || name.endsWith(".tmp") || name.endsWith(".part") || importingFiles.contains(file)) {
+            return;
+        }
+        pendingFiles.putIfAbsent(file, new FileState());
+    }
+
+    /**
+     * 取出大小和修改时间已在稳定期内保持不变的文件
+     *
+     * @param now 当前时间（毫秒）
+     * @return 可以开始导入的文件
+     * @throws IOException 读取文件属性失败时抛出
+     */
+    List<Path> takeStableFiles(long now) throws IOException {
+        List<Path> stableFiles = new ArrayList<>();
+        Iterator<Map.Entry<Path, FileState>> iterator = pendingFiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, FileState> entry = iterator.next();
+            Path file = entry.getKey();
+            if (!Files.isRegularFile(file)) {
+                iterator.remove();
+                continue;
+            }
+            FileState state = entry.getValue();
+            long size = Files.size(file);
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            if (size != state.size || modified != state.modified) {
+                state.size = size;
+                state.modified = modified;
+                state.changedAt = now;
+            } else if (now - state.changedAt >= stableMs) {
+                iterator.remove();
+                importingFiles.add(file);
+                stableFiles.add(file);
+            }
+        }
+        return stableFiles;
+    }
+
+    /**
+     * 导入单个文件，成功后删除源文件，失败时隔离文件并写入原因，服务繁忙时稍后重试
+     * 超过上传字节配额的文件永远无法获得准入，直接隔离而不重试
+     *
+     * @param file 文件路径
+     */
+    void importFile(Path file) {
+        String fileName = file.getFileName().toString();
+        String lowerName = fileName.toLowerCase(Locale.ROOT);
+        try {
+            if (lowerName.endsWith(".apk") || lowerName.endsWith(".ipa")) {
+                importSoftwarePackage(file, fileName);
+            } else if (lowerName.endsWith(".zip") || lowerName.endsWith(".tar.gz")) {
+                importTestCaseSet(file, fileName);
+            } else {
+                throw new IllegalArgumentException("Unsupported file type, expected .apk, .ipa, .zip or .tar.gz");
+            }
+        } catch (UploadRejectedException e) {
+            logger.info("Import of {} deferred: {}", fileName, e.getMessage());
+            importingFiles.remove(file);
+            observe(file);
+            return;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Import of {} failed: {}", fileName, e.getMessage());
+            quarantine(file, e);
+            importingFiles.remove(file);
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Imported {} but failed to delete it: {}", file, e.getMessage());
+        }
+        importingFiles.remove(file);
+    }
+
+    private void importSoftwarePackage(Path file, String fileName) throws IOException {
+        long size = Files.size(file);
+        if (size > SoftwarePackageService.MAX_FILE_SIZE) {
+            throw new IllegalArgumentException("File size cannot exceed 500MB");
+        }
+        try (UploadTicket ticket = uploadAdmissionService.admit(UploadType.SOFTWARE_PACKAGE, fileName,
+                checkInFlightBudget(size))) {
+            byte[] content = readFile(file);
+            SoftwarePackage softwarePackage = softwarePackageService.createSoftwarePackage(fileName, content, null,
+                    null, creator);
+            logger.info("Imported software package {} from {}", softwarePackage.getId(), file);
+        }
+    }
+
+    private void importTestCaseSet(Path file, String fileName) throws IOException {
+        try (UploadTicket ticket = uploadAdmissionService.admit(UploadType.TEST_CASE_SET, fileName,
+                checkInFlightBudget(Files.size(file)))) {
+            byte[] content = readFile(file);
+            TestCaseSet testCaseSet = testCaseSetService.importTestCaseSet(fileName, content, null, creator,
+                    business);
+            logger.info("Imported test case set {} from {}", testCaseSet.getId(), file);
+        }
+    }
+
+    /**
+     * 检查文件大小未超过上传字节配额，超过配额的文件重试也无法获得准入
+     *
+     * @param size 文件大小（字节）
+     * @return 文件大小
+     * @throws IllegalArgumentException 文件大小超过上传字节配额时抛出
+     */
+    private long checkInFlightBudget(long size) {
+        long maxInFlightBytes = uploadAdmissionService.getMaxInFlightBytes();
+        if (size > maxInFlightBytes) {
+            throw new IllegalArgumentException("File size " + size + " bytes exceeds the in-flight byte budget of "
+                    + maxInFlightBytes + " bytes");
+        }
+        return size;
+    }
+
+    /**
+     * 通过FileChannel将文件直接读入大小确定的数组
+     *
+     * @param file 文件路径
+     * @return 文件内容
+     * @throws IOException 读取失败或文件过大时抛出
+     */
+    static byte[] readFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("File is too large to import: " + size + " bytes");
+            }
+            byte[] content = new byte[(int) size];
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("File was truncated while importing");
+                }
+            }
+            return content;
+        }
+    }
+
+    private void quarantine(Path file, Exception cause) {
+        Path failedDir = directory.resolve(FAILED_DIR);
+        Path fileName = file.getFileName();
+        try {
+            Files.move(file, failedDir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+            String reason = cause.getClass().getSimpleName() + ": " + cause.getMessage() + System.lineSeparator();
+            Files.write(failedDir.resolve(fileName + REASON_SUFFIX), reason.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.error("Failed to quarantine import file {}: {}", file, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 待导入文件最近一次观察到的大小、修改时间和发生变化的时间
+     */
+    private static class FileState {
+        private long size = -1L;
+        private long modified = -1L;
+        private long changedAt;
+    }
+}
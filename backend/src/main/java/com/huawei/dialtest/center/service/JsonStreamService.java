@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * JSON流式输出服务，将MyBatis游标等逐行读取的结果直接写入响应输出流
+ * 支持JSON和NDJSON两种格式，内存占用与结果数量无关
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class JsonStreamService {
+    /**
+     * JSON格式
+     */
+    public static final String FORMAT_JSON = "json";
+
+    /**
+     * NDJSON格式，每行一个JSON对象
+     */
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 校验并规范化输出格式
+     *
+     * @param format 输出格式
+     * @return 小写的输出格式
+     * @throws IllegalArgumentException 当格式不受支持时抛出
+     */
+    public static String normalizeFormat(String format) {
+        String normalized = format == null ? FORMAT_JSON : format.trim().toLowerCase(Locale.ROOT);
+        if (!FORMAT_JSON.equals(normalized) && !FORMAT_NDJSON.equals(normalized)) {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        return normalized;
+    }
+
+    /**
+     * 获取输出格式对应的Content-Type
+     *
+     * @param format 规范化后的输出格式
+     * @return Content-Type
+     */
+    public static String contentType(String format) {
+        return FORMAT_NDJSON.equals(format) ? "application/x-ndjson;charset=UTF-8" : "application/json;charset=UTF-8";
+    }
+
+    /**
+     * 写出结果列表，JSON格式为数组，NDJSON格式为每行一个对象
+     *
+     * @param rows 结果，逐个读取
+     * @param format 规范化后的输出格式
+     * @param out 输出流，调用方负责关闭
+     * @return 写出的条数
+     * @throws IOException 写出失败时抛出
+     */
+    public long writeArray(Iterable<?> rows, String format, OutputStream out) throws IOException {
+        JsonGenerator generator = createGenerator(out);
+        long count = FORMAT_NDJSON.equals(format) ? writeLines(generator, rows) : writeElements(generator, rows);
+        generator.close();
+        return count;
+    }
+
+    /**
+     * 写出结果列表，JSON格式为包含data数组和count的对象，NDJSON格式为每行一个对象
+     *
+     * @param rows 结果，逐个读取
+     * @param format 规范化后的输出格式
+     * @param out 输出流，调用方负责关闭
+     * @return 写出的条数
+     * @throws IOException 写出失败时抛出
+     */
+    public long writeData(Iterable<?> rows, String format, OutputStream out) throws IOException {
+        JsonGenerator generator = createGenerator(out);
+        long count;
+        if (FORMAT_NDJSON.equals(format)) {
+            count = writeLines(generator, rows);
+        } else {
+            // 条数在写完数组后才能确定，因此count放在data之后
+            generator.writeStartObject();
+            generator.writeFieldName("data");
+            count = writeElements(generator, rows);
+            generator.writeNumberField("count", count);
+            generator.writeEndObject();
+        }
+        generator.close();
+        return count;
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // NDJSON以换行分隔顶层对象，不再额外写入默认的空格分隔符
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private static long writeElements(JsonGenerator generator, Iterable<?> rows) throws IOException {
+        generator.writeStartArray();
+        long count = 0;
+        for (Object row : rows) {
+            generator.writeObject(row);
+            count++;
+        }
+        generator.writeEndArray();
+        return count;
+    }
+
+    private static long writeLines(JsonGenerator generator, Iterable<?> rows) throws IOException {
+        long count = 0;
+        for (Object row : rows) {
+            generator.writeObject(row);
+            generator.writeRaw('\n');
+            count++;
+        }
+        return count;
+    }
+}
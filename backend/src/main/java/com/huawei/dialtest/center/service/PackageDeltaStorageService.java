@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.mapper.SoftwarePackageMapper;
+import com.huawei.dialtest.center.service.BlobCacheService.BlobContent;
+import com.huawei.dialtest.center.util.HashUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 软件包差量存储服务，同一应用的新构建以相对上一版本的二进制差量存储
+ * 差量链长度达到上限时改为完整存储，下载时沿差量链还原并由磁盘缓存保存最近版本的完整内容
+ * 删除基准包前先将依赖它的差量包还原为完整存储，并定时将超长差量链重新完整存储
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class PackageDeltaStorageService {
+    /**
+     * 完整存储
+     */
+    public static final String STORAGE_FULL = "FULL";
+
+    /**
+     * 差量存储
+     */
+    public static final String STORAGE_DELTA = "DELTA";
+
+    private static final Logger logger = LoggerFactory.getLogger(PackageDeltaStorageService.class);
+
+    private static final Pattern PACKAGE_EXTENSION = Pattern.compile("(?i)\\.(apk|ipa)$");
+
+    private static final Pattern VERSION_SUFFIX = Pattern.compile("(?i)[_-]?v?[0-9]+([._-][0-9]+)*$");
+
+    private static final int MAX_CHAIN_WALK = 1000;
+
+    @Autowired
+    private SoftwarePackageMapper softwarePackageMapper;
+
+    @Autowired
+    private BinaryDeltaService binaryDeltaService;
+
+    @Autowired
+    private BlobCacheService blobCacheService;
+
+    @Autowired
+    private ChunkStoreService chunkStoreService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.delta-storage.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${app.delta-storage.max-chain-length:10}")
+    private int maxChainLength = 10;
+
+    @Value("${app.delta-storage.max-delta-ratio:0.5}")
+    private double maxDeltaRatio = 0.5;
+
+    @Value("${app.delta-storage.rebase-batch-size:20}")
+    private int rebaseBatchSize = 20;
+
+    /**
+     * 根据软件名称计算应用谱系键，去掉扩展名和末尾的版本号或构建号
+     *
+     * @param softwareName 软件名称（完整文件名）
+     * @param fileFormat 文件格式
+     * @return 谱系键
+     */
+    public static String resolveLineageKey(String softwareName, String fileFormat) {
+        String baseName = PACKAGE_EXTENSION.matcher(softwareName.substring(softwareName.lastIndexOf('/') + 1))
+                .replaceFirst("");
+        String appName = VERSION_SUFFIX.matcher(baseName).replaceFirst("");
+        if (appName.isEmpty()) {
+            appName = baseName;
+        }
+        return (fileFormat + ":" + appName).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 为待插入的软件包选择存储方式，满足条件时将文件内容替换为相对同谱系最新版本的差量
+     * 不做差量存储且分块存储开启时，文件内容在插入后写入分块存储
+     *
+     * @param softwarePackage 待插入的软件包，fileContent为完整内容
+     */
+    public void prepareForInsert(SoftwarePackage softwarePackage) {
+        byte[] content = softwarePackage.getFileContent();
+        softwarePackage.setLineageKey(resolveLineageKey(softwarePackage.getSoftwareName(),
+                softwarePackage.getFileFormat()));
+        softwarePackage.setStorageMode(STORAGE_FULL);
+        softwarePackage.setBasePackageId(null);
+        softwarePackage.setChainLength(0);
+        softwarePackage.setStoredSize((long) content.length);
+        if (!encodeDelta(softwarePackage, content) && chunkStoreService.isEnabled()) {
+            softwarePackage.setStorageMode(ChunkStoreService.STORAGE_CHUNKED);
+            softwarePackage.setFileContent(null);
+        }
+    }
+
+    private boolean encodeDelta(SoftwarePackage softwarePackage, byte[] content) {
+        if (!enabled) {
+            return false;
+        }
+
+        SoftwarePackage latest = softwarePackageMapper.findLatestByLineageKey(softwarePackage.getLineageKey());
+        if (latest == null) {
+            return false;
+        }
+        int chainLength = (latest.getChainLength() == null ? 0 : latest.getChainLength()) + 1;
+        if (chainLength > maxChainLength) {
+            logger.debug("Delta chain limit reached for lineage {}, storing {} in full",
+                    softwarePackage.getLineageKey(), softwarePackage.getSoftwareName());
+            return false;
+        }
+
+        byte[] baseContent;
+        try {
+            baseContent = loadContent(latest.getId());
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            logger.warn("Cannot reconstruct base package {} for delta encoding, storing in full: {}",
+                    latest.getId(), e.getMessage());
+            return false;
+        }
+        if (baseContent == null) {
+            return false;
+        }
+
+        byte[] delta = binaryDeltaService.encode(baseContent, content);
+        if (delta.length > content.length * maxDeltaRatio) {
+            logger.debug("Delta for {} is {} of {} bytes, storing in full",
+                    softwarePackage.getSoftwareName(), delta.length, content.length);
+            return false;
+        }
+        softwarePackage.setFileContent(delta);
+        softwarePackage.setStorageMode(STORAGE_DELTA);
+        softwarePackage.setBasePackageId(latest.getId());
+        softwarePackage.setChainLength(chainLength);
+        softwarePackage.setStoredSize((long) delta.length);
+        logger.info("Storing {} as delta against package {}: {} of {} bytes, chain length {}",
+                softwarePackage.getSoftwareName(), latest.getId(), delta.length, content.length, chainLength);
+        return true;
+    }
+
+    /**
+     * 软件包插入后写入分块存储并恢复实体中的完整内容，差量存储开启时将完整内容写入磁盘缓存
+     *
+     * @param softwarePackage 已插入的软件包
+     * @param content 完整文件内容
+     */
+    public void afterInsert(SoftwarePackage softwarePackage, byte[] content) {
+        if (ChunkStoreService.STORAGE_CHUNKED.equals(softwarePackage.getStorageMode())) {
+            chunkStoreService.store(ChunkStoreService.OWNER_SOFTWARE_PACKAGE, softwarePackage.getId(), content);
+        }
+        softwarePackage.setFileContent(content);
+        if (enabled) {
+            blobCacheService.put(softwarePackage.getSha512(), content);
+        }
+    }
+
+    /**
+     * 读取软件包的完整内容，差量存储的软件包沿差量链还原，链上已缓存的版本直接作为还原起点
+     * 已标记删除但尚未清理的基准包仍参与还原，调用方须先确认目标软件包未被删除
+     *
+     * @param id 软件包ID
+     * @return 完整文件内容，软件包不存在时返回null
+     * @throws IllegalStateException 差量链不完整或还原结果校验失败时抛出
+     */
+    public byte[] loadContent(Long id) {
+        Deque<SoftwarePackage> deltas = new ArrayDeque<>();
+        Long currentId = id;
+        byte[] content = null;
+        while (content == null) {
+            if (!deltas.isEmpty()) {
+                content = readCached(softwarePackageMapper.findMetadataByIdIncludingDeleted(currentId));
+                if (content != null) {
+                    break;
+                }
+            }
+            SoftwarePackage current = softwarePackageMapper.findByIdIncludingDeleted(currentId);
+            if (current == null) {
+                if (deltas.isEmpty()) {
+                    return null;
+                }
+                throw new IllegalStateException("Base package " + currentId + " of delta chain is missing");
+            }
+            if (STORAGE_DELTA.equals(current.getStorageMode())) {
+                if (deltas.size() >= MAX_CHAIN_WALK) {
+                    throw new IllegalStateException("Delta chain of package " + id + " is too long");
+                }
+                deltas.push(current);
+                currentId = current.getBasePackageId();
+            } else {
+                content = readStored(current);
+                if (content == null && deltas.isEmpty()) {
+                    return null;
+                } else if (content == null) {
+                    throw new IllegalStateException("Base package " + currentId + " of delta chain has no content");
+                } else {
+                    break;
+                }
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            return content;
+        }
+        String expectedSha512 = deltas.peekLast().getSha512();
+        while (!deltas.isEmpty()) {
+            content = binaryDeltaService.decode(content, deltas.pop().getFileContent());
+        }
+        if (expectedSha512 != null && !expectedSha512.equalsIgnoreCase(HashUtils.sha512Hex(content))) {
+            throw new IllegalStateException("Reconstructed content of package " + id + " failed SHA512 check");
+        }
+        return content;
+    }
+
+    /**
+     * 删除软件包前将以其为基准的差量包还原为完整存储并释放其分块引用，须在删除软件包的事务中调用
+     *
+     * @param softwarePackage 待删除的软件包
+     */
+    public void beforeDelete(SoftwarePackage softwarePackage) {
+        for (SoftwarePackage dependent : softwarePackageMapper.findByBasePackageId(softwarePackage.getId())) {
+            materialize(dependent.getId());
+        }
+        if (ChunkStoreService.STORAGE_CHUNKED.equals(softwarePackage.getStorageMode())) {
+            chunkStoreService.release(ChunkStoreService.OWNER_SOFTWARE_PACKAGE, softwarePackage.getId());
+        }
+    }
+
+    /**
+     * 定时将差量链长度超过上限的软件包重新完整存储，用于上限调小后的链重建
+     * 每个软件包在独立事务中还原，失败时该软件包的存储方式、分块和后继链长度一起回滚
+     */
+    @Scheduled(fixedDelayString = "${app.delta-storage.rebase-interval-ms:3600000}")
+    public void rebaseLongChains() {
+        List<SoftwarePackage> overlong = softwarePackageMapper.findOverlongDeltaChains(maxChainLength,
+                rebaseBatchSize);
+        int rebased = 0;
+        for (SoftwarePackage candidate : overlong) {
+            // 前面的重建会缩短后继包的链长度，处理前重新读取
+            SoftwarePackage current = softwarePackageMapper.findMetadataById(candidate.getId());
+            if (current == null || !STORAGE_DELTA.equals(current.getStorageMode())
+                    || current.getChainLength() == null || current.getChainLength() <= maxChainLength) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> materialize(current.getId()));
+                rebased++;
+            } catch (RuntimeException e) {
+                logger.error("Failed to rebase delta package {}: {}", current.getId(), e.getMessage());
+            }
+        }
+        if (rebased > 0) {
+            logger.info("Rebased {} delta packages exceeding chain length {}", rebased, maxChainLength);
+        }
+    }
+
+    /**
+     * 将软件包还原为完整存储并更新其后继差量包的链长度
+     * 存储方式更新、分块写入和链长度更新须在同一事务中执行，否则分块写入失败时软件包将没有任何内容
+     *
+     * @param id 软件包ID
+     */
+    private void materialize(Long id) {
+        byte[] content = loadContent(id);
+        if (content == null) {
+            return;
+        }
+        boolean chunked = chunkStoreService.isEnabled();
+        SoftwarePackage update = new SoftwarePackage();
+        update.setId(id);
+        update.setFileContent(chunked ? null : content);
+        update.setStorageMode(chunked ? ChunkStoreService.STORAGE_CHUNKED : STORAGE_FULL);
+        update.setBasePackageId(null);
+        update.setChainLength(0);
+        update.setStoredSize((long) content.length);
+        softwarePackageMapper.updateStorage(update);
+        if (chunked) {
+            chunkStoreService.store(ChunkStoreService.OWNER_SOFTWARE_PACKAGE, id, content);
+        }
+        softwarePackageMapper.recalculateChainLengths(id);
+        logger.info("Software package {} materialized to {} storage, {} bytes", id, update.getStorageMode(),
+                content.length);
+    }
+
+    private byte[] readStored(SoftwarePackage softwarePackage) {
+        if (ChunkStoreService.STORAGE_CHUNKED.equals(softwarePackage.getStorageMode())) {
+            return chunkStoreService.read(ChunkStoreService.OWNER_SOFTWARE_PACKAGE, softwarePackage.getId());
+        }
+        return softwarePackage.getFileContent();
+    }
+
+    private byte[] readCached(SoftwarePackage metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        try (BlobContent cached = blobCacheService.getIfPresent(metadata.getSha512())) {
+            return cached == null ? null : cached.toByteArray();
+        } catch (IOException e) {
+            logger.warn("Failed to read cached content of package {}: {}", metadata.getId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.mapper.TestCaseSetMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 脚本回填服务，定时为脚本单独存储上线前上传的用例集补建脚本库记录和用例脚本哈希
+ * 按用例集ID顺序逐个回填，每个用例集独立提交，每轮处理的用例集数有上限
+ * 回填失败的用例集记录日志后跳过，本实例遍历完全部候选用例集后不再执行
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class ScriptBackfillService {
+    private static final Logger logger = LoggerFactory.getLogger(ScriptBackfillService.class);
+
+    @Autowired
+    private TestCaseSetMapper testCaseSetMapper;
+
+    @Autowired
+    private TestCaseSetService testCaseSetService;
+
+    @Value("${app.script-backfill.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.script-backfill.max-items-per-run:5}")
+    private int maxItemsPerRun = 5;
+
+    private long lastId;
+
+    private volatile boolean finished;
+
+    /**
+     * 定时回填一批用例集的脚本
+     */
+    @Scheduled(fixedDelayString = "${app.script-backfill.interval-ms:60000}")
+    public void backfill() {
+        if (!enabled || finished) {
+            return;
+        }
+        List<TestCaseSet> candidates = testCaseSetMapper.findScriptBackfillCandidates(lastId, maxItemsPerRun);
+        if (candidates.isEmpty()) {
+            finished = true;
+            logger.info("Script backfill finished");
+            return;
+        }
+        for (TestCaseSet testCaseSet : candidates) {
+            lastId = testCaseSet.getId();
+            try {
+                testCaseSetService.backfillScripts(testCaseSet);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to backfill scripts of test case set {}: {}", testCaseSet.getId(),
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 是否已遍历完全部待回填的用例集
+     *
+     * @return 是否已完成
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+}
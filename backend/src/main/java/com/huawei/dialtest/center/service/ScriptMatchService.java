@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -71,40 +72,47 @@ public class ScriptMatchService {
         return result;
     }
 
+    /**
+     * 按脚本文件名得到用例编号到脚本内容哈希的映射，匹配规则与matchScripts相同
+     *
+     * @param scriptHashes 脚本文件名到SHA256的映射
+     * @return 用例编号到脚本SHA256的映射
+     */
+    public Map<String, String> mapCaseScripts(Map<String, String> scriptHashes) {
+        Map<String, String> caseScripts = new HashMap<>();
+        for (Map.Entry<String, String> scriptHash : scriptHashes.entrySet()) {
+            caseScripts.put(removePythonExtension(scriptHash.getKey()), scriptHash.getValue());
+        }
+        return caseScripts;
+    }
+
     /**
      * 验证单个用例编号是否有对应的脚本文件
+     * 传入Set时为一次哈希查找，传入List时为线性扫描；按用例集版本判断时使用CaseNumberIndexService.hasScript
      *
      * @param caseNumber 用例编号
-     * @param scriptFileNames 脚本文件名列表
+     * @param scriptFileNames 脚本文件名集合
      * @return 是否存在对应的脚本文件
      */
-    public boolean hasScriptForCase(String caseNumber, List<String> scriptFileNames) {
-        if (caseNumber == null || caseNumber.isEmpty()) {
-            return false;
-        }
-        
-        String expectedScriptName = caseNumber + ".py";
-        return scriptFileNames.contains(expectedScriptName);
+    public boolean hasScriptForCase(String caseNumber, Collection<String> scriptFileNames) {
+        return getScriptFileNameForCase(caseNumber, scriptFileNames) != null;
     }
 
     /**
      * 获取用例编号对应的脚本文件名
+     * 传入Set时为一次哈希查找，传入List时为线性扫描
      *
      * @param caseNumber 用例编号
-     * @param scriptFileNames 脚本文件名列表
+     * @param scriptFileNames 脚本文件名集合
      * @return 脚本文件名，如果不存在则返回null
      */
-    public String getScriptFileNameForCase(String caseNumber, List<String> scriptFileNames) {
+    public String getScriptFileNameForCase(String caseNumber, Collection<String> scriptFileNames) {
         if (caseNumber == null || caseNumber.isEmpty()) {
             return null;
         }
-        
+
         String expectedScriptName = caseNumber + ".py";
-        if (scriptFileNames.contains(expectedScriptName)) {
-            return expectedScriptName;
-        }
-        
-        return null;
+        return scriptFileNames.contains(expectedScriptName) ? expectedScriptName : null;
     }
 
     /**
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.ScriptFile;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.entity.TestCaseSetScript;
+import com.huawei.dialtest.center.mapper.ScriptFileMapper;
+import com.huawei.dialtest.center.util.HashUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 脚本存储服务，将用例集中的scripts/*.py按内容SHA256单独存储
+ * 相同内容的脚本在所有用例集和版本之间只存储一份，用例通过脚本哈希直接读取脚本
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class ScriptStoreService {
+    private static final Logger logger = LoggerFactory.getLogger(ScriptStoreService.class);
+
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private ScriptFileMapper scriptFileMapper;
+
+    /**
+     * 存储用例集的脚本并建立用例集与脚本版本的关联，须在写入用例集的事务中调用
+     *
+     * @param testCaseSetId 用例集ID
+     * @param scripts 脚本文件名到内容的映射
+     * @return 脚本文件名到SHA256的映射
+     */
+    public Map<String, String> storeScripts(Long testCaseSetId, Map<String, byte[]> scripts) {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        Map<String, String> fileHashes = hashScripts(scripts, contents);
+        if (fileHashes.isEmpty()) {
+            return fileHashes;
+        }
+
+        int newScripts = insertNewContents(contents);
+        List<TestCaseSetScript> links = toLinks(testCaseSetId, fileHashes);
+        for (int i = 0; i < links.size(); i += BATCH_SIZE) {
+            scriptFileMapper.insertSetScripts(links.subList(i, Math.min(links.size(), i + BATCH_SIZE)));
+        }
+        logger.info("Stored {} scripts for test case set {}, {} new and {} shared", fileHashes.size(),
+                testCaseSetId, newScripts, contents.size() - newScripts);
+        return fileHashes;
+    }
+
+    /**
+     * 新增或替换已有用例集中的脚本，同名脚本关联到新内容，替换下来的脚本不再被任何用例集引用时删除
+     *
+     * @param testCaseSetId 用例集ID
+     * @param scripts 脚本文件名到内容的映射
+     * @return 脚本文件名到SHA256的映射
+     */
+    public Map<String, String> putScripts(Long testCaseSetId, Map<String, byte[]> scripts) {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        Map<String, String> fileHashes = hashScripts(scripts, contents);
+        if (fileHashes.isEmpty()) {
+            return fileHashes;
+        }
+
+        int newScripts = insertNewContents(contents);
+        List<TestCaseSetScript> links = toLinks(testCaseSetId, fileHashes);
+        Set<String> replaced = new LinkedHashSet<>();
+        for (int i = 0; i < links.size(); i += BATCH_SIZE) {
+            replaced.addAll(scriptFileMapper.upsertSetScripts(testCaseSetId,
+                    links.subList(i, Math.min(links.size(), i + BATCH_SIZE))));
+        }
+        List<String> replacedHashes = new ArrayList<>(replaced);
+        int deleted = 0;
+        for (int i = 0; i < replacedHashes.size(); i += BATCH_SIZE) {
+            deleted += scriptFileMapper.deleteUnreferenced(replacedHashes.subList(i,
+                    Math.min(replacedHashes.size(), i + BATCH_SIZE)));
+        }
+        logger.info("Put {} scripts into test case set {}, {} new contents, {} replaced, {} unreferenced deleted",
+                fileHashes.size(), testCaseSetId, newScripts, replacedHashes.size(), deleted);
+        return fileHashes;
+    }
+
+    /**
+     * 将源用例集的脚本关联复制到目标用例集，脚本内容共享，须在写入目标用例集的事务中调用
+     *
+     * @param sourceTestCaseSetId 源用例集ID
+     * @param targetTestCaseSetId 目标用例集ID
+     * @return 复制的脚本数
+     */
+    public int copyScripts(Long sourceTestCaseSetId, Long targetTestCaseSetId) {
+        return scriptFileMapper.copySetScripts(sourceTestCaseSetId, targetTestCaseSetId);
+    }
+
+    /**
+     * 新增或替换用例集中的单个脚本
+     *
+     * @param testCaseSetId 用例集ID
+     * @param fileName 脚本文件名
+     * @param content 脚本内容
+     * @return 新脚本内容的SHA256
+     */
+    public String replaceScript(Long testCaseSetId, String fileName, byte[] content) {
+        return putScripts(testCaseSetId, Collections.singletonMap(fileName, content)).get(fileName);
+    }
+
+    /**
+     * 根据哈希读取脚本内容
+     *
+     * @param sha256 脚本内容的SHA256
+     * @return 脚本内容，不存在时返回null
+     */
+    public byte[] getScriptContent(String sha256) {
+        ScriptFile scriptFile = scriptFileMapper.findBySha256(sha256);
+        return scriptFile == null ? null : scriptFile.getContent();
+    }
+
+    /**
+     * 查询用例集的脚本文件名和内容哈希
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 按文件名排序的脚本文件名到SHA256的映射
+     */
+    public Map<String, String> getSetScripts(Long testCaseSetId) {
+        Map<String, String> fileHashes = new LinkedHashMap<>();
+        for (TestCaseSetScript link : scriptFileMapper.findSetScripts(testCaseSetId)) {
+            fileHashes.put(link.getFileName(), link.getSha256());
+        }
+        return fileHashes;
+    }
+
+    /**
+     * 查询引用指定脚本版本的用例集
+     *
+     * @param sha256 脚本内容的SHA256
+     * @return 用例集元数据列表
+     */
+    public List<TestCaseSet> getTestCaseSetsUsingScript(String sha256) {
+        return scriptFileMapper.findTestCaseSetsBySha256(sha256);
+    }
+
+    /**
+     * 释放用例集的脚本关联并删除不再被引用的脚本，须在删除用例集的事务中调用
+     *
+     * @param testCaseSetId 用例集ID
+     */
+    public void releaseScripts(Long testCaseSetId) {
+        int deleted = scriptFileMapper.releaseSetScripts(testCaseSetId);
+        logger.debug("Released scripts of test case set {}, {} unreferenced scripts deleted", testCaseSetId, deleted);
+    }
+
+    private Map<String, String> hashScripts(Map<String, byte[]> scripts, Map<String, byte[]> contents) {
+        Map<String, String> fileHashes = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> script : scripts.entrySet()) {
+            String sha256 = HashUtils.sha256Hex(script.getValue());
+            fileHashes.put(script.getKey(), sha256);
+            contents.put(sha256, script.getValue());
+        }
+        return fileHashes;
+    }
+
+    private int insertNewContents(Map<String, byte[]> contents) {
+        List<String> hashes = new ArrayList<>(contents.keySet());
+        Set<String> existing = new HashSet<>();
+        for (int i = 0; i < hashes.size(); i += BATCH_SIZE) {
+            existing.addAll(scriptFileMapper.findExistingHashes(hashes.subList(i, Math.min(hashes.size(),
+                    i + BATCH_SIZE))));
+        }
+        List<ScriptFile> newScripts = new ArrayList<>();
+        for (String sha256 : hashes) {
+            if (!existing.contains(sha256)) {
+                newScripts.add(new ScriptFile(sha256, contents.get(sha256)));
+            }
+        }
+        for (int i = 0; i < newScripts.size(); i += BATCH_SIZE) {
+            scriptFileMapper.insertBatch(newScripts.subList(i, Math.min(newScripts.size(), i + BATCH_SIZE)));
+        }
+        return newScripts.size();
+    }
+
+    private static List<TestCaseSetScript> toLinks(Long testCaseSetId, Map<String, String> fileHashes) {
+        List<TestCaseSetScript> links = new ArrayList<>(fileHashes.size());
+        for (Map.Entry<String, String> fileHash : fileHashes.entrySet()) {
+            links.add(new TestCaseSetScript(testCaseSetId, fileHash.getKey(), fileHash.getValue()));
+        }
+        return links;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 请求合并服务，相同键的并发读取共享同一次进行中的加载
+ * 首个调用者执行加载，其余调用者在限定时间内等待其结果，加载异常原样传递给所有等待者
+ * 等待超时的调用者退化为自行加载，避免被慢查询无限阻塞
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class SingleFlightService {
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightService.class);
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.single-flight.wait-timeout-ms:30000}")
+    private long waitTimeoutMs = 30000L;
+
+    /**
+     * 注册合并次数指标
+     */
+    @PostConstruct
+    public void init() {
+        if (meterRegistry != null) {
+            FunctionCounter.builder("dialtest.single.flight.coalesced", coalesced, AtomicLong::doubleValue)
+                    .description("Reads served by sharing another caller's in-flight load")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 执行加载，同一键已有进行中的加载时等待并共享其结果
+     *
+     * @param key 合并键
+     * @param loader 加载方法
+     * @param <T> 结果类型
+     * @return 加载结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing == null) {
+            try {
+                T value = loader.get();
+                future.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, future);
+            }
+        }
+
+        coalesced.incrementAndGet();
+        try {
+            return (T) existing.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IllegalStateException("Shared load failed for key: " + key, cause);
+            }
+        } catch (TimeoutException e) {
+            logger.warn("Timed out after {} ms waiting for shared load of {}, loading independently",
+                    waitTimeoutMs, key);
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shared load of " + key, e);
+        }
+    }
+
+    /**
+     * 获取共享他人加载结果的调用次数
+     *
+     * @return 合并次数
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+}
@@ -6,10 +6,13 @@ package com.huawei.dialtest.center.service;
 
 import com.huawei.dialtest.center.entity.SoftwarePackage;
 import com.huawei.dialtest.center.mapper.SoftwarePackageMapper;
+import com.huawei.dialtest.center.service.BlobCacheService.BlobContent;
+import com.huawei.dialtest.center.util.HashUtils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -19,9 +22,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.zip.ZipEntry;
@@ -37,11 +40,34 @@ import java.util.zip.ZipInputStream;
  */
 @Service
 public class SoftwarePackageService {
+    /**
+     * 单个软件包文件大小上限（500MB）
+     */
+    public static final long MAX_FILE_SIZE = 500L * 1024 * 1024;
+
     private static final Logger logger = LoggerFactory.getLogger(SoftwarePackageService.class);
 
     @Autowired
     private SoftwarePackageMapper softwarePackageMapper;
 
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Autowired
+    private BlobCacheService blobCacheService;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
+    @Autowired
+    private CatalogStatisticsService catalogStatisticsService;
+
+    @Autowired
+    private PackageDeltaStorageService packageDeltaStorageService;
+
+    @Value("${app.delete.batch.max-ids:1000}")
+    private int maxDeleteIds = 1000;
+
     /**
      * 获取软件包列表（分页）
      *
@@ -56,19 +82,28 @@ public class SoftwarePackageService {
         logger.debug("Getting software packages - page: {}, size: {}, platform: {}, creator: {}, softwareName: {}", 
                     page, pageSize, platform, creator, softwareName);
         
-        Pageable pageable = PageRequest.of(page - 1, pageSize);
-        
-        // 如果所有过滤条件都为空，返回所有数据
-        if (platform == null && creator == null && softwareName == null) {
-            List<SoftwarePackage> content = softwarePackageMapper.findAllByOrderByCreatedTimeDesc(page - 1, pageSize);
-            long total = softwarePackageMapper.count();
+        // 过滤条件只规范化一次，合并请求的键与实际查询使用相同的值
+        String platformFilter = normalizeFilter(platform);
+        String creatorFilter = normalizeFilter(creator);
+        String nameFilter = normalizeFilter(softwareName);
+        String key = "software-package:list:" + page + ":" + pageSize + keyPart(platformFilter)
+                + keyPart(creatorFilter) + keyPart(nameFilter);
+        return singleFlightService.execute(key, () -> {
+            Pageable pageable = PageRequest.of(page - 1, pageSize);
+
+            // 如果所有过滤条件都为空，返回所有数据
+            if (platformFilter == null && creatorFilter == null && nameFilter == null) {
+                List<SoftwarePackage> content = softwarePackageMapper.findAllByOrderByCreatedTimeDesc(page - 1, pageSize);
+                long total = softwarePackageMapper.count();
+                return new PageImpl<>(content, pageable, total);
+            }
+
+            // 使用自定义查询方法
+            List<SoftwarePackage> content = softwarePackageMapper.findByConditions(platformFilter, creatorFilter,
+                    nameFilter, page - 1, pageSize);
+            long total = softwarePackageMapper.countByConditions(platformFilter, creatorFilter, nameFilter);
             return new PageImpl<>(content, pageable, total);
-        }
-        
-        // 使用自定义查询方法
-        List<SoftwarePackage> content = softwarePackageMapper.findByConditions(platform, creator, softwareName, page - 1, pageSize);
-        long total = softwarePackageMapper.countByConditions(platform, creator, softwareName);
-        return new PageImpl<>(content, pageable, total);
+        });
     }
 
     /**
@@ -83,6 +118,30 @@ public class SoftwarePackageService {
         return Optional.ofNullable(softwarePackage);
     }
 
+    /**
+     * 根据ID获取软件包元数据，不读取文件内容
+     *
+     * @param id 软件包ID
+     * @return 软件包对象，如果不存在则返回空
+     */
+    public Optional<SoftwarePackage> getSoftwarePackageMetadataById(Long id) {
+        logger.debug("Getting software package metadata by ID: {}", id);
+        return Optional.ofNullable(softwarePackageMapper.findMetadataById(id));
+    }
+
+    /**
+     * 获取软件包文件内容，优先从本地磁盘缓存读取，差量存储的软件包沿差量链还原
+     *
+     * @param softwarePackage 软件包元数据
+     * @return 文件内容，使用后须关闭，不存在时返回null
+     */
+    public BlobContent getFileContent(SoftwarePackage softwarePackage) {
+        Long id = softwarePackage.getId();
+        return blobCacheService.getOrLoad(softwarePackage.getSha512(),
+            () -> singleFlightService.execute("software-package:content:" + id,
+                () -> packageDeltaStorageService.loadContent(id)));
+    }
+
     /**
      * 上传单个软件包
      *
@@ -106,19 +165,8 @@ public class SoftwarePackageService {
             throw new IllegalArgumentException("File name cannot be null");
         }
 
-        String fileFormat;
-        String platform;
         String softwareName = fileName; // 直接使用完整文件名
-
-        if (fileName.toLowerCase().endsWith(".apk")) {
-            fileFormat = "apk";
-            platform = "android";
-        } else if (fileName.toLowerCase().endsWith(".ipa")) {
-            fileFormat = "ipa";
-            platform = "ios";
-        } else {
-            throw new IllegalArgumentException("Only APK and IPA format files are supported");
-        }
+        String fileFormat = resolveFileFormat(fileName);
 
         // 检查是否已存在相同文件名的软件包
         if (softwarePackageMapper.existsBySoftwareName(softwareName)) {
@@ -126,30 +174,45 @@ public class SoftwarePackageService {
         }
 
         // 读取文件内容
+        uploadAdmissionService.checkpoint("reading");
         byte[] fileContent = file.getBytes();
 
         // 计算文件内容的SHA512哈希值
-        String sha512 = calculateSHA512(fileContent);
+        uploadAdmissionService.checkpoint("hashing");
+        String sha512 = HashUtils.sha512Hex(fileContent);
 
-        // 检查是否已存在相同SHA512的软件包
-        if (softwarePackageMapper.existsBySha512(sha512)) {
-            throw new IllegalArgumentException("Software package with the same content already exists");
-        }
-
-        // 创建软件包记录
-        SoftwarePackage softwarePackage = new SoftwarePackage(
-            softwareName, fileContent, fileFormat, platform, creator, file.getSize(), sha512
-        );
-        softwarePackage.setDescription(description);
+        return savePackage(softwareName, fileContent, fileFormat, file.getSize(), sha512, description, creator);
+    }
 
-        int result = softwarePackageMapper.insert(softwarePackage);
-        if (result > 0) {
-            logger.info("Software package uploaded successfully: {}, format: {}, file size: {} bytes, SHA512: {}", 
-                       softwareName, fileFormat, fileContent.length, sha512);
-            return softwarePackage;
-        } else {
-            throw new RuntimeException("Failed to save software package");
+    /**
+     * 根据已组装完成的文件内容创建软件包，供分片上传完成时调用
+     *
+     * @param fileName 文件名，支持.apk和.ipa格式
+     * @param fileContent 文件内容
+     * @param sha512 已计算的SHA512哈希值，为空时重新计算
+     * @param description 软件包描述信息
+     * @param creator 创建者用户名
+     * @return 保存后的软件包实体对象
+     * @throws IllegalArgumentException 当文件为空、大小超限、格式不正确或软件包已存在时抛出
+     */
+    @Transactional
+    public SoftwarePackage createSoftwarePackage(String fileName, byte[] fileContent, String sha512,
+            String description, String creator) {
+        if (fileName == null) {
+            throw new IllegalArgumentException("File name cannot be null");
+        }
+        if (fileContent == null || fileContent.length == 0) {
+            throw new IllegalArgumentException("File cannot be empty");
+        }
+        if (fileContent.length > MAX_FILE_SIZE) {
+            throw new IllegalArgumentException("File size cannot exceed 500MB");
+        }
+        String fileFormat = resolveFileFormat(fileName);
+        if (softwarePackageMapper.existsBySoftwareName(fileName)) {
+            throw new IllegalArgumentException("Software package with the same file name already exists");
         }
+        String hash = sha512 != null ? sha512 : HashUtils.sha512Hex(fileContent);
+        return savePackage(fileName, fileContent, fileFormat, fileContent.length, hash, description, creator);
     }
 
     /**
@@ -177,6 +240,7 @@ public class SoftwarePackageService {
             while ((entry = zipInputStream.getNextEntry()) != null) {
                 if (!entry.isDirectory()) {
                     String entryName = entry.getName();
+                    uploadAdmissionService.checkpoint("extracting " + entryName);
                     
                     // 只处理APK和IPA文件
                     if (entryName.toLowerCase().endsWith(".apk") || entryName.toLowerCase().endsWith(".ipa")) {
@@ -204,7 +268,7 @@ public class SoftwarePackageService {
                             }
 
                             // 计算SHA512
-                            String sha512 = calculateSHA512(fileContent);
+                            String sha512 = HashUtils.sha512Hex(fileContent);
                             if (softwarePackageMapper.existsBySha512(sha512)) {
                                 logger.warn("Software package with SHA512 {} already exists, skipping", sha512);
                                 continue;
@@ -215,9 +279,12 @@ public class SoftwarePackageService {
                                 entryName, fileContent, fileFormat, platform, creator, (long) fileContent.length, sha512
                             );
                             softwarePackage.setDescription("Uploaded from ZIP package: " + file.getOriginalFilename());
+                            packageDeltaStorageService.prepareForInsert(softwarePackage);
 
                             int result = softwarePackageMapper.insert(softwarePackage);
                             if (result > 0) {
+                                packageDeltaStorageService.afterInsert(softwarePackage, fileContent);
+                                catalogStatisticsService.recordSoftwarePackageAdded(softwarePackage);
                                 uploadedPackages.add(softwarePackage);
                             }
                             
@@ -238,26 +305,63 @@ public class SoftwarePackageService {
     }
 
     /**
-     * 删除软件包
+     * 删除软件包，仅标记删除，文件内容由后台清理任务删除
      *
      * @param id 软件包ID
      * @throws IllegalArgumentException 当软件包不存在时抛出
      */
+    @Transactional
     public void deleteSoftwarePackage(Long id) {
         logger.info("Deleting software package with ID: {}", id);
 
-        SoftwarePackage softwarePackage = softwarePackageMapper.findById(id);
-        if (softwarePackage != null) {
-            // 删除数据库记录（文件内容也会一起删除）
-            int result = softwarePackageMapper.deleteById(id);
-            if (result > 0) {
-                logger.info("Software package deleted successfully: {}", softwarePackage.getSoftwareName());
-            } else {
-                throw new RuntimeException("Failed to delete software package");
-            }
-        } else {
+        List<SoftwarePackage> deleted = softwarePackageMapper.markDeleted(Collections.singletonList(id));
+        if (deleted.isEmpty()) {
             throw new IllegalArgumentException("Software package does not exist");
         }
+        SoftwarePackage softwarePackage = deleted.get(0);
+        catalogStatisticsService.recordSoftwarePackageRemoved(softwarePackage);
+        logger.info("Software package marked deleted: {}", softwarePackage.getSoftwareName());
+    }
+
+    /**
+     * 批量删除软件包，在一条语句中标记删除，不存在或已删除的ID忽略
+     *
+     * @param ids 软件包ID列表
+     * @return 本次实际删除的软件包ID列表
+     * @throws IllegalArgumentException 当ID列表为空或数量超过上限时抛出
+     */
+    @Transactional
+    public List<Long> deleteSoftwarePackages(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No software package IDs to delete");
+        }
+        if (ids.size() > maxDeleteIds) {
+            throw new IllegalArgumentException("Too many IDs in one batch, at most " + maxDeleteIds + " allowed");
+        }
+        List<Long> deletedIds = new ArrayList<>(ids.size());
+        for (SoftwarePackage softwarePackage : softwarePackageMapper.markDeleted(
+                new ArrayList<>(new LinkedHashSet<>(ids)))) {
+            catalogStatisticsService.recordSoftwarePackageRemoved(softwarePackage);
+            deletedIds.add(softwarePackage.getId());
+        }
+        logger.info("Marked {} of {} requested software packages deleted", deletedIds.size(), ids.size());
+        return deletedIds;
+    }
+
+    /**
+     * 清除已标记删除的软件包记录，以其为基准的差量包先还原为完整存储，并释放分块和磁盘缓存
+     *
+     * @param softwarePackage 已标记删除的软件包元数据
+     * @throws IllegalStateException 当软件包已被清除或未标记删除时抛出
+     */
+    @Transactional
+    public void purgeSoftwarePackage(SoftwarePackage softwarePackage) {
+        packageDeltaStorageService.beforeDelete(softwarePackage);
+        if (softwarePackageMapper.deleteById(softwarePackage.getId()) == 0) {
+            throw new IllegalStateException("Software package " + softwarePackage.getId() + " is not pending purge");
+        }
+        blobCacheService.evict(softwarePackage.getSha512());
+        logger.info("Software package purged: {}", softwarePackage.getSoftwareName());
     }
 
     /**
@@ -290,49 +394,98 @@ public class SoftwarePackageService {
     }
 
     /**
-     * 根据平台获取软件包统计信息
+     * 根据平台获取软件包统计信息，数据来自增量维护的目录统计表
      *
      * @return 包含各平台软件包数量的Map
      */
     public java.util.Map<String, Long> getPlatformStatistics() {
         logger.debug("Getting platform statistics");
-        
-        java.util.Map<String, Long> statistics = new java.util.HashMap<>();
-        statistics.put("android", softwarePackageMapper.countByPlatform("android"));
-        statistics.put("ios", softwarePackageMapper.countByPlatform("ios"));
-        statistics.put("total", softwarePackageMapper.count());
-        
-        return statistics;
+        return catalogStatisticsService.getPlatformStatistics();
     }
 
     /**
-     * 计算文件内容的SHA512哈希值
+     * 检查内容是否重复并保存软件包记录
      *
-     * @param fileContent 文件内容字节数组
-     * @return SHA512哈希值的十六进制字符串
-     * @throws RuntimeException 当计算哈希值失败时抛出
+     * @param softwareName 软件名称
+     * @param fileContent 文件内容
+     * @param fileFormat 文件格式
+     * @param fileSize 文件大小
+     * @param sha512 SHA512哈希值
+     * @param description 描述信息
+     * @param creator 创建者用户名
+     * @return 保存后的软件包实体对象
+     * @throws IllegalArgumentException 当存在相同内容的软件包时抛出
      */
-    private String calculateSHA512(byte[] fileContent) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-512");
-            byte[] hash = digest.digest(fileContent);
-            
-            // 将字节数组转换为十六进制字符串
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            logger.error("SHA-512 algorithm not available", e);
-            throw new RuntimeException("Failed to calculate SHA512 hash", e);
+    private SoftwarePackage savePackage(String softwareName, byte[] fileContent, String fileFormat, long fileSize,
+            String sha512, String description, String creator) {
+        // 检查是否已存在相同SHA512的软件包
+        if (softwarePackageMapper.existsBySha512(sha512)) {
+            throw new IllegalArgumentException("Software package with the same content already exists");
+        }
+
+        String platform = "apk".equals(fileFormat) ? "android" : "ios";
+
+        // 创建软件包记录
+        SoftwarePackage softwarePackage = new SoftwarePackage(
+            softwareName, fileContent, fileFormat, platform, creator, fileSize, sha512
+        );
+        softwarePackage.setDescription(description);
+        packageDeltaStorageService.prepareForInsert(softwarePackage);
+
+        uploadAdmissionService.checkpoint("storing");
+        int result = softwarePackageMapper.insert(softwarePackage);
+        if (result > 0) {
+            packageDeltaStorageService.afterInsert(softwarePackage, fileContent);
+            catalogStatisticsService.recordSoftwarePackageAdded(softwarePackage);
+            logger.info("Software package uploaded successfully: {}, format: {}, file size: {} bytes, SHA512: {}", 
+                       softwareName, fileFormat, fileContent.length, sha512);
+            return softwarePackage;
+        } else {
+            throw new RuntimeException("Failed to save software package");
         }
     }
 
+    /**
+     * 根据文件名解析软件包格式
+     *
+     * @param fileName 文件名
+     * @return 文件格式（apk或ipa）
+     * @throws IllegalArgumentException 当文件格式不支持时抛出
+     */
+    private String resolveFileFormat(String fileName) {
+        String lowerFileName = fileName.toLowerCase();
+        if (lowerFileName.endsWith(".apk")) {
+            return "apk";
+        } else if (lowerFileName.endsWith(".ipa")) {
+            return "ipa";
+        } else {
+            throw new IllegalArgumentException("Only APK and IPA format files are supported");
+        }
+    }
+
+    /**
+     * 规范化过滤条件，去除首尾空白，空白条件视为不过滤
+     *
+     * @param value 过滤条件
+     * @return 规范化后的过滤条件，不过滤时返回null
+     */
+    private String normalizeFilter(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    /**
+     * 生成合并请求键中的一段，带长度前缀，避免过滤值中含有分隔符时不同条件得到相同的键
+     *
+     * @param value 规范化后的过滤条件
+     * @return 键片段
+     */
+    private String keyPart(String value) {
+        return value == null ? ":" : ":" + value.length() + ":" + value;
+    }
+
     /**
      * 验证单个软件包文件格式和大小
      *
@@ -345,8 +498,7 @@ public class SoftwarePackageService {
         }
 
         // 检查文件大小 (500MB)
-        long maxSize = 500 * 1024 * 1024; // 500MB
-        if (file.getSize() > maxSize) {
+        if (file.getSize() > MAX_FILE_SIZE) {
             throw new IllegalArgumentException("File size cannot exceed 500MB");
         }
 
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.mapper.TestCaseMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 测试用例内存缓存服务，按用例集整体加载测试用例并以列式结构缓存
+ * 摘要列与测试步骤、预期结果等大文本列分开存放，缺失脚本的用例以位图记录
+ * 分页、计数和缺失脚本查询直接由缓存回答；缓存按估算字节数限制总量，最近最少使用的用例集先淘汰
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class TestCaseCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(TestCaseCacheService.class);
+
+    private static final int ROW_OVERHEAD_BYTES = 64;
+
+    private final Map<Long, CachedTestCases> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private long currentBytes;
+
+    @Autowired
+    private TestCaseMapper testCaseMapper;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
+    @Value("${app.test-case-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.test-case-cache.max-bytes:268435456}")
+    private long maxBytes = 268435456L;
+
+    /**
+     * 是否启用缓存
+     *
+     * @return 是否启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取用例集的缓存测试用例，未缓存时从数据库加载
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 按ID降序排列的测试用例
+     */
+    public CachedTestCases get(Long testCaseSetId) {
+        synchronized (entries) {
+            CachedTestCases cached = entries.get(testCaseSetId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return singleFlightService.execute("test-case:cache:" + testCaseSetId, () -> load(testCaseSetId));
+    }
+
+    /**
+     * 使用例集的缓存失效，并在当前事务提交后再次失效，避免提交前并发加载的旧数据留在缓存中
+     *
+     * @param testCaseSetId 用例集ID
+     */
+    public void invalidate(Long testCaseSetId) {
+        evict(testCaseSetId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(testCaseSetId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 缓存的用例集数和估算字节数
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        synchronized (entries) {
+            statistics.put("enabled", enabled);
+            statistics.put("testCaseSets", entries.size());
+            statistics.put("bytes", currentBytes);
+            statistics.put("maxBytes", maxBytes);
+        }
+        return statistics;
+    }
+
+    private CachedTestCases load(Long testCaseSetId) {
+        long generation = invalidations.get();
+        List<TestCase> testCases = new ArrayList<>(testCaseMapper.findByTestCaseSetId(testCaseSetId));
+        testCases.sort(Comparator.comparing(TestCase::getId, Comparator.reverseOrder()));
+        CachedTestCases loaded = new CachedTestCases(testCaseSetId, testCases);
+        if (loaded.estimatedBytes > maxBytes) {
+            logger.debug("Test case set {} is too large to cache: {} bytes", testCaseSetId, loaded.estimatedBytes);
+            return loaded;
+        }
+        synchronized (entries) {
+            if (generation != invalidations.get()) {
+                return loaded;
+            }
+            CachedTestCases previous = entries.put(testCaseSetId, loaded);
+            if (previous != null) {
+                currentBytes -= previous.estimatedBytes;
+            }
+            currentBytes += loaded.estimatedBytes;
+            Iterator<Map.Entry<Long, CachedTestCases>> iterator = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<Long, CachedTestCases> eldest = iterator.next();
+                if (!eldest.getKey().equals(testCaseSetId)) {
+                    currentBytes -= eldest.getValue().estimatedBytes;
+                    iterator.remove();
+                }
+            }
+        }
+        logger.debug("Cached {} test cases of set {}, {} bytes", loaded.size(), testCaseSetId, loaded.estimatedBytes);
+        return loaded;
+    }
+
+    private void evict(Long testCaseSetId) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            CachedTestCases removed = entries.remove(testCaseSetId);
+            if (removed != null) {
+                currentBytes -= removed.estimatedBytes;
+            }
+        }
+    }
+
+    /**
+     * 单个用例集的列式测试用例快照，不可变
+     */
+    public static final class CachedTestCases {
+        private final Long testCaseSetId;
+        private final long[] ids;
+        private final String[] caseNumbers;
+        private final String[] caseNames;
+        private final String[] networkTopologies;
+        private final String[] businessCategories;
+        private final String[] appNames;
+        private final String[] scriptSha256s;
+        private final BitSet scripts;
+        private final BitSet missingScripts;
+        private final String[] testSteps;
+        private final String[] expectedResults;
+        private final long estimatedBytes;
+
+        CachedTestCases(Long testCaseSetId, List<TestCase> testCases) {
+            int size = testCases.size();
+            this.testCaseSetId = testCaseSetId;
+            this.ids = new long[size];
+            this.caseNumbers = new String[size];
+            this.caseNames = new String[size];
+            this.networkTopologies = new String[size];
+            this.businessCategories = new String[size];
+            this.appNames = new String[size];
+            this.scriptSha256s = new String[size];
+            this.scripts = new BitSet(size);
+            this.missingScripts = new BitSet(size);
+            this.testSteps = new String[size];
+            this.expectedResults = new String[size];
+            long bytes = 0;
+            for (int i = 0; i < size; i++) {
+                TestCase testCase = testCases.get(i);
+                ids[i] = testCase.getId();
+                caseNumbers[i] = testCase.getCaseNumber();
+                caseNames[i] = testCase.getCaseName();
+                networkTopologies[i] = testCase.getNetworkTopology();
+                businessCategories[i] = testCase.getBusinessCategory();
+                appNames[i] = testCase.getAppName();
+                scriptSha256s[i] = testCase.getScriptSha256();
+                if (testCase.getScriptExists() != null) {
+                    scripts.set(i, testCase.getScriptExists());
+                    missingScripts.set(i, !testCase.getScriptExists());
+                }
+                testSteps[i] = testCase.getTestSteps();
+                expectedResults[i] = testCase.getExpectedResult();
+                bytes += ROW_OVERHEAD_BYTES + chars(caseNumbers[i]) + chars(caseNames[i])
+                        + chars(networkTopologies[i]) + chars(businessCategories[i]) + chars(appNames[i])
+                        + chars(scriptSha256s[i]) + chars(testSteps[i]) + chars(expectedResults[i]);
+            }
+            this.estimatedBytes = bytes;
+        }
+
+        /**
+         * 用例总数
+         *
+         * @return 用例总数
+         */
+        public int size() {
+            return ids.length;
+        }
+
+        /**
+         * 获取一页测试用例
+         *
+         * @param offset 起始位置
+         * @param limit 条数
+         * @return 测试用例列表
+         */
+        public List<TestCase> page(long offset, int limit) {
+            List<TestCase> page = new ArrayList<>();
+            for (long i = offset; i < ids.length && i < offset + limit; i++) {
+                page.add(toTestCase((int) i));
+            }
+            return page;
+        }
+
+        /**
+         * 缺失脚本的用例数
+         *
+         * @return 缺失脚本的用例数
+         */
+        public long countMissingScripts() {
+            return missingScripts.cardinality();
+        }
+
+        /**
+         * 获取缺失脚本的测试用例
+         *
+         * @return 测试用例列表
+         */
+        public List<TestCase> missingScripts() {
+            List<TestCase> missing = new ArrayList<>(missingScripts.cardinality());
+            for (int i = missingScripts.nextSetBit(0); i >= 0; i = missingScripts.nextSetBit(i + 1)) {
+                missing.add(toTestCase(i));
+            }
+            return missing;
+        }
+
+        private TestCase toTestCase(int row) {
+            TestCase testCase = new TestCase();
+            testCase.setId(ids[row]);
+            testCase.setTestCaseSetId(testCaseSetId);
+            testCase.setCaseNumber(caseNumbers[row]);
+            testCase.setCaseName(caseNames[row]);
+            testCase.setNetworkTopology(networkTopologies[row]);
+            testCase.setBusinessCategory(businessCategories[row]);
+            testCase.setAppName(appNames[row]);
+            testCase.setScriptSha256(scriptSha256s[row]);
+            testCase.setScriptExists(scripts.get(row) || missingScripts.get(row) ? scripts.get(row) : null);
+            testCase.setTestSteps(testSteps[row]);
+            testCase.setExpectedResult(expectedResults[row]);
+            return testCase;
+        }
+
+        private static long chars(String value) {
+            return value == null ? 0 : 40L + 2L * value.length();
+        }
+    }
+}
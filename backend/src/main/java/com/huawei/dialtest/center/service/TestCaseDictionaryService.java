@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.dto.FacetCount;
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.mapper.TestCaseDictionaryMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 测试用例分类字典服务，逻辑组网、业务大类和用例App以字典ID存储在测试用例上
+ * 入库前登记新的分类取值，入库后按用例集重新计算预聚合的分类计数
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class TestCaseDictionaryService {
+    /**
+     * 逻辑组网
+     */
+    public static final String KIND_NETWORK_TOPOLOGY = "NETWORK_TOPOLOGY";
+
+    /**
+     * 业务大类
+     */
+    public static final String KIND_BUSINESS_CATEGORY = "BUSINESS_CATEGORY";
+
+    /**
+     * 用例App
+     */
+    public static final String KIND_APP_NAME = "APP_NAME";
+
+    private static final Logger logger = LoggerFactory.getLogger(TestCaseDictionaryService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private TestCaseDictionaryMapper testCaseDictionaryMapper;
+
+    /**
+     * 登记测试用例中出现的分类取值，须在插入测试用例之前调用
+     *
+     * @param testCases 测试用例列表
+     */
+    public void registerValues(List<TestCase> testCases) {
+        int inserted = register(KIND_NETWORK_TOPOLOGY, testCases, TestCase::getNetworkTopology)
+                + register(KIND_BUSINESS_CATEGORY, testCases, TestCase::getBusinessCategory)
+                + register(KIND_APP_NAME, testCases, TestCase::getAppName);
+        if (inserted > 0) {
+            logger.info("Registered {} new dictionary values", inserted);
+        }
+    }
+
+    /**
+     * 按用例集当前的测试用例重新计算分类计数，须在修改测试用例的事务中调用
+     *
+     * @param testCaseSetId 用例集ID
+     */
+    public void refreshFacets(Long testCaseSetId) {
+        if (testCaseSetId == null) {
+            return;
+        }
+        testCaseDictionaryMapper.deleteFacets(testCaseSetId);
+        int rows = testCaseDictionaryMapper.insertFacets(testCaseSetId);
+        logger.debug("Refreshed {} facet counts for test case set: {}", rows, testCaseSetId);
+    }
+
+    /**
+     * 查询分类计数
+     *
+     * @param testCaseSetId 用例集ID，为空时汇总全部用例集
+     * @return 按businessCategory、appName、networkTopology分组的计数列表
+     */
+    public Map<String, List<FacetCount>> getFacets(Long testCaseSetId) {
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        facets.put("businessCategory", new ArrayList<>());
+        facets.put("appName", new ArrayList<>());
+        facets.put("networkTopology", new ArrayList<>());
+        for (FacetCount facet : testCaseDictionaryMapper.findFacets(testCaseSetId)) {
+            String key = facetKey(facet.getKind());
+            if (key != null) {
+                facets.get(key).add(facet);
+            }
+        }
+        return facets;
+    }
+
+    private int register(String kind, List<TestCase> testCases, Function<TestCase, String> getter) {
+        Set<String> values = new LinkedHashSet<>();
+        for (TestCase testCase : testCases) {
+            String value = getter.apply(testCase);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        List<String> distinct = new ArrayList<>(values);
+        int inserted = 0;
+        for (int i = 0; i < distinct.size(); i += BATCH_SIZE) {
+            inserted += testCaseDictionaryMapper.insertValues(kind,
+                    distinct.subList(i, Math.min(distinct.size(), i + BATCH_SIZE)));
+        }
+        return inserted;
+    }
+
+    private static String facetKey(String kind) {
+        switch (kind) {
+            case KIND_BUSINESS_CATEGORY:
+                return "businessCategory";
+            case KIND_APP_NAME:
+                return "appName";
+            case KIND_NETWORK_TOPOLOGY:
+                return "networkTopology";
+            default:
+                return null;
+        }
+    }
+}
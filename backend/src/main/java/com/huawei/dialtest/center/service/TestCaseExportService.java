@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.mapper.TestCaseMapper;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * 测试用例导出服务，将用例集的测试用例导出为XLSX、CSV或NDJSON
+ * 通过MyBatis游标逐行读取并直接写出，内存占用与用例数量无关
+ * XLSX的前七列与cases.xlsx的列顺序一致，导出文件可重新打包上传
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class TestCaseExportService {
+    /**
+     * XLSX格式
+     */
+    public static final String FORMAT_XLSX = "xlsx";
+
+    /**
+     * CSV格式
+     */
+    public static final String FORMAT_CSV = "csv";
+
+    /**
+     * NDJSON格式，每行一个JSON对象
+     */
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final Logger logger = LoggerFactory.getLogger(TestCaseExportService.class);
+
+    private static final String[] HEADERS = {
+        "用例名称", "用例编号", "用例逻辑组网", "用例业务大类", "用例App", "用例测试步骤", "用例预期结果", "脚本是否存在"
+    };
+
+    private static final int XLSX_WINDOW_SIZE = 100;
+
+    @Autowired
+    private TestCaseMapper testCaseMapper;
+
+    @Autowired
+    private JsonStreamService jsonStreamService;
+
+    /**
+     * 校验并规范化导出格式
+     *
+     * @param format 导出格式
+     * @return 小写的导出格式
+     * @throws IllegalArgumentException 当格式不受支持时抛出
+     */
+    public static String normalizeFormat(String format) {
+        String normalized = format == null ? FORMAT_XLSX : format.trim().toLowerCase(Locale.ROOT);
+        if (!FORMAT_XLSX.equals(normalized) && !FORMAT_CSV.equals(normalized) && !FORMAT_NDJSON.equals(normalized)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        return normalized;
+    }
+
+    /**
+     * 获取导出格式对应的Content-Type
+     *
+     * @param format 规范化后的导出格式
+     * @return Content-Type
+     */
+    public static String contentType(String format) {
+        switch (format) {
+            case FORMAT_CSV:
+                return "text/csv;charset=UTF-8";
+            case FORMAT_NDJSON:
+                return "application/x-ndjson;charset=UTF-8";
+            default:
+                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+        }
+    }
+
+    /**
+     * 导出用例集的测试用例
+     *
+     * @param testCaseSetId 用例集ID
+     * @param format 规范化后的导出格式
+     * @param out 输出流，调用方负责关闭
+     * @return 导出的用例数
+     * @throws IOException 写出失败时抛出
+     */
+    @Transactional(readOnly = true)
+    public long export(Long testCaseSetId, String format, OutputStream out) throws IOException {
+        long count;
+        try (Cursor<TestCase> testCases = testCaseMapper.streamByTestCaseSetId(testCaseSetId)) {
+            switch (format) {
+                case FORMAT_CSV:
+                    count = writeCsv(testCases, out);
+                    break;
+                case FORMAT_NDJSON:
+                    count = jsonStreamService.writeArray(testCases, JsonStreamService.FORMAT_NDJSON, out);
+                    break;
+                default:
+                    count = writeXlsx(testCases, out);
+                    break;
+            }
+        }
+        logger.info("Exported {} test cases of test case set {} as {}", count, testCaseSetId, format);
+        return count;
+    }
+
+    private long writeXlsx(Iterable<TestCase> testCases, OutputStream out) throws IOException {
+        // SXSSFWorkbook.close()会删除行窗口之外写入的临时文件
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_WINDOW_SIZE)) {
+            workbook.setCompressTempFiles(true);
+            SXSSFSheet sheet = workbook.createSheet("cases");
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < HEADERS.length; i++) {
+                header.createCell(i).setCellValue(HEADERS[i]);
+            }
+            int rowIndex = 1;
+            for (TestCase testCase : testCases) {
+                Row row = sheet.createRow(rowIndex++);
+                String[] values = toValues(testCase);
+                for (int i = 0; i < values.length; i++) {
+                    row.createCell(i).setCellValue(values[i]);
+                }
+            }
+            workbook.write(out);
+            return rowIndex - 1L;
+        }
+    }
+
+    private long writeCsv(Iterable<TestCase> testCases, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // BOM使Excel按UTF-8打开中文内容
+        writer.write('\uFEFF');
+        writeCsvLine(writer, HEADERS);
+        long count = 0;
+        for (TestCase testCase : testCases) {
+            writeCsvLine(writer, toValues(testCase));
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * 按RFC 4180转义CSV字段，包含逗号、引号或换行时加引号并将引号加倍
+     *
+     * @param value 字段值
+     * @return 转义后的字段
+     */
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String[] toValues(TestCase testCase) {
+        return new String[] {
+            nullToEmpty(testCase.getCaseName()),
+            nullToEmpty(testCase.getCaseNumber()),
+            nullToEmpty(testCase.getNetworkTopology()),
+            nullToEmpty(testCase.getBusinessCategory()),
+            nullToEmpty(testCase.getAppName()),
+            nullToEmpty(testCase.getTestSteps()),
+            nullToEmpty(testCase.getExpectedResult()),
+            Boolean.TRUE.equals(testCase.getScriptExists()) ? "是" : "否"
+        };
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
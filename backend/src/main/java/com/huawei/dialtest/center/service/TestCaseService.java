@@ -4,10 +4,16 @@
 
 package com.huawei.dialtest.center.service;
 
+import com.huawei.dialtest.center.dto.CursorPage;
+import com.huawei.dialtest.center.dto.FacetCount;
+import com.huawei.dialtest.center.dto.TestCaseSearchCriteria;
+import com.huawei.dialtest.center.dto.TestCaseSearchHit;
 import com.huawei.dialtest.center.entity.TestCase;
 import com.huawei.dialtest.center.entity.TestCaseSet;
 import com.huawei.dialtest.center.mapper.TestCaseMapper;
+import com.huawei.dialtest.center.util.HashUtils;
 
+import org.apache.ibatis.cursor.Cursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +24,17 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -33,9 +49,37 @@ import java.util.Optional;
 public class TestCaseService {
     private static final Logger logger = LoggerFactory.getLogger(TestCaseService.class);
 
+    private static final char ROW_HASH_SEPARATOR = '\u001F';
+
+    private static final String ROW_HASH_NULL = "\u001E";
+
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final int BATCH_SIZE = 500;
+
     @Autowired
     private TestCaseMapper testCaseMapper;
 
+    @Autowired
+    private SingleFlightService singleFlightService;
+
+    @Autowired
+    private ScriptStoreService scriptStoreService;
+
+    @Autowired
+    private CaseNumberIndexService caseNumberIndexService;
+
+    @Autowired
+    private TestCaseCacheService testCaseCacheService;
+
+    @Autowired
+    private TestCaseDictionaryService testCaseDictionaryService;
+
+    @Autowired
+    private JsonStreamService jsonStreamService;
+
     /**
      * 根据用例集获取测试用例列表（分页）
      *
@@ -46,10 +90,18 @@ public class TestCaseService {
      */
     public Page<TestCase> getTestCasesByTestCaseSet(Long testCaseSetId, int page, int pageSize) {
         logger.debug("Getting test cases for test case set: {}, page: {}, size: {}", testCaseSetId, page, pageSize);
-        Pageable pageable = PageRequest.of(page - 1, pageSize);
-        List<TestCase> testCases = testCaseMapper.findByTestCaseSetIdWithPage(testCaseSetId, pageable.getPageNumber(), pageable.getPageSize());
-        long total = testCaseMapper.countByTestCaseSetId(testCaseSetId);
-        return new PageImpl<>(testCases, pageable, total);
+        if (testCaseCacheService.isEnabled()) {
+            Pageable pageable = PageRequest.of(page - 1, pageSize);
+            TestCaseCacheService.CachedTestCases cached = testCaseCacheService.get(testCaseSetId);
+            return new PageImpl<>(cached.page(pageable.getOffset(), pageSize), pageable, cached.size());
+        }
+        String key = "test-case:list:" + testCaseSetId + ":" + page + ":" + pageSize;
+        return singleFlightService.execute(key, () -> {
+            Pageable pageable = PageRequest.of(page - 1, pageSize);
+            List<TestCase> testCases = testCaseMapper.findByTestCaseSetIdWithPage(testCaseSetId, pageable.getPageNumber(), pageable.getPageSize());
+            long total = testCaseMapper.countByTestCaseSetId(testCaseSetId);
+            return new PageImpl<>(testCases, pageable, total);
+        });
     }
 
     /**
@@ -87,6 +139,110 @@ public class TestCaseService {
         return Optional.ofNullable(testCase);
     }
 
+    /**
+     * 查询包含指定用例编号的全部用例集版本及各版本是否有脚本
+     *
+     * @param caseNumber 用例编号
+     * @return 按用例集ID升序排列的版本列表
+     */
+    public List<CaseNumberIndexService.CaseVersion> getCaseVersions(String caseNumber) {
+        return caseNumberIndexService.findVersions(caseNumber);
+    }
+
+    /**
+     * 搜索测试用例，关键字按空白拆分为前缀词并全部匹配，结果按相关度排序并以游标翻页
+     *
+     * @param criteria 搜索条件
+     * @param cursor 上一页返回的游标，首页为空
+     * @param limit 每页条数，为空或非正数时使用默认值
+     * @return 一页搜索结果及下一页游标，没有更多结果时游标为空
+     * @throws IllegalArgumentException 当游标无效时抛出
+     */
+    public CursorPage<TestCaseSearchHit> searchTestCases(TestCaseSearchCriteria criteria, String cursor,
+                                                         Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
+        String tsQuery = buildTsQuery(criteria.getKeyword());
+        applyCursor(criteria, cursor, tsQuery != null);
+
+        List<TestCaseSearchHit> hits = testCaseMapper.search(criteria, tsQuery, pageSize + 1);
+        String nextCursor = null;
+        if (hits.size() > pageSize) {
+            hits = new ArrayList<>(hits.subList(0, pageSize));
+            nextCursor = encodeCursor(hits.get(pageSize - 1));
+        }
+        logger.debug("Searched test cases with query [{}], {} hits returned", tsQuery, hits.size());
+        return new CursorPage<>(hits, nextCursor);
+    }
+
+    /**
+     * 将搜索关键字转换为全文检索表达式，每个词作为前缀匹配，词之间为与关系
+     *
+     * @param keyword 搜索关键字
+     * @return 全文检索表达式，没有有效词时返回null
+     */
+    static String buildTsQuery(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : keyword.trim().split("\\s+")) {
+            String lexeme = term.replace("\\", "").replace("'", "''");
+            if (lexeme.codePoints().anyMatch(Character::isLetterOrDigit)) {
+                terms.add("'" + lexeme + "':*");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+
+    private void applyCursor(TestCaseSearchCriteria criteria, String cursor, boolean ranked) {
+        if (cursor == null || cursor.isEmpty()) {
+            return;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (ranked != (separator >= 0)) {
+                throw new IllegalArgumentException("Cursor does not match the search query");
+            }
+            if (ranked) {
+                criteria.setAfterRank(Float.valueOf(decoded.substring(0, separator)));
+            }
+            criteria.setAfterId(Long.valueOf(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor, e);
+        }
+    }
+
+    private String encodeCursor(TestCaseSearchHit hit) {
+        String key = hit.getRank() == null ? String.valueOf(hit.getTestCase().getId())
+                : hit.getRank() + ":" + hit.getTestCase().getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 获取测试用例的脚本内容，直接从脚本存储读取而不解析用例集压缩包
+     *
+     * @param testCaseId 测试用例ID
+     * @return 脚本内容，用例不存在或没有脚本时返回空
+     */
+    public Optional<byte[]> getScriptContent(Long testCaseId) {
+        TestCase testCase = testCaseMapper.findById(testCaseId);
+        if (testCase == null || testCase.getScriptSha256() == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(scriptStoreService.getScriptContent(testCase.getScriptSha256()));
+    }
+
+    /**
+     * 查询引用指定脚本版本的用例集
+     *
+     * @param sha256 脚本内容的SHA256
+     * @return 用例集元数据列表
+     */
+    public List<TestCaseSet> getTestCaseSetsUsingScript(String sha256) {
+        return scriptStoreService.getTestCaseSetsUsingScript(sha256.toLowerCase());
+    }
+
     /**
      * 保存测试用例
      *
@@ -96,8 +252,11 @@ public class TestCaseService {
     @Transactional
     public TestCase saveTestCase(TestCase testCase) {
         logger.debug("Saving test case: {}", testCase.getCaseNumber());
+        testCaseDictionaryService.registerValues(Collections.singletonList(testCase));
+        testCase.setRowHash(calculateRowHash(testCase));
         int result = testCaseMapper.insert(testCase);
         if (result > 0) {
+            testCaseDictionaryService.refreshFacets(testCase.getTestCaseSetId());
             return testCase;
         } else {
             throw new RuntimeException("Failed to save test case");
@@ -113,15 +272,84 @@ public class TestCaseService {
     @Transactional
     public List<TestCase> saveTestCases(List<TestCase> testCases) {
         logger.info("Saving {} test cases", testCases.size());
+        testCaseDictionaryService.registerValues(testCases);
         for (TestCase testCase : testCases) {
+            testCase.setRowHash(calculateRowHash(testCase));
             int result = testCaseMapper.insert(testCase);
             if (result == 0) {
                 throw new RuntimeException("Failed to save test case: " + testCase.getCaseNumber());
             }
         }
+        testCases.stream().map(TestCase::getTestCaseSetId).distinct().forEach(testCaseSetId -> {
+            testCaseDictionaryService.refreshFacets(testCaseSetId);
+            testCaseCacheService.invalidate(testCaseSetId);
+        });
         return testCases;
     }
 
+    /**
+     * 查询用例集中各用例的行哈希
+     *
+     * @param testCaseSetId 用例集ID
+     * @return 用例编号到行哈希的映射，用例集内编号重复时该编号对应null
+     */
+    public Map<String, String> getRowHashes(Long testCaseSetId) {
+        Map<String, String> rowHashes = new HashMap<>();
+        for (TestCase testCase : testCaseMapper.findRowHashes(testCaseSetId)) {
+            if (rowHashes.containsKey(testCase.getCaseNumber())) {
+                rowHashes.put(testCase.getCaseNumber(), null);
+            } else {
+                rowHashes.put(testCase.getCaseNumber(), testCase.getRowHash());
+            }
+        }
+        return rowHashes;
+    }
+
+    /**
+     * 在数据库内将源用例集的测试用例复制到目标用例集
+     *
+     * @param sourceTestCaseSetId 源用例集ID
+     * @param targetTestCaseSetId 目标用例集ID
+     * @param excludedCaseNumbers 不复制的用例编号
+     * @return 复制的用例数
+     */
+    @Transactional
+    public int copyTestCases(Long sourceTestCaseSetId, Long targetTestCaseSetId,
+                             Collection<String> excludedCaseNumbers) {
+        int copied = testCaseMapper.copyFromTestCaseSet(sourceTestCaseSetId, targetTestCaseSetId,
+                excludedCaseNumbers);
+        testCaseDictionaryService.refreshFacets(targetTestCaseSetId);
+        testCaseCacheService.invalidate(targetTestCaseSetId);
+        logger.info("Copied {} test cases from test case set {} to {}", copied, sourceTestCaseSetId,
+                targetTestCaseSetId);
+        return copied;
+    }
+
+    /**
+     * 计算测试用例内容的哈希，用于比较不同版本用例集中的同一用例，不包含ID和用例集
+     * 计算方式须与数据库迁移脚本中的回填语句保持一致
+     *
+     * @param testCase 测试用例
+     * @return SHA256哈希值的十六进制字符串
+     */
+    public static String calculateRowHash(TestCase testCase) {
+        StringBuilder row = new StringBuilder();
+        appendRowField(row, testCase.getCaseNumber());
+        appendRowField(row, testCase.getCaseName());
+        appendRowField(row, testCase.getNetworkTopology());
+        appendRowField(row, testCase.getBusinessCategory());
+        appendRowField(row, testCase.getAppName());
+        appendRowField(row, testCase.getTestSteps());
+        appendRowField(row, testCase.getExpectedResult());
+        appendRowField(row, String.valueOf(Boolean.TRUE.equals(testCase.getScriptExists())));
+        row.append(testCase.getScriptSha256() == null ? ROW_HASH_NULL : testCase.getScriptSha256());
+        return HashUtils.sha256Hex(row.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendRowField(StringBuilder row, String value) {
+        row.append(value == null ? ROW_HASH_NULL : value).append(ROW_HASH_SEPARATOR);
+    }
+
     /**
      * 更新测试用例的脚本存在状态
      *
@@ -139,8 +367,10 @@ public class TestCaseService {
         if (testCaseOpt.isPresent()) {
             TestCase foundTestCase = testCaseOpt.get();
             foundTestCase.setScriptExists(scriptExists);
+            foundTestCase.setRowHash(calculateRowHash(foundTestCase));
             int result = testCaseMapper.update(foundTestCase);
             if (result > 0) {
+                testCaseCacheService.invalidate(foundTestCase.getTestCaseSetId());
                 return foundTestCase;
             } else {
                 throw new RuntimeException("Failed to update test case");
@@ -150,6 +380,62 @@ public class TestCaseService {
         }
     }
 
+    /**
+     * 将用例集中指定用例关联到新的脚本版本，同时更新脚本存在状态和行哈希
+     *
+     * @param testCaseSetId 用例集ID
+     * @param caseNumber 用例编号
+     * @param scriptSha256 脚本内容的SHA256
+     * @return 更新后的测试用例，用例集中没有该用例时返回空
+     */
+    public Optional<TestCase> applyScript(Long testCaseSetId, String caseNumber, String scriptSha256) {
+        TestCase testCase = testCaseMapper.findByTestCaseSetIdAndCaseNumber(testCaseSetId, caseNumber);
+        if (testCase == null) {
+            return Optional.empty();
+        }
+        testCase.setScriptExists(true);
+        testCase.setScriptSha256(scriptSha256);
+        testCase.setRowHash(calculateRowHash(testCase));
+        if (testCaseMapper.update(testCase) == 0) {
+            throw new RuntimeException("Failed to update test case");
+        }
+        caseNumberIndexService.recordScripts(testCaseSetId, Collections.singletonList(caseNumber));
+        testCaseCacheService.invalidate(testCaseSetId);
+        return Optional.of(testCase);
+    }
+
+    /**
+     * 按脚本匹配结果分批更新用例的脚本状态，只更新状态变化的用例
+     *
+     * @param testCaseSetId 用例集ID
+     * @param caseScripts 用例编号到脚本SHA256的映射
+     * @return 脚本状态发生变化的用例编号
+     */
+    public List<String> rematchScripts(Long testCaseSetId, Map<String, String> caseScripts) {
+        if (caseScripts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> updated = new ArrayList<>();
+        Map<String, String> batch = new LinkedHashMap<>();
+        for (Map.Entry<String, String> caseScript : caseScripts.entrySet()) {
+            batch.put(caseScript.getKey(), caseScript.getValue());
+            if (batch.size() == BATCH_SIZE) {
+                updated.addAll(testCaseMapper.rematchScripts(testCaseSetId, batch));
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            updated.addAll(testCaseMapper.rematchScripts(testCaseSetId, batch));
+        }
+        if (!updated.isEmpty()) {
+            caseNumberIndexService.recordScripts(testCaseSetId, updated);
+            testCaseCacheService.invalidate(testCaseSetId);
+        }
+        logger.info("Rematched {} scripts of test case set {}, {} test cases updated", caseScripts.size(),
+                testCaseSetId, updated.size());
+        return updated;
+    }
+
     /**
      * 获取没有脚本的测试用例列表
      *
@@ -158,9 +444,32 @@ public class TestCaseService {
      */
     public List<TestCase> getMissingScripts(Long testCaseSetId) {
         logger.debug("Getting missing scripts for test case set: {}", testCaseSetId);
+        if (testCaseCacheService.isEnabled()) {
+            return testCaseCacheService.get(testCaseSetId).missingScripts();
+        }
         return testCaseMapper.findMissingScripts(testCaseSetId);
     }
 
+    /**
+     * 将没有脚本的测试用例逐行写出，未启用缓存时通过游标读取
+     *
+     * @param testCaseSetId 用例集ID
+     * @param format 规范化后的输出格式：json或ndjson
+     * @param out 输出流，调用方负责关闭
+     * @return 写出的用例数
+     * @throws IOException 写出失败时抛出
+     */
+    @Transactional(readOnly = true)
+    public long writeMissingScripts(Long testCaseSetId, String format, OutputStream out) throws IOException {
+        logger.debug("Streaming missing scripts for test case set: {}, format: {}", testCaseSetId, format);
+        if (testCaseCacheService.isEnabled()) {
+            return jsonStreamService.writeData(testCaseCacheService.get(testCaseSetId).missingScripts(), format, out);
+        }
+        try (Cursor<TestCase> testCases = testCaseMapper.streamMissingScripts(testCaseSetId)) {
+            return jsonStreamService.writeData(testCases, format, out);
+        }
+    }
+
     /**
      * 统计没有脚本的测试用例数量
      *
@@ -169,9 +478,23 @@ public class TestCaseService {
      */
     public long countMissingScripts(Long testCaseSetId) {
         logger.debug("Counting missing scripts for test case set: {}", testCaseSetId);
+        if (testCaseCacheService.isEnabled()) {
+            return testCaseCacheService.get(testCaseSetId).countMissingScripts();
+        }
         return testCaseMapper.countMissingScripts(testCaseSetId);
     }
 
+    /**
+     * 查询逻辑组网、业务大类和用例App的测试用例计数
+     *
+     * @param testCaseSetId 用例集ID，为空时汇总全部用例集
+     * @return 按分类分组的计数列表
+     */
+    public Map<String, List<FacetCount>> getFacets(Long testCaseSetId) {
+        logger.debug("Getting facet counts for test case set: {}", testCaseSetId);
+        return testCaseDictionaryService.getFacets(testCaseSetId);
+    }
+
     /**
      * 删除测试用例
      *
@@ -188,6 +511,8 @@ public class TestCaseService {
             if (result == 0) {
                 throw new RuntimeException("Failed to delete test case");
             }
+            testCaseDictionaryService.refreshFacets(testCase.getTestCaseSetId());
+            testCaseCacheService.invalidate(testCase.getTestCaseSetId());
             logger.info("Test case deleted successfully: {}", id);
         } else {
             throw new IllegalArgumentException("Test case does not exist");
@@ -203,6 +528,8 @@ public class TestCaseService {
     public void deleteTestCasesByTestCaseSet(TestCaseSet testCaseSet) {
         logger.info("Deleting all test cases for test case set: {}", testCaseSet.getId());
         int result = testCaseMapper.deleteByTestCaseSetId(testCaseSet.getId());
+        testCaseDictionaryService.refreshFacets(testCaseSet.getId());
+        testCaseCacheService.invalidate(testCaseSet.getId());
         if (result == 0) {
             logger.warn("No test cases found for test case set: {}", testCaseSet.getId());
         }
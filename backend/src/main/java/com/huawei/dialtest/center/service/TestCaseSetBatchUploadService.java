@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.dto.BatchUploadResult;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadRejectedException;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadTicket;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * 用例集批量上传服务，在固定大小的线程池中并行解析和入库多个用例集压缩包
+ * 每个压缩包在独立事务中处理，单个文件失败不影响其他文件，返回逐个文件的处理结果
+ * 线程数默认等于CPU核数，解析压缩包和Excel为CPU密集型操作
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class TestCaseSetBatchUploadService {
+    private static final Logger logger = LoggerFactory.getLogger(TestCaseSetBatchUploadService.class);
+
+    @Autowired
+    private TestCaseSetService testCaseSetService;
+
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Value("${app.upload.batch.threads:0}")
+    private int threads = 0;
+
+    @Value("${app.upload.batch.max-files:200}")
+    private int maxFiles = 200;
+
+    private ExecutorService executor;
+
+    /**
+     * 计算批量上传线程数，未配置时取CPU核数
+     *
+     * @param configured 配置的线程数，小于等于0表示未配置
+     * @return 线程数
+     */
+    public static int resolveThreads(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 创建批量上传线程池
+     */
+    @PostConstruct
+    public void init() {
+        int poolSize = resolveThreads(threads);
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "test-case-set-batch-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        logger.info("Test case set batch upload pool started with {} threads", poolSize);
+    }
+
+    /**
+     * 关闭批量上传线程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 并行上传多个用例集，等待全部文件处理完成后返回
+     *
+     * @param files 用例集文件列表，支持.zip和.tar.gz格式
+     * @param description 用例集描述信息
+     * @param creator 创建者用户名
+     * @param business 业务类型
+     * @return 与上传文件顺序一致的处理结果
+     * @throws IllegalArgumentException 当文件列表为空或文件数超过上限时抛出
+     */
+    public List<BatchUploadResult> upload(List<MultipartFile> files, String description, String creator,
+            String business) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No files to upload");
+        }
+        if (files.size() > maxFiles) {
+            throw new IllegalArgumentException("Too many files in one batch, at most " + maxFiles + " allowed");
+        }
+
+        long start = System.currentTimeMillis();
+        List<Future<BatchUploadResult>> futures = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            futures.add(executor.submit(() -> uploadOne(file, description, creator, business)));
+        }
+
+        List<BatchUploadResult> results = new ArrayList<>(files.size());
+        int succeeded = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            BatchUploadResult result = await(futures.get(i), files.get(i));
+            if (result.isSuccess()) {
+                succeeded++;
+            }
+            results.add(result);
+        }
+        logger.info("Batch upload finished: {} of {} test case sets stored in {} ms", succeeded, files.size(),
+                System.currentTimeMillis() - start);
+        return results;
+    }
+
+    private BatchUploadResult await(Future<BatchUploadResult> future, MultipartFile file) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return failed(file, "Interrupted while waiting for upload", 0L);
+        } catch (ExecutionException e) {
+            logger.error("Unexpected error in batch upload of {}", file.getOriginalFilename(), e.getCause());
+            return failed(file, "Upload failed", 0L);
+        }
+    }
+
+    private BatchUploadResult uploadOne(MultipartFile file, String description, String creator, String business) {
+        long start = System.currentTimeMillis();
+        String fileName = file.getOriginalFilename();
+        try (UploadTicket ticket = uploadAdmissionService.admit(UploadType.TEST_CASE_SET_BATCH, fileName,
+                file.getSize())) {
+            TestCaseSet testCaseSet = testCaseSetService.uploadTestCaseSet(file, description, creator, business);
+
+            BatchUploadResult result = new BatchUploadResult(fileName);
+            result.setSuccess(true);
+            result.setMessage("Upload successful");
+            result.setId(testCaseSet.getId());
+            result.setName(testCaseSet.getName());
+            result.setVersion(testCaseSet.getVersion());
+            result.setChangeSummary(testCaseSet.getChangeSummary());
+            result.setElapsedMillis(System.currentTimeMillis() - start);
+            return result;
+        } catch (UploadRejectedException | CancellationException | IllegalArgumentException e) {
+            logger.warn("Batch upload of {} failed: {}", fileName, e.getMessage());
+            return failed(file, e.getMessage(), System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            logger.error("File I/O error during batch upload of {}: {}", fileName, e.getMessage(), e);
+            return failed(file, "File processing failed", System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Batch upload of {} failed: {}", fileName, e.getMessage(), e);
+            return failed(file, "Upload failed", System.currentTimeMillis() - start);
+        }
+    }
+
+    private static BatchUploadResult failed(MultipartFile file, String message, long elapsedMillis) {
+        BatchUploadResult result = new BatchUploadResult(file.getOriginalFilename());
+        result.setSuccess(false);
+        result.setMessage(message);
+        result.setElapsedMillis(elapsedMillis);
+        return result;
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.dto.TestCaseChange;
+import com.huawei.dialtest.center.dto.TestCaseChange.FieldChange;
+import com.huawei.dialtest.center.dto.TestCaseSetDiff;
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.mapper.TestCaseMapper;
+import com.huawei.dialtest.center.mapper.TestCaseSetMapper;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 用例集版本比较服务，按用例编号顺序同时遍历两个版本的测试用例做归并比较
+ * 行哈希相同的用例直接跳过，不同时逐字段比较，内存占用只与差异数量有关
+ * 比较结果按两个版本的ID缓存，克隆出的版本与源版本文件内容相同但脚本可单独修改，修改后清除相关缓存
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class TestCaseSetDiffService {
+    private static final Logger logger = LoggerFactory.getLogger(TestCaseSetDiffService.class);
+
+    @Autowired
+    private TestCaseSetMapper testCaseSetMapper;
+
+    @Autowired
+    private TestCaseMapper testCaseMapper;
+
+    @Autowired
+    private ScriptStoreService scriptStoreService;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
+    @Value("${app.test-case-set-diff.cache-size:100}")
+    private int cacheSize = 100;
+
+    private final Map<String, TestCaseSetDiff> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<Long, Long> generations = new HashMap<>();
+
+    /**
+     * 比较两个用例集版本
+     *
+     * @param baseId 基准用例集ID
+     * @param targetId 目标用例集ID
+     * @return 目标版本相对基准版本的差异，任一用例集不存在时返回空
+     */
+    @Transactional(readOnly = true)
+    public Optional<TestCaseSetDiff> diff(Long baseId, Long targetId) {
+        TestCaseSet base = testCaseSetMapper.findMetadataById(baseId);
+        TestCaseSet target = testCaseSetMapper.findMetadataById(targetId);
+        if (base == null || target == null) {
+            return Optional.empty();
+        }
+
+        String key = baseId + ":" + targetId;
+        synchronized (cache) {
+            TestCaseSetDiff cached = cache.get(key);
+            if (cached != null) {
+                logger.debug("Serving diff of test case sets {} and {} from cache", baseId, targetId);
+                return Optional.of(cached);
+            }
+        }
+        return Optional.of(singleFlightService.execute("test-case-set-diff:" + key,
+                () -> computeAndCache(baseId, targetId, key)));
+    }
+
+    /**
+     * 清除涉及指定用例集的比较结果缓存，并在当前事务提交后再次清除，避免提交前并发计算的旧结果留在缓存中
+     *
+     * @param testCaseSetId 用例集ID
+     */
+    public void evict(Long testCaseSetId) {
+        evictNow(testCaseSetId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(testCaseSetId);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long testCaseSetId) {
+        String prefix = testCaseSetId + ":";
+        String suffix = ":" + testCaseSetId;
+        synchronized (cache) {
+            generations.merge(testCaseSetId, 1L, Long::sum);
+            cache.keySet().removeIf(key -> key.startsWith(prefix) || key.endsWith(suffix));
+        }
+    }
+
+    /**
+     * 计算比较结果并在两个用例集计算期间都未被清除缓存时写入缓存，避免提交前读到的旧数据在清除后写回
+     */
+    private TestCaseSetDiff computeAndCache(Long baseId, Long targetId, String key) {
+        long baseGeneration;
+        long targetGeneration;
+        synchronized (cache) {
+            baseGeneration = generations.getOrDefault(baseId, 0L);
+            targetGeneration = generations.getOrDefault(targetId, 0L);
+        }
+        TestCaseSetDiff diff = compute(baseId, targetId);
+        synchronized (cache) {
+            if (baseGeneration != generations.getOrDefault(baseId, 0L)
+                    || targetGeneration != generations.getOrDefault(targetId, 0L)) {
+                logger.debug("Test case set {} or {} changed during diff, result not cached", baseId, targetId);
+                return diff;
+            }
+            cache.put(key, diff);
+            while (cache.size() > cacheSize) {
+                Iterator<String> eldest = cache.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return diff;
+    }
+
+    private TestCaseSetDiff compute(Long baseId, Long targetId) {
+        TestCaseSetDiff diff = new TestCaseSetDiff();
+        try (Cursor<TestCase> baseCases = testCaseMapper.streamByTestCaseSetIdOrderByCaseNumber(baseId);
+             Cursor<TestCase> targetCases = testCaseMapper.streamByTestCaseSetIdOrderByCaseNumber(targetId)) {
+            mergeCases(baseCases.iterator(), targetCases.iterator(), diff);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close test case cursor", e);
+        }
+        diffScripts(scriptStoreService.getSetScripts(baseId), scriptStoreService.getSetScripts(targetId), diff);
+        logger.info("Diffed test case sets {} and {}: {} added, {} removed, {} modified, {} unchanged cases",
+                baseId, targetId, diff.getAddedCases().size(), diff.getRemovedCases().size(),
+                diff.getModifiedCases().size(), diff.getUnchangedCaseCount());
+        return diff;
+    }
+
+    /**
+     * 归并两个按用例编号排序的测试用例序列
+     *
+     * @param baseCases 基准版本测试用例
+     * @param targetCases 目标版本测试用例
+     * @param diff 比较结果
+     */
+    static void mergeCases(Iterator<TestCase> baseCases, Iterator<TestCase> targetCases, TestCaseSetDiff diff) {
+        TestCase base = next(baseCases);
+        TestCase target = next(targetCases);
+        while (base != null || target != null) {
+            int order;
+            if (base == null) {
+                order = 1;
+            } else if (target == null) {
+                order = -1;
+            } else {
+                order = compareCaseNumbers(base.getCaseNumber(), target.getCaseNumber());
+            }
+            if (order < 0) {
+                diff.getRemovedCases().add(base);
+                base = next(baseCases);
+            } else if (order > 0) {
+                diff.getAddedCases().add(target);
+                target = next(targetCases);
+            } else {
+                TestCaseChange change = compareCases(base, target);
+                if (change.getFields().isEmpty()) {
+                    diff.setUnchangedCaseCount(diff.getUnchangedCaseCount() + 1);
+                } else {
+                    diff.getModifiedCases().add(change);
+                }
+                base = next(baseCases);
+                target = next(targetCases);
+            }
+        }
+    }
+
+    /**
+     * 按码点比较用例编号，与数据库中COLLATE "C"的排序一致
+     *
+     * @param left 用例编号
+     * @param right 用例编号
+     * @return 比较结果
+     */
+    static int compareCaseNumbers(String left, String right) {
+        int i = 0;
+        int j = 0;
+        while (i < left.length() && j < right.length()) {
+            int leftCodePoint = left.codePointAt(i);
+            int rightCodePoint = right.codePointAt(j);
+            if (leftCodePoint != rightCodePoint) {
+                return Integer.compare(leftCodePoint, rightCodePoint);
+            }
+            i += Character.charCount(leftCodePoint);
+            j += Character.charCount(rightCodePoint);
+        }
+        return Integer.compare(left.length() - i, right.length() - j);
+    }
+
+    private static TestCaseChange compareCases(TestCase base, TestCase target) {
+        TestCaseChange change = new TestCaseChange(target.getCaseNumber());
+        if (base.getRowHash() != null && base.getRowHash().equals(target.getRowHash())) {
+            return change;
+        }
+        List<FieldChange> fields = change.getFields();
+        compareField(fields, "caseName", base.getCaseName(), target.getCaseName());
+        compareField(fields, "networkTopology", base.getNetworkTopology(), target.getNetworkTopology());
+        compareField(fields, "businessCategory", base.getBusinessCategory(), target.getBusinessCategory());
+        compareField(fields, "appName", base.getAppName(), target.getAppName());
+        compareField(fields, "testSteps", base.getTestSteps(), target.getTestSteps());
+        compareField(fields, "expectedResult", base.getExpectedResult(), target.getExpectedResult());
+        compareField(fields, "scriptExists", base.getScriptExists(), target.getScriptExists());
+        compareField(fields, "scriptSha256", base.getScriptSha256(), target.getScriptSha256());
+        return change;
+    }
+
+    private static void compareField(List<FieldChange> fields, String field, Object oldValue, Object newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            fields.add(new FieldChange(field, oldValue, newValue));
+        }
+    }
+
+    private static void diffScripts(Map<String, String> baseScripts, Map<String, String> targetScripts,
+                                    TestCaseSetDiff diff) {
+        for (Map.Entry<String, String> script : targetScripts.entrySet()) {
+            String baseHash = baseScripts.get(script.getKey());
+            if (baseHash == null) {
+                diff.getAddedScripts().add(script.getKey());
+            } else if (!baseHash.equals(script.getValue())) {
+                diff.getModifiedScripts().add(script.getKey());
+            }
+        }
+        for (String fileName : baseScripts.keySet()) {
+            if (!targetScripts.containsKey(fileName)) {
+                diff.getRemovedScripts().add(fileName);
+            }
+        }
+    }
+
+    private static TestCase next(Iterator<TestCase> testCases) {
+        if (!testCases.hasNext()) {
+            return null;
+        }
+        TestCase testCase = testCases.next();
+        testCase.setId(null);
+        testCase.setTestCaseSetId(null);
+        return testCase;
+    }
+}
@@ -4,16 +4,21 @@
 
 package com.huawei.dialtest.center.service;
 
+import com.huawei.dialtest.center.dto.TestCaseSetChangeSummary;
+import com.huawei.dialtest.center.entity.ArchiveManifestEntry;
 import com.huawei.dialtest.center.entity.TestCase;
 import com.huawei.dialtest.center.entity.TestCaseSet;
 import com.huawei.dialtest.center.mapper.TestCaseSetMapper;
 import com.huawei.dialtest.center.service.ArchiveParseService.ArchiveValidationResult;
+import com.huawei.dialtest.center.service.BlobCacheService.BlobContent;
 import com.huawei.dialtest.center.service.ExcelParseService.TestCaseInfo;
 import com.huawei.dialtest.center.service.ScriptMatchService.ScriptMatchResult;
+import com.huawei.dialtest.center.util.HashUtils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -23,11 +28,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +53,10 @@ import java.util.stream.Collectors;
 public class TestCaseSetService {
     private static final Logger logger = LoggerFactory.getLogger(TestCaseSetService.class);
 
+    private static final int PYTHON_EXTENSION_LENGTH = ".py".length();
+
+    private static final int MAX_COPY_EXCLUSIONS = 10000;
+
     @Autowired
     private TestCaseSetMapper testCaseSetMapper;
 
@@ -57,6 +72,42 @@ public class TestCaseSetService {
     @Autowired
     private ScriptMatchService scriptMatchService;
 
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Autowired
+    private BlobCacheService blobCacheService;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
+    @Autowired
+    private CatalogStatisticsService catalogStatisticsService;
+
+    @Autowired
+    private ChunkStoreService chunkStoreService;
+
+    @Autowired
+    private ArchiveManifestService archiveManifestService;
+
+    @Autowired
+    private ScriptStoreService scriptStoreService;
+
+    @Autowired
+    private CaseNumberIndexService caseNumberIndexService;
+
+    @Autowired
+    private TestCaseCacheService testCaseCacheService;
+
+    @Autowired
+    private TestCaseSetDiffService testCaseSetDiffService;
+
+    @Value("${app.incremental-ingest.enabled:true}")
+    private boolean incrementalIngestEnabled = true;
+
+    @Value("${app.delete.batch.max-ids:1000}")
+    private int maxDeleteIds = 1000;
+
     /**
      * 获取用例集列表（分页）
      *
@@ -66,10 +117,12 @@ public class TestCaseSetService {
      */
     public Page<TestCaseSet> getTestCaseSets(int page, int pageSize) {
         logger.debug("Getting test case sets - page: {}, size: {}", page, pageSize);
-        Pageable pageable = PageRequest.of(page - 1, pageSize);
-        List<TestCaseSet> content = testCaseSetMapper.findAllByOrderByCreatedTimeDesc(page - 1, pageSize);
-        long total = testCaseSetMapper.count();
-        return new PageImpl<>(content, pageable, total);
+        return singleFlightService.execute("test-case-set:list:" + page + ":" + pageSize, () -> {
+            Pageable pageable = PageRequest.of(page - 1, pageSize);
+            List<TestCaseSet> content = testCaseSetMapper.findAllByOrderByCreatedTimeDesc(page - 1, pageSize);
+            long total = testCaseSetMapper.count();
+            return new PageImpl<>(content, pageable, total);
+        });
     }
 
     /**
@@ -84,6 +137,115 @@ public class TestCaseSetService {
         return Optional.ofNullable(testCaseSet);
     }
 
+    /**
+     * 根据ID获取用例集元数据，不读取文件内容
+     *
+     * @param id 用例集ID
+     * @return 用例集对象，如果不存在则返回空
+     */
+    public Optional<TestCaseSet> getTestCaseSetMetadataById(Long id) {
+        logger.debug("Getting test case set metadata by ID: {}", id);
+        return Optional.ofNullable(testCaseSetMapper.findMetadataById(id));
+    }
+
+    /**
+     * 获取用例集文件内容，优先从本地磁盘缓存读取，未命中时合并同一用例集的并发加载
+     *
+     * @param testCaseSet 用例集元数据
+     * @return 文件内容，使用后须关闭，不存在时返回null
+     */
+    public BlobContent getFileContent(TestCaseSet testCaseSet) {
+        Long id = testCaseSet.getId();
+        return blobCacheService.getOrLoad(testCaseSet.getSha512(),
+            () -> singleFlightService.execute("test-case-set:content:" + id, () -> loadFileContent(id)));
+    }
+
+    private byte[] loadFileContent(Long id) {
+        TestCaseSet fullSet = testCaseSetMapper.findById(id);
+        if (fullSet == null) {
+            return null;
+        }
+        if (ChunkStoreService.STORAGE_CHUNKED.equals(fullSet.getStorageMode())) {
+            return chunkStoreService.read(ChunkStoreService.OWNER_TEST_CASE_SET, id);
+        }
+        if (fullSet.getContentSourceId() != null) {
+            TestCaseSet contentSource = testCaseSetMapper.findFileContentById(fullSet.getContentSourceId());
+            return contentSource == null ? null : contentSource.getFileContent();
+        }
+        return fullSet.getFileContent();
+    }
+
+    /**
+     * 获取用例集压缩包的文件清单，清单功能上线前上传的用例集在首次访问时建立清单
+     * 建立清单时已有的补丁脚本条目保留，不被压缩包中的同名脚本覆盖
+     *
+     * @param id 用例集ID
+     * @return 按路径排序的文件清单，用例集不存在时返回空
+     * @throws IOException 读取或解析压缩包失败时抛出
+     */
+    public Optional<List<ArchiveManifestEntry>> getManifest(Long id) throws IOException {
+        Optional<TestCaseSet> testCaseSet = getTestCaseSetMetadataById(id);
+        if (!testCaseSet.isPresent()) {
+            return Optional.empty();
+        }
+        List<ArchiveManifestEntry> entries = archiveManifestService.getEntries(id);
+        if (entries.stream().allMatch(ArchiveManifestEntry::isPatched)) {
+            try (BlobContent content = getFileContent(testCaseSet.get())) {
+                if (content != null) {
+                    archiveManifestService.index(id, content.getChannel(), testCaseSet.get().getFileFormat());
+                    entries = archiveManifestService.getEntries(id);
+                }
+            }
+        }
+        return Optional.of(entries);
+    }
+
+    /**
+     * 读取用例集压缩包中的单个文件，补丁脚本从脚本库读取
+     *
+     * @param id 用例集ID
+     * @param path 文件在压缩包内的路径
+     * @return 文件内容，用例集或文件不存在时返回空
+     * @throws IOException 读取或解析压缩包失败时抛出
+     */
+    public Optional<byte[]> getArchiveFile(Long id, String path) throws IOException {
+        Optional<TestCaseSet> testCaseSet = getTestCaseSetMetadataById(id);
+        if (!testCaseSet.isPresent()) {
+            return Optional.empty();
+        }
+        ArchiveManifestEntry entry = archiveManifestService.getEntry(id, path);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.isPatched()) {
+            return Optional.ofNullable(scriptStoreService.getScriptContent(entry.getSha256()));
+        }
+        try (BlobContent content = getFileContent(testCaseSet.get())) {
+            if (content == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(archiveParseService.extractEntry(content.getChannel(),
+                    testCaseSet.get().getFileFormat(), entry));
+        }
+    }
+
+    /**
+     * 比较两个用例集压缩包的文件清单
+     *
+     * @param baseId 基准用例集ID
+     * @param targetId 目标用例集ID
+     * @return 新增、修改、删除的文件和未变化文件数，任一用例集不存在时返回空
+     * @throws IOException 读取或解析压缩包失败时抛出
+     */
+    public Optional<Map<String, Object>> diffManifests(Long baseId, Long targetId) throws IOException {
+        Optional<List<ArchiveManifestEntry>> baseEntries = getManifest(baseId);
+        Optional<List<ArchiveManifestEntry>> targetEntries = getManifest(targetId);
+        if (!baseEntries.isPresent() || !targetEntries.isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(archiveManifestService.diff(baseEntries.get(), targetEntries.get()));
+    }
+
     /**
      * 上传用例集
      *
@@ -102,8 +264,33 @@ public class TestCaseSetService {
         // 验证文件
         validateFile(file);
 
+        return storeTestCaseSet(file.getOriginalFilename(), file.getSize(), file::getBytes, description, creator,
+                business);
+    }
+
+    /**
+     * 导入服务器本地已读取的用例集文件，校验和入库规则与上传相同
+     *
+     * @param fileName 文件名，格式为name_version.zip或name_version.tar.gz
+     * @param fileContent 文件内容
+     * @param description 用例集描述信息
+     * @param creator 创建者用户名
+     * @param business 业务类型
+     * @return 保存后的用例集实体对象
+     * @throws IOException 解析文件失败时抛出
+     * @throws IllegalArgumentException 当文件格式不正确或参数无效时抛出
+     */
+    @Transactional
+    public TestCaseSet importTestCaseSet(String fileName, byte[] fileContent, String description, String creator,
+            String business) throws IOException {
+        logger.info("Starting test case set import: {}", fileName);
+        validateFile(fileName, fileContent == null ? 0L : fileContent.length);
+        return storeTestCaseSet(fileName, fileContent.length, () -> fileContent, description, creator, business);
+    }
+
+    private TestCaseSet storeTestCaseSet(String fileName, long fileSize, ContentReader contentReader,
+            String description, String creator, String business) throws IOException {
         // 解析文件名和格式
-        String fileName = file.getOriginalFilename();
         if (fileName == null) {
             throw new IllegalArgumentException("File name cannot be null");
         }
@@ -135,16 +322,18 @@ public class TestCaseSetService {
         }
 
         // 读取文件内容
-        byte[] fileContent = file.getBytes();
+        uploadAdmissionService.checkpoint("reading");
+        byte[] fileContent = contentReader.read();
 
         // 验证压缩包结构
+        uploadAdmissionService.checkpoint("validating");
         ArchiveValidationResult validationResult = archiveParseService.validateArchive(fileContent, fileFormat);
         if (!validationResult.isValid()) {
             throw new IllegalArgumentException("Invalid archive structure: missing cases.xlsx or scripts directory");
         }
 
         // 计算文件内容的SHA512哈希值
-        String sha512 = calculateSHA512(fileContent);
+        String sha512 = HashUtils.sha512Hex(fileContent);
 
         // 创建用例集记录
         TestCaseSet testCaseSet = new TestCaseSet();
@@ -153,17 +342,30 @@ public class TestCaseSetService {
         testCaseSet.setFileContent(fileContent);
         testCaseSet.setFileFormat(fileFormat);
         testCaseSet.setCreator(creator);
-        testCaseSet.setFileSize(file.getSize());
+        testCaseSet.setFileSize(fileSize);
         testCaseSet.setSha512(sha512);
         testCaseSet.setBusiness(business);
         testCaseSet.setDescription(description);
+        boolean chunked = chunkStoreService.isEnabled();
+        if (chunked) {
+            testCaseSet.setStorageMode(ChunkStoreService.STORAGE_CHUNKED);
+            testCaseSet.setFileContent(null);
+        }
 
+        uploadAdmissionService.checkpoint("storing");
         int result = testCaseSetMapper.insert(testCaseSet);
         if (result > 0) {
+            if (chunked) {
+                chunkStoreService.store(ChunkStoreService.OWNER_TEST_CASE_SET, testCaseSet.getId(), fileContent);
+                testCaseSet.setFileContent(fileContent);
+            }
             logger.info("Test case set uploaded successfully: {} - {}, format: {}, file size: {} bytes, SHA512: {}, business: {}", name, version, fileFormat, fileContent.length, sha512, business);
 
-            // 解析并存储用例信息
+            // 建立压缩包文件清单，解析并存储用例信息
+            uploadAdmissionService.checkpoint("parsing");
+            archiveManifestService.index(testCaseSet.getId(), fileContent, fileFormat);
             parseAndStoreTestCases(testCaseSet, fileContent, fileFormat);
+            catalogStatisticsService.recordTestCaseSetAdded(testCaseSet);
 
             return testCaseSet;
         } else {
@@ -172,26 +374,267 @@ public class TestCaseSetService {
     }
 
     /**
-     * 删除用例集
+     * 以已有用例集为源创建新版本，清单、脚本关联和测试用例均在数据库内复制，不读取和解析压缩包
+     * 完整存储的文件内容按引用共享，分块存储的文件只复制分块清单并增加引用计数，脚本内容按哈希共享
+     *
+     * @param id 源用例集ID
+     * @param name 新版本名称，为空时沿用源用例集名称
+     * @param version 新版本号
+     * @param description 新版本描述信息，为空时沿用源用例集描述
+     * @param creator 创建者用户名
+     * @return 新版本用例集元数据
+     * @throws IllegalArgumentException 当源用例集不存在、版本号为空或名称版本已存在时抛出
+     */
+    @Transactional
+    public TestCaseSet cloneTestCaseSet(Long id, String name, String version, String description, String creator) {
+        TestCaseSet source = testCaseSetMapper.findMetadataById(id);
+        if (source == null) {
+            throw new IllegalArgumentException("Test case set does not exist");
+        }
+        if (version == null || version.trim().isEmpty()) {
+            throw new IllegalArgumentException("Version cannot be empty");
+        }
+        String cloneName = name == null || name.trim().isEmpty() ? source.getName() : name;
+        if (testCaseSetMapper.existsByNameAndVersion(cloneName, version)) {
+            throw new IllegalArgumentException("Test case set with name and version already exists");
+        }
+
+        TestCaseSet clone = new TestCaseSet();
+        clone.setName(cloneName);
+        clone.setVersion(version);
+        clone.setCreator(creator);
+        clone.setDescription(description == null ? source.getDescription() : description);
+        if (testCaseSetMapper.insertClone(clone, id) == 0) {
+            throw new IllegalArgumentException("Test case set does not exist");
+        }
+        Long cloneId = clone.getId();
+        clone.setFileFormat(source.getFileFormat());
+        clone.setSha512(source.getSha512());
+        clone.setBusiness(source.getBusiness());
+        clone.setFileSize(source.getFileSize());
+        clone.setStorageMode(source.getStorageMode());
+        if (!ChunkStoreService.STORAGE_CHUNKED.equals(source.getStorageMode())) {
+            clone.setContentSourceId(source.getContentSourceId() == null ? id : source.getContentSourceId());
+        }
+        clone.setCaseCount(source.getCaseCount());
+        clone.setMissingScriptCount(source.getMissingScriptCount());
+        clone.setExtraScriptCount(source.getExtraScriptCount());
+        clone.setScriptCount(source.getScriptCount());
+
+        if (ChunkStoreService.STORAGE_CHUNKED.equals(source.getStorageMode())) {
+            chunkStoreService.copy(ChunkStoreService.OWNER_TEST_CASE_SET, id, cloneId);
+        }
+        archiveManifestService.copy(id, cloneId);
+        scriptStoreService.copyScripts(id, cloneId);
+        testCaseService.copyTestCases(id, cloneId, Collections.emptyList());
+        caseNumberIndexService.copyTestCaseSet(id, cloneId);
+        catalogStatisticsService.recordTestCaseSetAdded(clone);
+        logger.info("Test case set cloned: {} - {} from {} - {}", cloneName, version, source.getName(),
+                source.getVersion());
+        return clone;
+    }
+
+    /**
+     * 新增或替换用例集中的单个脚本，同名用例关联到新脚本版本，文件清单中的脚本条目指向新脚本，压缩包文件内容不变
+     *
+     * @param id 用例集ID
+     * @param fileName 脚本文件名，须为用例编号.py
+     * @param content 脚本内容
+     * @return 新脚本内容的SHA256和对应的测试用例，用例集中没有同名用例时testCase为空
+     * @throws IllegalArgumentException 当用例集不存在、文件名不合法或脚本内容为空时抛出
+     */
+    @Transactional
+    public Map<String, Object> putScript(Long id, String fileName, byte[] content) {
+        if (fileName == null || !fileName.endsWith(".py") || fileName.length() <= PYTHON_EXTENSION_LENGTH
+                || fileName.contains("/") || fileName.contains("\\")) {
+            throw new IllegalArgumentException("Script file name must be <case number>.py");
+        }
+        if (content == null || content.length == 0) {
+            throw new IllegalArgumentException("Script content cannot be empty");
+        }
+        if (testCaseSetMapper.findMetadataById(id) == null) {
+            throw new IllegalArgumentException("Test case set does not exist");
+        }
+
+        String sha256 = scriptStoreService.replaceScript(id, fileName, content);
+        archiveManifestService.recordPatchedScripts(id, Collections.singletonMap(fileName, content),
+                Collections.singletonMap(fileName, sha256));
+        String caseNumber = fileName.substring(0, fileName.length() - PYTHON_EXTENSION_LENGTH);
+        Optional<TestCase> testCase = testCaseService.applyScript(id, caseNumber, sha256);
+        testCaseSetMapper.refreshSummary(id);
+        testCaseSetDiffService.evict(id);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("fileName", fileName);
+        result.put("sha256", sha256);
+        result.put("testCase", testCase.orElse(null));
+        return result;
+    }
+
+    /**
+     * 向已有用例集补充脚本并重新匹配对应用例，支持单个.py脚本和包含scripts目录的补丁压缩包
+     * 只有本次补充的脚本参与匹配，匹配结果分批写回，缓存和用例编号索引在事务提交后刷新
+     * 补丁脚本同时写入文件清单，执行机按清单同步时拉取补丁
+     *
+     * @param id 用例集ID
+     * @param files 脚本文件或补丁压缩包
+     * @return 补充的脚本数和脚本状态发生变化的用例编号
+     * @throws IOException 读取或解析文件失败时抛出
+     * @throws IllegalArgumentException 当用例集不存在、没有脚本或文件格式不支持时抛出
+     */
+    @Transactional
+    public Map<String, Object> addScripts(Long id, List<MultipartFile> files) throws IOException {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No script files to add");
+        }
+        if (testCaseSetMapper.findMetadataById(id) == null) {
+            throw new IllegalArgumentException("Test case set does not exist");
+        }
+
+        Map<String, byte[]> scripts = new LinkedHashMap<>();
+        for (MultipartFile file : files) {
+            String fileName = file.getOriginalFilename() == null ? "" : file.getOriginalFilename();
+            String lowerFileName = fileName.toLowerCase();
+            if (lowerFileName.endsWith(".py")) {
+                int separator = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+                scripts.put(fileName.substring(separator + 1), file.getBytes());
+            } else if (lowerFileName.endsWith(".zip")) {
+                scripts.putAll(archiveParseService.extractScripts(file.getBytes(), "zip"));
+            } else if (lowerFileName.endsWith(".tar.gz")) {
+                scripts.putAll(archiveParseService.extractScripts(file.getBytes(), "tar.gz"));
+            } else {
+                throw new IllegalArgumentException("Only .py scripts and ZIP or TAR.GZ patch archives are supported");
+            }
+        }
+        if (scripts.isEmpty()) {
+            throw new IllegalArgumentException("No scripts found in uploaded files");
+        }
+
+        Map<String, String> scriptHashes = scriptStoreService.putScripts(id, scripts);
+        archiveManifestService.recordPatchedScripts(id, scripts, scriptHashes);
+        Map<String, String> caseScripts = scriptMatchService.mapCaseScripts(scriptHashes);
+        List<String> updatedCases = testCaseService.rematchScripts(id, caseScripts);
+        testCaseSetMapper.refreshSummary(id);
+        testCaseSetDiffService.evict(id);
+        logger.info("Added {} scripts to test case set {}, {} test cases now matched", scripts.size(), id,
+                updatedCases.size());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scriptCount", scripts.size());
+        result.put("updatedCases", updatedCases);
+        return result;
+    }
+
+    /**
+     * 为脚本单独存储上线前上传的用例集回填脚本：从已存储的压缩包中提取脚本写入脚本库，并记录用例的脚本哈希
+     * 用例集已有脚本关联时不做处理，因此可重复执行
+     *
+     * @param testCaseSet 用例集元数据
+     * @return 写入脚本哈希的用例数，用例集已有脚本关联或文件内容不存在时为0
+     * @throws IOException 读取或解析压缩包失败时抛出
+     */
+    @Transactional
+    public int backfillScripts(TestCaseSet testCaseSet) throws IOException {
+        Long id = testCaseSet.getId();
+        if (!scriptStoreService.getSetScripts(id).isEmpty()) {
+            return 0;
+        }
+        Map<String, byte[]> scripts;
+        try (BlobContent content = getFileContent(testCaseSet)) {
+            if (content == null) {
+                logger.warn("Skipped script backfill of test case set {}, file content not found", id);
+                return 0;
+            }
+            scripts = archiveParseService.extractScripts(content.toByteArray(), testCaseSet.getFileFormat());
+        }
+
+        Map<String, String> scriptHashes = scriptStoreService.storeScripts(id, scripts);
+        List<String> updatedCases = testCaseService.rematchScripts(id,
+                scriptMatchService.mapCaseScripts(scriptHashes));
+        testCaseSetMapper.refreshSummary(id);
+        testCaseSetDiffService.evict(id);
+        logger.info("Backfilled {} scripts of test case set {}, {} test cases updated", scriptHashes.size(), id,
+                updatedCases.size());
+        return updatedCases.size();
+    }
+
+    /**
+     * 删除用例集，仅标记删除并清理内存索引和缓存，测试用例和文件内容由后台清理任务分批删除
      *
      * @param id 用例集ID
      * @throws IllegalArgumentException 当用例集不存在时抛出
      */
+    @Transactional
     public void deleteTestCaseSet(Long id) {
         logger.info("Deleting test case set with ID: {}", id);
 
-        TestCaseSet testCaseSet = testCaseSetMapper.findById(id);
-        if (testCaseSet != null) {
-            // 删除数据库记录（文件内容也会一起删除）
-            int result = testCaseSetMapper.deleteById(id);
-            if (result > 0) {
-                logger.info("Test case set deleted successfully: {} - {}", testCaseSet.getName(), testCaseSet.getVersion());
-            } else {
-                throw new RuntimeException("Failed to delete test case set");
-            }
-        } else {
+        List<TestCaseSet> deleted = testCaseSetMapper.markDeleted(Collections.singletonList(id));
+        if (deleted.isEmpty()) {
             throw new IllegalArgumentException("Test case set does not exist");
         }
+        TestCaseSet testCaseSet = deleted.get(0);
+        afterMarkedDeleted(testCaseSet);
+        logger.info("Test case set marked deleted: {} - {}", testCaseSet.getName(), testCaseSet.getVersion());
+    }
+
+    /**
+     * 批量删除用例集，在一条语句中标记删除，不存在或已删除的ID忽略
+     *
+     * @param ids 用例集ID列表
+     * @return 本次实际删除的用例集ID列表
+     * @throws IllegalArgumentException 当ID列表为空或数量超过上限时抛出
+     */
+    @Transactional
+    public List<Long> deleteTestCaseSets(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No test case set IDs to delete");
+        }
+        if (ids.size() > maxDeleteIds) {
+            throw new IllegalArgumentException("Too many IDs in one batch, at most " + maxDeleteIds + " allowed");
+        }
+        List<Long> deletedIds = new ArrayList<>(ids.size());
+        for (TestCaseSet testCaseSet : testCaseSetMapper.markDeleted(new ArrayList<>(new LinkedHashSet<>(ids)))) {
+            afterMarkedDeleted(testCaseSet);
+            deletedIds.add(testCaseSet.getId());
+        }
+        logger.info("Marked {} of {} requested test case sets deleted", deletedIds.size(), ids.size());
+        return deletedIds;
+    }
+
+    private void afterMarkedDeleted(TestCaseSet testCaseSet) {
+        catalogStatisticsService.recordTestCaseSetRemoved(testCaseSet);
+        caseNumberIndexService.removeTestCaseSet(testCaseSet.getId());
+        testCaseCacheService.invalidate(testCaseSet.getId());
+    }
+
+    /**
+     * 清除已标记删除的用例集记录，释放脚本引用、分块和磁盘缓存，测试用例须已由调用方分批删除
+     *
+     * @param testCaseSet 已标记删除的用例集元数据
+     * @throws IllegalStateException 当用例集已被清除或未标记删除时抛出，已释放的脚本引用随事务回滚
+     */
+    @Transactional
+    public void purgeTestCaseSet(TestCaseSet testCaseSet) {
+        Long id = testCaseSet.getId();
+        // 先释放脚本引用以便回收不再使用的脚本，删除用例集记录时级联删除剩余的清单和分类计数
+        scriptStoreService.releaseScripts(id);
+        // 文件内容被克隆引用时移交给ID最小的引用者，其余引用改为指向它
+        Long heirId = testCaseSet.getContentSourceId() == null
+                ? testCaseSetMapper.findFirstContentReferrer(id)
+                : null;
+        if (heirId != null) {
+            int repointed = testCaseSetMapper.transferFileContent(id, heirId);
+            logger.info("File content of test case set {} moved to {}, {} other references repointed", id, heirId,
+                    repointed);
+        }
+        if (testCaseSetMapper.deleteById(id) == 0) {
+            throw new IllegalStateException("Test case set " + id + " is not pending purge");
+        }
+        if (ChunkStoreService.STORAGE_CHUNKED.equals(testCaseSet.getStorageMode())) {
+            chunkStoreService.release(ChunkStoreService.OWNER_TEST_CASE_SET, id);
+        }
+        blobCacheService.evict(testCaseSet.getSha512());
+        logger.info("Test case set purged: {} - {}", testCaseSet.getName(), testCaseSet.getVersion());
     }
 
     /**
@@ -232,54 +675,35 @@ public class TestCaseSetService {
         }
     }
 
-
     /**
-     * 计算文件内容的SHA512哈希值
+     * 验证文件格式和大小
      *
-     * @param fileContent 文件内容字节数组
-     * @return SHA512哈希值的十六进制字符串
-     * @throws RuntimeException 当计算哈希值失败时抛出
+     * @param file 上传的文件
+     * @throws IllegalArgumentException 当文件为空、大小超限或格式不支持时抛出
      */
-    private String calculateSHA512(byte[] fileContent) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-512");
-            byte[] hash = digest.digest(fileContent);
-            
-            // 将字节数组转换为十六进制字符串
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            logger.error("SHA-512 algorithm not available", e);
-            throw new RuntimeException("Failed to calculate SHA512 hash", e);
-        }
+    private void validateFile(MultipartFile file) {
+        validateFile(file.getOriginalFilename(), file.isEmpty() ? 0L : file.getSize());
     }
 
     /**
-     * 验证文件格式和大小
+     * 验证文件名格式和文件大小
      *
-     * @param file 上传的文件
+     * @param fileName 文件名
+     * @param fileSize 文件大小（字节）
      * @throws IllegalArgumentException 当文件为空、大小超限或格式不支持时抛出
      */
-    private void validateFile(MultipartFile file) {
-        if (file.isEmpty()) {
+    private void validateFile(String fileName, long fileSize) {
+        if (fileSize <= 0) {
             throw new IllegalArgumentException("File cannot be empty");
         }
 
         // 检查文件大小 (100MB)
         long maxSize = 100 * 1024 * 1024; // 100MB
-        if (file.getSize() > maxSize) {
+        if (fileSize > maxSize) {
             throw new IllegalArgumentException("File size cannot exceed 100MB");
         }
 
         // 检查文件类型 - 支持 .zip 和 .tar.gz
-        String fileName = file.getOriginalFilename();
         if (fileName == null) {
             throw new IllegalArgumentException("File name cannot be null");
         }
@@ -309,15 +733,26 @@ public class TestCaseSetService {
             throw new IOException("Failed to extract cases.xlsx from archive");
         }
 
+        // 提取脚本内容，按内容哈希单独存储
+        Map<String, byte[]> scripts = archiveParseService.extractScripts(fileContent, fileFormat);
+        Map<String, String> scriptHashes = scriptStoreService.storeScripts(testCaseSet.getId(), scripts);
+        Map<String, String> caseScriptHashes = new HashMap<>();
+        for (Map.Entry<String, String> scriptHash : scriptHashes.entrySet()) {
+            String fileName = scriptHash.getKey();
+            caseScriptHashes.put(fileName.substring(0, fileName.length() - PYTHON_EXTENSION_LENGTH),
+                    scriptHash.getValue());
+        }
+
         // 解析Excel文件获取用例信息
         List<TestCaseInfo> testCaseInfos = excelParseService.parseCasesExcel(excelData);
         if (testCaseInfos.isEmpty()) {
             logger.warn("No valid test cases found in Excel file");
+            storeSummary(testCaseSet, 0, 0, scriptHashes.size(), scriptHashes.size());
             return;
         }
 
-        // 提取脚本文件名列表
-        List<String> scriptFileNames = archiveParseService.extractScriptFileNames(fileContent, fileFormat);
+        // 脚本文件名列表
+        List<String> scriptFileNames = new ArrayList<>(scripts.keySet());
 
         // 匹配用例编号与脚本文件
         List<String> caseNumbers = testCaseInfos.stream()
@@ -342,17 +777,115 @@ public class TestCaseSetService {
             // 设置脚本存在状态
             boolean scriptExists = matchResult.getMatchMap().getOrDefault(testCaseInfo.getCaseNumber(), false);
             testCase.setScriptExists(scriptExists);
+            testCase.setScriptSha256(scriptExists ? caseScriptHashes.get(testCaseInfo.getCaseNumber()) : null);
             
             testCases.add(testCase);
         }
 
-        // 批量保存测试用例
-        testCaseService.saveTestCases(testCases);
+        // 批量保存测试用例，存在同名旧版本时只写入变化的用例
+        TestCaseSet base = incrementalIngestEnabled
+                ? testCaseSetMapper.findLatestMetadataByName(testCaseSet.getName(), testCaseSet.getId())
+                : null;
+        if (base != null) {
+            testCaseSet.setChangeSummary(storeIncrementally(testCaseSet, base, testCases, scriptHashes));
+        } else {
+            testCaseService.saveTestCases(testCases);
+        }
+        caseNumberIndexService.recordTestCaseSet(testCaseSet.getId(), testCases);
+        storeSummary(testCaseSet, testCases.size(), matchResult.getMissingCount(), matchResult.getExtraCount(),
+                scriptHashes.size());
 
         logger.info("Successfully stored {} test cases, {} with scripts, {} missing scripts", 
                    testCases.size(), matchResult.getMatchedCount(), matchResult.getMissingCount());
     }
 
+    /**
+     * 将入库时统计的数量写入用例集，列表查询直接返回，无需逐个用例集统计
+     *
+     * @param testCaseSet 用例集对象
+     * @param caseCount 用例数
+     * @param missingScriptCount 没有脚本的用例数
+     * @param extraScriptCount 没有对应用例的脚本数
+     * @param scriptCount 脚本数
+     */
+    private void storeSummary(TestCaseSet testCaseSet, int caseCount, int missingScriptCount, int extraScriptCount,
+                              int scriptCount) {
+        testCaseSet.setCaseCount(caseCount);
+        testCaseSet.setMissingScriptCount(missingScriptCount);
+        testCaseSet.setExtraScriptCount(extraScriptCount);
+        testCaseSet.setScriptCount(scriptCount);
+        testCaseSetMapper.updateSummary(testCaseSet);
+    }
+
+    /**
+     * 相对上一版本增量保存测试用例，按用例编号比较行哈希，未变化的用例在数据库内直接复制
+     *
+     * @param testCaseSet 新上传的用例集
+     * @param base 同名的上一版本用例集
+     * @param testCases 新版本解析出的全部测试用例
+     * @param scriptHashes 新版本脚本文件名到SHA256的映射
+     * @return 相对上一版本的变化摘要
+     */
+    private TestCaseSetChangeSummary storeIncrementally(TestCaseSet testCaseSet, TestCaseSet base,
+                                                        List<TestCase> testCases, Map<String, String> scriptHashes) {
+        Map<String, String> baseRowHashes = testCaseService.getRowHashes(base.getId());
+        TestCaseSetChangeSummary summary = new TestCaseSetChangeSummary();
+        summary.setBaseTestCaseSetId(base.getId());
+        summary.setBaseVersion(base.getVersion());
+
+        List<TestCase> changed = new ArrayList<>();
+        Set<String> excluded = new LinkedHashSet<>();
+        Set<String> seen = new HashSet<>();
+        for (TestCase testCase : testCases) {
+            String caseNumber = testCase.getCaseNumber();
+            testCase.setRowHash(TestCaseService.calculateRowHash(testCase));
+            if (!seen.add(caseNumber) || !baseRowHashes.containsKey(caseNumber)) {
+                summary.getAddedCases().add(caseNumber);
+                changed.add(testCase);
+            } else if (!testCase.getRowHash().equals(baseRowHashes.get(caseNumber))) {
+                summary.getModifiedCases().add(caseNumber);
+                changed.add(testCase);
+                excluded.add(caseNumber);
+            }
+        }
+        for (String caseNumber : baseRowHashes.keySet()) {
+            if (!seen.contains(caseNumber)) {
+                summary.getRemovedCases().add(caseNumber);
+                excluded.add(caseNumber);
+            }
+        }
+        Collections.sort(summary.getRemovedCases());
+        summary.setUnchangedCaseCount(testCases.size() - changed.size());
+
+        Map<String, String> baseScripts = scriptStoreService.getSetScripts(base.getId());
+        for (Map.Entry<String, String> script : scriptHashes.entrySet()) {
+            String baseHash = baseScripts.get(script.getKey());
+            if (baseHash == null) {
+                summary.getAddedScripts().add(script.getKey());
+            } else if (!baseHash.equals(script.getValue())) {
+                summary.getModifiedScripts().add(script.getKey());
+            }
+        }
+        for (String fileName : baseScripts.keySet()) {
+            if (!scriptHashes.containsKey(fileName)) {
+                summary.getRemovedScripts().add(fileName);
+            }
+        }
+
+        if (excluded.size() > MAX_COPY_EXCLUSIONS) {
+            logger.info("Too many changes against {} - {}, storing all test cases", base.getName(),
+                    base.getVersion());
+            testCaseService.saveTestCases(testCases);
+            return summary;
+        }
+        testCaseService.saveTestCases(changed);
+        testCaseService.copyTestCases(base.getId(), testCaseSet.getId(), excluded);
+        logger.info("Stored test case set {} - {} against {}: {} added, {} modified, {} removed, {} unchanged",
+                testCaseSet.getName(), testCaseSet.getVersion(), base.getVersion(), summary.getAddedCases().size(),
+                summary.getModifiedCases().size(), summary.getRemovedCases().size(), summary.getUnchangedCaseCount());
+        return summary;
+    }
+
     /**
      * 获取用例集的测试用例列表（分页）
      *
@@ -377,6 +910,19 @@ public class TestCaseSetService {
         return testCaseService.getMissingScripts(testCaseSetId);
     }
 
+    /**
+     * 将用例集中没有脚本的测试用例逐行写出
+     *
+     * @param testCaseSetId 用例集ID
+     * @param format 规范化后的输出格式：json或ndjson
+     * @param out 输出流，调用方负责关闭
+     * @return 写出的用例数
+     * @throws IOException 写出失败时抛出
+     */
+    public long writeMissingScripts(Long testCaseSetId, String format, OutputStream out) throws IOException {
+        return testCaseService.writeMissingScripts(testCaseSetId, format, out);
+    }
+
     /**
      * 统计用例集中没有脚本的测试用例数量
      *
@@ -388,4 +934,11 @@ public class TestCaseSetService {
         return testCaseService.countMissingScripts(testCaseSetId);
     }
 
+    /**
+     * 延迟读取文件内容，在确认用例集不存在后再读取
+     */
+    @FunctionalInterface
+    private interface ContentReader {
+        byte[] read() throws IOException;
+    }
 }
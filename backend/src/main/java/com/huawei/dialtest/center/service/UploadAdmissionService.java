@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 上传准入控制服务，限制同时处理中的上传字节总量和各上传接口的并发数
+ * 超出限制的请求在队列中等待，超时后拒绝并提示客户端稍后重试
+ * 同时记录处理中的上传任务，供管理员查看和取消
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@Service
+public class UploadAdmissionService {
+    private static final Logger logger = LoggerFactory.getLogger(UploadAdmissionService.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition released = lock.newCondition();
+
+    private final Map<UploadType, Integer> activeCounts = new EnumMap<>(UploadType.class);
+
+    private final Map<String, UploadTicket> tickets = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<UploadTicket> currentTicket = new ThreadLocal<>();
+
+    private long inFlightBytes;
+
+    @Value("${app.upload.max-in-flight-bytes:2147483648}")
+    private long maxInFlightBytes = 2147483648L;
+
+    @Value("${app.upload.queue-timeout-ms:10000}")
+    private long queueTimeoutMs = 10000L;
+
+    @Value("${app.upload.retry-after-seconds:30}")
+    private int retryAfterSeconds = 30;
+
+    @Value("${app.upload.max-concurrent.software-package:4}")
+    private int maxConcurrentSoftwarePackage = 4;
+
+    @Value("${app.upload.max-concurrent.zip-package:1}")
+    private int maxConcurrentZipPackage = 1;
+
+    @Value("${app.upload.max-concurrent.test-case-set:4}")
+    private int maxConcurrentTestCaseSet = 4;
+
+    @Value("${app.upload.batch.threads:0}")
+    private int batchThreads = 0;
+
+    /**
+     * 申请上传准入，必要时排队等待直到超时
+     *
+     * @param type 上传接口类型
+     * @param fileName 上传文件名
+     * @param sizeBytes 上传文件大小（字节）
+     * @return 上传凭证，处理结束后必须关闭以释放配额
+     * @throws UploadRejectedException 当超出配额且等待超时时抛出
+     */
+    public UploadTicket admit(UploadType type, String fileName, long sizeBytes) {
+        long size = Math.max(sizeBytes, 0L);
+        if (size > maxInFlightBytes) {
+            throw new UploadRejectedException("Upload size exceeds the in-flight byte budget", retryAfterSeconds);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+        lock.lock();
+        try {
+            while (!canAdmit(type, size)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    logger.warn("Upload rejected after queueing: {}, type: {}, size: {} bytes, in-flight: {} bytes",
+                            fileName, type, size, inFlightBytes);
+                    throw new UploadRejectedException("Server is busy processing other uploads", retryAfterSeconds);
+                }
+                released.awaitNanos(remaining);
+            }
+            inFlightBytes += size;
+            activeCounts.put(type, getActiveCount(type) + 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UploadRejectedException("Interrupted while waiting for upload admission", retryAfterSeconds);
+        } finally {
+            lock.unlock();
+        }
+
+        UploadTicket ticket = new UploadTicket(this, type, fileName, size);
+        tickets.put(ticket.getId(), ticket);
+        currentTicket.set(ticket);
+        logger.debug("Upload admitted: {}, type: {}, size: {} bytes", fileName, type, size);
+        return ticket;
+    }
+
+    /**
+     * 更新当前线程上传任务的处理阶段，若任务已被取消则中止处理
+     *
+     * @param stage 处理阶段描述
+     * @throws CancellationException 当上传任务已被管理员取消时抛出
+     */
+    public void checkpoint(String stage) {
+        UploadTicket ticket = currentTicket.get();
+        if (ticket == null) {
+            return;
+        }
+        ticket.setStage(stage);
+        if (ticket.isCancelled()) {
+            logger.info("Upload cancelled at stage {}: {}", stage, ticket.getFileName());
+            throw new CancellationException("Upload cancelled: " + ticket.getFileName());
+        }
+    }
+
+    /**
+     * 获取处理中的上传任务列表，按开始时间排序
+     *
+     * @return 上传任务列表
+     */
+    public List<UploadTicket> getInFlightUploads() {
+        List<UploadTicket> uploads = new ArrayList<>(tickets.values());
+        uploads.sort(Comparator.comparingLong(UploadTicket::getStartTime));
+        return uploads;
+    }
+
+    /**
+     * 取消处理中的上传任务，任务在下一个处理阶段检查点中止
+     *
+     * @param uploadId 上传任务ID
+     * @return 任务存在并已标记取消时返回true
+     */
+    public boolean cancel(String uploadId) {
+        UploadTicket ticket = tickets.get(uploadId);
+        if (ticket == null) {
+            return false;
+        }
+        ticket.markCancelled();
+        logger.info("Upload marked as cancelled: {}, file: {}", uploadId, ticket.getFileName());
+        return true;
+    }
+
+    /**
+     * 获取当前处理中的上传字节总量
+     *
+     * @return 字节数
+     */
+    public long getInFlightBytes() {
+        lock.lock();
+        try {
+            return inFlightBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取处理中上传字节总量上限
+     *
+     * @return 字节数
+     */
+    public long getMaxInFlightBytes() {
+        return maxInFlightBytes;
+    }
+
+    /**
+     * 释放上传凭证占用的配额
+     *
+     * @param ticket 上传凭证
+     */
+    void release(UploadTicket ticket) {
+        if (tickets.remove(ticket.getId()) == null) {
+            return;
+        }
+        if (currentTicket.get() == ticket) {
+            currentTicket.remove();
+        }
+        lock.lock();
+        try {
+            inFlightBytes -= ticket.getSizeBytes();
+            activeCounts.put(ticket.getType(), Math.max(getActiveCount(ticket.getType()) - 1, 0));
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        logger.debug("Upload released: {}, elapsed: {} ms", ticket.getFileName(), ticket.getElapsedMillis());
+    }
+
+    private boolean canAdmit(UploadType type, long size) {
+        return getActiveCount(type) < getConcurrencyLimit(type) && inFlightBytes + size <= maxInFlightBytes;
+    }
+
+    private int getActiveCount(UploadType type) {
+        Integer count = activeCounts.get(type);
+        return count == null ? 0 : count;
+    }
+
+    private int getConcurrencyLimit(UploadType type) {
+        switch (type) {
+            case SOFTWARE_PACKAGE:
+                return maxConcurrentSoftwarePackage;
+            case ZIP_PACKAGE:
+                return maxConcurrentZipPackage;
+            case TEST_CASE_SET:
+                return maxConcurrentTestCaseSet;
+            case TEST_CASE_SET_BATCH:
+                // 批量上传的并发由批量上传线程池限制，这里只按字节总量排队
+                return TestCaseSetBatchUploadService.resolveThreads(batchThreads);
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * 上传接口类型
+     */
+    public enum UploadType {
+        SOFTWARE_PACKAGE,
+        ZIP_PACKAGE,
+        TEST_CASE_SET,
+        TEST_CASE_SET_BATCH
+    }
+
+    /**
+     * 上传凭证，记录处理中上传任务的大小、阶段和耗时
+     */
+    public static class UploadTicket implements AutoCloseable {
+        private final UploadAdmissionService owner;
+        private final String id;
+        private final UploadType type;
+        private final String fileName;
+        private final long sizeBytes;
+        private final long startTime;
+        private volatile String stage;
+        private volatile boolean cancelled;
+
+        UploadTicket(UploadAdmissionService owner, UploadType type, String fileName, long sizeBytes) {
+            this.owner = owner;
+            this.id = UUID.randomUUID().toString();
+            this.type = type;
+            this.fileName = fileName;
+            this.sizeBytes = sizeBytes;
+            this.startTime = System.currentTimeMillis();
+            this.stage = "admitted";
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public UploadType getType() {
+            return type;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+
+        public long getElapsedMillis() {
+            return System.currentTimeMillis() - startTime;
+        }
+
+        public String getStage() {
+            return stage;
+        }
+
+        void setStage(String stage) {
+            this.stage = stage;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        void markCancelled() {
+            this.cancelled = true;
+        }
+
+        @Override
+        public void close() {
+            owner.release(this);
+        }
+    }
+
+    /**
+     * 上传准入被拒绝异常，携带建议的重试等待秒数
+     */
+    public static class UploadRejectedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int retryAfterSeconds;
+
+        public UploadRejectedException(String message, int retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public int getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
@@ -4,9 +4,12 @@
 
 package com.huawei.dialtest.center.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
+import org.apache.ibatis.cursor.Cursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +41,9 @@ public class UserRoleService {
     @Autowired
     private OperationLogService operationLogService;
 
+    @Autowired
+    private JsonStreamService jsonStreamService;
+
     /**
      * 根据用户名获取用户角色列表
      *
@@ -83,6 +89,22 @@ public class UserRoleService {
         return userRoleMapper.findAllOrderByCreatedTimeDesc();
     }
 
+    /**
+     * 将所有用户角色关系逐行写出，通过游标读取
+     *
+     * @param format 规范化后的输出格式：json或ndjson
+     * @param out 输出流，调用方负责关闭
+     * @return 写出的用户角色关系数
+     * @throws IOException 写出失败时抛出
+     */
+    @Transactional(readOnly = true)
+    public long writeAllUserRoles(String format, OutputStream out) throws IOException {
+        logger.debug("Streaming all user role relationships, format: {}", format);
+        try (Cursor<UserRole> userRoles = userRoleMapper.streamAllOrderByCreatedTimeDesc()) {
+            return jsonStreamService.writeData(userRoles, format, out);
+        }
+    }
+
     /**
      * 保存用户角色关系
      *
@@ -7,6 +7,7 @@ package com.huawei.dialtest.center.service;
 import com.huawei.dialtest.center.dto.PagedResponse;
 import com.huawei.dialtest.center.entity.DialDialUser;
 import com.huawei.dialtest.center.mapper.DialUserMapper;
+import org.apache.ibatis.cursor.Cursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +16,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -38,6 +41,9 @@ public class DialUserService {
     @Autowired
     private OperationLogService operationLogService;
 
+    @Autowired
+    private JsonStreamService jsonStreamService;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     /**
@@ -302,4 +308,23 @@ public class DialUserService {
             throw new RuntimeException("Failed to search users", e);
         }
     }
+
+    /**
+     * 根据用户名搜索用户并逐行写出，通过游标读取
+     *
+     * @param username 用户名关键字
+     * @param format 规范化后的输出格式：json或ndjson
+     * @param out 输出流，调用方负责关闭
+     * @return 写出的用户数
+     * @throws IOException 写出失败时抛出
+     */
+    @Transactional(readOnly = true)
+    public long writeDialUsersByDialUsername(String username, String format, OutputStream out) throws IOException {
+        logger.info("Streaming users by username: {}, format: {}", username, format);
+        try (Cursor<DialUser> users = userMapper.streamByDialUsernameContaining(username)) {
+            long count = jsonStreamService.writeArray(users, format, out);
+            logger.info("Streamed {} users matching username: {}", count, username);
+            return count;
+        }
+    }
 }
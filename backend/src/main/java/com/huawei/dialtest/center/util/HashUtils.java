@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 哈希计算工具类，统一计算SHA256和SHA512摘要并转换为小写十六进制字符串
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public final class HashUtils {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private HashUtils() {
+    }
+
+    /**
+     * 计算内容的SHA256哈希值
+     *
+     * @param content 内容字节数组
+     * @return SHA256哈希值的十六进制字符串
+     */
+    public static String sha256Hex(byte[] content) {
+        return toHex(newDigest("SHA-256").digest(content));
+    }
+
+    /**
+     * 计算内容的SHA512哈希值
+     *
+     * @param content 内容字节数组
+     * @return SHA512哈希值的十六进制字符串
+     */
+    public static String sha512Hex(byte[] content) {
+        return toHex(newDigest("SHA-512").digest(content));
+    }
+
+    /**
+     * 创建摘要实例，用于分段增量计算
+     *
+     * @param algorithm 摘要算法，如SHA-256、SHA-512
+     * @return 摘要实例
+     * @throws IllegalStateException 当JVM不支持该算法时抛出
+     */
+    public static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " algorithm not available", e);
+        }
+    }
+
+    /**
+     * 将摘要字节转换为小写十六进制字符串
+     *
+     * @param hash 摘要字节数组
+     * @return 十六进制字符串
+     */
+    public static String toHex(byte[] hash) {
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0x0f];
+            hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0x0f];
+        }
+        return new String(hex);
+    }
+}
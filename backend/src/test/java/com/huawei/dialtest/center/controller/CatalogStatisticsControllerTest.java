@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.controller;
+
+import com.huawei.dialtest.center.service.CatalogStatisticsService;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CatalogStatisticsController测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CatalogStatisticsControllerTest {
+
+    @Mock
+    private CatalogStatisticsService catalogStatisticsService;
+
+    @InjectMocks
+    private CatalogStatisticsController catalogStatisticsController;
+
+    @Test
+    public void testGetStatistics_Success() {
+        // Arrange
+        Map<String, Object> statistics = Collections.singletonMap("softwarePackages", Collections.emptyMap());
+        when(catalogStatisticsService.getStatistics()).thenReturn(statistics);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = catalogStatisticsController.getStatistics();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(statistics, response.getBody().get("data"));
+    }
+
+    @Test
+    public void testGetStatistics_DatabaseError() {
+        // Arrange
+        when(catalogStatisticsService.getStatistics()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = catalogStatisticsController.getStatistics();
+
+        // Assert
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(false, response.getBody().get("success"));
+    }
+
+    @Test
+    public void testRebuildStatistics_Success() {
+        // Act
+        ResponseEntity<Map<String, Object>> response = catalogStatisticsController.rebuildStatistics();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(catalogStatisticsService).rebuild();
+    }
+
+    @Test
+    public void testRebuildStatistics_DatabaseError() {
+        // Arrange
+        doThrow(new DataAccessResourceFailureException("down")).when(catalogStatisticsService).rebuild();
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = catalogStatisticsController.rebuildStatistics();
+
+        // Assert
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+}
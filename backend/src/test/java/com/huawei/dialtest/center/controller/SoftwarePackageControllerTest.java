@@ -5,7 +5,9 @@
 package com.huawei.dialtest.center.controller;
 
 import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.service.BlobCacheService.BlobContent;
 import com.huawei.dialtest.center.service.SoftwarePackageService;
+import com.huawei.dialtest.center.service.UploadAdmissionService;
 import com.huawei.dialtest.center.controller.SoftwarePackageController;
 
 import org.junit.Test;
@@ -18,6 +20,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -40,6 +43,9 @@ public class SoftwarePackageControllerTest {
     @Mock
     private SoftwarePackageService softwarePackageService;
 
+    @Mock
+    private UploadAdmissionService uploadAdmissionService;
+
     @InjectMocks
     private SoftwarePackageController softwarePackageController;
 
@@ -226,28 +232,32 @@ public class SoftwarePackageControllerTest {
     @Test
     public void testDownloadSoftwarePackage_Success() {
         // Arrange
-        when(softwarePackageService.getSoftwarePackageById(1L)).thenReturn(Optional.of(testSoftwarePackage));
+        BlobContent fileContent = mock(BlobContent.class);
+        when(fileContent.getLength()).thenReturn(1024L);
+        when(softwarePackageService.getSoftwarePackageMetadataById(1L)).thenReturn(Optional.of(testSoftwarePackage));
+        when(softwarePackageService.getFileContent(testSoftwarePackage)).thenReturn(fileContent);
 
         // Act
-        ResponseEntity<org.springframework.core.io.Resource> response = softwarePackageController.downloadSoftwarePackage(1L);
+        ResponseEntity<StreamingResponseBody> response = softwarePackageController.downloadSoftwarePackage(1L);
 
         // Assert
         assertEquals("Status should be OK", HttpStatus.OK, response.getStatusCode());
         assertNotNull("Response body should not be null", response.getBody());
-        verify(softwarePackageService).getSoftwarePackageById(1L);
+        assertEquals(1024L, response.getHeaders().getContentLength());
+        verify(softwarePackageService).getSoftwarePackageMetadataById(1L);
     }
 
     @Test
     public void testDownloadSoftwarePackage_NotFound() {
         // Arrange
-        when(softwarePackageService.getSoftwarePackageById(999L)).thenReturn(Optional.empty());
+        when(softwarePackageService.getSoftwarePackageMetadataById(999L)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<org.springframework.core.io.Resource> response = softwarePackageController.downloadSoftwarePackage(999L);
+        ResponseEntity<StreamingResponseBody> response = softwarePackageController.downloadSoftwarePackage(999L);
 
         // Assert
         assertEquals("Status should be Not Found", HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(softwarePackageService).getSoftwarePackageById(999L);
+        verify(softwarePackageService).getSoftwarePackageMetadataById(999L);
     }
 
     @Test
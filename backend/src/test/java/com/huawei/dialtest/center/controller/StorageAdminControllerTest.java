@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.controller;
+
+import com.huawei.dialtest.center.service.ChunkStoreService;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * StorageAdminController测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class StorageAdminControllerTest {
+
+    @Mock
+    private ChunkStoreService chunkStoreService;
+
+    @InjectMocks
+    private StorageAdminController storageAdminController;
+
+    @Test
+    public void testGetChunkStatistics_Success() {
+        // Arrange
+        Map<String, Object> statistics = Collections.singletonMap("dedupRatio", 2.0);
+        when(chunkStoreService.getStatistics()).thenReturn(statistics);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = storageAdminController.getChunkStatistics();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(statistics, response.getBody().get("data"));
+    }
+
+    @Test
+    public void testGetChunkStatistics_DatabaseError() {
+        // Arrange
+        when(chunkStoreService.getStatistics()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = storageAdminController.getChunkStatistics();
+
+        // Assert
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(false, response.getBody().get("success"));
+    }
+}
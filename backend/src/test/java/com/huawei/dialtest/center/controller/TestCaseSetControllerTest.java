@@ -26,17 +26,18 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.huawei.dialtest.center.controller.TestCaseSetController;
 import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.service.BlobCacheService.BlobContent;
 import com.huawei.dialtest.center.service.TestCaseSetService;
+import com.huawei.dialtest.center.service.UploadAdmissionService;
 
 /**
  * 用例集控制器测试类，测试TestCaseSetController的REST API接口
@@ -52,6 +53,9 @@ public class TestCaseSetControllerTest {
     @Mock
     private TestCaseSetService testCaseSetService;
 
+    @Mock
+    private UploadAdmissionService uploadAdmissionService;
+
     @InjectMocks
     private TestCaseSetController testCaseSetController;
 
@@ -207,29 +211,32 @@ public class TestCaseSetControllerTest {
     @Test
     public void testDownloadTestCaseSetSuccess() {
         // Given
-        when(testCaseSetService.getTestCaseSetById(1L)).thenReturn(Optional.of(testCaseSet));
+        BlobContent fileContent = mock(BlobContent.class);
+        when(fileContent.getLength()).thenReturn(2048L);
+        when(testCaseSetService.getTestCaseSetMetadataById(1L)).thenReturn(Optional.of(testCaseSet));
+        when(testCaseSetService.getFileContent(testCaseSet)).thenReturn(fileContent);
 
         // When
-        ResponseEntity<Resource> response = testCaseSetController.downloadTestCaseSet(1L);
+        ResponseEntity<StreamingResponseBody> response = testCaseSetController.downloadTestCaseSet(1L);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody() instanceof ByteArrayResource);
-        verify(testCaseSetService).getTestCaseSetById(1L);
+        assertEquals(2048L, response.getHeaders().getContentLength());
+        verify(testCaseSetService).getTestCaseSetMetadataById(1L);
     }
 
     @Test
     public void testDownloadTestCaseSetNotFound() {
         // Given
-        when(testCaseSetService.getTestCaseSetById(999L)).thenReturn(Optional.empty());
+        when(testCaseSetService.getTestCaseSetMetadataById(999L)).thenReturn(Optional.empty());
 
         // When
-        ResponseEntity<Resource> response = testCaseSetController.downloadTestCaseSet(999L);
+        ResponseEntity<StreamingResponseBody> response = testCaseSetController.downloadTestCaseSet(999L);
 
         // Then
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(testCaseSetService).getTestCaseSetById(999L);
+        verify(testCaseSetService).getTestCaseSetMetadataById(999L);
     }
 
     @Test
@@ -242,27 +249,29 @@ public class TestCaseSetControllerTest {
         emptyTestCaseSet.setFileContent(null);
         emptyTestCaseSet.setSha512("empty_sha512");
         emptyTestCaseSet.setBusiness("VPN阻断业务");
-        when(testCaseSetService.getTestCaseSetById(1L)).thenReturn(Optional.of(emptyTestCaseSet));
+        emptyTestCaseSet.setFileFormat("zip");
+        when(testCaseSetService.getTestCaseSetMetadataById(1L)).thenReturn(Optional.of(emptyTestCaseSet));
+        when(testCaseSetService.getFileContent(emptyTestCaseSet)).thenReturn(null);
 
         // When
-        ResponseEntity<Resource> response = testCaseSetController.downloadTestCaseSet(1L);
+        ResponseEntity<StreamingResponseBody> response = testCaseSetController.downloadTestCaseSet(1L);
 
         // Then
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(testCaseSetService).getTestCaseSetById(1L);
+        verify(testCaseSetService).getTestCaseSetMetadataById(1L);
     }
 
     @Test
     public void testDownloadTestCaseSetWithException() {
         // Given
-        when(testCaseSetService.getTestCaseSetById(1L)).thenThrow(new org.springframework.dao.DataAccessException("Download failed") {});
+        when(testCaseSetService.getTestCaseSetMetadataById(1L)).thenThrow(new org.springframework.dao.DataAccessException("Download failed") {});
 
         // When
-        ResponseEntity<Resource> response = testCaseSetController.downloadTestCaseSet(1L);
+        ResponseEntity<StreamingResponseBody> response = testCaseSetController.downloadTestCaseSet(1L);
 
         // Then
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-        verify(testCaseSetService).getTestCaseSetById(1L);
+        verify(testCaseSetService).getTestCaseSetMetadataById(1L);
     }
 
     @Test
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.controller;
+
+import com.huawei.dialtest.center.service.UploadAdmissionService;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * UploadAdminController测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UploadAdminControllerTest {
+
+    @Mock
+    private UploadAdmissionService uploadAdmissionService;
+
+    @InjectMocks
+    private UploadAdminController uploadAdminController;
+
+    @Test
+    public void testGetInFlightUploads_Success() {
+        // Arrange
+        when(uploadAdmissionService.getInFlightUploads()).thenReturn(Collections.emptyList());
+        when(uploadAdmissionService.getInFlightBytes()).thenReturn(0L);
+        when(uploadAdmissionService.getMaxInFlightBytes()).thenReturn(1024L);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = uploadAdminController.getInFlightUploads();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0, response.getBody().get("count"));
+        assertEquals(1024L, response.getBody().get("maxInFlightBytes"));
+    }
+
+    @Test
+    public void testCancelUpload_Found() {
+        // Arrange
+        when(uploadAdmissionService.cancel("upload-1")).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = uploadAdminController.cancelUpload("upload-1");
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    }
+
+    @Test
+    public void testCancelUpload_NotFound() {
+        // Arrange
+        when(uploadAdmissionService.cancel("missing")).thenReturn(false);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = uploadAdminController.cancelUpload("missing");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
@@ -19,7 +19,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
@@ -353,29 +355,22 @@ public class DialUserControllerTest {
     }
 
     @Test
-    public void testSearchDialUsers_Success() {
-        when(userService.searchDialUsersByDialUsername("test")).thenReturn(testDialUsers);
-
-        ResponseEntity<?> response = userController.searchDialUsers("test");
+    public void testSearchDialUsers_Success() throws Exception {
+        ResponseEntity<?> response = userController.searchDialUsers("test", "ndjson");
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertTrue(response.getBody() instanceof List);
-        @SuppressWarnings("unchecked")
-        List<DialUser> result = (List<DialUser>) response.getBody();
-        assertEquals(2, result.size());
-        verify(userService).searchDialUsersByDialUsername("test");
+        assertTrue(response.getBody() instanceof StreamingResponseBody);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(out);
+        verify(userService).writeDialUsersByDialUsername("test", "ndjson", out);
     }
 
     @Test
-    public void testSearchDialUsers_Error() {
-        when(userService.searchDialUsersByDialUsername("test"))
-            .thenThrow(new RuntimeException("Service error"));
+    public void testSearchDialUsers_InvalidFormat() {
+        ResponseEntity<?> response = userController.searchDialUsers("test", "xml");
 
-        ResponseEntity<?> response = userController.searchDialUsers("test");
-
-        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-        verify(userService).searchDialUsersByDialUsername("test");
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(userService);
     }
 
     @Test
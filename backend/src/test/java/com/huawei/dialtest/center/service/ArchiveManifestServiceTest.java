@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.ArchiveManifestEntry;
+import com.huawei.dialtest.center.mapper.ArchiveManifestMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ArchiveManifestService测试类
+ * 测试压缩包清单的建立和清单比较
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ArchiveManifestServiceTest {
+
+    @Mock
+    private ArchiveManifestMapper archiveManifestMapper;
+
+    @Mock
+    private ArchiveParseService archiveParseService;
+
+    @InjectMocks
+    private ArchiveManifestService archiveManifestService;
+
+    @Captor
+    private ArgumentCaptor<List<ArchiveManifestEntry>> entriesCaptor;
+
+    @Test
+    public void testIndex_AssignsTestCaseSetId() throws IOException {
+        // Arrange
+        byte[] archive = new byte[]{1, 2, 3};
+        when(archiveParseService.buildManifest(archive, "zip")).thenReturn(
+                Arrays.asList(entry("cases.xlsx", "aa"), entry("scripts/TC001.py", "bb")));
+
+        // Act
+        archiveManifestService.index(5L, archive, "zip");
+
+        // Assert
+        verify(archiveManifestMapper).insertBatch(entriesCaptor.capture());
+        assertEquals(2, entriesCaptor.getValue().size());
+        assertEquals(Long.valueOf(5L), entriesCaptor.getValue().get(1).getTestCaseSetId());
+    }
+
+    @Test
+    public void testRecordPatchedScripts_UpsertsScriptEntries() {
+        // Act
+        int recorded = archiveManifestService.recordPatchedScripts(5L,
+                Collections.singletonMap("TC001.py", "print('x')".getBytes()),
+                Collections.singletonMap("TC001.py", "cc"));
+
+        // Assert
+        assertEquals(1, recorded);
+        verify(archiveManifestMapper).upsertPatchedEntries(entriesCaptor.capture());
+        ArchiveManifestEntry entry = entriesCaptor.getValue().get(0);
+        assertEquals(Long.valueOf(5L), entry.getTestCaseSetId());
+        assertEquals("scripts/TC001.py", entry.getPath());
+        assertEquals(Long.valueOf(10L), entry.getEntrySize());
+        assertEquals("cc", entry.getSha256());
+        assertNull(entry.getDataOffset());
+        assertTrue(entry.isPatched());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDiff_ClassifiesChanges() {
+        // Arrange
+        List<ArchiveManifestEntry> base = Arrays.asList(entry("cases.xlsx", "aa"), entry("scripts/TC001.py", "bb"),
+                entry("scripts/TC002.py", "cc"));
+        List<ArchiveManifestEntry> target = Arrays.asList(entry("cases.xlsx", "aa"), entry("scripts/TC001.py", "b2"),
+                entry("scripts/TC003.py", "dd"));
+
+        // Act
+        Map<String, Object> diff = archiveManifestService.diff(base, target);
+
+        // Assert
+        assertEquals("scripts/TC003.py", ((List<ArchiveManifestEntry>) diff.get("added")).get(0).getPath());
+        assertEquals("scripts/TC001.py", ((List<ArchiveManifestEntry>) diff.get("modified")).get(0).getPath());
+        assertEquals("scripts/TC002.py", ((List<ArchiveManifestEntry>) diff.get("removed")).get(0).getPath());
+        assertEquals(1, diff.get("unchangedCount"));
+    }
+
+    private static ArchiveManifestEntry entry(String path, String sha256) {
+        return new ArchiveManifestEntry(path, 10L, 8L, 0L, sha256);
+    }
+}
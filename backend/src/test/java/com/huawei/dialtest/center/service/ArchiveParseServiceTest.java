@@ -4,16 +4,30 @@
 
 package com.huawei.dialtest.center.service;
 
+import com.huawei.dialtest.center.entity.ArchiveManifestEntry;
 import com.huawei.dialtest.center.service.ArchiveParseService;
 import com.huawei.dialtest.center.service.ArchiveParseService.ArchiveValidationResult;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -29,6 +43,9 @@ import static org.junit.Assert.*;
 @RunWith(MockitoJUnitRunner.class)
 public class ArchiveParseServiceTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @InjectMocks
     private ArchiveParseService archiveParseService;
 
@@ -84,6 +101,23 @@ public class ArchiveParseServiceTest {
         assertTrue(result.contains("TC002.py"));
     }
 
+    /**
+     * 测试提取脚本内容 - ZIP和TAR.GZ格式结果一致
+     */
+    @Test
+    public void testExtractScripts_ShouldReturnContentByFileName() throws IOException {
+        // Act
+        Map<String, byte[]> zipScripts = archiveParseService.extractScripts(createZipWithScripts(), "zip");
+        Map<String, byte[]> tarScripts = archiveParseService.extractScripts(createTarGzWithScripts(), "tar.gz");
+
+        // Assert
+        assertEquals(2, zipScripts.size());
+        assertArrayEquals("print('TC001')".getBytes(), zipScripts.get("TC001.py"));
+        assertArrayEquals("print('TC002')".getBytes(), zipScripts.get("TC002.py"));
+        assertEquals(zipScripts.keySet(), tarScripts.keySet());
+        assertArrayEquals(zipScripts.get("TC001.py"), tarScripts.get("TC001.py"));
+    }
+
     /**
      * 测试提取脚本文件名列表 - ZIP格式，不包含脚本文件
      */
@@ -173,6 +207,163 @@ public class ArchiveParseServiceTest {
         // Assert - 期望抛出异常
     }
 
+    /**
+     * 测试生成文件清单 - ZIP格式，记录大小、SHA256和数据偏移
+     */
+    @Test
+    public void testBuildManifest_Zip_ShouldListFilesWithHashes() throws IOException {
+        // Arrange
+        byte[] zipData = createZipWithScripts();
+
+        // Act
+        List<ArchiveManifestEntry> result = archiveParseService.buildManifest(zipData, "zip");
+
+        // Assert
+        assertEquals(2, result.size());
+        ArchiveManifestEntry entry = result.get(0);
+        assertEquals("scripts/TC001.py", entry.getPath());
+        assertEquals(Long.valueOf("print('TC001')".length()), entry.getEntrySize());
+        assertEquals(64, entry.getSha256().length());
+        assertTrue(entry.getCompressedSize() > 0);
+        assertTrue(entry.getDataOffset() > 0);
+        assertNotEquals(entry.getSha256(), result.get(1).getSha256());
+    }
+
+    /**
+     * 测试生成文件清单 - TAR.GZ格式，数据偏移指向tar流中的文件内容
+     */
+    @Test
+    public void testBuildManifest_TarGz_OffsetPointsToEntryData() throws IOException {
+        // Arrange
+        byte[] tarGzData = createTarGzWithScripts();
+
+        // Act
+        List<ArchiveManifestEntry> result = archiveParseService.buildManifest(tarGzData, "tar.gz");
+
+        // Assert
+        assertEquals(2, result.size());
+        assertNull(result.get(1).getCompressedSize());
+        byte[] tar = gunzip(tarGzData);
+        int offset = result.get(1).getDataOffset().intValue();
+        byte[] expected = "print('TC002')".getBytes();
+        assertArrayEquals(expected, Arrays.copyOfRange(tar, offset, offset + expected.length));
+    }
+
+    /**
+     * 测试从文件通道生成清单并读取单个文件 - ZIP格式按中央目录随机访问，同一通道可重复读取
+     */
+    @Test
+    public void testBuildManifest_FromFileChannel_ShouldMatchByteArray() throws IOException {
+        // Arrange
+        byte[] zipData = createZipWithScripts();
+        Path file = temporaryFolder.newFile("archive.zip").toPath();
+        Files.write(file, zipData);
+
+        // Act
+        List<ArchiveManifestEntry> result;
+        byte[] content;
+        try (FileChannel channel = FileChannel.open(file)) {
+            result = archiveParseService.buildManifest(channel, "zip");
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            content = archiveParseService.extractEntry(channel, "zip", result.get(1));
+        }
+
+        // Assert
+        assertEquals(archiveParseService.buildManifest(zipData, "zip").toString(), result.toString());
+        assertArrayEquals("print('TC002')".getBytes(), content);
+    }
+
+    /**
+     * 测试读取单个文件 - ZIP和TAR.GZ格式
+     */
+    @Test
+    public void testExtractEntry_ShouldReturnFileContent() throws IOException {
+        assertArrayEquals("print('TC002')".getBytes(),
+                archiveParseService.extractEntry(createZipWithScripts(), "zip", "scripts/TC002.py"));
+        assertArrayEquals("print('TC002')".getBytes(),
+                archiveParseService.extractEntry(createTarGzWithScripts(), "tar.gz", "scripts/TC002.py"));
+        assertNull(archiveParseService.extractEntry(createZipWithScripts(), "zip", "scripts/TC003.py"));
+    }
+
+    /**
+     * 测试按清单条目读取单个文件 - TAR.GZ格式按偏移直接读取
+     */
+    @Test
+    public void testExtractEntry_TarGzManifestEntry_ShouldReadAtOffset() throws IOException {
+        // Arrange
+        byte[] tarGzData = createTarGzWithScripts();
+        ArchiveManifestEntry entry = archiveParseService.buildManifest(tarGzData, "tar.gz").get(1);
+
+        // Act
+        byte[] result = archiveParseService.extractEntry(tarGzData, "tar.gz", entry);
+
+        // Assert
+        assertArrayEquals("print('TC002')".getBytes(), result);
+    }
+
+    /**
+     * 测试按清单条目读取单个文件 - 偏移与内容不符时回退为顺序查找
+     */
+    @Test
+    public void testExtractEntry_StaleOffset_ShouldFallBackToScan() throws IOException {
+        // Arrange
+        byte[] tarGzData = createTarGzWithScripts();
+        ArchiveManifestEntry entry = archiveParseService.buildManifest(tarGzData, "tar.gz").get(1);
+        entry.setDataOffset(0L);
+
+        // Act
+        byte[] result = archiveParseService.extractEntry(tarGzData, "tar.gz", entry);
+
+        // Assert
+        assertArrayEquals("print('TC002')".getBytes(), result);
+    }
+
+    /**
+     * 测试验证压缩包 - 非ZIP数据，应返回无效结果
+     */
+    @Test
+    public void testValidateArchive_CorruptZip_ShouldReturnInvalidResult() throws IOException {
+        // Act
+        ArchiveValidationResult result = archiveParseService.validateArchive(new byte[]{1, 2, 3, 4}, "zip");
+
+        // Assert
+        assertFalse(result.isValid());
+    }
+
+    /**
+     * 创建包含脚本文件的TAR.GZ文件
+     */
+    private byte[] createTarGzWithScripts() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tos = new TarArchiveOutputStream(new GzipCompressorOutputStream(baos))) {
+            for (String name : new String[]{"TC001", "TC002"}) {
+                byte[] content = ("print('" + name + "')").getBytes();
+                TarArchiveEntry entry = new TarArchiveEntry("scripts/" + name + ".py");
+                entry.setSize(content.length);
+                tos.putArchiveEntry(entry);
+                tos.write(content);
+                tos.closeArchiveEntry();
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * 解压GZIP数据
+     */
+    private byte[] gunzip(byte[] data) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (InputStream in = new GzipCompressorInputStream(new ByteArrayInputStream(data))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                baos.write(buffer, 0, read);
+            }
+        }
+        return baos.toByteArray();
+    }
+
     /**
      * 创建包含cases.xlsx的ZIP文件
      */
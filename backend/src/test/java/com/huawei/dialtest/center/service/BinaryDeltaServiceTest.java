@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * BinaryDeltaService测试类
+ * 测试差量编码的压缩效果、各类修改下的还原正确性和损坏数据校验
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class BinaryDeltaServiceTest {
+
+    private BinaryDeltaService binaryDeltaService;
+
+    private byte[] base;
+
+    @Before
+    public void setUp() {
+        binaryDeltaService = new BinaryDeltaService();
+        base = new byte[64 * 1024];
+        new Random(42L).nextBytes(base);
+    }
+
+    @Test
+    public void testEncode_SmallChange_ProducesSmallDelta() {
+        // Arrange
+        byte[] target = base.clone();
+        for (int i = 30000; i < 30100; i++) {
+            target[i] = (byte) ~target[i];
+        }
+
+        // Act
+        byte[] delta = binaryDeltaService.encode(base, target);
+
+        // Assert
+        assertTrue("Delta should be small but was " + delta.length, delta.length < 1024);
+        assertArrayEquals(target, binaryDeltaService.decode(base, delta));
+    }
+
+    @Test
+    public void testEncode_InsertionAndDeletion_RoundTrip() {
+        // Arrange
+        byte[] inserted = new byte[777];
+        new Random(7L).nextBytes(inserted);
+        byte[] target = concat(Arrays.copyOfRange(base, 0, 1000), inserted,
+                Arrays.copyOfRange(base, 5000, base.length));
+
+        // Act
+        byte[] delta = binaryDeltaService.encode(base, target);
+
+        // Assert
+        assertTrue(delta.length < inserted.length + 256);
+        assertArrayEquals(target, binaryDeltaService.decode(base, delta));
+    }
+
+    @Test
+    public void testEncode_UnrelatedAndEmptyContent_RoundTrip() {
+        byte[] unrelated = new byte[1000];
+        new Random(1L).nextBytes(unrelated);
+        assertArrayEquals(unrelated, binaryDeltaService.decode(base, binaryDeltaService.encode(base, unrelated)));
+        assertArrayEquals(new byte[0], binaryDeltaService.decode(base, binaryDeltaService.encode(base, new byte[0])));
+        assertArrayEquals(base, binaryDeltaService.decode(new byte[0], binaryDeltaService.encode(new byte[0], base)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecode_WrongBase_Rejected() {
+        byte[] delta = binaryDeltaService.encode(base, base);
+        binaryDeltaService.decode(new byte[10], delta);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecode_Truncated_Rejected() {
+        byte[] target = base.clone();
+        target[100] = (byte) ~target[100];
+        byte[] delta = binaryDeltaService.encode(base, target);
+        binaryDeltaService.decode(base, Arrays.copyOf(delta, delta.length - 1));
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        byte[] result = new byte[length];
+        int position = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, position, part.length);
+            position += part.length;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.service.BlobCacheService.BlobContent;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * BlobCacheService测试类
+ * 测试内容寻址磁盘缓存的读穿透、摘要校验、LRU淘汰和命中统计
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class BlobCacheServiceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BlobCacheService blobCacheService;
+
+    @Before
+    public void setUp() throws IOException {
+        blobCacheService = new BlobCacheService();
+        ReflectionTestUtils.setField(blobCacheService, "cacheDir", temporaryFolder.getRoot().getPath());
+        ReflectionTestUtils.setField(blobCacheService, "maxBytes", 10L);
+        blobCacheService.init();
+    }
+
+    @Test
+    public void testGetOrLoad_MissThenHit() throws Exception {
+        // Arrange
+        byte[] content = "abcdef".getBytes(StandardCharsets.UTF_8);
+        String sha512 = sha512(content);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        BlobContent first = blobCacheService.getOrLoad(sha512, () -> {
+            loads.incrementAndGet();
+            return content;
+        });
+        BlobContent second = blobCacheService.getOrLoad(sha512, () -> {
+            loads.incrementAndGet();
+            return content;
+        });
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertFalse(first.isCached());
+        assertArrayEquals(content, first.toByteArray());
+        assertTrue(second.isCached());
+        assertArrayEquals(content, second.toByteArray());
+        assertEquals(0.5, blobCacheService.getHitRatio(), 0.0001);
+        assertEquals(6L, blobCacheService.getBytesSaved());
+    }
+
+    @Test
+    public void testGetOrLoad_ChecksumMismatch_NotCached() throws Exception {
+        // Arrange
+        byte[] content = "abcdef".getBytes(StandardCharsets.UTF_8);
+        String wrongSha512 = sha512("other".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        BlobContent result = blobCacheService.getOrLoad(wrongSha512, () -> content);
+
+        // Assert
+        assertFalse(result.isCached());
+        assertArrayEquals(content, result.toByteArray());
+        assertEquals(0L, blobCacheService.getCurrentBytes());
+        assertEquals(0, temporaryFolder.getRoot().list().length);
+    }
+
+    @Test
+    public void testGetOrLoad_EvictsLeastRecentlyUsed() throws Exception {
+        // Arrange
+        byte[] a = "aaaa".getBytes(StandardCharsets.UTF_8);
+        byte[] b = "bbbb".getBytes(StandardCharsets.UTF_8);
+        byte[] c = "cccc".getBytes(StandardCharsets.UTF_8);
+        blobCacheService.getOrLoad(sha512(a), () -> a);
+        blobCacheService.getOrLoad(sha512(b), () -> b);
+        blobCacheService.getOrLoad(sha512(a), () -> a);
+
+        // Act
+        blobCacheService.getOrLoad(sha512(c), () -> c);
+
+        // Assert
+        assertEquals(8L, blobCacheService.getCurrentBytes());
+        assertTrue(new File(temporaryFolder.getRoot(), sha512(a)).exists());
+        assertFalse(new File(temporaryFolder.getRoot(), sha512(b)).exists());
+        assertTrue(new File(temporaryFolder.getRoot(), sha512(c)).exists());
+    }
+
+    @Test
+    public void testGetOrLoad_LargerThanCache_ServedFromMemory() throws Exception {
+        // Arrange
+        byte[] content = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        BlobContent result = blobCacheService.getOrLoad(sha512(content), () -> content);
+
+        // Assert
+        assertFalse(result.isCached());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        result.writeTo(outputStream);
+        assertArrayEquals(content, outputStream.toByteArray());
+    }
+
+    @Test
+    public void testGetOrLoad_MissingContent_ReturnsNull() throws Exception {
+        assertNull(blobCacheService.getOrLoad(sha512(new byte[] {1}), () -> null));
+    }
+
+    @Test
+    public void testWriteTo_CachedFileTransferred() throws Exception {
+        // Arrange
+        byte[] content = "cached".getBytes(StandardCharsets.UTF_8);
+        blobCacheService.getOrLoad(sha512(content), () -> content);
+        BlobContent cached = blobCacheService.getOrLoad(sha512(content), () -> null);
+
+        // Act
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        cached.writeTo(outputStream);
+
+        // Assert
+        assertArrayEquals(content, outputStream.toByteArray());
+    }
+
+    @Test
+    public void testWriteTo_TruncatedCacheFile_FallsBackToLoader() throws Exception {
+        // Arrange
+        byte[] content = "cached".getBytes(StandardCharsets.UTF_8);
+        blobCacheService.getOrLoad(sha512(content), () -> content);
+        BlobContent cached = blobCacheService.getOrLoad(sha512(content), () -> content);
+        truncate(sha512(content), 2L);
+
+        // Act
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        cached.writeTo(outputStream);
+        cached.close();
+
+        // Assert
+        assertArrayEquals(content, outputStream.toByteArray());
+        assertFalse(new File(temporaryFolder.getRoot(), sha512(content)).exists());
+        assertEquals(0L, blobCacheService.getCurrentBytes());
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteTo_TruncatedCacheFileWithoutLoader_Throws() throws Exception {
+        // Arrange
+        byte[] content = "cached".getBytes(StandardCharsets.UTF_8);
+        blobCacheService.getOrLoad(sha512(content), () -> content);
+
+        try (BlobContent cached = blobCacheService.getIfPresent(sha512(content))) {
+            truncate(sha512(content), 2L);
+
+            // Act
+            cached.writeTo(new ByteArrayOutputStream());
+        }
+    }
+
+    @Test
+    public void testGetIfPresent_EvictedWhileOpen_StillReadable() throws Exception {
+        // Arrange
+        byte[] content = "opened".getBytes(StandardCharsets.UTF_8);
+        blobCacheService.getOrLoad(sha512(content), () -> content);
+
+        try (BlobContent cached = blobCacheService.getIfPresent(sha512(content))) {
+            // Act
+            blobCacheService.evict(sha512(content));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            cached.writeTo(outputStream);
+
+            // Assert
+            assertFalse(new File(temporaryFolder.getRoot(), sha512(content)).exists());
+            assertEquals(6L, cached.getLength());
+            assertArrayEquals(content, outputStream.toByteArray());
+            assertArrayEquals(content, cached.toByteArray());
+        }
+        assertNull(blobCacheService.getIfPresent(sha512(content)));
+    }
+
+    @Test
+    public void testInit_RebuildsIndexFromDisk() throws Exception {
+        // Arrange
+        byte[] content = "persist".getBytes(StandardCharsets.UTF_8);
+        blobCacheService.getOrLoad(sha512(content), () -> content);
+
+        // Act
+        BlobCacheService restarted = new BlobCacheService();
+        ReflectionTestUtils.setField(restarted, "cacheDir", temporaryFolder.getRoot().getPath());
+        ReflectionTestUtils.setField(restarted, "maxBytes", 10L);
+        restarted.init();
+
+        // Assert
+        assertEquals(7L, restarted.getCurrentBytes());
+        assertTrue(restarted.getOrLoad(sha512(content), () -> null).isCached());
+    }
+
+    @Test
+    public void testEvict_RemovesFile() throws Exception {
+        // Arrange
+        byte[] content = "gone".getBytes(StandardCharsets.UTF_8);
+        blobCacheService.getOrLoad(sha512(content), () -> content);
+
+        // Act
+        blobCacheService.evict(sha512(content));
+
+        // Assert
+        assertEquals(0L, blobCacheService.getCurrentBytes());
+        assertFalse(new File(temporaryFolder.getRoot(), sha512(content)).exists());
+    }
+
+    private void truncate(String fileName, long size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(new File(temporaryFolder.getRoot(), fileName), "rw")) {
+            file.setLength(size);
+        }
+    }
+
+    private static String sha512(byte[] content) throws NoSuchAlgorithmException {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-512").digest(content)) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.mapper.TestCaseMapper;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * CaseNumberIndexService测试类
+ * 验证用例编号索引的加载和增量维护
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CaseNumberIndexServiceTest {
+
+    @Mock
+    private TestCaseMapper testCaseMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CaseNumberIndexService caseNumberIndexService;
+
+    @Test
+    public void testFindVersionsLoadsIndexOnce() {
+        givenStoredCases(testCase(3L, "TC001", true), testCase(1L, "TC001", false), testCase(1L, "TC002", true));
+
+        List<CaseNumberIndexService.CaseVersion> versions = caseNumberIndexService.findVersions("TC001");
+        caseNumberIndexService.findVersions("TC002");
+
+        assertEquals(2, versions.size());
+        assertEquals(Long.valueOf(1L), versions.get(0).getTestCaseSetId());
+        assertFalse(versions.get(0).isScriptExists());
+        assertEquals(Long.valueOf(3L), versions.get(1).getTestCaseSetId());
+        assertTrue(versions.get(1).isScriptExists());
+        verify(testCaseMapper, times(1)).scanCaseNumbers(any());
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    public void testReloadReplacesIndexWithStoredCases() {
+        caseNumberIndexService.reload();
+        verify(testCaseMapper, never()).scanCaseNumbers(any());
+
+        givenStoredCases(testCase(1L, "TC001", false));
+        assertFalse(caseNumberIndexService.hasScript("TC001", 1L));
+
+        givenStoredCases(testCase(1L, "TC001", true), testCase(2L, "TC002", false));
+        caseNumberIndexService.reload();
+
+        assertTrue(caseNumberIndexService.hasScript("TC001", 1L));
+        assertEquals(1, caseNumberIndexService.findVersions("TC002").size());
+        assertEquals(2, caseNumberIndexService.getStatistics().get("testCaseSets"));
+    }
+
+    @Test
+    public void testRecordAndRemoveTestCaseSet() {
+        givenStoredCases(testCase(1L, "TC001", false), testCase(5L, "TC001", true));
+        assertTrue(caseNumberIndexService.hasScript("TC001", 5L));
+
+        caseNumberIndexService.recordTestCaseSet(3L, Arrays.asList(testCase(3L, "TC001", true),
+                testCase(3L, "TC009", false)));
+        assertEquals(3, caseNumberIndexService.findVersions("TC001").size());
+        assertEquals(Long.valueOf(3L), caseNumberIndexService.findVersions("TC001").get(1).getTestCaseSetId());
+        assertTrue(caseNumberIndexService.hasScript("TC001", 3L));
+        assertFalse(caseNumberIndexService.hasScript("TC001", 1L));
+        assertFalse(caseNumberIndexService.hasScript("TC009", 3L));
+
+        caseNumberIndexService.removeTestCaseSet(3L);
+        caseNumberIndexService.removeTestCaseSet(1L);
+        assertEquals(1, caseNumberIndexService.findVersions("TC001").size());
+        assertTrue(caseNumberIndexService.hasScript("TC001", 5L));
+        assertTrue(caseNumberIndexService.findVersions("TC009").isEmpty());
+    }
+
+    @Test
+    public void testCopyTestCaseSetAndRecordScript() {
+        givenStoredCases(testCase(1L, "TC001", true), testCase(1L, "TC002", false));
+        assertFalse(caseNumberIndexService.hasScript("TC002", 1L));
+
+        caseNumberIndexService.copyTestCaseSet(1L, 4L);
+        assertTrue(caseNumberIndexService.hasScript("TC001", 4L));
+        assertFalse(caseNumberIndexService.hasScript("TC002", 4L));
+
+        caseNumberIndexService.recordScripts(4L, Arrays.asList("TC002", "TC404"));
+        assertTrue(caseNumberIndexService.hasScript("TC002", 4L));
+        assertFalse(caseNumberIndexService.hasScript("TC002", 1L));
+        assertTrue(caseNumberIndexService.findVersions("TC404").isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenStoredCases(TestCase... testCases) {
+        doAnswer(invocation -> {
+            ResultHandler<TestCase> handler = invocation.getArgument(0);
+            DefaultResultContext<TestCase> context = new DefaultResultContext<>();
+            for (TestCase testCase : testCases) {
+                context.nextResultObject(testCase);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(testCaseMapper).scanCaseNumbers(any());
+    }
+
+    private TestCase testCase(Long testCaseSetId, String caseNumber, boolean scriptExists) {
+        TestCase testCase = new TestCase();
+        testCase.setTestCaseSetId(testCaseSetId);
+        testCase.setCaseNumber(caseNumber);
+        testCase.setScriptExists(scriptExists);
+        return testCase;
+    }
+}
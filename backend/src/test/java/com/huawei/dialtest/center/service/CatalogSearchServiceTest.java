@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.dto.CatalogSearchHit;
+import com.huawei.dialtest.center.mapper.SoftwarePackageMapper;
+import com.huawei.dialtest.center.mapper.TestCaseSetMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * CatalogSearchService测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CatalogSearchServiceTest {
+
+    @Mock
+    private SoftwarePackageMapper softwarePackageMapper;
+
+    @Mock
+    private TestCaseSetMapper testCaseSetMapper;
+
+    @InjectMocks
+    private CatalogSearchService catalogSearchService;
+
+    @Test
+    public void testSearchMergesPackagesAndSetsByMatchRank() {
+        // Arrange
+        when(softwarePackageMapper.searchByName("wifi_", "wifi\\_", 2)).thenReturn(Arrays.asList(
+                hit("SOFTWARE_PACKAGE", "mywifi_app", 1, 0.9f), hit("SOFTWARE_PACKAGE", "wfii_tool", 2, 0.5f)));
+        when(testCaseSetMapper.searchByName("wifi_", "wifi\\_", 2)).thenReturn(Collections.singletonList(
+                hit("TEST_CASE_SET", "wifi_cases", 0, 1.0f)));
+
+        // Act
+        List<CatalogSearchHit> result = catalogSearchService.search("  WiFi_ ", 2);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("wifi_cases", result.get(0).getName());
+        assertEquals("mywifi_app", result.get(1).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchBlankKeyword() {
+        catalogSearchService.search("  ", null);
+    }
+
+    @Test
+    public void testEscapeLike() {
+        assertEquals("100\\%\\_a\\\\b", CatalogSearchService.escapeLike("100%_a\\b"));
+    }
+
+    private CatalogSearchHit hit(String type, String name, int matchRank, float score) {
+        CatalogSearchHit hit = new CatalogSearchHit();
+        hit.setType(type);
+        hit.setName(name);
+        hit.setMatchRank(matchRank);
+        hit.setScore(score);
+        return hit;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.CatalogStat;
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.mapper.CatalogStatsMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CatalogStatisticsService测试类
+ * 测试统计增量的生成、统计信息的组装和重建
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CatalogStatisticsServiceTest {
+
+    @Mock
+    private CatalogStatsMapper catalogStatsMapper;
+
+    @Spy
+    private SingleFlightService singleFlightService = new SingleFlightService();
+
+    @InjectMocks
+    private CatalogStatisticsService catalogStatisticsService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordSoftwarePackageAdded_AddsPositiveDeltas() {
+        // Arrange
+        SoftwarePackage softwarePackage = new SoftwarePackage("TestApp.apk", null, "apk", "android", "admin",
+                1024L, "sha512");
+
+        // Act
+        catalogStatisticsService.recordSoftwarePackageAdded(softwarePackage);
+
+        // Assert
+        ArgumentCaptor<List<CatalogStat>> captor = ArgumentCaptor.forClass(List.class);
+        verify(catalogStatsMapper).addDeltas(captor.capture());
+        List<CatalogStat> deltas = captor.getValue();
+        assertEquals(5, deltas.size());
+        assertDelta(deltas.get(0), "total", "", 1L);
+        assertDelta(deltas.get(1), "bytes", "", 1024L);
+        assertDelta(deltas.get(2), "platform", "android", 1L);
+        assertDelta(deltas.get(3), "format", "apk", 1L);
+        assertDelta(deltas.get(4), "creator", "admin", 1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordTestCaseSetRemoved_AddsNegativeDeltas() {
+        // Arrange
+        TestCaseSet testCaseSet = new TestCaseSet();
+        testCaseSet.setFileFormat("zip");
+        testCaseSet.setCreator("admin");
+        testCaseSet.setFileSize(200L);
+
+        // Act
+        catalogStatisticsService.recordTestCaseSetRemoved(testCaseSet);
+
+        // Assert
+        ArgumentCaptor<List<CatalogStat>> captor = ArgumentCaptor.forClass(List.class);
+        verify(catalogStatsMapper).addDeltas(captor.capture());
+        List<CatalogStat> deltas = captor.getValue();
+        assertEquals(CatalogStatisticsService.SCOPE_TEST_CASE_SET, deltas.get(0).getScope());
+        assertDelta(deltas.get(0), "total", "", -1L);
+        assertDelta(deltas.get(1), "bytes", "", -200L);
+        assertDelta(deltas.get(4), "business", "", -1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetStatistics_GroupsByScopeAndDimension() {
+        // Arrange
+        when(catalogStatsMapper.findAll()).thenReturn(Arrays.asList(
+                new CatalogStat("software_package", "total", "", 3L),
+                new CatalogStat("software_package", "bytes", "", 4096L),
+                new CatalogStat("software_package", "platform", "android", 2L),
+                new CatalogStat("software_package", "platform", "ios", 1L),
+                new CatalogStat("software_package", "creator", "removed", 0L),
+                new CatalogStat("test_case_set", "business", "VPN阻断业务", 5L)));
+
+        // Act
+        Map<String, Object> result = catalogStatisticsService.getStatistics();
+
+        // Assert
+        Map<String, Object> packages = (Map<String, Object>) result.get("softwarePackages");
+        assertEquals(3L, packages.get("total"));
+        assertEquals(4096L, packages.get("bytes"));
+        assertEquals(Long.valueOf(2L), ((Map<String, Long>) packages.get("platform")).get("android"));
+        assertFalse(((Map<String, Long>) packages.get("creator")).containsKey("removed"));
+        Map<String, Object> sets = (Map<String, Object>) result.get("testCaseSets");
+        assertEquals(0L, sets.get("total"));
+        assertEquals(Long.valueOf(5L), ((Map<String, Long>) sets.get("business")).get("VPN阻断业务"));
+    }
+
+    @Test
+    public void testGetPlatformStatistics_MissingPlatformIsZero() {
+        // Arrange
+        when(catalogStatsMapper.findAll()).thenReturn(Arrays.asList(
+                new CatalogStat("software_package", "total", "", 2L),
+                new CatalogStat("software_package", "platform", "android", 2L)));
+
+        // Act
+        Map<String, Long> result = catalogStatisticsService.getPlatformStatistics();
+
+        // Assert
+        assertEquals(Long.valueOf(2L), result.get("android"));
+        assertEquals(Long.valueOf(0L), result.get("ios"));
+        assertEquals(Long.valueOf(2L), result.get("total"));
+        assertEquals(3, result.size());
+    }
+
+    @Test
+    public void testFoldDeltas_MergesPendingDeltas() {
+        // Arrange
+        when(catalogStatsMapper.foldDeltas()).thenReturn(3);
+
+        // Act
+        catalogStatisticsService.foldDeltas();
+
+        // Assert
+        verify(catalogStatsMapper).foldDeltas();
+    }
+
+    @Test
+    public void testRebuild_DeletesThenRecomputes() {
+        // Act
+        catalogStatisticsService.rebuild();
+
+        // Assert
+        InOrder order = inOrder(catalogStatsMapper);
+        order.verify(catalogStatsMapper).deleteAll();
+        order.verify(catalogStatsMapper).deleteAllDeltas();
+        order.verify(catalogStatsMapper).rebuildAll();
+    }
+
+    private static void assertDelta(CatalogStat stat, String dimension, String value, long delta) {
+        assertEquals(dimension, stat.getDimension());
+        assertEquals(value, stat.getDimValue());
+        assertEquals(Long.valueOf(delta), stat.getStatValue());
+    }
+}
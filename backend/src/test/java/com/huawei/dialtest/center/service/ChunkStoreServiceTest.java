@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.BlobChunk;
+import com.huawei.dialtest.center.mapper.BlobChunkMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ChunkStoreService测试类
+ * 测试内容定义分块的边界稳定性、分块存储的引用计数和文件重组
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ChunkStoreServiceTest {
+
+    @Mock
+    private BlobChunkMapper blobChunkMapper;
+
+    @InjectMocks
+    private ChunkStoreService chunkStoreService;
+
+    @Captor
+    private ArgumentCaptor<List<String>> hashesCaptor;
+
+    @Test
+    public void testSplit_RespectsSizeLimits() {
+        // Arrange
+        byte[] content = randomBytes(2 * 1024 * 1024, 1L);
+
+        // Act
+        List<Integer> boundaries = chunkStoreService.split(content);
+
+        // Assert
+        assertEquals(content.length, (int) boundaries.get(boundaries.size() - 1));
+        int start = 0;
+        for (int i = 0; i < boundaries.size(); i++) {
+            int size = boundaries.get(i) - start;
+            assertTrue(size <= 262144);
+            assertTrue(size >= 16384 || i == boundaries.size() - 1);
+            start = boundaries.get(i);
+        }
+    }
+
+    @Test
+    public void testSplit_InsertionOnlyChangesNearbyChunks() {
+        // Arrange
+        byte[] original = randomBytes(2 * 1024 * 1024, 2L);
+        byte[] modified = new byte[original.length + 100];
+        System.arraycopy(original, 0, modified, 0, 1000000);
+        System.arraycopy(original, 1000000, modified, 1000100, original.length - 1000000);
+
+        // Act
+        Set<String> originalChunks = chunkSet(original);
+        Set<String> modifiedChunks = chunkSet(modified);
+
+        // Assert
+        Set<String> changed = new HashSet<>(modifiedChunks);
+        changed.removeAll(originalChunks);
+        assertTrue(originalChunks.size() > 10);
+        assertTrue(changed.size() <= 2);
+    }
+
+    @Test
+    public void testStore_InsertsOnlyNewChunks() {
+        // Arrange
+        byte[] content = randomBytes(512 * 1024, 3L);
+        List<Integer> boundaries = chunkStoreService.split(content);
+        when(blobChunkMapper.incrementRefCounts(anyList())).thenAnswer(invocation -> {
+            List<BlobChunk> chunks = invocation.getArgument(0);
+            return Collections.singletonList(chunks.get(0).getChunkHash());
+        });
+
+        // Act
+        long newBytes = chunkStoreService.store(ChunkStoreService.OWNER_SOFTWARE_PACKAGE, 7L, content);
+
+        // Assert
+        assertEquals(content.length - boundaries.get(0), newBytes);
+        verify(blobChunkMapper, times(boundaries.size() - 1)).insertChunk(any(BlobChunk.class));
+        verify(blobChunkMapper).insertManifestEntries(eq(ChunkStoreService.OWNER_SOFTWARE_PACKAGE), eq(7L), eq(0),
+                hashesCaptor.capture());
+        assertEquals(boundaries.size(), hashesCaptor.getValue().size());
+    }
+
+    @Test
+    public void testStore_RepeatedChunksCountedOnce() {
+        // Arrange
+        byte[] block = randomBytes(300 * 1024, 4L);
+        byte[] content = new byte[block.length * 2];
+        System.arraycopy(block, 0, content, 0, block.length);
+        System.arraycopy(block, 0, content, block.length, block.length);
+        when(blobChunkMapper.incrementRefCounts(anyList())).thenReturn(new ArrayList<>());
+
+        // Act
+        chunkStoreService.store(ChunkStoreService.OWNER_TEST_CASE_SET, 1L, content);
+
+        // Assert
+        ArgumentCaptor<BlobChunk> captor = ArgumentCaptor.forClass(BlobChunk.class);
+        verify(blobChunkMapper, times(chunkSet(content).size())).insertChunk(captor.capture());
+        int references = 0;
+        for (BlobChunk chunk : captor.getAllValues()) {
+            references += chunk.getRefCount();
+        }
+        assertEquals(chunkStoreService.split(content).size(), references);
+        assertTrue(captor.getAllValues().size() < references);
+    }
+
+    @Test
+    public void testRead_ConcatenatesChunksInOrder() {
+        // Arrange
+        when(blobChunkMapper.findManifestContents(ChunkStoreService.OWNER_TEST_CASE_SET, 1L))
+                .thenReturn(Arrays.asList("abc".getBytes(), "def".getBytes()));
+
+        // Act
+        byte[] result = chunkStoreService.read(ChunkStoreService.OWNER_TEST_CASE_SET, 1L);
+
+        // Assert
+        assertArrayEquals("abcdef".getBytes(), result);
+    }
+
+    @Test
+    public void testRead_NoManifest_ReturnsNull() {
+        // Arrange
+        when(blobChunkMapper.findManifestContents(ChunkStoreService.OWNER_TEST_CASE_SET, 1L))
+                .thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        assertNull(chunkStoreService.read(ChunkStoreService.OWNER_TEST_CASE_SET, 1L));
+    }
+
+    @Test
+    public void testRelease_NoManifest_SkipsCollection() {
+        // Arrange
+        when(blobChunkMapper.decrementRefCounts(ChunkStoreService.OWNER_SOFTWARE_PACKAGE, 7L)).thenReturn(0);
+
+        // Act
+        chunkStoreService.release(ChunkStoreService.OWNER_SOFTWARE_PACKAGE, 7L);
+
+        // Assert
+        verify(blobChunkMapper, never()).deleteUnreferencedChunks();
+    }
+
+    @Test
+    public void testGetStatistics_CalculatesDedupRatio() {
+        // Arrange
+        Map<String, Object> row = new HashMap<>();
+        row.put("chunk_count", 10L);
+        row.put("stored_bytes", 1000L);
+        row.put("logical_bytes", 3000L);
+        when(blobChunkMapper.getStatistics()).thenReturn(row);
+
+        // Act
+        Map<String, Object> statistics = chunkStoreService.getStatistics();
+
+        // Assert
+        assertEquals(3.0, (Double) statistics.get("dedupRatio"), 0.0001);
+        assertEquals(2000L, statistics.get("savedBytes"));
+    }
+
+    private Set<String> chunkSet(byte[] content) {
+        Set<String> chunks = new HashSet<>();
+        int start = 0;
+        for (int end : chunkStoreService.split(content)) {
+            chunks.add(Arrays.hashCode(Arrays.copyOfRange(content, start, end)) + ":" + (end - start));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] content = new byte[length];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.service.ChunkedUploadService.UploadSession;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadRejectedException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ChunkedUploadService测试类
+ * 测试分片上传会话的创建、乱序分片写入、增量摘要计算和过期清理
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ChunkedUploadServiceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private SoftwarePackageService softwarePackageService;
+
+    @InjectMocks
+    private ChunkedUploadService chunkedUploadService;
+
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        ReflectionTestUtils.setField(chunkedUploadService, "chunkDir", temporaryFolder.getRoot().getPath());
+        ReflectionTestUtils.setField(chunkedUploadService, "minChunkSize", 4);
+        chunkedUploadService.init();
+
+        content = new byte[10];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+    }
+
+    @Test
+    public void testCreateSession_ComputesChunkCount() throws IOException {
+        // Act
+        UploadSession session = chunkedUploadService.createSession("TestApp.apk", 10L, 4, "desc", "admin");
+
+        // Assert
+        assertEquals(3, session.getChunkCount());
+        assertEquals(3, session.getMissingCount());
+        assertTrue(chunkedUploadService.getSession(session.getId()).isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateSession_UnsupportedFormat() throws IOException {
+        chunkedUploadService.createSession("TestApp.exe", 10L, 4, null, "admin");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateSession_ChunkSizeTooSmall() throws IOException {
+        chunkedUploadService.createSession("TestApp.apk", 10L, 2, null, "admin");
+    }
+
+    @Test
+    public void testPutChunk_OutOfOrder_CompletesWithCorrectSha512() throws Exception {
+        // Arrange
+        UploadSession session = chunkedUploadService.createSession("TestApp.apk", 10L, 4, "desc", "admin");
+        SoftwarePackage saved = new SoftwarePackage();
+        saved.setId(1L);
+        when(softwarePackageService.createSoftwarePackage(eq("TestApp.apk"), any(byte[].class), anyString(),
+                eq("desc"), eq("admin"))).thenReturn(saved);
+
+        // Act
+        chunkedUploadService.putChunk(session.getId(), 2, chunk(8, 10));
+        chunkedUploadService.putChunk(session.getId(), 1, chunk(4, 8));
+        assertNull(session.getSha512());
+        chunkedUploadService.putChunk(session.getId(), 0, chunk(0, 4));
+        SoftwarePackage result = chunkedUploadService.complete(session.getId());
+
+        // Assert
+        assertEquals(Long.valueOf(1L), result.getId());
+        ArgumentCaptor<byte[]> contentCaptor = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<String> shaCaptor = ArgumentCaptor.forClass(String.class);
+        verify(softwarePackageService).createSoftwarePackage(eq("TestApp.apk"), contentCaptor.capture(),
+                shaCaptor.capture(), eq("desc"), eq("admin"));
+        assertArrayEquals(content, contentCaptor.getValue());
+        assertEquals(toHex(MessageDigest.getInstance("SHA-512").digest(content)), shaCaptor.getValue());
+        assertFalse(chunkedUploadService.getSession(session.getId()).isPresent());
+    }
+
+    @Test
+    public void testPutChunk_ChunksLargerThanHashBuffer_Sha512Correct() throws Exception {
+        // Arrange
+        content = new byte[200000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        UploadSession session = chunkedUploadService.createSession("TestApp.apk", 200000L, 70000, null, "admin");
+
+        // Act
+        chunkedUploadService.putChunk(session.getId(), 2, chunk(140000, 200000));
+        chunkedUploadService.putChunk(session.getId(), 1, chunk(70000, 140000));
+        chunkedUploadService.putChunk(session.getId(), 0, chunk(0, 70000));
+
+        // Assert
+        assertTrue(session.isComplete());
+        assertEquals(toHex(MessageDigest.getInstance("SHA-512").digest(content)), session.getSha512());
+    }
+
+    @Test
+    public void testPutChunk_DuplicateChunkIgnored() throws IOException {
+        // Arrange
+        UploadSession session = chunkedUploadService.createSession("TestApp.apk", 10L, 4, null, "admin");
+
+        // Act
+        chunkedUploadService.putChunk(session.getId(), 0, chunk(0, 4));
+        chunkedUploadService.putChunk(session.getId(), 0, new ByteArrayInputStream(new byte[4]));
+
+        // Assert
+        assertEquals(Arrays.asList(0), session.getReceivedChunks());
+        assertEquals(2, session.getMissingCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutChunk_WrongSize() throws IOException {
+        UploadSession session = chunkedUploadService.createSession("TestApp.apk", 10L, 4, null, "admin");
+        chunkedUploadService.putChunk(session.getId(), 2, new ByteArrayInputStream(new byte[4]));
+    }
+
+    @Test
+    public void testPutChunk_OversizedChunkRejected() throws IOException {
+        // Arrange
+        UploadSession session = chunkedUploadService.createSession("TestApp.apk", 10L, 4, null, "admin");
+
+        // Act
+        try {
+            chunkedUploadService.putChunk(session.getId(), 0, new ByteArrayInputStream(content));
+        } catch (IllegalArgumentException e) {
+            // Assert
+            assertEquals("Chunk 0 must be 4 bytes", e.getMessage());
+        }
+        assertTrue(session.getReceivedChunks().isEmpty());
+    }
+
+    @Test
+    public void testCreateSession_TooManySessions() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(chunkedUploadService, "maxSessions", 1);
+        chunkedUploadService.createSession("TestApp.apk", 10L, 4, null, "admin");
+
+        // Act
+        try {
+            chunkedUploadService.createSession("TestApp.apk", 10L, 4, null, "admin");
+        } catch (UploadRejectedException e) {
+            // Assert
+            assertEquals(30, e.getRetryAfterSeconds());
+        }
+        assertEquals(1, temporaryFolder.getRoot().list().length);
+    }
+
+    @Test
+    public void testComplete_Incomplete_ThrowsAndKeepsSession() throws IOException {
+        // Arrange
+        UploadSession session = chunkedUploadService.createSession("TestApp.apk", 10L, 4, null, "admin");
+        chunkedUploadService.putChunk(session.getId(), 0, chunk(0, 4));
+
+        // Act
+        try {
+            chunkedUploadService.complete(session.getId());
+        } catch (IllegalArgumentException e) {
+            // Assert
+            assertTrue(e.getMessage().contains("2 chunks missing"));
+        }
+        verify(softwarePackageService, never()).createSoftwarePackage(anyString(), any(byte[].class), anyString(),
+                any(), anyString());
+        assertTrue(chunkedUploadService.getSession(session.getId()).isPresent());
+    }
+
+    @Test
+    public void testRemoveExpiredSessions() throws IOException {
+        // Arrange
+        UploadSession session = chunkedUploadService.createSession("TestApp.apk", 10L, 4, null, "admin");
+        ReflectionTestUtils.setField(chunkedUploadService, "sessionTtlMs", -1000L);
+
+        // Act
+        chunkedUploadService.removeExpiredSessions();
+
+        // Assert
+        Optional<UploadSession> result = chunkedUploadService.getSession(session.getId());
+        assertFalse(result.isPresent());
+        assertEquals(0, temporaryFolder.getRoot().list().length);
+    }
+
+    @Test
+    public void testAbort() throws IOException {
+        UploadSession session = chunkedUploadService.createSession("TestApp.apk", 10L, 4, null, "admin");
+        assertTrue(chunkedUploadService.abort(session.getId()));
+        assertFalse(chunkedUploadService.abort(session.getId()));
+    }
+
+    private ByteArrayInputStream chunk(int from, int to) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(content, from, to));
+    }
+
+    private static String toHex(byte[] hash) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : hash) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+}
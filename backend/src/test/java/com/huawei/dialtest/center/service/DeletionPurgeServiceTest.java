@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.mapper.SoftwarePackageMapper;
+import com.huawei.dialtest.center.mapper.TestCaseMapper;
+import com.huawei.dialtest.center.mapper.TestCaseSetMapper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * DeletionPurgeService测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DeletionPurgeServiceTest {
+
+    @Mock
+    private TestCaseSetMapper testCaseSetMapper;
+
+    @Mock
+    private TestCaseMapper testCaseMapper;
+
+    @Mock
+    private SoftwarePackageMapper softwarePackageMapper;
+
+    @Mock
+    private TestCaseSetService testCaseSetService;
+
+    @Mock
+    private SoftwarePackageService softwarePackageService;
+
+    @InjectMocks
+    private DeletionPurgeService deletionPurgeService;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(deletionPurgeService, "batchSize", 2);
+        ReflectionTestUtils.setField(deletionPurgeService, "batchPauseMs", 0L);
+        ReflectionTestUtils.setField(deletionPurgeService, "maxItemsPerRun", 5);
+    }
+
+    @Test
+    public void testPurgeDeletesTestCasesInBatchesBeforeSetRow() {
+        // Arrange
+        TestCaseSet testCaseSet = testCaseSet(1L);
+        when(testCaseSetMapper.findDeleted(5)).thenReturn(Collections.singletonList(testCaseSet));
+        when(softwarePackageMapper.findDeleted(5)).thenReturn(Collections.emptyList());
+        when(testCaseMapper.deleteBatchByTestCaseSetId(1L, 2)).thenReturn(2, 2, 1);
+
+        // Act
+        deletionPurgeService.purge();
+
+        // Assert
+        InOrder order = inOrder(testCaseMapper, testCaseSetService);
+        order.verify(testCaseMapper, times(3)).deleteBatchByTestCaseSetId(1L, 2);
+        order.verify(testCaseSetService).purgeTestCaseSet(testCaseSet);
+    }
+
+    @Test
+    public void testPurgeContinuesAfterFailure() {
+        // Arrange
+        TestCaseSet failing = testCaseSet(1L);
+        TestCaseSet next = testCaseSet(2L);
+        SoftwarePackage softwarePackage = new SoftwarePackage();
+        softwarePackage.setId(9L);
+        when(testCaseSetMapper.findDeleted(5)).thenReturn(Arrays.asList(failing, next));
+        when(softwarePackageMapper.findDeleted(5)).thenReturn(Collections.singletonList(softwarePackage));
+        when(testCaseMapper.deleteBatchByTestCaseSetId(1L, 2)).thenReturn(0);
+        when(testCaseMapper.deleteBatchByTestCaseSetId(2L, 2)).thenReturn(0);
+        doThrow(new IllegalStateException("Test case set 1 is not pending purge"))
+            .when(testCaseSetService).purgeTestCaseSet(failing);
+
+        // Act
+        deletionPurgeService.purge();
+
+        // Assert
+        verify(testCaseSetService).purgeTestCaseSet(next);
+        verify(softwarePackageService).purgeSoftwarePackage(softwarePackage);
+    }
+
+    private static TestCaseSet testCaseSet(Long id) {
+        TestCaseSet testCaseSet = new TestCaseSet();
+        testCaseSet.setId(id);
+        return testCaseSet;
+    }
+}
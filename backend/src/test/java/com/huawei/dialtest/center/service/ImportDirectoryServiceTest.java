@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * ImportDirectoryService测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ImportDirectoryServiceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private SoftwarePackageService softwarePackageService;
+
+    @Mock
+    private TestCaseSetService testCaseSetService;
+
+    @Spy
+    private UploadAdmissionService uploadAdmissionService = new UploadAdmissionService();
+
+    @InjectMocks
+    private ImportDirectoryService importDirectoryService;
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = temporaryFolder.getRoot().toPath();
+        Files.createDirectories(directory.resolve(ImportDirectoryService.FAILED_DIR));
+        ReflectionTestUtils.setField(importDirectoryService, "directory", directory);
+        ReflectionTestUtils.setField(importDirectoryService, "stableMs", 5000L);
+    }
+
+    @Test
+    public void testTakeStableFilesWaitsUntilFileStopsChanging() throws Exception {
+        // Arrange
+        Path file = write("app.apk", "part");
+        importDirectoryService.observe(file);
+
+        // Act & Assert
+        assertTrue(importDirectoryService.takeStableFiles(1000L).isEmpty());
+        Files.write(file, "more".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertTrue(importDirectoryService.takeStableFiles(5000L).isEmpty());
+        assertTrue(importDirectoryService.takeStableFiles(9999L).isEmpty());
+        assertEquals(Collections.singletonList(file), importDirectoryService.takeStableFiles(10000L));
+        assertTrue(importDirectoryService.takeStableFiles(20000L).isEmpty());
+    }
+
+    @Test
+    public void testObserveIgnoresTemporaryFiles() throws Exception {
+        // Arrange
+        importDirectoryService.observe(write(".hidden.zip", "x"));
+        importDirectoryService.observe(write("set_v1.zip.part", "x"));
+
+        // Act & Assert
+        assertTrue(importDirectoryService.takeStableFiles(0L).isEmpty());
+        assertTrue(importDirectoryService.takeStableFiles(10000L).isEmpty());
+    }
+
+    @Test
+    public void testImportTestCaseSetReadsFromDiskAndDeletesFile() throws Exception {
+        // Arrange
+        Path file = write("set_v1.zip", "archive");
+        when(testCaseSetService.importTestCaseSet(eq("set_v1.zip"), any(byte[].class), isNull(), eq("import"),
+            eq("VPN阻断业务"))).thenReturn(new TestCaseSet());
+
+        // Act
+        importDirectoryService.importFile(file);
+
+        // Assert
+        ArgumentCaptor<byte[]> content = ArgumentCaptor.forClass(byte[].class);
+        verify(testCaseSetService).importTestCaseSet(eq("set_v1.zip"), content.capture(), isNull(), eq("import"),
+            eq("VPN阻断业务"));
+        assertArrayEquals("archive".getBytes(StandardCharsets.UTF_8), content.getValue());
+        assertFalse(Files.exists(file));
+        assertEquals(0L, uploadAdmissionService.getInFlightBytes());
+    }
+
+    @Test
+    public void testImportSoftwarePackage() throws Exception {
+        // Arrange
+        Path file = write("app.ipa", "ipa");
+        when(softwarePackageService.createSoftwarePackage(eq("app.ipa"), any(byte[].class), isNull(), isNull(),
+            eq("import"))).thenReturn(new SoftwarePackage());
+
+        // Act
+        importDirectoryService.importFile(file);
+
+        // Assert
+        assertFalse(Files.exists(file));
+        verifyNoInteractions(testCaseSetService);
+    }
+
+    @Test
+    public void testImportFailureQuarantinesFileWithReason() throws Exception {
+        // Arrange
+        Path file = write("set_v1.zip", "archive");
+        when(testCaseSetService.importTestCaseSet(eq("set_v1.zip"), any(byte[].class), isNull(), eq("import"),
+            eq("VPN阻断业务"))).thenThrow(new IllegalArgumentException("Test case set with name and version already exists"));
+
+        // Act
+        importDirectoryService.importFile(file);
+
+        // Assert
+        Path failedDir = directory.resolve(ImportDirectoryService.FAILED_DIR);
+        assertFalse(Files.exists(file));
+        assertTrue(Files.exists(failedDir.resolve("set_v1.zip")));
+        String reason = new String(Files.readAllBytes(failedDir.resolve("set_v1.zip" + ImportDirectoryService.REASON_SUFFIX)),
+            StandardCharsets.UTF_8);
+        assertTrue(reason.contains("Test case set with name and version already exists"));
+    }
+
+    @Test
+    public void testImportUnsupportedFileIsQuarantined() throws Exception {
+        // Arrange
+        Path file = write("notes.txt", "text");
+
+        // Act
+        importDirectoryService.importFile(file);
+
+        // Assert
+        assertTrue(Files.exists(directory.resolve(ImportDirectoryService.FAILED_DIR).resolve("notes.txt")));
+        verifyNoInteractions(testCaseSetService, softwarePackageService);
+    }
+
+    @Test
+    public void testImportOverInFlightBudgetIsQuarantinedNotRetried() throws Exception {
+        // Arrange
+        Path file = write("set_v1.zip", "archive");
+        ReflectionTestUtils.setField(uploadAdmissionService, "maxInFlightBytes", 4L);
+
+        // Act
+        importDirectoryService.importFile(file);
+
+        // Assert
+        Path failedDir = directory.resolve(ImportDirectoryService.FAILED_DIR);
+        assertTrue(Files.exists(failedDir.resolve("set_v1.zip")));
+        String reason = new String(Files.readAllBytes(failedDir.resolve("set_v1.zip" + ImportDirectoryService.REASON_SUFFIX)),
+            StandardCharsets.UTF_8);
+        assertTrue(reason.contains("exceeds the in-flight byte budget"));
+        assertTrue(importDirectoryService.takeStableFiles(10000L).isEmpty());
+        verifyNoInteractions(testCaseSetService);
+    }
+
+    @Test
+    public void testImportOversizedSoftwarePackageIsQuarantined() throws Exception {
+        // Arrange
+        Path file = directory.resolve("app.apk");
+        try (RandomAccessFile sparse = new RandomAccessFile(file.toFile(), "rw")) {
+            sparse.setLength(SoftwarePackageService.MAX_FILE_SIZE + 1);
+        }
+
+        // Act
+        importDirectoryService.importFile(file);
+
+        // Assert
+        assertTrue(Files.exists(directory.resolve(ImportDirectoryService.FAILED_DIR).resolve("app.apk")));
+        verifyNoInteractions(softwarePackageService);
+        assertEquals(0L, uploadAdmissionService.getInFlightBytes());
+    }
+
+    private Path write(String name, String content) throws Exception {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
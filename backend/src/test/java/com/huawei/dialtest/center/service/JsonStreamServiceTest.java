@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.TestCase;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JsonStreamService测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class JsonStreamServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonStreamService jsonStreamService;
+
+    @Before
+    public void setUp() {
+        jsonStreamService = new JsonStreamService();
+        ReflectionTestUtils.setField(jsonStreamService, "objectMapper", objectMapper);
+    }
+
+    @Test
+    public void testWriteDataJsonKeepsDataAndCountShape() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = jsonStreamService.writeData(Arrays.asList(testCase("TC001"), testCase("TC002")),
+                JsonStreamService.FORMAT_JSON, out);
+
+        // Assert
+        JsonNode root = objectMapper.readTree(out.toByteArray());
+        assertEquals(2, count);
+        assertEquals(2, root.get("count").asLong());
+        assertEquals("TC002", root.get("data").get(1).get("caseNumber").asText());
+    }
+
+    @Test
+    public void testWriteArrayNdjsonWritesOneObjectPerLine() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = jsonStreamService.writeArray(Arrays.asList(testCase("TC001"), testCase("TC002")),
+                JsonStreamService.FORMAT_NDJSON, out);
+
+        // Assert
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("{"));
+        assertEquals("TC002", objectMapper.readTree(lines[1]).get("caseNumber").asText());
+    }
+
+    @Test
+    public void testWriteArrayJsonEmpty() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = jsonStreamService.writeArray(Collections.emptyList(), JsonStreamService.FORMAT_JSON, out);
+
+        // Assert
+        assertEquals(0, count);
+        assertEquals("[]", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNormalizeFormatRejectsUnknownFormat() {
+        JsonStreamService.normalizeFormat("xml");
+    }
+
+    private static TestCase testCase(String caseNumber) {
+        TestCase testCase = new TestCase();
+        testCase.setCaseNumber(caseNumber);
+        testCase.setCaseName("name");
+        return testCase;
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.SoftwarePackage;
+import com.huawei.dialtest.center.mapper.SoftwarePackageMapper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * PackageDeltaStorageService测试类
+ * 测试谱系键解析、差量存储选择、差量链还原和基准包删除前的完整化
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PackageDeltaStorageServiceTest {
+
+    @Mock
+    private SoftwarePackageMapper softwarePackageMapper;
+
+    @Mock
+    private BlobCacheService blobCacheService;
+
+    @Mock
+    private ChunkStoreService chunkStoreService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private BinaryDeltaService binaryDeltaService = new BinaryDeltaService();
+
+    @InjectMocks
+    private PackageDeltaStorageService packageDeltaStorageService;
+
+    private byte[] version1;
+
+    private byte[] version2;
+
+    private byte[] version3;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(packageDeltaStorageService, "enabled", true);
+        version1 = new byte[16 * 1024];
+        new Random(3L).nextBytes(version1);
+        version2 = version1.clone();
+        version2[100] = (byte) ~version2[100];
+        version3 = version2.clone();
+        version3[9000] = (byte) ~version3[9000];
+    }
+
+    @Test
+    public void testResolveLineageKey() {
+        assertEquals("apk:testapp", PackageDeltaStorageService.resolveLineageKey("TestApp_1.0.0.apk", "apk"));
+        assertEquals("ipa:myapp", PackageDeltaStorageService.resolveLineageKey("MyApp-v20261019.IPA", "ipa"));
+        assertEquals("apk:myapp", PackageDeltaStorageService.resolveLineageKey("builds/MyApp.apk", "apk"));
+        assertEquals("apk:1.0", PackageDeltaStorageService.resolveLineageKey("1.0.apk", "apk"));
+    }
+
+    @Test
+    public void testPrepareForInsert_Disabled_StoresFull() {
+        // Arrange
+        ReflectionTestUtils.setField(packageDeltaStorageService, "enabled", false);
+        SoftwarePackage softwarePackage = newPackage("TestApp_1.0.1.apk", version2);
+
+        // Act
+        packageDeltaStorageService.prepareForInsert(softwarePackage);
+
+        // Assert
+        assertEquals(PackageDeltaStorageService.STORAGE_FULL, softwarePackage.getStorageMode());
+        assertEquals(Long.valueOf(version2.length), softwarePackage.getStoredSize());
+        assertEquals("apk:testapp", softwarePackage.getLineageKey());
+        verify(softwarePackageMapper, never()).findLatestByLineageKey(any());
+    }
+
+    @Test
+    public void testPrepareForInsert_NoBase_ChunkStoreEnabled_StoresChunked() {
+        // Arrange
+        when(chunkStoreService.isEnabled()).thenReturn(true);
+        SoftwarePackage softwarePackage = newPackage("TestApp_1.0.0.apk", version1);
+
+        // Act
+        packageDeltaStorageService.prepareForInsert(softwarePackage);
+        softwarePackage.setId(5L);
+        packageDeltaStorageService.afterInsert(softwarePackage, version1);
+
+        // Assert
+        assertEquals(ChunkStoreService.STORAGE_CHUNKED, softwarePackage.getStorageMode());
+        verify(chunkStoreService).store(ChunkStoreService.OWNER_SOFTWARE_PACKAGE, 5L, version1);
+        assertArrayEquals(version1, softwarePackage.getFileContent());
+    }
+
+    @Test
+    public void testPrepareForInsert_SameLineage_StoresDelta() {
+        // Arrange
+        SoftwarePackage latest = stored(1L, version1, PackageDeltaStorageService.STORAGE_FULL, null, 0);
+        when(softwarePackageMapper.findLatestByLineageKey("apk:testapp")).thenReturn(latest);
+        when(softwarePackageMapper.findByIdIncludingDeleted(1L)).thenReturn(latest);
+        SoftwarePackage softwarePackage = newPackage("TestApp_1.0.1.apk", version2);
+
+        // Act
+        packageDeltaStorageService.prepareForInsert(softwarePackage);
+
+        // Assert
+        assertEquals(PackageDeltaStorageService.STORAGE_DELTA, softwarePackage.getStorageMode());
+        assertEquals(Long.valueOf(1L), softwarePackage.getBasePackageId());
+        assertEquals(Integer.valueOf(1), softwarePackage.getChainLength());
+        assertTrue(softwarePackage.getStoredSize() < 1024L);
+        assertArrayEquals(version2, binaryDeltaService.decode(version1, softwarePackage.getFileContent()));
+    }
+
+    @Test
+    public void testPrepareForInsert_ChainLimitReached_StoresFull() {
+        // Arrange
+        ReflectionTestUtils.setField(packageDeltaStorageService, "maxChainLength", 1);
+        SoftwarePackage latest = stored(2L, new byte[0], PackageDeltaStorageService.STORAGE_DELTA, 1L, 1);
+        when(softwarePackageMapper.findLatestByLineageKey("apk:testapp")).thenReturn(latest);
+        SoftwarePackage softwarePackage = newPackage("TestApp_1.0.2.apk", version3);
+
+        // Act
+        packageDeltaStorageService.prepareForInsert(softwarePackage);
+
+        // Assert
+        assertEquals(PackageDeltaStorageService.STORAGE_FULL, softwarePackage.getStorageMode());
+        assertArrayEquals(version3, softwarePackage.getFileContent());
+        verify(softwarePackageMapper, never()).findByIdIncludingDeleted(any());
+    }
+
+    @Test
+    public void testLoadContent_ReconstructsChain() throws Exception {
+        // Arrange
+        mockChain();
+
+        // Act
+        byte[] result = packageDeltaStorageService.loadContent(3L);
+
+        // Assert
+        assertArrayEquals(version3, result);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLoadContent_ChecksumMismatch() throws Exception {
+        // Arrange
+        SoftwarePackage third = mockChain();
+        third.setSha512(sha512(version1));
+
+        // Act
+        packageDeltaStorageService.loadContent(3L);
+    }
+
+    @Test
+    public void testLoadContent_ChunkedBase_ReadsChunkStore() throws Exception {
+        // Arrange
+        SoftwarePackage first = stored(1L, null, ChunkStoreService.STORAGE_CHUNKED, null, 0);
+        SoftwarePackage second = stored(2L, binaryDeltaService.encode(version1, version2),
+                PackageDeltaStorageService.STORAGE_DELTA, 1L, 1);
+        second.setSha512(sha512(version2));
+        when(softwarePackageMapper.findByIdIncludingDeleted(1L)).thenReturn(first);
+        when(softwarePackageMapper.findByIdIncludingDeleted(2L)).thenReturn(second);
+        when(chunkStoreService.read(ChunkStoreService.OWNER_SOFTWARE_PACKAGE, 1L)).thenReturn(version1);
+
+        // Act
+        byte[] result = packageDeltaStorageService.loadContent(2L);
+
+        // Assert
+        assertArrayEquals(version2, result);
+    }
+
+    @Test
+    public void testLoadContent_MissingPackage_ReturnsNull() {
+        assertNull(packageDeltaStorageService.loadContent(99L));
+    }
+
+    @Test
+    public void testBeforeDelete_MaterializesDependents() throws Exception {
+        // Arrange
+        mockChain();
+        SoftwarePackage base = stored(2L, null, PackageDeltaStorageService.STORAGE_DELTA, 1L, 1);
+        when(softwarePackageMapper.findByBasePackageId(2L)).thenReturn(
+                Collections.singletonList(stored(3L, null, PackageDeltaStorageService.STORAGE_DELTA, 2L, 2)));
+
+        // Act
+        packageDeltaStorageService.beforeDelete(base);
+
+        // Assert
+        ArgumentCaptor<SoftwarePackage> captor = ArgumentCaptor.forClass(SoftwarePackage.class);
+        verify(softwarePackageMapper).updateStorage(captor.capture());
+        assertEquals(Long.valueOf(3L), captor.getValue().getId());
+        assertEquals(PackageDeltaStorageService.STORAGE_FULL, captor.getValue().getStorageMode());
+        assertNull(captor.getValue().getBasePackageId());
+        assertArrayEquals(version3, captor.getValue().getFileContent());
+        verify(softwarePackageMapper).recalculateChainLengths(3L);
+    }
+
+    @Test
+    public void testRebaseLongChains_SkipsRowsNoLongerOverlong() {
+        // Arrange
+        ReflectionTestUtils.setField(packageDeltaStorageService, "maxChainLength", 1);
+        SoftwarePackage candidate = stored(3L, null, PackageDeltaStorageService.STORAGE_DELTA, 2L, 2);
+        when(softwarePackageMapper.findOverlongDeltaChains(1, 20)).thenReturn(Collections.singletonList(candidate));
+        when(softwarePackageMapper.findMetadataById(3L)).thenReturn(
+                stored(3L, null, PackageDeltaStorageService.STORAGE_DELTA, 2L, 1));
+
+        // Act
+        packageDeltaStorageService.rebaseLongChains();
+
+        // Assert
+        verify(softwarePackageMapper, never()).updateStorage(any());
+    }
+
+    @Test
+    public void testRebaseLongChains_MaterializesEachPackageInTransaction() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(packageDeltaStorageService, "maxChainLength", 1);
+        SoftwarePackage third = mockChain();
+        when(softwarePackageMapper.findOverlongDeltaChains(1, 20)).thenReturn(Collections.singletonList(third));
+        when(softwarePackageMapper.findMetadataById(3L)).thenReturn(third);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // Act
+        packageDeltaStorageService.rebaseLongChains();
+
+        // Assert
+        ArgumentCaptor<SoftwarePackage> update = ArgumentCaptor.forClass(SoftwarePackage.class);
+        verify(transactionTemplate).executeWithoutResult(any());
+        verify(softwarePackageMapper).updateStorage(update.capture());
+        assertEquals(PackageDeltaStorageService.STORAGE_FULL, update.getValue().getStorageMode());
+        assertArrayEquals(version3, update.getValue().getFileContent());
+        verify(softwarePackageMapper).recalculateChainLengths(3L);
+    }
+
+    private SoftwarePackage mockChain() throws Exception {
+        SoftwarePackage first = stored(1L, version1, PackageDeltaStorageService.STORAGE_FULL, null, 0);
+        first.setSha512(sha512(version1));
+        SoftwarePackage second = stored(2L, binaryDeltaService.encode(version1, version2),
+                PackageDeltaStorageService.STORAGE_DELTA, 1L, 1);
+        second.setSha512(sha512(version2));
+        SoftwarePackage third = stored(3L, binaryDeltaService.encode(version2, version3),
+                PackageDeltaStorageService.STORAGE_DELTA, 2L, 2);
+        third.setSha512(sha512(version3));
+        when(softwarePackageMapper.findByIdIncludingDeleted(1L)).thenReturn(first);
+        when(softwarePackageMapper.findByIdIncludingDeleted(2L)).thenReturn(second);
+        when(softwarePackageMapper.findByIdIncludingDeleted(3L)).thenReturn(third);
+        return third;
+    }
+
+    private static SoftwarePackage newPackage(String name, byte[] content) {
+        return new SoftwarePackage(name, content, "apk", "android", "admin", (long) content.length, null);
+    }
+
+    private static SoftwarePackage stored(Long id, byte[] content, String storageMode, Long baseId, int chainLength) {
+        SoftwarePackage softwarePackage = new SoftwarePackage("TestApp.apk", content, "apk", "android", "admin",
+                0L, null);
+        softwarePackage.setId(id);
+        softwarePackage.setStorageMode(storageMode);
+        softwarePackage.setBasePackageId(baseId);
+        softwarePackage.setChainLength(chainLength);
+        return softwarePackage;
+    }
+
+    private static String sha512(byte[] content) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-512").digest(content)) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.mapper.TestCaseSetMapper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ScriptBackfillService测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ScriptBackfillServiceTest {
+
+    @Mock
+    private TestCaseSetMapper testCaseSetMapper;
+
+    @Mock
+    private TestCaseSetService testCaseSetService;
+
+    @InjectMocks
+    private ScriptBackfillService scriptBackfillService;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(scriptBackfillService, "maxItemsPerRun", 2);
+    }
+
+    @Test
+    public void testBackfillContinuesAfterFailureAndAdvancesCursor() throws IOException {
+        // Arrange
+        TestCaseSet first = testCaseSet(3L);
+        TestCaseSet second = testCaseSet(7L);
+        when(testCaseSetMapper.findScriptBackfillCandidates(0L, 2)).thenReturn(Arrays.asList(first, second));
+        when(testCaseSetService.backfillScripts(first)).thenThrow(new IOException("broken archive"));
+
+        // Act
+        scriptBackfillService.backfill();
+
+        // Assert
+        verify(testCaseSetService).backfillScripts(second);
+        assertFalse(scriptBackfillService.isFinished());
+
+        // Act
+        when(testCaseSetMapper.findScriptBackfillCandidates(7L, 2)).thenReturn(Collections.emptyList());
+        scriptBackfillService.backfill();
+
+        // Assert
+        assertTrue(scriptBackfillService.isFinished());
+    }
+
+    @Test
+    public void testBackfillStopsOnceFinished() {
+        // Arrange
+        when(testCaseSetMapper.findScriptBackfillCandidates(0L, 2)).thenReturn(Collections.emptyList());
+
+        // Act
+        scriptBackfillService.backfill();
+        scriptBackfillService.backfill();
+
+        // Assert
+        verify(testCaseSetMapper).findScriptBackfillCandidates(0L, 2);
+        assertTrue(scriptBackfillService.isFinished());
+    }
+
+    @Test
+    public void testBackfillDisabled() {
+        // Arrange
+        ReflectionTestUtils.setField(scriptBackfillService, "enabled", false);
+
+        // Act
+        scriptBackfillService.backfill();
+
+        // Assert
+        verify(testCaseSetMapper, never()).findScriptBackfillCandidates(anyLong(), anyInt());
+    }
+
+    private static TestCaseSet testCaseSet(Long id) {
+        TestCaseSet testCaseSet = new TestCaseSet();
+        testCaseSet.setId(id);
+        return testCaseSet;
+    }
+}
@@ -12,7 +12,11 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -195,6 +199,21 @@ public class ScriptMatchServiceTest {
         assertTrue(result);
     }
 
+    /**
+     * 测试按脚本文件名集合查找用例脚本
+     */
+    @Test
+    public void testHasScriptForCase_WithSet_ShouldProbeSet() {
+        // Arrange
+        Set<String> scriptFileNames = new HashSet<>(Arrays.asList("TC001.py", "TC002.py"));
+
+        // Act & Assert
+        assertTrue(scriptMatchService.hasScriptForCase("TC001", scriptFileNames));
+        assertFalse(scriptMatchService.hasScriptForCase("TC003", scriptFileNames));
+        assertEquals("TC002.py", scriptMatchService.getScriptFileNameForCase("TC002", scriptFileNames));
+        assertNull(scriptMatchService.getScriptFileNameForCase("", scriptFileNames));
+    }
+
     /**
      * 测试验证单个用例编号是否有对应脚本 - 不存在
      */
@@ -276,6 +295,25 @@ public class ScriptMatchServiceTest {
         assertNull(result);
     }
 
+    /**
+     * 测试按脚本文件名得到用例编号到脚本哈希的映射
+     */
+    @Test
+    public void testMapCaseScripts_ShouldStripPythonExtension() {
+        // Arrange
+        Map<String, String> scriptHashes = new HashMap<>();
+        scriptHashes.put("TC001.py", "sha-1");
+        scriptHashes.put("TC002.PY", "sha-2");
+
+        // Act
+        Map<String, String> result = scriptMatchService.mapCaseScripts(scriptHashes);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("sha-1", result.get("TC001"));
+        assertEquals("sha-2", result.get("TC002"));
+    }
+
     /**
      * 测试ScriptMatchResult的toString方法
      */
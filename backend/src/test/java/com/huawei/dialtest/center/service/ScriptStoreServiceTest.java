@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.ScriptFile;
+import com.huawei.dialtest.center.entity.TestCaseSetScript;
+import com.huawei.dialtest.center.mapper.ScriptFileMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ScriptStoreService测试类
+ * 验证脚本按内容哈希去重存储
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ScriptStoreServiceTest {
+    @Mock
+    private ScriptFileMapper scriptFileMapper;
+
+    @InjectMocks
+    private ScriptStoreService scriptStoreService;
+
+    @Test
+    public void testStoreScriptsInsertsOnlyNewContent() {
+        Map<String, byte[]> scripts = new LinkedHashMap<>();
+        scripts.put("TC001.py", "print('same')".getBytes());
+        scripts.put("TC002.py", "print('same')".getBytes());
+        scripts.put("TC003.py", "print('changed')".getBytes());
+        when(scriptFileMapper.findExistingHashes(anyList())).thenAnswer(invocation -> {
+            List<String> hashes = invocation.getArgument(0);
+            return Collections.singletonList(hashes.get(0));
+        });
+
+        Map<String, String> result = scriptStoreService.storeScripts(1L, scripts);
+
+        assertEquals(3, result.size());
+        assertEquals(result.get("TC001.py"), result.get("TC002.py"));
+        assertNotEquals(result.get("TC001.py"), result.get("TC003.py"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ScriptFile>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(scriptFileMapper).insertBatch(inserted.capture());
+        assertEquals(1, inserted.getValue().size());
+        assertEquals(result.get("TC003.py"), inserted.getValue().get(0).getSha256());
+        assertEquals(Integer.valueOf("print('changed')".length()), inserted.getValue().get(0).getFileSize());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TestCaseSetScript>> links = ArgumentCaptor.forClass(List.class);
+        verify(scriptFileMapper).insertSetScripts(links.capture());
+        assertEquals(3, links.getValue().size());
+        assertEquals(Long.valueOf(1L), links.getValue().get(0).getTestCaseSetId());
+    }
+
+    @Test
+    public void testPutScriptsDeletesUnreferencedPreviousVersions() {
+        Map<String, byte[]> scripts = new LinkedHashMap<>();
+        scripts.put("TC001.py", "print('patched')".getBytes());
+        scripts.put("TC009.py", "print('new')".getBytes());
+        when(scriptFileMapper.upsertSetScripts(eq(2L), anyList())).thenReturn(Collections.singletonList("old-sha"));
+
+        Map<String, String> result = scriptStoreService.putScripts(2L, scripts);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TestCaseSetScript>> links = ArgumentCaptor.forClass(List.class);
+        verify(scriptFileMapper).upsertSetScripts(eq(2L), links.capture());
+        assertEquals(2, links.getValue().size());
+        assertEquals("TC001.py", links.getValue().get(0).getFileName());
+        assertEquals(result.get("TC001.py"), links.getValue().get(0).getSha256());
+        verify(scriptFileMapper).insertBatch(anyList());
+        verify(scriptFileMapper).deleteUnreferenced(Collections.singletonList("old-sha"));
+        verify(scriptFileMapper, never()).insertSetScripts(anyList());
+    }
+
+    @Test
+    public void testReplaceScriptAddsNewScript() {
+        when(scriptFileMapper.upsertSetScripts(eq(2L), anyList())).thenReturn(Collections.emptyList());
+
+        String sha256 = scriptStoreService.replaceScript(2L, "TC009.py", "print('new')".getBytes());
+
+        assertEquals(64, sha256.length());
+        verify(scriptFileMapper, never()).deleteUnreferenced(anyList());
+    }
+
+    @Test
+    public void testStoreScriptsWithoutScriptsSkipsDatabase() {
+        Map<String, String> result = scriptStoreService.storeScripts(1L, Collections.emptyMap());
+
+        assertEquals(0, result.size());
+        verify(scriptFileMapper, never()).findExistingHashes(anyList());
+        verify(scriptFileMapper, never()).insertSetScripts(anyList());
+    }
+}
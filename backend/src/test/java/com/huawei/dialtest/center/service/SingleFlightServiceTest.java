@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * SingleFlightService测试类
+ * 测试并发相同请求的合并、异常传递和等待超时退化
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class SingleFlightServiceTest {
+
+    private SingleFlightService singleFlightService;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        singleFlightService = new SingleFlightService();
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @Test
+    public void testExecute_ConcurrentCallersShareOneLoad() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> singleFlightService.execute("key", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "value";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(executor.submit(() -> singleFlightService.execute("key", () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        while (singleFlightService.getCoalescedCount() < 3) {
+            Thread.sleep(5L);
+        }
+        release.countDown();
+
+        // Assert
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testExecute_ErrorPropagatedToWaiters() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalArgumentException failure = new IllegalArgumentException("load failed");
+        Future<Object> leader = executor.submit(() -> singleFlightService.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Object> follower = executor.submit(() -> singleFlightService.execute("key", () -> "unused"));
+        while (singleFlightService.getCoalescedCount() < 1) {
+            Thread.sleep(5L);
+        }
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertFailure(leader, failure);
+        assertFailure(follower, failure);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testExecute_SequentialCallsLoadEachTime() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        singleFlightService.execute("key", loads::incrementAndGet);
+        singleFlightService.execute("key", loads::incrementAndGet);
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0L, singleFlightService.getCoalescedCount());
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testExecute_WaitTimeout_LoadsIndependently() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(singleFlightService, "waitTimeoutMs", 20L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> singleFlightService.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return "slow";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        String result = singleFlightService.execute("key", () -> "fast");
+
+        // Assert
+        assertEquals("fast", result);
+        release.countDown();
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+        executor.shutdownNow();
+    }
+
+    private static void assertFailure(Future<Object> future, Exception expected) throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Expected failure");
+        } catch (ExecutionException e) {
+            assertSame(expected, e.getCause());
+        } catch (TimeoutException e) {
+            fail("Timed out");
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.Before;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -40,6 +41,21 @@ public class SoftwarePackageServiceTest {
     @Mock
     private SoftwarePackageMapper softwarePackageMapper;
 
+    @Mock
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Mock
+    private BlobCacheService blobCacheService;
+
+    @Spy
+    private SingleFlightService singleFlightService = new SingleFlightService();
+
+    @Mock
+    private CatalogStatisticsService catalogStatisticsService;
+
+    @Mock
+    private PackageDeltaStorageService packageDeltaStorageService;
+
     @InjectMocks
     private SoftwarePackageService softwarePackageService;
 
@@ -106,6 +122,21 @@ public class SoftwarePackageServiceTest {
         verify(softwarePackageMapper).countByConditions(eq("android"), eq("admin"), eq("TestApp"));
     }
 
+    @Test
+    public void testGetSoftwarePackages_BlankFiltersNormalized() {
+        // Arrange
+        when(softwarePackageMapper.findByConditions(isNull(), eq("admin"), isNull(), anyInt(), anyInt()))
+                .thenReturn(Arrays.asList(testSoftwarePackage));
+        when(softwarePackageMapper.countByConditions(isNull(), eq("admin"), isNull())).thenReturn(1L);
+
+        // Act
+        Page<SoftwarePackage> result = softwarePackageService.getSoftwarePackages(1, 10, " ", " admin ", "");
+
+        // Assert
+        assertEquals("Should return 1 package", 1, result.getContent().size());
+        verify(singleFlightService).execute(eq("software-package:list:1:10::5:admin:"), any());
+    }
+
     @Test
     public void testGetSoftwarePackageById_Success() {
         // Arrange
@@ -154,6 +185,8 @@ public class SoftwarePackageServiceTest {
         verify(softwarePackageMapper).existsBySoftwareName("TestApp_1.0.0.apk");
         verify(softwarePackageMapper).existsBySha512(anyString());
         verify(softwarePackageMapper).insert(any(SoftwarePackage.class));
+        verify(packageDeltaStorageService).prepareForInsert(result);
+        verify(packageDeltaStorageService).afterInsert(result, testFileContent);
     }
 
     @Test
@@ -174,6 +207,35 @@ public class SoftwarePackageServiceTest {
         verify(softwarePackageMapper).insert(any(SoftwarePackage.class));
     }
 
+    @Test
+    public void testCreateSoftwarePackage_UsesProvidedSha512() {
+        // Arrange
+        when(softwarePackageMapper.existsBySoftwareName("TestApp_2.0.0.ipa")).thenReturn(false);
+        when(softwarePackageMapper.existsBySha512("precomputed_sha512")).thenReturn(false);
+        when(softwarePackageMapper.insert(any(SoftwarePackage.class))).thenReturn(1);
+
+        // Act
+        SoftwarePackage result = softwarePackageService.createSoftwarePackage(
+                "TestApp_2.0.0.ipa", testFileContent, "precomputed_sha512", "Chunked upload", "admin");
+
+        // Assert
+        assertEquals("precomputed_sha512", result.getSha512());
+        assertEquals("ios", result.getPlatform());
+        assertEquals(Long.valueOf(testFileContent.length), result.getFileSize());
+        verify(softwarePackageMapper).insert(any(SoftwarePackage.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateSoftwarePackage_DuplicateContent() {
+        // Arrange
+        when(softwarePackageMapper.existsBySoftwareName("TestApp_2.0.0.apk")).thenReturn(false);
+        when(softwarePackageMapper.existsBySha512("precomputed_sha512")).thenReturn(true);
+
+        // Act
+        softwarePackageService.createSoftwarePackage(
+                "TestApp_2.0.0.apk", testFileContent, "precomputed_sha512", null, "admin");
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testUploadSoftwarePackage_EmptyFile() throws IOException {
         // Arrange
@@ -224,26 +286,54 @@ public class SoftwarePackageServiceTest {
     @Test
     public void testDeleteSoftwarePackage_Success() {
         // Arrange
-        when(softwarePackageMapper.findById(1L)).thenReturn(testSoftwarePackage);
-        when(softwarePackageMapper.deleteById(1L)).thenReturn(1);
+        when(softwarePackageMapper.markDeleted(Collections.singletonList(1L)))
+                .thenReturn(Collections.singletonList(testSoftwarePackage));
 
         // Act
         softwarePackageService.deleteSoftwarePackage(1L);
 
         // Assert
-        verify(softwarePackageMapper).findById(1L);
-        verify(softwarePackageMapper).deleteById(1L);
+        verify(catalogStatisticsService).recordSoftwarePackageRemoved(testSoftwarePackage);
+        verify(softwarePackageMapper, never()).deleteById(any());
+        verify(packageDeltaStorageService, never()).beforeDelete(any());
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testDeleteSoftwarePackage_NotFound() {
         // Arrange
-        when(softwarePackageMapper.findById(999L)).thenReturn(null);
+        when(softwarePackageMapper.markDeleted(Collections.singletonList(999L))).thenReturn(Collections.emptyList());
 
         // Act
         softwarePackageService.deleteSoftwarePackage(999L);
     }
 
+    @Test
+    public void testDeleteSoftwarePackages_Success() {
+        // Arrange
+        when(softwarePackageMapper.markDeleted(Arrays.asList(1L, 2L)))
+                .thenReturn(Collections.singletonList(testSoftwarePackage));
+
+        // Act
+        List<Long> deleted = softwarePackageService.deleteSoftwarePackages(Arrays.asList(1L, 2L));
+
+        // Assert
+        assertEquals(Collections.singletonList(1L), deleted);
+        verify(catalogStatisticsService).recordSoftwarePackageRemoved(testSoftwarePackage);
+    }
+
+    @Test
+    public void testPurgeSoftwarePackage_Success() {
+        // Arrange
+        when(softwarePackageMapper.deleteById(1L)).thenReturn(1);
+
+        // Act
+        softwarePackageService.purgeSoftwarePackage(testSoftwarePackage);
+
+        // Assert
+        verify(packageDeltaStorageService).beforeDelete(testSoftwarePackage);
+        verify(blobCacheService).evict(testSoftwarePackage.getSha512());
+    }
+
     @Test
     public void testUpdateSoftwarePackage_Success() {
         // Arrange
@@ -271,9 +361,11 @@ public class SoftwarePackageServiceTest {
     @Test
     public void testGetPlatformStatistics() {
         // Arrange
-        when(softwarePackageMapper.countByPlatform("android")).thenReturn(5L);
-        when(softwarePackageMapper.countByPlatform("ios")).thenReturn(3L);
-        when(softwarePackageMapper.count()).thenReturn(8L);
+        Map<String, Long> statistics = new HashMap<>();
+        statistics.put("android", 5L);
+        statistics.put("ios", 3L);
+        statistics.put("total", 8L);
+        when(catalogStatisticsService.getPlatformStatistics()).thenReturn(statistics);
 
         // Act
         Map<String, Long> result = softwarePackageService.getPlatformStatistics();
@@ -283,9 +375,8 @@ public class SoftwarePackageServiceTest {
         assertEquals("Android count should be 5", Long.valueOf(5L), result.get("android"));
         assertEquals("iOS count should be 3", Long.valueOf(3L), result.get("ios"));
         assertEquals("Total count should be 8", Long.valueOf(8L), result.get("total"));
-        verify(softwarePackageMapper).countByPlatform("android");
-        verify(softwarePackageMapper).countByPlatform("ios");
-        verify(softwarePackageMapper).count();
+        verify(softwarePackageMapper, never()).countByPlatform(anyString());
+        verify(softwarePackageMapper, never()).count();
     }
 
     @Test
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.mapper.TestCaseMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TestCaseCacheService测试类
+ * 验证用例集缓存的加载、失效和容量淘汰
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TestCaseCacheServiceTest {
+
+    @Mock
+    private TestCaseMapper testCaseMapper;
+
+    @Spy
+    private SingleFlightService singleFlightService = new SingleFlightService();
+
+    @InjectMocks
+    private TestCaseCacheService testCaseCacheService;
+
+    @Test
+    public void testGetLoadsOnceUntilInvalidated() {
+        when(testCaseMapper.findByTestCaseSetId(1L)).thenReturn(Arrays.asList(testCase(1L, true), testCase(3L, false)));
+
+        TestCaseCacheService.CachedTestCases first = testCaseCacheService.get(1L);
+        testCaseCacheService.get(1L);
+        testCaseCacheService.invalidate(1L);
+        testCaseCacheService.get(1L);
+
+        assertEquals(2, first.size());
+        assertEquals(Long.valueOf(3L), first.page(0, 1).get(0).getId());
+        assertEquals(1L, first.countMissingScripts());
+        verify(testCaseMapper, times(2)).findByTestCaseSetId(1L);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedSetIsEvicted() {
+        ReflectionTestUtils.setField(testCaseCacheService, "maxBytes", 200L);
+        when(testCaseMapper.findByTestCaseSetId(1L)).thenReturn(Collections.singletonList(testCase(1L, true)));
+        when(testCaseMapper.findByTestCaseSetId(2L)).thenReturn(Collections.singletonList(testCase(2L, true)));
+
+        testCaseCacheService.get(1L);
+        testCaseCacheService.get(2L);
+        testCaseCacheService.get(1L);
+
+        assertEquals(1, testCaseCacheService.getStatistics().get("testCaseSets"));
+        verify(testCaseMapper, times(2)).findByTestCaseSetId(1L);
+    }
+
+    private TestCase testCase(Long id, boolean scriptExists) {
+        TestCase testCase = new TestCase();
+        testCase.setId(id);
+        testCase.setCaseNumber("TC00" + id);
+        testCase.setCaseName("用例" + id);
+        testCase.setScriptExists(scriptExists);
+        return testCase;
+    }
+}
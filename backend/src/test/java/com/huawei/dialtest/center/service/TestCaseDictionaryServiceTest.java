@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.dto.FacetCount;
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.mapper.TestCaseDictionaryMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TestCaseDictionaryService测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TestCaseDictionaryServiceTest {
+
+    @Mock
+    private TestCaseDictionaryMapper testCaseDictionaryMapper;
+
+    @InjectMocks
+    private TestCaseDictionaryService testCaseDictionaryService;
+
+    @Test
+    public void testRegisterValuesDeduplicatesPerKind() {
+        // Arrange
+        List<TestCase> testCases = Arrays.asList(
+                testCase("单机", "视频", "app1"), testCase("单机", "视频", null), testCase("双机", "语音", "app1"));
+
+        // Act
+        testCaseDictionaryService.registerValues(testCases);
+
+        // Assert
+        verify(testCaseDictionaryMapper).insertValues(TestCaseDictionaryService.KIND_NETWORK_TOPOLOGY,
+                Arrays.asList("单机", "双机"));
+        verify(testCaseDictionaryMapper).insertValues(TestCaseDictionaryService.KIND_BUSINESS_CATEGORY,
+                Arrays.asList("视频", "语音"));
+        verify(testCaseDictionaryMapper).insertValues(TestCaseDictionaryService.KIND_APP_NAME,
+                Collections.singletonList("app1"));
+    }
+
+    @Test
+    public void testRegisterValuesSkipsKindWithoutValues() {
+        // Act
+        testCaseDictionaryService.registerValues(Collections.singletonList(testCase(null, "视频", null)));
+
+        // Assert
+        verify(testCaseDictionaryMapper).insertValues(TestCaseDictionaryService.KIND_BUSINESS_CATEGORY,
+                Collections.singletonList("视频"));
+        verify(testCaseDictionaryMapper, never()).insertValues(
+                eq(TestCaseDictionaryService.KIND_APP_NAME), anyList());
+    }
+
+    @Test
+    public void testRefreshFacetsReplacesSetCounts() {
+        // Act
+        testCaseDictionaryService.refreshFacets(7L);
+
+        // Assert
+        InOrder order = inOrder(testCaseDictionaryMapper);
+        order.verify(testCaseDictionaryMapper).deleteFacets(7L);
+        order.verify(testCaseDictionaryMapper).insertFacets(7L);
+    }
+
+    @Test
+    public void testRefreshFacetsWithoutSetDoesNothing() {
+        // Act
+        testCaseDictionaryService.refreshFacets(null);
+
+        // Assert
+        verify(testCaseDictionaryMapper, never()).deleteFacets(anyLong());
+    }
+
+    @Test
+    public void testGetFacetsGroupsByKind() {
+        // Arrange
+        when(testCaseDictionaryMapper.findFacets(null)).thenReturn(Arrays.asList(
+                facet(TestCaseDictionaryService.KIND_APP_NAME, "app1", 5L),
+                facet(TestCaseDictionaryService.KIND_BUSINESS_CATEGORY, "视频", 3L),
+                facet(TestCaseDictionaryService.KIND_BUSINESS_CATEGORY, "语音", 2L)));
+
+        // Act
+        Map<String, List<FacetCount>> result = testCaseDictionaryService.getFacets(null);
+
+        // Assert
+        assertEquals(Arrays.asList("businessCategory", "appName", "networkTopology"),
+                Arrays.asList(result.keySet().toArray()));
+        assertEquals(2, result.get("businessCategory").size());
+        assertEquals("视频", result.get("businessCategory").get(0).getValue());
+        assertEquals(Long.valueOf(5L), result.get("appName").get(0).getCount());
+        assertTrue(result.get("networkTopology").isEmpty());
+    }
+
+    private static TestCase testCase(String networkTopology, String businessCategory, String appName) {
+        TestCase testCase = new TestCase();
+        testCase.setNetworkTopology(networkTopology);
+        testCase.setBusinessCategory(businessCategory);
+        testCase.setAppName(appName);
+        return testCase;
+    }
+
+    private static FacetCount facet(String kind, String value, Long count) {
+        FacetCount facet = new FacetCount();
+        facet.setKind(kind);
+        facet.setValue(value);
+        facet.setCount(count);
+        return facet;
+    }
+}
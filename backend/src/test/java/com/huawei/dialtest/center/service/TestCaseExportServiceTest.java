@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.mapper.TestCaseMapper;
+import com.huawei.dialtest.center.service.ExcelParseService.TestCaseInfo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TestCaseExportService测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TestCaseExportServiceTest {
+
+    @Mock
+    private TestCaseMapper testCaseMapper;
+
+    @Spy
+    private JsonStreamService jsonStreamService = new JsonStreamService();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private TestCaseExportService testCaseExportService;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(jsonStreamService, "objectMapper", objectMapper);
+    }
+
+    @Test
+    public void testExportCsvQuotesSpecialCharacters() throws Exception {
+        // Arrange
+        Cursor<TestCase> cursor = cursor(Arrays.asList(testCase("TC001", "登录, 然后\"退出\""), testCase("TC002", "步骤")));
+        when(testCaseMapper.streamByTestCaseSetId(1L)).thenReturn(cursor);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = testCaseExportService.export(1L, TestCaseExportService.FORMAT_CSV, out);
+
+        // Assert
+        assertEquals(2, count);
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("\uFEFF用例名称", lines[0].split(",")[0]);
+        assertEquals("name,TC001,topo,biz,app,\"登录, 然后\"\"退出\"\"\",result,是", lines[1]);
+        verify(cursor).close();
+    }
+
+    @Test
+    public void testExportNdjsonWritesOneObjectPerLine() throws Exception {
+        // Arrange
+        Cursor<TestCase> cursor = cursor(Arrays.asList(testCase("TC001", "a"), testCase("TC002", "b")));
+        when(testCaseMapper.streamByTestCaseSetId(1L)).thenReturn(cursor);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        testCaseExportService.export(1L, TestCaseExportService.FORMAT_NDJSON, out);
+
+        // Assert
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("TC002", objectMapper.readTree(lines[1]).get("caseNumber").asText());
+    }
+
+    @Test
+    public void testExportXlsxCanBeParsedAsCasesExcel() throws Exception {
+        // Arrange
+        Cursor<TestCase> cursor = cursor(Arrays.asList(testCase("TC001", "a"), testCase("TC002", "b")));
+        when(testCaseMapper.streamByTestCaseSetId(1L)).thenReturn(cursor);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        testCaseExportService.export(1L, TestCaseExportService.FORMAT_XLSX, out);
+
+        // Assert
+        List<TestCaseInfo> parsed = new ExcelParseService().parseCasesExcel(out.toByteArray());
+        assertEquals(2, parsed.size());
+        assertEquals("TC002", parsed.get(1).getCaseNumber());
+        assertEquals("b", parsed.get(1).getTestSteps());
+    }
+
+    @Test
+    public void testNormalizeFormat() {
+        assertEquals("csv", TestCaseExportService.normalizeFormat(" CSV "));
+        assertEquals("xlsx", TestCaseExportService.normalizeFormat(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNormalizeUnsupportedFormat() {
+        TestCaseExportService.normalizeFormat("xml");
+    }
+
+    private static TestCase testCase(String caseNumber, String testSteps) {
+        TestCase testCase = new TestCase();
+        testCase.setCaseName("name");
+        testCase.setCaseNumber(caseNumber);
+        testCase.setNetworkTopology("topo");
+        testCase.setBusinessCategory("biz");
+        testCase.setAppName("app");
+        testCase.setTestSteps(testSteps);
+        testCase.setExpectedResult("result");
+        testCase.setScriptExists(true);
+        return testCase;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<TestCase> cursor(List<TestCase> testCases) {
+        Cursor<TestCase> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(testCases.iterator());
+        return cursor;
+    }
+}
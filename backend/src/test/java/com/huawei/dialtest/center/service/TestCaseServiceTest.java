@@ -4,24 +4,33 @@
 
 package com.huawei.dialtest.center.service;
 
+import com.huawei.dialtest.center.dto.CursorPage;
+import com.huawei.dialtest.center.dto.TestCaseSearchCriteria;
+import com.huawei.dialtest.center.dto.TestCaseSearchHit;
 import com.huawei.dialtest.center.entity.TestCase;
 import com.huawei.dialtest.center.entity.TestCaseSet;
 import com.huawei.dialtest.center.mapper.TestCaseMapper;
 import com.huawei.dialtest.center.service.TestCaseService;
+import org.apache.ibatis.cursor.Cursor;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
@@ -41,6 +50,24 @@ public class TestCaseServiceTest {
     @Mock
     private TestCaseMapper testCaseMapper;
 
+    @Spy
+    private SingleFlightService singleFlightService = new SingleFlightService();
+
+    @Mock
+    private ScriptStoreService scriptStoreService;
+
+    @Mock
+    private CaseNumberIndexService caseNumberIndexService;
+
+    @Mock
+    private TestCaseCacheService testCaseCacheService;
+
+    @Mock
+    private TestCaseDictionaryService testCaseDictionaryService;
+
+    @Mock
+    private JsonStreamService jsonStreamService;
+
     @InjectMocks
     private TestCaseService testCaseService;
 
@@ -97,6 +124,36 @@ public class TestCaseServiceTest {
         verify(testCaseMapper).countByTestCaseSetId(testCaseSetId);
     }
 
+    /**
+     * 测试根据用例集获取测试用例列表（分页） - 由缓存回答
+     */
+    @Test
+    public void testGetTestCasesByTestCaseSet_Cached_ShouldSliceCachedCases() {
+        // Arrange
+        TestCase second = new TestCase();
+        second.setId(2L);
+        second.setScriptExists(false);
+        TestCaseCacheService.CachedTestCases cached =
+                new TestCaseCacheService.CachedTestCases(1L, Arrays.asList(second, testCase));
+        when(testCaseCacheService.isEnabled()).thenReturn(true);
+        when(testCaseCacheService.get(1L)).thenReturn(cached);
+
+        // Act
+        Page<TestCase> result = testCaseService.getTestCasesByTestCaseSet(1L, 2, 1);
+        List<TestCase> missing = testCaseService.getMissingScripts(1L);
+        long missingCount = testCaseService.countMissingScripts(1L);
+
+        // Assert
+        assertEquals(2, result.getTotalElements());
+        assertEquals(1, result.getContent().size());
+        assertEquals(testCase.getId(), result.getContent().get(0).getId());
+        assertEquals("TC001", result.getContent().get(0).getCaseNumber());
+        assertEquals(1, missing.size());
+        assertEquals(Long.valueOf(2L), missing.get(0).getId());
+        assertEquals(1L, missingCount);
+        verify(testCaseMapper, never()).countByTestCaseSetId(anyLong());
+    }
+
     /**
      * 测试根据用例集获取所有测试用例
      */
@@ -220,6 +277,56 @@ public class TestCaseServiceTest {
         assertEquals(1, result.size());
         assertEquals(testCase, result.get(0));
         verify(testCaseMapper, times(testCases.size())).insert(any(TestCase.class));
+        verify(testCaseDictionaryService).registerValues(testCases);
+        verify(testCaseDictionaryService).refreshFacets(testCase.getTestCaseSetId());
+    }
+
+    /**
+     * 测试行哈希只取决于用例内容
+     */
+    @Test
+    public void testCalculateRowHash_ShouldIgnoreIdAndTestCaseSet() {
+        // Arrange
+        TestCase copy = new TestCase();
+        copy.setId(99L);
+        copy.setTestCaseSetId(2L);
+        copy.setCaseName(testCase.getCaseName());
+        copy.setCaseNumber(testCase.getCaseNumber());
+        copy.setNetworkTopology(testCase.getNetworkTopology());
+        copy.setBusinessCategory(testCase.getBusinessCategory());
+        copy.setAppName(testCase.getAppName());
+        copy.setTestSteps(testCase.getTestSteps());
+        copy.setExpectedResult(testCase.getExpectedResult());
+        copy.setScriptExists(true);
+
+        // Act
+        String hash = TestCaseService.calculateRowHash(testCase);
+
+        // Assert
+        assertEquals(64, hash.length());
+        assertEquals(hash, TestCaseService.calculateRowHash(copy));
+        copy.setAppName(null);
+        assertNotEquals(hash, TestCaseService.calculateRowHash(copy));
+        copy.setAppName("");
+        assertNotEquals(hash, TestCaseService.calculateRowHash(copy));
+    }
+
+    /**
+     * 测试复制测试用例后刷新分类计数并失效缓存
+     */
+    @Test
+    public void testCopyTestCases_ShouldRefreshFacetsAndInvalidateCache() {
+        // Arrange
+        List<String> excluded = Arrays.asList("TC002");
+        when(testCaseMapper.copyFromTestCaseSet(1L, 2L, excluded)).thenReturn(10);
+
+        // Act
+        int copied = testCaseService.copyTestCases(1L, 2L, excluded);
+
+        // Assert
+        assertEquals(10, copied);
+        verify(testCaseDictionaryService).refreshFacets(2L);
+        verify(testCaseCacheService).invalidate(2L);
     }
 
     /**
@@ -241,6 +348,7 @@ public class TestCaseServiceTest {
         assertEquals(scriptExists, result.getScriptExists());
         verify(testCaseMapper).findById(testCaseId);
         verify(testCaseMapper).update(testCase);
+        verify(testCaseCacheService).invalidate(testCaseSet.getId());
     }
 
     /**
@@ -259,6 +367,58 @@ public class TestCaseServiceTest {
         // Assert - 期望抛出异常
     }
 
+    /**
+     * 测试按匹配结果批量更新脚本状态
+     */
+    @Test
+    public void testRematchScripts_ShouldUpdateAndRefreshIndex() {
+        // Arrange
+        Map<String, String> caseScripts = Collections.singletonMap("TC001", "sha-1");
+        when(testCaseMapper.rematchScripts(1L, caseScripts)).thenReturn(Collections.singletonList("TC001"));
+
+        // Act
+        List<String> result = testCaseService.rematchScripts(1L, caseScripts);
+
+        // Assert
+        assertEquals(Collections.singletonList("TC001"), result);
+        verify(caseNumberIndexService).recordScripts(1L, result);
+        verify(testCaseCacheService).invalidate(1L);
+    }
+
+    /**
+     * 测试大量脚本分批更新，单条语句的绑定参数数量受限
+     */
+    @Test
+    public void testRematchScripts_ShouldSplitIntoBatches() {
+        // Arrange
+        Map<String, String> caseScripts = new LinkedHashMap<>();
+        for (int i = 0; i < 501; i++) {
+            caseScripts.put("TC" + i, "sha-" + i);
+        }
+        when(testCaseMapper.rematchScripts(eq(1L), anyMap()))
+                .thenReturn(Collections.singletonList("TC0"), Collections.singletonList("TC500"));
+
+        // Act
+        List<String> result = testCaseService.rematchScripts(1L, caseScripts);
+
+        // Assert
+        assertEquals(Arrays.asList("TC0", "TC500"), result);
+        verify(testCaseMapper, times(2)).rematchScripts(eq(1L), anyMap());
+    }
+
+    /**
+     * 测试没有脚本时不访问数据库
+     */
+    @Test
+    public void testRematchScripts_NoScripts_ShouldSkipDatabase() {
+        // Act
+        List<String> result = testCaseService.rematchScripts(1L, Collections.emptyMap());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(testCaseMapper, never()).rematchScripts(anyLong(), anyMap());
+    }
+
     /**
      * 测试获取没有脚本的测试用例列表
      */
@@ -279,6 +439,27 @@ public class TestCaseServiceTest {
         verify(testCaseMapper).findMissingScripts(testCaseSetId);
     }
 
+    /**
+     * 测试通过游标写出没有脚本的测试用例，写出后关闭游标
+     */
+    @Test
+    public void testWriteMissingScripts_ShouldStreamCursor() throws Exception {
+        // Arrange
+        @SuppressWarnings("unchecked")
+        Cursor<TestCase> cursor = mock(Cursor.class);
+        when(testCaseMapper.streamMissingScripts(1L)).thenReturn(cursor);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        when(jsonStreamService.writeData(cursor, JsonStreamService.FORMAT_JSON, out)).thenReturn(3L);
+
+        // Act
+        long count = testCaseService.writeMissingScripts(1L, JsonStreamService.FORMAT_JSON, out);
+
+        // Assert
+        assertEquals(3L, count);
+        verify(cursor).close();
+        verify(testCaseMapper, never()).findMissingScripts(anyLong());
+    }
+
     /**
      * 测试统计没有脚本的测试用例数量
      */
@@ -313,6 +494,7 @@ public class TestCaseServiceTest {
         // Assert
         verify(testCaseMapper).findById(testCaseId);
         verify(testCaseMapper).deleteById(testCaseId);
+        verify(testCaseDictionaryService).refreshFacets(testCase.getTestCaseSetId());
     }
 
     /**
@@ -330,6 +512,92 @@ public class TestCaseServiceTest {
         // Assert - 期望抛出异常
     }
 
+    /**
+     * 测试搜索关键字转换为前缀匹配的全文检索表达式
+     */
+    @Test
+    public void testBuildTsQuery_ShouldQuoteTermsAsPrefixes() {
+        assertEquals("'wifi':* & 'o''brien':*", TestCaseService.buildTsQuery("  wifi  o'brien "));
+        assertEquals("'登录':*", TestCaseService.buildTsQuery("登录 & |"));
+        assertNull(TestCaseService.buildTsQuery("   "));
+        assertNull(TestCaseService.buildTsQuery(null));
+    }
+
+    /**
+     * 测试搜索测试用例 - 下一页使用上一页最后一条的相关度和ID继续
+     */
+    @Test
+    public void testSearchTestCases_ShouldContinueFromCursor() {
+        // Arrange
+        TestCaseSearchCriteria criteria = new TestCaseSearchCriteria();
+        criteria.setKeyword("wifi");
+        List<TestCaseSearchHit> firstPage = Arrays.asList(hit(9L, 0.5f), hit(7L, 0.25f), hit(5L, 0.25f));
+        when(testCaseMapper.search(criteria, "'wifi':*", 3)).thenReturn(firstPage);
+
+        // Act
+        CursorPage<TestCaseSearchHit> result = testCaseService.searchTestCases(criteria, null, 2);
+
+        // Assert
+        assertEquals(2, result.getData().size());
+        assertNotNull(result.getNextCursor());
+
+        TestCaseSearchCriteria next = new TestCaseSearchCriteria();
+        next.setKeyword("wifi");
+        when(testCaseMapper.search(next, "'wifi':*", 3)).thenReturn(Arrays.asList(hit(5L, 0.25f)));
+        CursorPage<TestCaseSearchHit> secondPage = testCaseService.searchTestCases(next, result.getNextCursor(), 2);
+
+        assertEquals(Float.valueOf(0.25f), next.getAfterRank());
+        assertEquals(Long.valueOf(7L), next.getAfterId());
+        assertEquals(1, secondPage.getData().size());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    /**
+     * 测试搜索测试用例 - 游标无效
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchTestCases_InvalidCursor_ShouldThrowException() {
+        TestCaseSearchCriteria criteria = new TestCaseSearchCriteria();
+        criteria.setKeyword("wifi");
+
+        testCaseService.searchTestCases(criteria, "bm90LWEtY3Vyc29y", 20);
+    }
+
+    /**
+     * 测试获取用例脚本 - 按脚本哈希从脚本存储读取
+     */
+    @Test
+    public void testGetScriptContent_WithScriptHash_ShouldReadFromScriptStore() {
+        // Arrange
+        testCase.setScriptSha256("ab12");
+        byte[] script = "print('TC001')".getBytes();
+        when(testCaseMapper.findById(1L)).thenReturn(testCase);
+        when(scriptStoreService.getScriptContent("ab12")).thenReturn(script);
+
+        // Act
+        Optional<byte[]> result = testCaseService.getScriptContent(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertArrayEquals(script, result.get());
+    }
+
+    /**
+     * 测试获取用例脚本 - 用例没有脚本
+     */
+    @Test
+    public void testGetScriptContent_WithoutScriptHash_ShouldReturnEmpty() {
+        // Arrange
+        when(testCaseMapper.findById(1L)).thenReturn(testCase);
+
+        // Act
+        Optional<byte[]> result = testCaseService.getScriptContent(1L);
+
+        // Assert
+        assertFalse(result.isPresent());
+        verify(scriptStoreService, never()).getScriptContent(anyString());
+    }
+
     /**
      * 测试根据用例集删除所有测试用例
      */
@@ -344,4 +612,13 @@ public class TestCaseServiceTest {
         // Assert
         verify(testCaseMapper).deleteByTestCaseSetId(testCaseSet.getId());
     }
+
+    private TestCaseSearchHit hit(Long id, Float rank) {
+        TestCase found = new TestCase();
+        found.setId(id);
+        TestCaseSearchHit hit = new TestCaseSearchHit();
+        hit.setTestCase(found);
+        hit.setRank(rank);
+        return hit;
+    }
 }
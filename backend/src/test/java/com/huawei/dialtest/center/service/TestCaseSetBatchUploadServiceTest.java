@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.dto.BatchUploadResult;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TestCaseSetBatchUploadService测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TestCaseSetBatchUploadServiceTest {
+
+    @Mock
+    private TestCaseSetService testCaseSetService;
+
+    @Spy
+    private UploadAdmissionService uploadAdmissionService = new UploadAdmissionService();
+
+    @InjectMocks
+    private TestCaseSetBatchUploadService testCaseSetBatchUploadService;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(testCaseSetBatchUploadService, "threads", 2);
+        ReflectionTestUtils.setField(testCaseSetBatchUploadService, "maxFiles", 3);
+        ReflectionTestUtils.setField(uploadAdmissionService, "batchThreads", 2);
+        testCaseSetBatchUploadService.init();
+    }
+
+    @After
+    public void tearDown() {
+        testCaseSetBatchUploadService.shutdown();
+    }
+
+    @Test
+    public void testUploadIsolatesFailuresAndKeepsFileOrder() throws Exception {
+        // Arrange
+        MultipartFile good = file("good_v1.zip");
+        MultipartFile duplicate = file("dup_v1.zip");
+        MultipartFile broken = file("broken_v1.zip");
+        when(testCaseSetService.uploadTestCaseSet(eq(good), any(), anyString(), anyString()))
+            .thenReturn(testCaseSet(7L, "good", "v1"));
+        when(testCaseSetService.uploadTestCaseSet(eq(duplicate), any(), anyString(), anyString()))
+            .thenThrow(new IllegalArgumentException("Test case set with name and version already exists"));
+        when(testCaseSetService.uploadTestCaseSet(eq(broken), any(), anyString(), anyString()))
+            .thenThrow(new DataIntegrityViolationException("constraint"));
+
+        // Act
+        List<BatchUploadResult> results = testCaseSetBatchUploadService.upload(
+            Arrays.asList(good, duplicate, broken), null, "admin", "VPN阻断业务");
+
+        // Assert
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(Long.valueOf(7L), results.get(0).getId());
+        assertEquals("dup_v1.zip", results.get(1).getFileName());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("Test case set with name and version already exists", results.get(1).getMessage());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("Upload failed", results.get(2).getMessage());
+        assertEquals(0L, uploadAdmissionService.getInFlightBytes());
+        verify(uploadAdmissionService).admit(UploadType.TEST_CASE_SET_BATCH, "good_v1.zip", 10L);
+    }
+
+    @Test
+    public void testUploadProcessesFilesInParallel() throws Exception {
+        // Arrange
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        MultipartFile first = file("a_v1.zip");
+        MultipartFile second = file("b_v1.zip");
+        when(testCaseSetService.uploadTestCaseSet(any(MultipartFile.class), any(), anyString(), anyString()))
+            .thenAnswer(invocation -> {
+                bothStarted.countDown();
+                // 两个文件必须同时处于处理中才能继续，串行处理时会超时失败
+                if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Files were not processed in parallel");
+                }
+                return testCaseSet(1L, "set", "v1");
+            });
+
+        // Act
+        List<BatchUploadResult> results = testCaseSetBatchUploadService.upload(
+            Arrays.asList(first, second), null, "admin", "VPN阻断业务");
+
+        // Assert
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUploadRejectsEmptyBatch() {
+        testCaseSetBatchUploadService.upload(Collections.emptyList(), null, "admin", "VPN阻断业务");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUploadRejectsTooManyFiles() {
+        List<MultipartFile> files = Arrays.asList(mock(MultipartFile.class), mock(MultipartFile.class),
+            mock(MultipartFile.class), mock(MultipartFile.class));
+
+        testCaseSetBatchUploadService.upload(files, null, "admin", "VPN阻断业务");
+    }
+
+    private static MultipartFile file(String name) {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.getOriginalFilename()).thenReturn(name);
+        when(file.getSize()).thenReturn(10L);
+        return file;
+    }
+
+    private static TestCaseSet testCaseSet(Long id, String name, String version) {
+        TestCaseSet testCaseSet = new TestCaseSet();
+        testCaseSet.setId(id);
+        testCaseSet.setName(name);
+        testCaseSet.setVersion(version);
+        return testCaseSet;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.dto.TestCaseSetDiff;
+import com.huawei.dialtest.center.entity.TestCase;
+import com.huawei.dialtest.center.entity.TestCaseSet;
+import com.huawei.dialtest.center.mapper.TestCaseMapper;
+import com.huawei.dialtest.center.mapper.TestCaseSetMapper;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TestCaseSetDiffService测试类
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TestCaseSetDiffServiceTest {
+
+    @Mock
+    private TestCaseSetMapper testCaseSetMapper;
+
+    @Mock
+    private TestCaseMapper testCaseMapper;
+
+    @Mock
+    private ScriptStoreService scriptStoreService;
+
+    @Spy
+    private SingleFlightService singleFlightService = new SingleFlightService();
+
+    @InjectMocks
+    private TestCaseSetDiffService testCaseSetDiffService;
+
+    @Test
+    public void testMergeCasesClassifiesByCaseNumber() {
+        // Arrange
+        TestCase unchanged = testCase("TC001", "steps", "h1");
+        TestCase modifiedBase = testCase("TC002", "steps", "h2");
+        TestCase modifiedTarget = testCase("TC002", "new steps", "h2x");
+        TestCase removed = testCase("TC003", "steps", "h3");
+        TestCase added = testCase("TC004", "steps", "h4");
+        TestCaseSetDiff diff = new TestCaseSetDiff();
+
+        // Act
+        TestCaseSetDiffService.mergeCases(
+                Arrays.asList(unchanged, modifiedBase, removed).iterator(),
+                Arrays.asList(testCase("TC001", "steps", "h1"), modifiedTarget, added).iterator(), diff);
+
+        // Assert
+        assertEquals(1, diff.getUnchangedCaseCount());
+        assertEquals(Collections.singletonList(removed), diff.getRemovedCases());
+        assertEquals(Collections.singletonList(added), diff.getAddedCases());
+        assertEquals(1, diff.getModifiedCases().size());
+        assertEquals("TC002", diff.getModifiedCases().get(0).getCaseNumber());
+        assertEquals(1, diff.getModifiedCases().get(0).getFields().size());
+        assertEquals("testSteps", diff.getModifiedCases().get(0).getFields().get(0).getField());
+        assertEquals("new steps", diff.getModifiedCases().get(0).getFields().get(0).getNewValue());
+        assertNull(added.getId());
+    }
+
+    @Test
+    public void testCompareCaseNumbersUsesCodePointOrder() {
+        assertTrue(TestCaseSetDiffService.compareCaseNumbers("TC_1", "tc_1") < 0);
+        assertTrue(TestCaseSetDiffService.compareCaseNumbers("TC1", "TC10") < 0);
+        assertTrue(TestCaseSetDiffService.compareCaseNumbers("\uFFFF", "\uD83D\uDE00") < 0);
+        assertEquals(0, TestCaseSetDiffService.compareCaseNumbers("TC1", "TC1"));
+    }
+
+    @Test
+    public void testDiffIsCachedByIdPair() {
+        // Arrange
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet(1L, "sha-a"));
+        when(testCaseSetMapper.findMetadataById(2L)).thenReturn(testCaseSet(2L, "sha-b"));
+        Cursor<TestCase> baseCursor = cursor(Collections.singletonList(testCase("TC001", "steps", "h1")));
+        Cursor<TestCase> targetCursor = cursor(Collections.singletonList(testCase("TC001", "steps", "h1")));
+        when(testCaseMapper.streamByTestCaseSetIdOrderByCaseNumber(1L)).thenReturn(baseCursor);
+        when(testCaseMapper.streamByTestCaseSetIdOrderByCaseNumber(2L)).thenReturn(targetCursor);
+        Map<String, String> baseScripts = new LinkedHashMap<>();
+        baseScripts.put("TC001.py", "s1");
+        baseScripts.put("TC002.py", "s2");
+        when(scriptStoreService.getSetScripts(1L)).thenReturn(baseScripts);
+        when(scriptStoreService.getSetScripts(2L)).thenReturn(Collections.singletonMap("TC001.py", "s1x"));
+
+        // Act
+        Optional<TestCaseSetDiff> first = testCaseSetDiffService.diff(1L, 2L);
+        Optional<TestCaseSetDiff> second = testCaseSetDiffService.diff(1L, 2L);
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertEquals(1, first.get().getUnchangedCaseCount());
+        assertEquals(Collections.singletonList("TC001.py"), first.get().getModifiedScripts());
+        assertEquals(Collections.singletonList("TC002.py"), first.get().getRemovedScripts());
+        verify(testCaseMapper, times(1)).streamByTestCaseSetIdOrderByCaseNumber(1L);
+    }
+
+    @Test
+    public void testEvictDropsCachedDiffsOfTestCaseSet() {
+        // Arrange
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet(1L, "sha-a"));
+        when(testCaseSetMapper.findMetadataById(2L)).thenReturn(testCaseSet(2L, "sha-a"));
+        when(testCaseMapper.streamByTestCaseSetIdOrderByCaseNumber(1L))
+            .thenAnswer(invocation -> cursor(Collections.singletonList(testCase("TC001", "steps", "h1"))));
+        when(testCaseMapper.streamByTestCaseSetIdOrderByCaseNumber(2L))
+            .thenAnswer(invocation -> cursor(Collections.singletonList(testCase("TC001", "steps", "h1"))));
+        when(scriptStoreService.getSetScripts(1L)).thenReturn(Collections.singletonMap("TC001.py", "s1"));
+        when(scriptStoreService.getSetScripts(2L)).thenReturn(Collections.singletonMap("TC001.py", "s1"));
+
+        // Act
+        TestCaseSetDiff first = testCaseSetDiffService.diff(1L, 2L).get();
+        testCaseSetDiffService.evict(2L);
+        TestCaseSetDiff second = testCaseSetDiffService.diff(1L, 2L).get();
+
+        // Assert
+        assertNotSame(first, second);
+        verify(testCaseMapper, times(2)).streamByTestCaseSetIdOrderByCaseNumber(1L);
+    }
+
+    @Test
+    public void testDiffComputedAcrossEvictionIsNotCached() {
+        // Arrange
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet(1L, "sha-a"));
+        when(testCaseSetMapper.findMetadataById(2L)).thenReturn(testCaseSet(2L, "sha-a"));
+        when(testCaseMapper.streamByTestCaseSetIdOrderByCaseNumber(1L))
+            .thenAnswer(invocation -> cursor(Collections.singletonList(testCase("TC001", "steps", "h1"))));
+        when(testCaseMapper.streamByTestCaseSetIdOrderByCaseNumber(2L))
+            .thenAnswer(invocation -> cursor(Collections.singletonList(testCase("TC001", "steps", "h1"))));
+        when(scriptStoreService.getSetScripts(1L)).thenReturn(Collections.singletonMap("TC001.py", "s1"));
+        when(scriptStoreService.getSetScripts(2L)).thenAnswer(invocation -> {
+            testCaseSetDiffService.evict(2L);
+            return Collections.singletonMap("TC001.py", "s1");
+        }).thenReturn(Collections.singletonMap("TC001.py", "s1"));
+
+        // Act
+        TestCaseSetDiff first = testCaseSetDiffService.diff(1L, 2L).get();
+        TestCaseSetDiff second = testCaseSetDiffService.diff(1L, 2L).get();
+        TestCaseSetDiff third = testCaseSetDiffService.diff(1L, 2L).get();
+
+        // Assert
+        assertNotSame(first, second);
+        assertSame(second, third);
+        verify(testCaseMapper, times(2)).streamByTestCaseSetIdOrderByCaseNumber(1L);
+    }
+
+    @Test
+    public void testDiffMissingTestCaseSet() {
+        // Arrange
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet(1L, "sha-a"));
+
+        // Act & Assert
+        assertFalse(testCaseSetDiffService.diff(1L, 2L).isPresent());
+    }
+
+    private static TestCase testCase(String caseNumber, String testSteps, String rowHash) {
+        TestCase testCase = new TestCase();
+        testCase.setId(10L);
+        testCase.setCaseNumber(caseNumber);
+        testCase.setCaseName("name");
+        testCase.setTestSteps(testSteps);
+        testCase.setRowHash(rowHash);
+        return testCase;
+    }
+
+    private static TestCaseSet testCaseSet(Long id, String sha512) {
+        TestCaseSet testCaseSet = new TestCaseSet();
+        testCaseSet.setId(id);
+        testCaseSet.setSha512(sha512);
+        return testCaseSet;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<TestCase> cursor(List<TestCase> testCases) {
+        Cursor<TestCase> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(testCases.iterator());
+        return cursor;
+    }
+}
@@ -11,6 +11,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -19,20 +20,35 @@ import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.lenient;
 
 import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.huawei.dialtest.center.dto.TestCaseSetChangeSummary;
+import com.huawei.dialtest.center.entity.ArchiveManifestEntry;
+import com.huawei.dialtest.center.entity.TestCase;
 import com.huawei.dialtest.center.entity.TestCaseSet;
 import com.huawei.dialtest.center.mapper.TestCaseSetMapper;
 import com.huawei.dialtest.center.service.ArchiveParseService;
@@ -67,9 +83,45 @@ public class TestCaseSetServiceTest {
     @Mock
     private ScriptMatchService scriptMatchService;
 
+    @Mock
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Mock
+    private BlobCacheService blobCacheService;
+
+    @Spy
+    private SingleFlightService singleFlightService = new SingleFlightService();
+
+    @Mock
+    private CatalogStatisticsService catalogStatisticsService;
+
+    @Mock
+    private ChunkStoreService chunkStoreService;
+
+    @Mock
+    private ArchiveManifestService archiveManifestService;
+
+    @Mock
+    private ScriptStoreService scriptStoreService;
+
+    @Mock
+    private CaseNumberIndexService caseNumberIndexService;
+
+    @Mock
+    private TestCaseCacheService testCaseCacheService;
+
+    @Mock
+    private TestCaseSetDiffService testCaseSetDiffService;
+
     @InjectMocks
     private TestCaseSetService testCaseSetService;
 
+    @Captor
+    private ArgumentCaptor<List<TestCase>> testCasesCaptor;
+
+    @Captor
+    private ArgumentCaptor<Map<String, byte[]>> scriptsCaptor;
+
     private TestCaseSet testCaseSet;
     private MultipartFile mockFile;
 
@@ -176,6 +228,93 @@ public class TestCaseSetServiceTest {
         assertEquals("Test description", result.getDescription());
         verify(testCaseSetMapper).existsByNameAndVersion("test", "v1");
         verify(testCaseSetMapper).insert(any(TestCaseSet.class));
+        verify(catalogStatisticsService).recordTestCaseSetAdded(any(TestCaseSet.class));
+        verify(archiveManifestService).index(any(), any(byte[].class), anyString());
+        verify(archiveParseService).extractScripts(any(byte[].class), anyString());
+        verify(scriptStoreService).storeScripts(any(), any());
+        assertEquals(Integer.valueOf(0), result.getCaseCount());
+        verify(testCaseSetMapper).updateSummary(result);
+    }
+
+    @Test
+    public void testUploadTestCaseSetIncrementalAgainstPreviousVersion() throws IOException {
+        // Given
+        when(mockFile.getOriginalFilename()).thenReturn("test_v2.zip");
+        when(mockFile.getBytes()).thenReturn("test content".getBytes());
+        when(mockFile.getSize()).thenReturn(179L);
+        when(mockFile.isEmpty()).thenReturn(false);
+        when(testCaseSetMapper.insert(any(TestCaseSet.class))).thenAnswer(invocation -> {
+            invocation.<TestCaseSet>getArgument(0).setId(2L);
+            return 1;
+        });
+        when(archiveParseService.validateArchive(any(byte[].class), anyString()))
+                .thenReturn(new ArchiveParseService.ArchiveValidationResult(true, true, 1));
+        when(archiveParseService.extractCasesExcel(any(byte[].class), anyString())).thenReturn("Excel".getBytes());
+
+        Map<String, byte[]> scripts = new LinkedHashMap<>();
+        scripts.put("TC001.py", "a".getBytes());
+        scripts.put("TC003.py", "c".getBytes());
+        when(archiveParseService.extractScripts(any(byte[].class), anyString())).thenReturn(scripts);
+        Map<String, String> scriptHashes = new LinkedHashMap<>();
+        scriptHashes.put("TC001.py", "h1");
+        scriptHashes.put("TC003.py", "h3");
+        when(scriptStoreService.storeScripts(2L, scripts)).thenReturn(scriptHashes);
+        when(excelParseService.parseCasesExcel(any(byte[].class))).thenReturn(Arrays.asList(
+                new ExcelParseService.TestCaseInfo("case1", "TC001", "topo", "biz", "app", "steps", "result"),
+                new ExcelParseService.TestCaseInfo("case2", "TC002", "topo", "biz", "app", "new steps", "result"),
+                new ExcelParseService.TestCaseInfo("case3", "TC003", "topo", "biz", "app", "steps", "result")));
+        Map<String, Boolean> matchMap = new HashMap<>();
+        matchMap.put("TC001", true);
+        matchMap.put("TC002", false);
+        matchMap.put("TC003", true);
+        when(scriptMatchService.matchScripts(any(), any()))
+                .thenReturn(new ScriptMatchService.ScriptMatchResult(matchMap,
+                        new ArrayList<>(Collections.singletonList("TC002")), new ArrayList<>()));
+
+        TestCaseSet base = new TestCaseSet();
+        base.setId(1L);
+        base.setName("test");
+        base.setVersion("v1");
+        when(testCaseSetMapper.findLatestMetadataByName("test", 2L)).thenReturn(base);
+        TestCase unchanged = new TestCase(base, "case1", "TC001", "topo", "biz", "app", "steps", "result");
+        unchanged.setScriptExists(true);
+        unchanged.setScriptSha256("h1");
+        Map<String, String> baseRowHashes = new HashMap<>();
+        baseRowHashes.put("TC001", TestCaseService.calculateRowHash(unchanged));
+        baseRowHashes.put("TC002", "old");
+        baseRowHashes.put("TC004", "gone");
+        when(testCaseService.getRowHashes(1L)).thenReturn(baseRowHashes);
+        Map<String, String> baseScripts = new LinkedHashMap<>();
+        baseScripts.put("TC001.py", "h1");
+        baseScripts.put("TC004.py", "h4");
+        when(scriptStoreService.getSetScripts(1L)).thenReturn(baseScripts);
+
+        // When
+        TestCaseSet result = testCaseSetService.uploadTestCaseSet(mockFile, "Test description", "admin", "VPN阻断业务");
+
+        // Then
+        TestCaseSetChangeSummary summary = result.getChangeSummary();
+        assertEquals(Long.valueOf(1L), summary.getBaseTestCaseSetId());
+        assertEquals(Collections.singletonList("TC003"), summary.getAddedCases());
+        assertEquals(Collections.singletonList("TC002"), summary.getModifiedCases());
+        assertEquals(Collections.singletonList("TC004"), summary.getRemovedCases());
+        assertEquals(1, summary.getUnchangedCaseCount());
+        assertEquals(Collections.singletonList("TC003.py"), summary.getAddedScripts());
+        assertEquals(Collections.singletonList("TC004.py"), summary.getRemovedScripts());
+        assertTrue(summary.getModifiedScripts().isEmpty());
+
+        verify(testCaseService).saveTestCases(testCasesCaptor.capture());
+        List<TestCase> saved = testCasesCaptor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals("TC002", saved.get(0).getCaseNumber());
+        assertEquals("TC003", saved.get(1).getCaseNumber());
+        verify(testCaseService).copyTestCases(1L, 2L, new HashSet<>(Arrays.asList("TC002", "TC004")));
+        verify(caseNumberIndexService).recordTestCaseSet(eq(2L), any());
+        assertEquals(Integer.valueOf(3), result.getCaseCount());
+        assertEquals(Integer.valueOf(1), result.getMissingScriptCount());
+        assertEquals(Integer.valueOf(0), result.getExtraScriptCount());
+        assertEquals(Integer.valueOf(2), result.getScriptCount());
+        verify(testCaseSetMapper).updateSummary(result);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -227,6 +366,14 @@ public class TestCaseSetServiceTest {
         // Then - exception expected
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testImportTestCaseSetInvalidFileType() throws IOException {
+        // When
+        testCaseSetService.importTestCaseSet("test_v1.txt", "content".getBytes(), null, "import", "VPN阻断业务");
+
+        // Then - exception expected
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testUploadTestCaseSetDuplicateNameVersion() throws IOException {
         // Given
@@ -242,23 +389,101 @@ public class TestCaseSetServiceTest {
     }
 
     @Test
-    public void testDeleteTestCaseSetSuccess() {
+    public void testGetManifestIndexesArchiveOnFirstAccess() throws IOException {
         // Given
-        when(testCaseSetMapper.findById(1L)).thenReturn(testCaseSet);
-        when(testCaseSetMapper.deleteById(1L)).thenReturn(1);
+        testCaseSet.setFileFormat("zip");
+        byte[] archive = "archive".getBytes();
+        List<ArchiveManifestEntry> entries = Collections.singletonList(
+                new ArchiveManifestEntry("cases.xlsx", 10L, 8L, 30L, "aa"));
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet);
+        when(archiveManifestService.getEntries(1L)).thenReturn(Collections.emptyList(), entries);
+        when(blobCacheService.getOrLoad(eq("sha512_hash_test"), any()))
+                .thenReturn(new BlobCacheService.BlobContent(null, archive, archive.length));
+
+        // When
+        Optional<List<ArchiveManifestEntry>> result = testCaseSetService.getManifest(1L);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(entries, result.get());
+        verify(archiveManifestService).index(eq(1L), any(SeekableByteChannel.class), eq("zip"));
+    }
+
+    @Test
+    public void testGetArchiveFileUsesManifestEntry() throws IOException {
+        // Given
+        testCaseSet.setFileFormat("tar.gz");
+        byte[] archive = "archive".getBytes();
+        ArchiveManifestEntry entry = new ArchiveManifestEntry("scripts/TC001.py", 5L, null, 512L, "aa");
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet);
+        when(archiveManifestService.getEntry(1L, "scripts/TC001.py")).thenReturn(entry);
+        when(blobCacheService.getOrLoad(eq("sha512_hash_test"), any()))
+                .thenReturn(new BlobCacheService.BlobContent(null, archive, archive.length));
+        when(archiveParseService.extractEntry(any(SeekableByteChannel.class), eq("tar.gz"), eq(entry)))
+                .thenReturn("print".getBytes());
+
+        // When
+        Optional<byte[]> result = testCaseSetService.getArchiveFile(1L, "scripts/TC001.py");
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals("print", new String(result.get()));
+    }
+
+    @Test
+    public void testGetArchiveFileServesPatchedScriptFromStore() throws IOException {
+        // Given
+        ArchiveManifestEntry entry = new ArchiveManifestEntry("scripts/TC001.py", 5L, null, null, "sha-new");
+        entry.setPatched(true);
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet);
+        when(archiveManifestService.getEntry(1L, "scripts/TC001.py")).thenReturn(entry);
+        when(scriptStoreService.getScriptContent("sha-new")).thenReturn("patch".getBytes());
+
+        // When
+        Optional<byte[]> result = testCaseSetService.getArchiveFile(1L, "scripts/TC001.py");
+
+        // Then
+        assertEquals("patch", new String(result.get()));
+        verify(blobCacheService, never()).getOrLoad(any(), any());
+    }
+
+    @Test
+    public void testGetArchiveFileNotInManifest() throws IOException {
+        // Given
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet);
+        when(archiveManifestService.getEntry(1L, "scripts/none.py")).thenReturn(null);
+
+        // When
+        Optional<byte[]> result = testCaseSetService.getArchiveFile(1L, "scripts/none.py");
+
+        // Then
+        assertFalse(result.isPresent());
+        verify(archiveParseService, never()).extractEntry(any(SeekableByteChannel.class), any(),
+                any(ArchiveManifestEntry.class));
+    }
+
+    @Test
+    public void testDeleteTestCaseSetMarksDeleted() {
+        // Given
+        when(testCaseSetMapper.markDeleted(Collections.singletonList(1L)))
+            .thenReturn(Collections.singletonList(testCaseSet));
 
         // When
         testCaseSetService.deleteTestCaseSet(1L);
 
         // Then
-        verify(testCaseSetMapper).findById(1L);
-        verify(testCaseSetMapper).deleteById(1L);
+        verify(catalogStatisticsService).recordTestCaseSetRemoved(testCaseSet);
+        verify(caseNumberIndexService).removeTestCaseSet(1L);
+        verify(testCaseCacheService).invalidate(1L);
+        verify(testCaseSetMapper, never()).deleteById(any());
+        verify(scriptStoreService, never()).releaseScripts(any());
+        verify(chunkStoreService, never()).release(anyString(), any());
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testDeleteTestCaseSetNotFound() {
         // Given
-        when(testCaseSetMapper.findById(999L)).thenReturn(null);
+        when(testCaseSetMapper.markDeleted(Collections.singletonList(999L))).thenReturn(Collections.emptyList());
 
         // When
         testCaseSetService.deleteTestCaseSet(999L);
@@ -266,6 +491,231 @@ public class TestCaseSetServiceTest {
         // Then - exception expected
     }
 
+    @Test
+    public void testDeleteTestCaseSetsIgnoresMissingAndDuplicateIds() {
+        // Given
+        when(testCaseSetMapper.markDeleted(Arrays.asList(1L, 999L)))
+            .thenReturn(Collections.singletonList(testCaseSet));
+
+        // When
+        List<Long> deleted = testCaseSetService.deleteTestCaseSets(Arrays.asList(1L, 999L, 1L));
+
+        // Then
+        assertEquals(Collections.singletonList(1L), deleted);
+        verify(caseNumberIndexService).removeTestCaseSet(1L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeleteTestCaseSetsRejectsEmptyList() {
+        testCaseSetService.deleteTestCaseSets(Collections.emptyList());
+    }
+
+    @Test
+    public void testPurgeTestCaseSetReleasesScriptsChunksAndCache() {
+        // Given
+        testCaseSet.setStorageMode(ChunkStoreService.STORAGE_CHUNKED);
+        when(testCaseSetMapper.deleteById(1L)).thenReturn(1);
+
+        // When
+        testCaseSetService.purgeTestCaseSet(testCaseSet);
+
+        // Then
+        verify(scriptStoreService).releaseScripts(1L);
+        verify(chunkStoreService).release(ChunkStoreService.OWNER_TEST_CASE_SET, 1L);
+        verify(blobCacheService).evict(testCaseSet.getSha512());
+    }
+
+    @Test
+    public void testPurgeTestCaseSetHandsSharedContentToClone() {
+        // Given
+        when(testCaseSetMapper.findFirstContentReferrer(1L)).thenReturn(2L);
+        when(testCaseSetMapper.deleteById(1L)).thenReturn(1);
+
+        // When
+        testCaseSetService.purgeTestCaseSet(testCaseSet);
+
+        // Then
+        verify(testCaseSetMapper).transferFileContent(1L, 2L);
+        verify(testCaseSetMapper).deleteById(1L);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPurgeTestCaseSetNotPendingPurge() {
+        // Given
+        when(testCaseSetMapper.deleteById(1L)).thenReturn(0);
+
+        // When
+        testCaseSetService.purgeTestCaseSet(testCaseSet);
+    }
+
+    @Test
+    public void testCloneTestCaseSetCopiesInDatabase() throws IOException {
+        // Given
+        testCaseSet.setStorageMode(ChunkStoreService.STORAGE_CHUNKED);
+        testCaseSet.setCaseCount(3);
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet);
+        when(testCaseSetMapper.existsByNameAndVersion("test", "v2")).thenReturn(false);
+        when(testCaseSetMapper.insertClone(any(TestCaseSet.class), eq(1L))).thenAnswer(invocation -> {
+            TestCaseSet clone = invocation.getArgument(0);
+            clone.setId(2L);
+            return 1;
+        });
+
+        // When
+        TestCaseSet result = testCaseSetService.cloneTestCaseSet(1L, null, "v2", null, "admin");
+
+        // Then
+        assertEquals(Long.valueOf(2L), result.getId());
+        assertEquals("test", result.getName());
+        assertEquals("v2", result.getVersion());
+        assertEquals("Test description", result.getDescription());
+        assertEquals(testCaseSet.getSha512(), result.getSha512());
+        assertEquals(testCaseSet.getCaseCount(), result.getCaseCount());
+        verify(chunkStoreService).copy(ChunkStoreService.OWNER_TEST_CASE_SET, 1L, 2L);
+        verify(archiveManifestService).copy(1L, 2L);
+        verify(scriptStoreService).copyScripts(1L, 2L);
+        verify(testCaseService).copyTestCases(1L, 2L, Collections.emptyList());
+        verify(caseNumberIndexService).copyTestCaseSet(1L, 2L);
+        verify(catalogStatisticsService).recordTestCaseSetAdded(result);
+        verify(archiveParseService, never()).extractScripts(any(), anyString());
+    }
+
+    @Test
+    public void testCloneTestCaseSetSharesFullContentByReference() {
+        // Given
+        testCaseSet.setStorageMode("FULL");
+        testCaseSet.setContentSourceId(7L);
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet);
+        when(testCaseSetMapper.insertClone(any(TestCaseSet.class), eq(1L))).thenReturn(1);
+
+        // When
+        TestCaseSet result = testCaseSetService.cloneTestCaseSet(1L, null, "v2", null, "admin");
+
+        // Then
+        assertEquals(Long.valueOf(7L), result.getContentSourceId());
+        verify(chunkStoreService, never()).copy(any(), any(), any());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCloneTestCaseSetVersionExists() {
+        // Given
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet);
+        when(testCaseSetMapper.existsByNameAndVersion("test", "v1")).thenReturn(true);
+
+        // When
+        testCaseSetService.cloneTestCaseSet(1L, "", "v1", null, "admin");
+    }
+
+    @Test
+    public void testPutScriptRelinksTestCaseAndEvictsDiffs() {
+        // Given
+        TestCase testCase = new TestCase();
+        testCase.setCaseNumber("TC001");
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet);
+        when(scriptStoreService.replaceScript(eq(1L), eq("TC001.py"), any(byte[].class))).thenReturn("sha-new");
+        when(testCaseService.applyScript(1L, "TC001", "sha-new")).thenReturn(Optional.of(testCase));
+
+        // When
+        Map<String, Object> result = testCaseSetService.putScript(1L, "TC001.py", "print('x')".getBytes());
+
+        // Then
+        assertEquals("sha-new", result.get("sha256"));
+        assertEquals(testCase, result.get("testCase"));
+        verify(archiveManifestService).recordPatchedScripts(eq(1L), any(),
+                eq(Collections.singletonMap("TC001.py", "sha-new")));
+        verify(testCaseSetMapper).refreshSummary(1L);
+        verify(testCaseSetDiffService).evict(1L);
+    }
+
+    @Test
+    public void testAddScriptsRematchesWholeSet() throws IOException {
+        // Given
+        MultipartFile script = mock(MultipartFile.class);
+        MultipartFile patch = mock(MultipartFile.class);
+        when(script.getOriginalFilename()).thenReturn("TC002.py");
+        when(script.getBytes()).thenReturn("print('2')".getBytes());
+        when(patch.getOriginalFilename()).thenReturn("patch.zip");
+        when(patch.getBytes()).thenReturn("zip".getBytes());
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet);
+        when(archiveParseService.extractScripts(any(byte[].class), eq("zip")))
+            .thenReturn(Collections.singletonMap("TC003.py", "print('3')".getBytes()));
+        Map<String, String> scriptHashes = new LinkedHashMap<>();
+        scriptHashes.put("TC002.py", "sha-2");
+        scriptHashes.put("TC003.py", "sha-3");
+        Map<String, String> caseScripts = new HashMap<>();
+        when(scriptStoreService.putScripts(eq(1L), any())).thenReturn(scriptHashes);
+        when(scriptMatchService.mapCaseScripts(scriptHashes)).thenReturn(caseScripts);
+        when(testCaseService.rematchScripts(1L, caseScripts)).thenReturn(Arrays.asList("TC002", "TC003"));
+
+        // When
+        Map<String, Object> result = testCaseSetService.addScripts(1L, Arrays.asList(script, patch));
+
+        // Then
+        verify(scriptStoreService).putScripts(eq(1L), scriptsCaptor.capture());
+        assertEquals(new HashSet<>(Arrays.asList("TC002.py", "TC003.py")), scriptsCaptor.getValue().keySet());
+        assertEquals(2, result.get("scriptCount"));
+        verify(archiveManifestService).recordPatchedScripts(1L, scriptsCaptor.getValue(), scriptHashes);
+        verify(scriptStoreService, never()).getSetScripts(1L);
+        assertEquals(Arrays.asList("TC002", "TC003"), result.get("updatedCases"));
+        verify(testCaseSetMapper).refreshSummary(1L);
+        verify(testCaseSetDiffService).evict(1L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddScriptsRejectsUnsupportedFile() throws IOException {
+        // Given
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.getOriginalFilename()).thenReturn("notes.txt");
+        when(testCaseSetMapper.findMetadataById(1L)).thenReturn(testCaseSet);
+
+        // When
+        testCaseSetService.addScripts(1L, Collections.singletonList(file));
+    }
+
+    @Test
+    public void testBackfillScriptsStoresScriptsFromArchive() throws IOException {
+        // Given
+        testCaseSet.setFileFormat("zip");
+        byte[] archive = "archive".getBytes();
+        Map<String, byte[]> scripts = Collections.singletonMap("TC001.py", "print('1')".getBytes());
+        Map<String, String> scriptHashes = Collections.singletonMap("TC001.py", "sha-1");
+        Map<String, String> caseScripts = Collections.singletonMap("TC001", "sha-1");
+        when(scriptStoreService.getSetScripts(1L)).thenReturn(Collections.emptyMap());
+        when(blobCacheService.getOrLoad(eq("sha512_hash_test"), any()))
+                .thenReturn(new BlobCacheService.BlobContent(null, archive, archive.length));
+        when(archiveParseService.extractScripts(archive, "zip")).thenReturn(scripts);
+        when(scriptStoreService.storeScripts(1L, scripts)).thenReturn(scriptHashes);
+        when(scriptMatchService.mapCaseScripts(scriptHashes)).thenReturn(caseScripts);
+        when(testCaseService.rematchScripts(1L, caseScripts)).thenReturn(Collections.singletonList("TC001"));
+
+        // When
+        int updated = testCaseSetService.backfillScripts(testCaseSet);
+
+        // Then
+        assertEquals(1, updated);
+        verify(testCaseSetMapper).refreshSummary(1L);
+        verify(testCaseSetDiffService).evict(1L);
+    }
+
+    @Test
+    public void testBackfillScriptsSkipsSetWithStoredScripts() throws IOException {
+        // Given
+        when(scriptStoreService.getSetScripts(1L)).thenReturn(Collections.singletonMap("TC001.py", "sha-1"));
+
+        // When
+        int updated = testCaseSetService.backfillScripts(testCaseSet);
+
+        // Then
+        assertEquals(0, updated);
+        verify(blobCacheService, never()).getOrLoad(any(), any());
+        verify(scriptStoreService, never()).storeScripts(any(), any());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutScriptRejectsInvalidFileName() {
+        testCaseSetService.putScript(1L, "../TC001.txt", "print('x')".getBytes());
+    }
+
     @Test
     public void testUpdateTestCaseSetSuccess() {
         // Given
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.service;
+
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadRejectedException;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadTicket;
+import com.huawei.dialtest.center.service.UploadAdmissionService.UploadType;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * UploadAdmissionService测试类
+ * 测试上传字节配额、接口并发限制以及上传任务取消功能
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class UploadAdmissionServiceTest {
+
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Before
+    public void setUp() {
+        uploadAdmissionService = new UploadAdmissionService();
+        ReflectionTestUtils.setField(uploadAdmissionService, "maxInFlightBytes", 1000L);
+        ReflectionTestUtils.setField(uploadAdmissionService, "queueTimeoutMs", 50L);
+        ReflectionTestUtils.setField(uploadAdmissionService, "retryAfterSeconds", 15);
+        ReflectionTestUtils.setField(uploadAdmissionService, "maxConcurrentSoftwarePackage", 2);
+        ReflectionTestUtils.setField(uploadAdmissionService, "maxConcurrentTestCaseSet", 1);
+    }
+
+    @Test
+    public void testAdmit_WithinBudget_TracksInFlightBytes() {
+        // Act
+        UploadTicket ticket = uploadAdmissionService.admit(UploadType.SOFTWARE_PACKAGE, "app.apk", 400L);
+
+        // Assert
+        assertEquals(400L, uploadAdmissionService.getInFlightBytes());
+        assertEquals(1, uploadAdmissionService.getInFlightUploads().size());
+        assertEquals("admitted", ticket.getStage());
+
+        ticket.close();
+        assertEquals(0L, uploadAdmissionService.getInFlightBytes());
+        assertTrue(uploadAdmissionService.getInFlightUploads().isEmpty());
+    }
+
+    @Test
+    public void testAdmit_ExceedsByteBudget_RejectedWithRetryAfter() {
+        // Arrange
+        UploadTicket first = uploadAdmissionService.admit(UploadType.SOFTWARE_PACKAGE, "a.apk", 800L);
+
+        // Act & Assert
+        try {
+            uploadAdmissionService.admit(UploadType.SOFTWARE_PACKAGE, "b.apk", 300L);
+            fail("Expected UploadRejectedException");
+        } catch (UploadRejectedException e) {
+            assertEquals(15, e.getRetryAfterSeconds());
+        }
+        first.close();
+    }
+
+    @Test(expected = UploadRejectedException.class)
+    public void testAdmit_LargerThanBudget_RejectedImmediately() {
+        uploadAdmissionService.admit(UploadType.SOFTWARE_PACKAGE, "huge.apk", 2000L);
+    }
+
+    @Test
+    public void testAdmit_ExceedsEndpointConcurrency_Rejected() {
+        // Arrange
+        UploadTicket first = uploadAdmissionService.admit(UploadType.TEST_CASE_SET, "set_1.zip", 10L);
+
+        // Act & Assert
+        try {
+            uploadAdmissionService.admit(UploadType.TEST_CASE_SET, "set_2.zip", 10L);
+            fail("Expected UploadRejectedException");
+        } catch (UploadRejectedException e) {
+            assertEquals(1, uploadAdmissionService.getInFlightUploads().size());
+        }
+
+        // 其他接口不受该接口并发限制影响
+        UploadTicket other = uploadAdmissionService.admit(UploadType.SOFTWARE_PACKAGE, "app.apk", 10L);
+        other.close();
+        first.close();
+    }
+
+    @Test
+    public void testAdmit_QueuedUploadAdmittedAfterRelease() throws InterruptedException {
+        // Arrange
+        ReflectionTestUtils.setField(uploadAdmissionService, "queueTimeoutMs", 5000L);
+        UploadTicket first = uploadAdmissionService.admit(UploadType.TEST_CASE_SET, "set_1.zip", 10L);
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            first.close();
+        });
+        releaser.start();
+
+        // Act
+        UploadTicket second = uploadAdmissionService.admit(UploadType.TEST_CASE_SET, "set_2.zip", 10L);
+
+        // Assert
+        releaser.join();
+        List<UploadTicket> uploads = uploadAdmissionService.getInFlightUploads();
+        assertEquals(1, uploads.size());
+        assertEquals("set_2.zip", uploads.get(0).getFileName());
+        second.close();
+    }
+
+    @Test
+    public void testCheckpoint_UpdatesStageAndStopsCancelledUpload() {
+        // Arrange
+        UploadTicket ticket = uploadAdmissionService.admit(UploadType.SOFTWARE_PACKAGE, "app.apk", 10L);
+        uploadAdmissionService.checkpoint("hashing");
+        assertEquals("hashing", ticket.getStage());
+
+        // Act
+        assertTrue(uploadAdmissionService.cancel(ticket.getId()));
+
+        // Assert
+        try {
+            uploadAdmissionService.checkpoint("storing");
+            fail("Expected CancellationException");
+        } catch (CancellationException e) {
+            assertTrue(ticket.isCancelled());
+        }
+        ticket.close();
+    }
+
+    @Test
+    public void testCancel_UnknownUpload_ReturnsFalse() {
+        assertFalse(uploadAdmissionService.cancel("unknown"));
+    }
+
+    @Test
+    public void testClose_Twice_ReleasesOnlyOnce() {
+        // Arrange
+        UploadTicket first = uploadAdmissionService.admit(UploadType.SOFTWARE_PACKAGE, "a.apk", 100L);
+        UploadTicket second = uploadAdmissionService.admit(UploadType.SOFTWARE_PACKAGE, "b.apk", 200L);
+
+        // Act
+        first.close();
+        first.close();
+
+        // Assert
+        assertEquals(200L, uploadAdmissionService.getInFlightBytes());
+        second.close();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2020-2020. All rights reserved.
+ */
+
+package com.huawei.dialtest.center.util;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * HashUtils测试类
+ * 使用标准测试向量验证SHA256、SHA512和十六进制转换
+ *
+ * @author g00940940
+ * @since 2026-10-19
+ */
+public class HashUtilsTest {
+
+    private static final byte[] ABC = "abc".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void testSha256Hex() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", HashUtils.sha256Hex(ABC));
+    }
+
+    @Test
+    public void testSha512Hex() {
+        assertEquals("ddaf35a193617abacc417349ae20413112e6fa4e89a97ea20a9eeee64b55d39a"
+                + "2192992a274fc1a836ba3c23a3feebbd454d4423643ce80e2a9ac94fa54ca49f", HashUtils.sha512Hex(ABC));
+    }
+
+    @Test
+    public void testNewDigestMatchesOneShotHash() {
+        MessageDigest digest = HashUtils.newDigest("SHA-512");
+        digest.update(ABC, 0, 1);
+        digest.update(ABC, 1, 2);
+        assertEquals(HashUtils.sha512Hex(ABC), HashUtils.toHex(digest.digest()));
+    }
+
+    @Test
+    public void testToHexKeepsLeadingZeros() {
+        assertEquals("000fa0ff", HashUtils.toHex(new byte[] {0x00, 0x0f, (byte) 0xa0, (byte) 0xff}));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNewDigestUnknownAlgorithm() {
+        HashUtils.newDigest("SHA-0");
+    }
+}
@@ -0,0 +1,42 @@
+-- 压缩包清单补丁脚本标记的数据库迁移脚本
+-- 补丁脚本写入脚本库后替换清单中的同名条目，清单条目标记为补丁，文件内容从脚本库读取
+-- 执行时间：2026-10-19
+
+-- 1. 添加补丁标记字段
+ALTER TABLE archive_manifest_entry ADD COLUMN IF NOT EXISTS patched BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- 2. 回填此前补充或替换的脚本：脚本关联与清单不一致的条目改为补丁条目
+UPDATE archive_manifest_entry m
+SET entry_size = f.file_size,
+    compressed_size = NULL,
+    data_offset = NULL,
+    sha256 = l.sha256,
+    patched = TRUE
+FROM test_case_set_script l
+JOIN script_file f ON f.sha256 = l.sha256
+WHERE m.test_case_set_id = l.test_case_set_id
+AND m.path = 'scripts/' || l.file_name
+AND m.sha256 <> l.sha256;
+
+-- 3. 回填已建立清单的用例集中压缩包没有的补充脚本
+INSERT INTO archive_manifest_entry (test_case_set_id, path, entry_size, compressed_size, data_offset, sha256, patched)
+SELECT l.test_case_set_id, 'scripts/' || l.file_name, f.file_size, NULL, NULL, l.sha256, TRUE
+FROM test_case_set_script l
+JOIN script_file f ON f.sha256 = l.sha256
+WHERE EXISTS (
+    SELECT 1 FROM archive_manifest_entry e WHERE e.test_case_set_id = l.test_case_set_id
+)
+ON CONFLICT (test_case_set_id, path) DO NOTHING;
+
+-- 4. 添加字段注释
+COMMENT ON COLUMN archive_manifest_entry.patched IS '是否为补丁脚本，补丁脚本不在压缩包中，内容从脚本库读取';
+
+-- 验证迁移结果
+SELECT
+    column_name,
+    data_type,
+    is_nullable,
+    column_default
+FROM information_schema.columns
+WHERE table_name = 'archive_manifest_entry'
+AND column_name = 'patched';
@@ -0,0 +1,34 @@
+-- 用例集压缩包文件清单的数据库迁移脚本
+-- 上传时为压缩包内每个文件记录路径、大小、SHA256和数据偏移，执行机据此按文件增量同步
+-- 执行时间：2026-10-19
+
+-- 1. 创建压缩包清单表
+CREATE TABLE IF NOT EXISTS archive_manifest_entry (
+    test_case_set_id BIGINT NOT NULL REFERENCES test_case_set(id) ON DELETE CASCADE,
+    path VARCHAR(1000) NOT NULL,
+    entry_size BIGINT NOT NULL,
+    compressed_size BIGINT,
+    data_offset BIGINT,
+    sha256 CHAR(64) NOT NULL,
+    PRIMARY KEY (test_case_set_id, path)
+);
+
+-- 2. 添加表和字段注释
+COMMENT ON TABLE archive_manifest_entry IS '用例集压缩包文件清单表';
+COMMENT ON COLUMN archive_manifest_entry.test_case_set_id IS '用例集ID';
+COMMENT ON COLUMN archive_manifest_entry.path IS '文件在压缩包内的路径';
+COMMENT ON COLUMN archive_manifest_entry.entry_size IS '解压后大小（字节）';
+COMMENT ON COLUMN archive_manifest_entry.compressed_size IS '压缩后大小（字节），tar.gz为空';
+COMMENT ON COLUMN archive_manifest_entry.data_offset IS '数据偏移，ZIP为压缩数据在文件中的偏移，tar.gz为数据在tar流中的偏移';
+COMMENT ON COLUMN archive_manifest_entry.sha256 IS '解压后内容的SHA256';
+
+-- 3. 已有用例集的清单在首次访问清单接口时建立
+
+-- 4. 验证表创建结果
+SELECT
+    column_name,
+    data_type,
+    is_nullable
+FROM information_schema.columns
+WHERE table_name = 'archive_manifest_entry'
+ORDER BY ordinal_position;
@@ -0,0 +1,59 @@
+-- 分块去重存储的数据库迁移脚本
+-- 软件包和用例集文件按内容定义分块存储，相同分块只保存一份，按引用计数回收
+-- 执行时间：2026-10-19
+
+-- 1. 创建分块表和文件分块清单表
+CREATE TABLE IF NOT EXISTS blob_chunk (
+    chunk_hash CHAR(64) PRIMARY KEY,
+    content BYTEA NOT NULL,
+    chunk_size INTEGER NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS blob_manifest_chunk (
+    owner_type VARCHAR(30) NOT NULL,
+    owner_id BIGINT NOT NULL,
+    seq INTEGER NOT NULL,
+    chunk_hash CHAR(64) NOT NULL REFERENCES blob_chunk(chunk_hash),
+    PRIMARY KEY (owner_type, owner_id, seq)
+);
+
+-- 2. 创建索引
+CREATE INDEX IF NOT EXISTS idx_blob_manifest_chunk_hash ON blob_manifest_chunk (chunk_hash);
+CREATE INDEX IF NOT EXISTS idx_blob_chunk_unreferenced ON blob_chunk (chunk_hash) WHERE ref_count <= 0;
+
+-- 3. 分块存储的文件不再保存 file_content
+ALTER TABLE software_package ALTER COLUMN file_content DROP NOT NULL;
+ALTER TABLE test_case_set ALTER COLUMN file_content DROP NOT NULL;
+ALTER TABLE test_case_set ADD COLUMN IF NOT EXISTS storage_mode VARCHAR(10) NOT NULL DEFAULT 'FULL';
+
+ALTER TABLE software_package DROP CONSTRAINT IF EXISTS chk_software_package_storage_mode;
+ALTER TABLE software_package ADD CONSTRAINT chk_software_package_storage_mode
+    CHECK (storage_mode IN ('FULL', 'DELTA', 'CHUNKED'));
+ALTER TABLE test_case_set DROP CONSTRAINT IF EXISTS chk_test_case_set_storage_mode;
+ALTER TABLE test_case_set ADD CONSTRAINT chk_test_case_set_storage_mode
+    CHECK (storage_mode IN ('FULL', 'CHUNKED'));
+
+-- 4. 添加表和字段注释
+COMMENT ON TABLE blob_chunk IS '文件分块表，按内容SHA256寻址，跨软件包和用例集共享';
+COMMENT ON COLUMN blob_chunk.chunk_hash IS '分块内容的SHA256';
+COMMENT ON COLUMN blob_chunk.content IS '分块内容';
+COMMENT ON COLUMN blob_chunk.chunk_size IS '分块字节数';
+COMMENT ON COLUMN blob_chunk.ref_count IS '文件清单中引用该分块的次数';
+COMMENT ON TABLE blob_manifest_chunk IS '文件分块清单表，按序号顺序拼接分块得到完整文件';
+COMMENT ON COLUMN blob_manifest_chunk.owner_type IS '文件所属对象类型：SOFTWARE_PACKAGE、TEST_CASE_SET';
+COMMENT ON COLUMN blob_manifest_chunk.owner_id IS '文件所属对象ID';
+COMMENT ON COLUMN blob_manifest_chunk.seq IS '分块在文件中的序号';
+COMMENT ON COLUMN software_package.storage_mode IS '存储方式：FULL完整内容，DELTA相对基准包的二进制差量，CHUNKED分块存储';
+COMMENT ON COLUMN test_case_set.storage_mode IS '存储方式：FULL完整内容，CHUNKED分块存储';
+
+-- 5. 验证表创建结果
+SELECT
+    table_name,
+    column_name,
+    data_type,
+    is_nullable
+FROM information_schema.columns
+WHERE table_name IN ('blob_chunk', 'blob_manifest_chunk')
+ORDER BY table_name, ordinal_position;
@@ -0,0 +1,33 @@
+-- 创建目录统计增量表的数据库迁移脚本
+-- 业务事务只追加增量行而不更新catalog_stats中共享的统计项，避免并发上传在同一统计行上串行，增量由定时任务合并
+-- 执行时间：2026-10-19
+
+-- 1. 创建catalog_stats_delta表
+CREATE TABLE IF NOT EXISTS catalog_stats_delta (
+    id BIGSERIAL PRIMARY KEY,
+    scope VARCHAR(50) NOT NULL,
+    dimension VARCHAR(50) NOT NULL,
+    dim_value VARCHAR(255) NOT NULL DEFAULT '',
+    delta_value BIGINT NOT NULL,
+    created_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 2. 添加表注释
+COMMENT ON TABLE catalog_stats_delta IS '目录统计增量表，随业务事务追加，定时汇总到catalog_stats后删除';
+COMMENT ON COLUMN catalog_stats_delta.id IS '增量ID';
+COMMENT ON COLUMN catalog_stats_delta.scope IS '统计对象：software_package/test_case_set';
+COMMENT ON COLUMN catalog_stats_delta.dimension IS '统计维度：total/bytes/platform/format/creator/business';
+COMMENT ON COLUMN catalog_stats_delta.dim_value IS '维度取值，total和bytes维度为空串';
+COMMENT ON COLUMN catalog_stats_delta.delta_value IS '统计增量：数量或字节数，删除时为负数';
+COMMENT ON COLUMN catalog_stats_delta.created_time IS '追加时间';
+
+-- 3. 验证表创建结果
+SELECT
+    table_name,
+    column_name,
+    data_type,
+    is_nullable,
+    column_default
+FROM information_schema.columns
+WHERE table_name = 'catalog_stats_delta'
+ORDER BY ordinal_position;
@@ -0,0 +1,56 @@
+-- 创建目录统计表的数据库迁移脚本
+-- 软件包和用例集的数量、字节数及各维度分布在新增、删除时随业务事务增量维护，查询时无需COUNT全表
+-- 执行时间：2026-10-19
+
+-- 1. 创建catalog_stats表
+CREATE TABLE IF NOT EXISTS catalog_stats (
+    scope VARCHAR(50) NOT NULL,
+    dimension VARCHAR(50) NOT NULL,
+    dim_value VARCHAR(255) NOT NULL DEFAULT '',
+    stat_value BIGINT NOT NULL DEFAULT 0,
+    updated_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (scope, dimension, dim_value)
+);
+
+-- 2. 添加表注释
+COMMENT ON TABLE catalog_stats IS '目录统计表，增量维护软件包和用例集的统计计数';
+COMMENT ON COLUMN catalog_stats.scope IS '统计对象：software_package/test_case_set';
+COMMENT ON COLUMN catalog_stats.dimension IS '统计维度：total/bytes/platform/format/creator/business';
+COMMENT ON COLUMN catalog_stats.dim_value IS '维度取值，total和bytes维度为空串';
+COMMENT ON COLUMN catalog_stats.stat_value IS '统计值：数量或字节数';
+COMMENT ON COLUMN catalog_stats.updated_time IS '最后更新时间';
+
+-- 3. 根据现有数据初始化统计值
+DELETE FROM catalog_stats;
+
+INSERT INTO catalog_stats (scope, dimension, dim_value, stat_value)
+SELECT 'software_package', 'total', '', COUNT(*) FROM software_package
+UNION ALL
+SELECT 'software_package', 'bytes', '', COALESCE(SUM(file_size), 0) FROM software_package
+UNION ALL
+SELECT 'software_package', 'platform', platform, COUNT(*) FROM software_package GROUP BY platform
+UNION ALL
+SELECT 'software_package', 'format', file_format, COUNT(*) FROM software_package GROUP BY file_format
+UNION ALL
+SELECT 'software_package', 'creator', creator, COUNT(*) FROM software_package GROUP BY creator
+UNION ALL
+SELECT 'test_case_set', 'total', '', COUNT(*) FROM test_case_set
+UNION ALL
+SELECT 'test_case_set', 'bytes', '', COALESCE(SUM(file_size), 0) FROM test_case_set
+UNION ALL
+SELECT 'test_case_set', 'format', file_format, COUNT(*) FROM test_case_set GROUP BY file_format
+UNION ALL
+SELECT 'test_case_set', 'creator', creator, COUNT(*) FROM test_case_set GROUP BY creator
+UNION ALL
+SELECT 'test_case_set', 'business', COALESCE(business, ''), COUNT(*) FROM test_case_set GROUP BY COALESCE(business, '');
+
+-- 4. 验证表创建结果
+SELECT
+    table_name,
+    column_name,
+    data_type,
+    is_nullable,
+    column_default
+FROM information_schema.columns
+WHERE table_name = 'catalog_stats'
+ORDER BY ordinal_position;
@@ -0,0 +1,25 @@
+-- 克隆用例集共享文件内容的数据库迁移脚本
+-- 完整存储的用例集克隆时不再复制file_content，新版本通过content_source_id引用源用例集的文件内容
+-- 被引用的用例集清理前将文件内容移交给引用它的用例集
+-- 执行时间：2026-10-19
+
+-- 1. 添加文件内容引用字段，外键阻止清理仍被引用的用例集
+ALTER TABLE test_case_set ADD COLUMN IF NOT EXISTS content_source_id BIGINT REFERENCES test_case_set(id);
+
+-- 2. 创建引用索引，清理时按被引用的用例集查找引用者
+CREATE INDEX IF NOT EXISTS idx_test_case_set_content_source
+    ON test_case_set (content_source_id) WHERE content_source_id IS NOT NULL;
+
+-- 3. 添加字段注释
+COMMENT ON COLUMN test_case_set.content_source_id IS '文件内容所在的用例集ID，为空表示文件内容保存在本记录或分块存储中';
+
+-- 4. 已复制文件内容的克隆保持不变
+
+-- 验证迁移结果
+SELECT
+    column_name,
+    data_type,
+    is_nullable
+FROM information_schema.columns
+WHERE table_name = 'test_case_set'
+AND column_name = 'content_source_id';
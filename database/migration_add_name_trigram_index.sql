@@ -0,0 +1,23 @@
+-- 软件包和用例集名称子串搜索的数据库迁移脚本
+-- 启用pg_trgm扩展，为LOWER(名称)建立三元组GIN索引，支持不区分大小写的LIKE '%关键字%'和近似匹配
+-- 执行时间：2026-10-19
+
+-- 1. 启用pg_trgm扩展
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 2. 创建软件包名称三元组索引，与LOWER(software_name) LIKE LOWER(...)查询形式一致
+CREATE INDEX IF NOT EXISTS idx_software_package_name_trgm
+    ON software_package USING GIN (LOWER(software_name) gin_trgm_ops);
+
+-- 3. 创建用例集名称三元组索引
+CREATE INDEX IF NOT EXISTS idx_test_case_set_name_trgm
+    ON test_case_set USING GIN (LOWER(name) gin_trgm_ops);
+
+-- 4. 更新统计信息
+ANALYZE software_package;
+ANALYZE test_case_set;
+
+-- 5. 验证索引创建结果
+SELECT tablename, indexname, indexdef
+FROM pg_indexes
+WHERE indexname IN ('idx_software_package_name_trgm', 'idx_test_case_set_name_trgm');
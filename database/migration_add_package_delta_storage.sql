@@ -0,0 +1,46 @@
+-- 软件包差量存储的数据库迁移脚本
+-- 同一应用的新构建可存储为相对上一版本的二进制差量，file_content 保存差量数据
+-- 执行时间：2026-10-19
+
+-- 1. 添加存储方式相关字段
+ALTER TABLE software_package ADD COLUMN IF NOT EXISTS storage_mode VARCHAR(10) NOT NULL DEFAULT 'FULL';
+ALTER TABLE software_package ADD COLUMN IF NOT EXISTS base_package_id BIGINT REFERENCES software_package(id);
+ALTER TABLE software_package ADD COLUMN IF NOT EXISTS chain_length INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE software_package ADD COLUMN IF NOT EXISTS lineage_key VARCHAR(300);
+ALTER TABLE software_package ADD COLUMN IF NOT EXISTS stored_size BIGINT;
+
+-- 2. 初始化现有数据：全部为完整存储，谱系键为格式加去掉扩展名和版本号后的小写名称
+UPDATE software_package
+SET stored_size = file_size
+WHERE stored_size IS NULL;
+
+UPDATE software_package
+SET lineage_key = LOWER(file_format || ':' || COALESCE(NULLIF(
+        regexp_replace(regexp_replace(software_name, '\.(apk|ipa)$', '', 'i'), '[_-]?v?[0-9]+([._-][0-9]+)*$', '', 'i'),
+        ''), regexp_replace(software_name, '\.(apk|ipa)$', '', 'i')))
+WHERE lineage_key IS NULL;
+
+-- 3. 添加约束和索引
+ALTER TABLE software_package DROP CONSTRAINT IF EXISTS chk_software_package_storage_mode;
+ALTER TABLE software_package ADD CONSTRAINT chk_software_package_storage_mode
+    CHECK (storage_mode IN ('FULL', 'DELTA'));
+CREATE INDEX IF NOT EXISTS idx_software_package_lineage ON software_package (lineage_key, id DESC);
+CREATE INDEX IF NOT EXISTS idx_software_package_base ON software_package (base_package_id);
+
+-- 4. 添加字段注释
+COMMENT ON COLUMN software_package.storage_mode IS '存储方式：FULL完整内容，DELTA相对基准包的二进制差量';
+COMMENT ON COLUMN software_package.base_package_id IS '差量存储时的基准软件包ID';
+COMMENT ON COLUMN software_package.chain_length IS '还原所需的差量链长度，完整存储为0';
+COMMENT ON COLUMN software_package.lineage_key IS '应用版本谱系键，同一应用的不同构建相同';
+COMMENT ON COLUMN software_package.stored_size IS '实际存储的字节数';
+
+-- 5. 验证字段添加结果
+SELECT
+    column_name,
+    data_type,
+    is_nullable,
+    column_default
+FROM information_schema.columns
+WHERE table_name = 'software_package'
+AND column_name IN ('storage_mode', 'base_package_id', 'chain_length', 'lineage_key', 'stored_size')
+ORDER BY ordinal_position;
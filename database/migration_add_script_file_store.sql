@@ -0,0 +1,52 @@
+-- 用例集脚本单独存储的数据库迁移脚本
+-- scripts/*.py按内容SHA256只存储一份，用例集通过关联表引用脚本版本，用例记录脚本哈希
+-- 执行时间：2026-10-19
+
+-- 1. 创建脚本内容表
+CREATE TABLE IF NOT EXISTS script_file (
+    sha256 CHAR(64) PRIMARY KEY,
+    content BYTEA NOT NULL,
+    file_size INTEGER NOT NULL,
+    created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 2. 创建用例集脚本关联表
+CREATE TABLE IF NOT EXISTS test_case_set_script (
+    test_case_set_id BIGINT NOT NULL REFERENCES test_case_set(id) ON DELETE CASCADE,
+    file_name VARCHAR(255) NOT NULL,
+    sha256 CHAR(64) NOT NULL REFERENCES script_file(sha256),
+    PRIMARY KEY (test_case_set_id, file_name)
+);
+
+CREATE INDEX IF NOT EXISTS idx_test_case_set_script_sha256 ON test_case_set_script(sha256);
+
+-- 3. 为测试用例添加脚本哈希字段
+ALTER TABLE test_case ADD COLUMN IF NOT EXISTS script_sha256 CHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_test_case_script_sha256 ON test_case(script_sha256);
+
+-- 4. 添加表和字段注释
+COMMENT ON TABLE script_file IS '脚本内容表，按内容SHA256去重';
+COMMENT ON COLUMN script_file.sha256 IS '脚本内容的SHA256';
+COMMENT ON COLUMN script_file.content IS '脚本内容';
+COMMENT ON COLUMN script_file.file_size IS '脚本大小（字节）';
+COMMENT ON COLUMN script_file.created_time IS '首次存储时间';
+COMMENT ON TABLE test_case_set_script IS '用例集脚本关联表';
+COMMENT ON COLUMN test_case_set_script.test_case_set_id IS '用例集ID';
+COMMENT ON COLUMN test_case_set_script.file_name IS '脚本文件名（不含scripts/前缀）';
+COMMENT ON COLUMN test_case_set_script.sha256 IS '脚本内容的SHA256';
+COMMENT ON COLUMN test_case.script_sha256 IS '用例脚本内容的SHA256，脚本不存在时为空';
+
+-- 5. 已有用例集的脚本由应用启动后的ScriptBackfillService从已存储的压缩包回填（script_file、test_case_set_script和test_case.script_sha256）
+--    回填按用例集逐个提交，可通过app.script-backfill.*配置关闭或调整节奏
+
+-- 6. 验证表创建结果
+SELECT
+    table_name,
+    column_name,
+    data_type,
+    is_nullable
+FROM information_schema.columns
+WHERE table_name IN ('script_file', 'test_case_set_script')
+   OR (table_name = 'test_case' AND column_name = 'script_sha256')
+ORDER BY table_name, ordinal_position;
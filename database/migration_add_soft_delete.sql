@@ -0,0 +1,77 @@
+-- 用例集和软件包软删除的数据库迁移脚本
+-- 删除请求只标记deleted_at，所有查询隐藏已标记记录，测试用例、文件内容和分块由后台清理任务分批删除
+-- 执行时间：2026-10-19
+
+-- 1. 添加删除时间字段
+ALTER TABLE test_case_set ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+ALTER TABLE software_package ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+-- 2. 唯一约束改为只约束未删除的记录，已删除但尚未清理的记录不阻止同名重新上传
+ALTER TABLE test_case_set DROP CONSTRAINT IF EXISTS uk_name_version;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_test_case_set_name_version_live
+    ON test_case_set (name, version) WHERE deleted_at IS NULL;
+
+ALTER TABLE software_package DROP CONSTRAINT IF EXISTS uk_software_package_software_name;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_software_package_software_name_live
+    ON software_package (software_name) WHERE deleted_at IS NULL;
+
+ALTER TABLE software_package DROP CONSTRAINT IF EXISTS uk_software_package_sha512;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_software_package_sha512_live
+    ON software_package (sha512) WHERE deleted_at IS NULL;
+
+-- 3. 创建待清理记录的部分索引，清理任务和已删除用例集的排除条件只扫描少量已删除记录
+CREATE INDEX IF NOT EXISTS idx_test_case_set_deleted ON test_case_set (id) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_software_package_deleted ON software_package (id) WHERE deleted_at IS NOT NULL;
+
+-- 4. 重建测试用例明细视图，隐藏已删除用例集中尚未清理的测试用例
+CREATE OR REPLACE VIEW test_case_detail AS
+SELECT
+    tc.id,
+    tc.test_case_set_id,
+    tc.case_number,
+    tc.case_name,
+    nt.value AS network_topology,
+    bc.value AS business_category,
+    an.value AS app_name,
+    tc.test_steps,
+    tc.expected_result,
+    tc.script_exists,
+    tc.script_sha256,
+    tc.network_topology_id,
+    tc.business_category_id,
+    tc.app_name_id,
+    tc.search_vector,
+    tc.created_time,
+    tc.updated_time,
+    tc.row_hash
+FROM test_case tc
+LEFT JOIN test_case_dictionary nt ON nt.id = tc.network_topology_id
+LEFT JOIN test_case_dictionary bc ON bc.id = tc.business_category_id
+LEFT JOIN test_case_dictionary an ON an.id = tc.app_name_id
+WHERE NOT EXISTS (
+    SELECT 1 FROM test_case_set s
+    WHERE s.id = tc.test_case_set_id
+    AND s.deleted_at IS NOT NULL
+);
+
+-- 5. 添加字段注释
+COMMENT ON COLUMN test_case_set.deleted_at IS '删除时间，非空表示已删除、等待后台清理';
+COMMENT ON COLUMN software_package.deleted_at IS '删除时间，非空表示已删除、等待后台清理';
+
+-- 6. 验证字段和索引创建结果
+SELECT
+    table_name,
+    column_name,
+    data_type,
+    is_nullable
+FROM information_schema.columns
+WHERE table_name IN ('test_case_set', 'software_package')
+AND column_name = 'deleted_at';
+
+SELECT
+    tablename,
+    indexname,
+    indexdef
+FROM pg_indexes
+WHERE indexname IN ('uk_test_case_set_name_version_live', 'uk_software_package_software_name_live',
+    'uk_software_package_sha512_live', 'idx_test_case_set_deleted', 'idx_software_package_deleted');
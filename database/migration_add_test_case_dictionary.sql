@@ -0,0 +1,154 @@
+-- 测试用例分类字段字典编码的数据库迁移脚本
+-- 逻辑组网、业务大类、用例App改为字典表ID存储，并按用例集预聚合各取值的用例数
+-- 执行时间：2026-10-19
+
+-- 1. 创建分类字典表
+CREATE TABLE IF NOT EXISTS test_case_dictionary (
+    id SERIAL PRIMARY KEY,
+    kind VARCHAR(32) NOT NULL,
+    value VARCHAR(500) NOT NULL,
+    CONSTRAINT uk_test_case_dictionary_kind_value UNIQUE (kind, value)
+);
+
+-- 2. 创建分类计数预聚合表，删除用例集时级联删除
+CREATE TABLE IF NOT EXISTS test_case_facet (
+    test_case_set_id BIGINT NOT NULL REFERENCES test_case_set(id) ON DELETE CASCADE,
+    dictionary_id INTEGER NOT NULL REFERENCES test_case_dictionary(id),
+    case_count INTEGER NOT NULL,
+    PRIMARY KEY (test_case_set_id, dictionary_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_test_case_facet_dictionary_id ON test_case_facet(dictionary_id);
+
+-- 3. 为测试用例添加字典ID字段
+ALTER TABLE test_case ADD COLUMN IF NOT EXISTS network_topology_id INTEGER REFERENCES test_case_dictionary(id);
+ALTER TABLE test_case ADD COLUMN IF NOT EXISTS business_category_id INTEGER REFERENCES test_case_dictionary(id);
+ALTER TABLE test_case ADD COLUMN IF NOT EXISTS app_name_id INTEGER REFERENCES test_case_dictionary(id);
+
+-- 4. 由现有数据建立字典并回填字典ID
+INSERT INTO test_case_dictionary (kind, value)
+SELECT DISTINCT 'NETWORK_TOPOLOGY', network_topology FROM test_case WHERE network_topology IS NOT NULL
+UNION
+SELECT DISTINCT 'BUSINESS_CATEGORY', business_category FROM test_case WHERE business_category IS NOT NULL
+UNION
+SELECT DISTINCT 'APP_NAME', app_name FROM test_case WHERE app_name IS NOT NULL
+ON CONFLICT (kind, value) DO NOTHING;
+
+UPDATE test_case tc
+SET network_topology_id = nt.id
+FROM test_case_dictionary nt
+WHERE nt.kind = 'NETWORK_TOPOLOGY' AND nt.value = tc.network_topology;
+
+UPDATE test_case tc
+SET business_category_id = bc.id
+FROM test_case_dictionary bc
+WHERE bc.kind = 'BUSINESS_CATEGORY' AND bc.value = tc.business_category;
+
+UPDATE test_case tc
+SET app_name_id = an.id
+FROM test_case_dictionary an
+WHERE an.kind = 'APP_NAME' AND an.value = tc.app_name;
+
+-- 5. 全文检索向量改由触发器维护，字典取值写入后不再变化
+ALTER TABLE test_case DROP COLUMN IF EXISTS search_vector;
+ALTER TABLE test_case ADD COLUMN search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION update_test_case_search_vector()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('simple', coalesce(NEW.case_number, '') || ' ' || coalesce(NEW.case_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce((
+            SELECT string_agg(value, ' ') FROM test_case_dictionary
+            WHERE id IN (NEW.app_name_id, NEW.network_topology_id, NEW.business_category_id)
+        ), '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(NEW.test_steps, '') || ' ' || coalesce(NEW.expected_result, '')), 'C');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS update_test_case_search_vector ON test_case;
+CREATE TRIGGER update_test_case_search_vector
+    BEFORE INSERT OR UPDATE ON test_case
+    FOR EACH ROW
+    EXECUTE FUNCTION update_test_case_search_vector();
+
+UPDATE test_case SET search_vector = NULL;
+
+CREATE INDEX IF NOT EXISTS idx_test_case_search_vector ON test_case USING GIN (search_vector);
+
+-- 6. 删除原文本字段（相关索引随字段删除），为字典ID字段建立索引
+ALTER TABLE test_case DROP COLUMN IF EXISTS network_topology;
+ALTER TABLE test_case DROP COLUMN IF EXISTS business_category;
+ALTER TABLE test_case DROP COLUMN IF EXISTS app_name;
+
+CREATE INDEX IF NOT EXISTS idx_test_case_network_topology_id ON test_case(network_topology_id);
+CREATE INDEX IF NOT EXISTS idx_test_case_business_category_id ON test_case(business_category_id);
+CREATE INDEX IF NOT EXISTS idx_test_case_app_name_id ON test_case(app_name_id);
+
+-- 7. 创建测试用例明细视图，查询时按字典ID还原分类取值
+CREATE OR REPLACE VIEW test_case_detail AS
+SELECT
+    tc.id,
+    tc.test_case_set_id,
+    tc.case_number,
+    tc.case_name,
+    nt.value AS network_topology,
+    bc.value AS business_category,
+    an.value AS app_name,
+    tc.test_steps,
+    tc.expected_result,
+    tc.script_exists,
+    tc.script_sha256,
+    tc.network_topology_id,
+    tc.business_category_id,
+    tc.app_name_id,
+    tc.search_vector,
+    tc.created_time,
+    tc.updated_time
+FROM test_case tc
+LEFT JOIN test_case_dictionary nt ON nt.id = tc.network_topology_id
+LEFT JOIN test_case_dictionary bc ON bc.id = tc.business_category_id
+LEFT JOIN test_case_dictionary an ON an.id = tc.app_name_id;
+
+-- 8. 根据现有数据初始化分类计数
+DELETE FROM test_case_facet;
+
+INSERT INTO test_case_facet (test_case_set_id, dictionary_id, case_count)
+SELECT test_case_set_id, dictionary_id, COUNT(*)
+FROM (
+    SELECT test_case_set_id, network_topology_id AS dictionary_id FROM test_case
+    UNION ALL
+    SELECT test_case_set_id, business_category_id FROM test_case
+    UNION ALL
+    SELECT test_case_set_id, app_name_id FROM test_case
+) v
+WHERE dictionary_id IS NOT NULL
+GROUP BY test_case_set_id, dictionary_id;
+
+-- 9. 添加表和字段注释
+COMMENT ON TABLE test_case_dictionary IS '测试用例分类字典表';
+COMMENT ON COLUMN test_case_dictionary.kind IS '分类：NETWORK_TOPOLOGY/BUSINESS_CATEGORY/APP_NAME';
+COMMENT ON COLUMN test_case_dictionary.value IS '分类取值';
+COMMENT ON TABLE test_case_facet IS '测试用例分类计数表，按用例集预聚合';
+COMMENT ON COLUMN test_case_facet.test_case_set_id IS '用例集ID';
+COMMENT ON COLUMN test_case_facet.dictionary_id IS '分类字典ID';
+COMMENT ON COLUMN test_case_facet.case_count IS '该用例集中取该值的用例数';
+COMMENT ON COLUMN test_case.network_topology_id IS '逻辑组网字典ID';
+COMMENT ON COLUMN test_case.business_category_id IS '业务大类字典ID';
+COMMENT ON COLUMN test_case.app_name_id IS '用例App字典ID';
+COMMENT ON COLUMN test_case.search_vector IS '全文检索向量，由触发器维护：用例编号和名称权重A，App、组网和业务大类权重B，测试步骤和预期结果权重C';
+
+-- 10. 回收空间并更新统计信息
+VACUUM FULL test_case;
+ANALYZE test_case;
+
+-- 11. 验证表创建结果
+SELECT
+    table_name,
+    column_name,
+    data_type,
+    is_nullable
+FROM information_schema.columns
+WHERE table_name IN ('test_case', 'test_case_dictionary', 'test_case_facet')
+ORDER BY table_name, ordinal_position;
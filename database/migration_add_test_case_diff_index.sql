@@ -0,0 +1,18 @@
+-- 用例集版本比较索引的数据库迁移脚本
+-- 版本比较按用例编号的码点顺序（COLLATE "C"）流式读取两个用例集，由索引直接提供顺序
+-- 执行时间：2026-10-19
+
+-- 1. 创建按用例集、用例编号码点顺序和ID排列的索引
+CREATE INDEX IF NOT EXISTS idx_test_case_set_case_number_c
+    ON test_case(test_case_set_id, case_number COLLATE "C", id);
+
+-- 2. 更新统计信息
+ANALYZE test_case;
+
+-- 3. 验证索引创建结果
+SELECT
+    indexname,
+    indexdef
+FROM pg_indexes
+WHERE tablename = 'test_case'
+AND indexname = 'idx_test_case_set_case_number_c';
@@ -0,0 +1,60 @@
+-- 测试用例行内容哈希的数据库迁移脚本
+-- 新版本用例集入库时按用例编号比较行哈希，未变化的用例直接从上一版本复制
+-- 执行时间：2026-10-19
+
+-- 1. 为测试用例添加行内容哈希字段
+ALTER TABLE test_case ADD COLUMN IF NOT EXISTS row_hash CHAR(64);
+
+-- 2. 回填已有用例的行哈希，计算方式须与TestCaseService.calculateRowHash一致：
+--    各字段以chr(31)连接，空值以chr(30)代替，脚本存在状态为true/false，取UTF-8编码的SHA256
+UPDATE test_case tc
+SET row_hash = encode(sha256(convert_to(
+        COALESCE(d.case_number, chr(30)) || chr(31) ||
+        COALESCE(d.case_name, chr(30)) || chr(31) ||
+        COALESCE(d.network_topology, chr(30)) || chr(31) ||
+        COALESCE(d.business_category, chr(30)) || chr(31) ||
+        COALESCE(d.app_name, chr(30)) || chr(31) ||
+        COALESCE(d.test_steps, chr(30)) || chr(31) ||
+        COALESCE(d.expected_result, chr(30)) || chr(31) ||
+        CASE WHEN d.script_exists THEN 'true' ELSE 'false' END || chr(31) ||
+        COALESCE(d.script_sha256, chr(30)), 'UTF8')), 'hex')
+FROM test_case_detail d
+WHERE d.id = tc.id;
+
+-- 3. 按用例集和用例编号建立索引，支持入库比较和按编号顺序遍历
+CREATE INDEX IF NOT EXISTS idx_test_case_set_case_number ON test_case(test_case_set_id, case_number);
+
+-- 4. 重建测试用例明细视图，增加行哈希字段
+CREATE OR REPLACE VIEW test_case_detail AS
+SELECT
+    tc.id,
+    tc.test_case_set_id,
+    tc.case_number,
+    tc.case_name,
+    nt.value AS network_topology,
+    bc.value AS business_category,
+    an.value AS app_name,
+    tc.test_steps,
+    tc.expected_result,
+    tc.script_exists,
+    tc.script_sha256,
+    tc.network_topology_id,
+    tc.business_category_id,
+    tc.app_name_id,
+    tc.search_vector,
+    tc.created_time,
+    tc.updated_time,
+    tc.row_hash
+FROM test_case tc
+LEFT JOIN test_case_dictionary nt ON nt.id = tc.network_topology_id
+LEFT JOIN test_case_dictionary bc ON bc.id = tc.business_category_id
+LEFT JOIN test_case_dictionary an ON an.id = tc.app_name_id;
+
+-- 5. 添加字段注释
+COMMENT ON COLUMN test_case.row_hash IS '用例内容的SHA256，用于版本间比较，不含用例集ID';
+
+-- 6. 验证字段创建结果
+SELECT
+    COUNT(*) AS total_cases,
+    COUNT(row_hash) AS hashed_cases
+FROM test_case;
@@ -0,0 +1,39 @@
+-- 测试用例全文搜索的数据库迁移脚本
+-- 为test_case添加由数据库维护的tsvector生成列和GIN索引，并为过滤字段建立索引
+-- 执行时间：2026-10-19
+
+-- 1. 添加全文检索向量生成列（PostgreSQL 12及以上），插入和更新用例时自动维护
+-- 使用simple配置，不做词干化，中英文用例编号、App名称等按原样分词
+ALTER TABLE test_case ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(case_number, '') || ' ' || coalesce(case_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(app_name, '') || ' ' || coalesce(network_topology, '') || ' ' ||
+            coalesce(business_category, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(test_steps, '') || ' ' || coalesce(expected_result, '')), 'C')
+    ) STORED;
+
+-- 2. 创建GIN索引
+CREATE INDEX IF NOT EXISTS idx_test_case_search_vector ON test_case USING GIN (search_vector);
+
+-- 3. 创建过滤字段索引
+CREATE INDEX IF NOT EXISTS idx_test_case_business_category ON test_case(business_category);
+CREATE INDEX IF NOT EXISTS idx_test_case_app_name ON test_case(app_name);
+CREATE INDEX IF NOT EXISTS idx_test_case_network_topology ON test_case(network_topology);
+
+-- 4. 添加字段注释
+COMMENT ON COLUMN test_case.search_vector IS '全文检索向量：用例编号和名称权重A，App、组网和业务大类权重B，测试步骤和预期结果权重C';
+
+-- 5. 更新统计信息
+ANALYZE test_case;
+
+-- 6. 验证字段和索引创建结果
+SELECT
+    column_name,
+    data_type,
+    is_generated
+FROM information_schema.columns
+WHERE table_name = 'test_case' AND column_name = 'search_vector';
+
+SELECT indexname, indexdef
+FROM pg_indexes
+WHERE tablename = 'test_case';
@@ -0,0 +1,47 @@
+-- 用例集统计数量字段的数据库迁移脚本
+-- 用例数、缺失脚本用例数、多余脚本数和脚本数在入库和补充脚本时写入用例集，列表查询直接返回，无需逐个用例集统计
+-- 执行时间：2026-10-19
+
+-- 1. 添加统计数量字段
+ALTER TABLE test_case_set ADD COLUMN IF NOT EXISTS case_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE test_case_set ADD COLUMN IF NOT EXISTS missing_script_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE test_case_set ADD COLUMN IF NOT EXISTS extra_script_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE test_case_set ADD COLUMN IF NOT EXISTS script_count INTEGER NOT NULL DEFAULT 0;
+
+-- 2. 按已有测试用例和脚本关联回填统计数量，脚本文件名去掉.py后与用例编号匹配
+UPDATE test_case_set s
+SET case_count = (
+        SELECT COUNT(*) FROM test_case tc WHERE tc.test_case_set_id = s.id
+    ),
+    missing_script_count = (
+        SELECT COUNT(*) FROM test_case tc WHERE tc.test_case_set_id = s.id AND tc.script_exists = false
+    ),
+    extra_script_count = (
+        SELECT COUNT(*) FROM test_case_set_script l
+        WHERE l.test_case_set_id = s.id
+        AND NOT EXISTS (
+            SELECT 1 FROM test_case tc
+            WHERE tc.test_case_set_id = s.id
+            AND tc.case_number = regexp_replace(l.file_name, '\.py$', '', 'i')
+        )
+    ),
+    script_count = (
+        SELECT COUNT(*) FROM test_case_set_script l WHERE l.test_case_set_id = s.id
+    );
+
+-- 3. 添加字段注释
+COMMENT ON COLUMN test_case_set.case_count IS '用例数';
+COMMENT ON COLUMN test_case_set.missing_script_count IS '没有脚本的用例数';
+COMMENT ON COLUMN test_case_set.extra_script_count IS '没有对应用例的脚本数';
+COMMENT ON COLUMN test_case_set.script_count IS '脚本数';
+
+-- 验证迁移结果
+SELECT
+    column_name,
+    data_type,
+    is_nullable,
+    column_default
+FROM information_schema.columns
+WHERE table_name = 'test_case_set'
+AND column_name IN ('case_count', 'missing_script_count', 'extra_script_count', 'script_count')
+ORDER BY ordinal_position;